@@ -0,0 +1,63 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi_demos.physics;
+
+import java.awt.Color;
+
+import de.pirckheimer_gymnasium.engine_pi.Game;
+import de.pirckheimer_gymnasium.engine_pi.Scene;
+import de.pirckheimer_gymnasium.engine_pi.actor.ParticleEmitter;
+import de.pirckheimer_gymnasium.engine_pi.actor.ParticleSystem;
+import de.pirckheimer_gymnasium.engine_pi.actor.Rectangle;
+
+/**
+ * Demonstriert das leichtgewichtige {@link ParticleSystem} mit einem Emitter,
+ * der dem Mauszeiger folgt. Die Partikel prallen an den statischen Rechtecken
+ * ab.
+ *
+ * @author Josef Friedrich
+ */
+public class ParticleSystemDemo extends Scene
+{
+    public ParticleSystemDemo()
+    {
+        Rectangle ground = new Rectangle(20, 0.5);
+        ground.setPosition(-10, -6);
+        ground.makeStatic();
+        Rectangle ramp = new Rectangle(6, 0.5);
+        ramp.setPosition(2, -2);
+        ramp.rotateBy(-20);
+        ramp.makeStatic();
+        add(ground, ramp);
+        ParticleSystem particles = new ParticleSystem(100000);
+        particles.setGravity(0, -9.81).setDrag(0.2).setParticleSize(0.08)
+                .setCollideWithStatic(true, 0.4);
+        ParticleEmitter emitter = particles.addEmitter(new ParticleEmitter()
+                .setRate(5000).setSpeed(2, 6).setLifetime(2, 4)
+                .setColor(Color.ORANGE));
+        particles.addFrameUpdateListener(
+                pastTime -> emitter.setPosition(getMousePosition()));
+        add(particles);
+    }
+
+    public static void main(String[] args)
+    {
+        Game.start(new ParticleSystemDemo());
+    }
+}
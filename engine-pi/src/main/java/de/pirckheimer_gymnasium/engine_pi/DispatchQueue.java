@@ -0,0 +1,590 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+
+/**
+ * Eine <b>Warteschlange für Aufgaben</b>, die andere Threads auf dem
+ * Spielthread ausführen lassen.
+ *
+ * <p>
+ * Die Spielschleife arbeitet die Aufgaben einmal pro Einzelbild nach ihrer
+ * {@link Priority Priorität} ab. Aufgaben der Priorität {@link Priority#INPUT}
+ * werden immer vollständig ausgeführt. Für alle anderen Aufgaben steht pro
+ * Einzelbild nur ein {@link #setFrameBudget(double) Zeitbudget} zur Verfügung.
+ * Was danach übrig bleibt, wird im nächsten Einzelbild fortgesetzt, sodass z.
+ * B. tausende Aufgaben nach dem Laden eines Levels im Hintergrund kein
+ * einzelnes Einzelbild blockieren. Mindestens eine Aufgabe wird pro Einzelbild
+ * ausgeführt.
+ * </p>
+ *
+ * <p>
+ * {@link #enqueueReplacing(Priority, Object, Runnable)} und
+ * {@link #offerReplacing(Priority, Object, Runnable)} <b>ersetzen</b> eine
+ * wartende Aufgabe mit demselben Schlüssel. Die ersetzte Aufgabe wird nie
+ * ausgeführt. Das eignet sich nur für Aufgaben, bei denen allein die neueste
+ * zählt, z. B. wenn ein Hintergrundthread mehrmals den aktuellen Stand einer
+ * Anzeige meldet. Aufgaben, die alle ausgeführt werden müssen, werden ohne
+ * Schlüssel eingereiht.
+ * </p>
+ *
+ * <p>
+ * Optional lässt sich die Anzahl der wartenden Aufgaben mit
+ * {@link #setCapacity(int)} begrenzen. Ist die Warteschlange voll, liefert
+ * {@link #offer(Priority, Runnable)} <code>false</code> und
+ * {@link #enqueue(Priority, Runnable)} wartet, bis wieder Platz ist. Wird der
+ * wartende Thread dabei unterbrochen, wirft sie eine
+ * {@link InterruptedException} und die Aufgabe wird nicht eingereiht. Aufgaben
+ * der Priorität {@link Priority#INPUT} und Aufgaben, die der Spielthread selbst
+ * einreiht, werden nie blockiert.
+ * </p>
+ *
+ * @author Josef Friedrich
+ *
+ * @see Game#enqueue(Runnable)
+ */
+public final class DispatchQueue
+{
+    /**
+     * Die Prioritätsklassen der Aufgaben in der Reihenfolge ihrer Ausführung.
+     */
+    @API
+    public enum Priority
+    {
+        /**
+         * Aufgaben, die auf Eingaben reagieren oder die die Engine sofort
+         * ausführen muss, z. B. ein Szenenwechsel. Sie werden vor allen anderen
+         * Aufgaben und ohne Zeitbudget ausgeführt.
+         */
+        INPUT,
+
+        /**
+         * Gewöhnliche Aufgaben.
+         */
+        NORMAL,
+
+        /**
+         * Aufgaben ohne Eile, z. B. nach dem Laden eines Levels im Hintergrund.
+         * Sie kommen erst zum Zug, wenn keine gewöhnlichen Aufgaben mehr
+         * warten.
+         */
+        BACKGROUND
+    }
+
+    private static final int NANOSECONDS_PER_SECOND = 1000000000;
+
+    private final Map<Priority, Queue<Task>> queues = new EnumMap<>(
+            Priority.class);
+
+    /**
+     * Die wartenden Aufgaben mit Schlüssel.
+     */
+    private final ConcurrentHashMap<Object, Task> keyedTasks = new ConcurrentHashMap<>();
+
+    private final AtomicInteger depth = new AtomicInteger();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Die Plätze einer begrenzten Warteschlange oder <code>null</code>, wenn
+     * die Warteschlange unbegrenzt ist.
+     */
+    private volatile Semaphore permits;
+
+    private int capacity;
+
+    private volatile long frameBudget = 4000000;
+
+    private volatile Thread gameThread;
+
+    /*
+     * Die Kennzahlen werden vom Spielthread geschrieben und können von jedem
+     * Thread gelesen werden.
+     */
+
+    private volatile int executedInLastFrame;
+
+    private volatile double averageWaitTime;
+
+    private volatile double maxWaitTime;
+
+    public DispatchQueue()
+    {
+        for (Priority priority : Priority.values())
+        {
+            queues.put(priority, new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    /**
+     * Setzt das Zeitbudget, das die Aufgaben der Prioritäten
+     * {@link Priority#NORMAL} und {@link Priority#BACKGROUND} pro Einzelbild
+     * höchstens verbrauchen dürfen.
+     *
+     * @param frameBudget Das Zeitbudget in Sekunden. Muss größer als 0 sein.
+     *
+     * @return Eine Instanz dieses Objekts, damit das Objekt über verkettete
+     *     Setter konfiguriert werden kann.
+     */
+    @API
+    public DispatchQueue setFrameBudget(double frameBudget)
+    {
+        if (frameBudget <= 0)
+        {
+            throw new IllegalArgumentException(
+                    "Das Zeitbudget muss größer als 0 sein, war "
+                            + frameBudget);
+        }
+        this.frameBudget = (long) (frameBudget * NANOSECONDS_PER_SECOND);
+        return this;
+    }
+
+    @API
+    public double getFrameBudget()
+    {
+        return (double) frameBudget / NANOSECONDS_PER_SECOND;
+    }
+
+    /**
+     * Begrenzt die Anzahl der wartenden Aufgaben.
+     *
+     * @param capacity Die maximale Anzahl der wartenden Aufgaben oder 0 für
+     *     eine unbegrenzte Warteschlange.
+     *
+     * @return Eine Instanz dieses Objekts, damit das Objekt über verkettete
+     *     Setter konfiguriert werden kann.
+     */
+    @API
+    public synchronized DispatchQueue setCapacity(int capacity)
+    {
+        if (capacity < 0)
+        {
+            throw new IllegalArgumentException(
+                    "Die Kapazität darf nicht negativ sein, war " + capacity);
+        }
+        Semaphore previous = permits;
+        if (capacity == 0)
+        {
+            permits = null;
+        }
+        else
+        {
+            // Bereits wartende Aufgaben belegen ihre Plätze auch in der neuen
+            // Begrenzung.
+            permits = new Semaphore(capacity - depth.get(), true);
+        }
+        this.capacity = capacity;
+        if (previous != null)
+        {
+            // Wartende Produzenten wecken, damit sie die neue Begrenzung
+            // verwenden.
+            previous.release(Integer.MAX_VALUE / 2);
+        }
+        return this;
+    }
+
+    @API
+    public synchronized int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * Reiht eine Aufgabe mit der Priorität {@link Priority#NORMAL} ein und
+     * wartet, falls die begrenzte Warteschlange voll ist.
+     *
+     * @param runnable Die Aufgabe.
+     *
+     * @throws InterruptedException Falls der Thread unterbrochen wird, während
+     *     er auf einen freien Platz wartet. Die Aufgabe wird dann nicht
+     *     eingereiht.
+     */
+    @API
+    public void enqueue(Runnable runnable) throws InterruptedException
+    {
+        enqueue(Priority.NORMAL, runnable);
+    }
+
+    /**
+     * Reiht eine Aufgabe ein und wartet, falls die begrenzte Warteschlange voll
+     * ist.
+     *
+     * @param priority Die Priorität der Aufgabe.
+     * @param runnable Die Aufgabe.
+     *
+     * @throws InterruptedException Falls der Thread unterbrochen wird, während
+     *     er auf einen freien Platz wartet. Die Aufgabe wird dann nicht
+     *     eingereiht.
+     */
+    @API
+    public void enqueue(Priority priority, Runnable runnable)
+            throws InterruptedException
+    {
+        add(priority, null, runnable);
+    }
+
+    /**
+     * Reiht eine Aufgabe ein, die eine <b>wartende Aufgabe mit demselben
+     * Schlüssel ersetzt</b>, und wartet, falls die begrenzte Warteschlange voll
+     * ist. Die ersetzte Aufgabe wird nicht ausgeführt. Die neue Aufgabe behält
+     * den Platz der ersetzten in der Warteschlange.
+     *
+     * @param priority Die Priorität der Aufgabe.
+     * @param key Der Schlüssel, unter dem höchstens eine Aufgabe wartet.
+     * @param runnable Die Aufgabe.
+     *
+     * @throws InterruptedException Falls der Thread unterbrochen wird, während
+     *     er auf einen freien Platz wartet. Die Aufgabe wird dann nicht
+     *     eingereiht.
+     */
+    @API
+    public void enqueueReplacing(Priority priority, Object key,
+            Runnable runnable) throws InterruptedException
+    {
+        add(priority, Objects.requireNonNull(key), runnable);
+    }
+
+    /**
+     * Reiht eine Aufgabe ein, ohne auf einen freien Platz zu warten. Die
+     * Spielschleife verwendet das für Aufgaben, die nie verloren gehen dürfen.
+     *
+     * @param priority Die Priorität der Aufgabe.
+     * @param runnable Die Aufgabe.
+     */
+    @Internal
+    void enqueueIgnoringCapacity(Priority priority, Runnable runnable)
+    {
+        addTask(priority, null, runnable, null);
+    }
+
+    /**
+     * Reiht eine Aufgabe ein, ohne zu warten.
+     *
+     * @param priority Die Priorität der Aufgabe.
+     * @param runnable Die Aufgabe.
+     *
+     * @return <code>false</code>, wenn die begrenzte Warteschlange voll ist und
+     *     die Aufgabe verworfen wurde, sonst <code>true</code>.
+     */
+    @API
+    public boolean offer(Priority priority, Runnable runnable)
+    {
+        return offer(priority, null, runnable);
+    }
+
+    /**
+     * Reiht eine Aufgabe ein, die eine <b>wartende Aufgabe mit demselben
+     * Schlüssel ersetzt</b>, ohne zu warten. Die ersetzte Aufgabe wird nicht
+     * ausgeführt.
+     *
+     * @param priority Die Priorität der Aufgabe.
+     * @param key Der Schlüssel, unter dem höchstens eine Aufgabe wartet.
+     * @param runnable Die Aufgabe.
+     *
+     * @return <code>false</code>, wenn die begrenzte Warteschlange voll ist und
+     *     die Aufgabe verworfen wurde, sonst <code>true</code>.
+     */
+    @API
+    public boolean offerReplacing(Priority priority, Object key,
+            Runnable runnable)
+    {
+        return offer(priority, Objects.requireNonNull(key), runnable);
+    }
+
+    private boolean offer(Priority priority, Object key, Runnable runnable)
+    {
+        if (replacePending(key, runnable))
+        {
+            return true;
+        }
+        Semaphore semaphore = null;
+        if (!isExempt(priority))
+        {
+            semaphore = permits;
+            if (semaphore != null && !semaphore.tryAcquire())
+            {
+                rejected.incrementAndGet();
+                return false;
+            }
+        }
+        addTask(priority, key, runnable, semaphore);
+        return true;
+    }
+
+    private void add(Priority priority, Object key, Runnable runnable)
+            throws InterruptedException
+    {
+        if (replacePending(key, runnable))
+        {
+            return;
+        }
+        Semaphore semaphore = isExempt(priority) ? null : acquire();
+        addTask(priority, key, runnable, semaphore);
+    }
+
+    /**
+     * Ersetzt eine wartende Aufgabe mit demselben Schlüssel. Sie belegt keinen
+     * weiteren Platz.
+     *
+     * @return <code>true</code>, falls eine Aufgabe ersetzt wurde.
+     */
+    private boolean replacePending(Object key, Runnable runnable)
+    {
+        if (key == null)
+        {
+            return false;
+        }
+        return keyedTasks.computeIfPresent(key, (k, task) -> {
+            task.runnable = runnable;
+            return task;
+        }) != null;
+    }
+
+    /**
+     * Gibt zurück, ob eine Aufgabe unabhängig von der Begrenzung eingereiht
+     * wird.
+     */
+    private boolean isExempt(Priority priority)
+    {
+        return priority == Priority.INPUT
+                || Thread.currentThread() == gameThread;
+    }
+
+    private void addTask(Priority priority, Object key, Runnable runnable,
+            Semaphore semaphore)
+    {
+        Task task = new Task(runnable, key, semaphore);
+        if (key != null)
+        {
+            Task winner = keyedTasks.compute(key, (k, existing) -> {
+                if (existing == null)
+                {
+                    return task;
+                }
+                // Ein anderer Thread hat inzwischen eine Aufgabe mit demselben
+                // Schlüssel eingereiht.
+                existing.runnable = runnable;
+                return existing;
+            });
+            if (winner != task)
+            {
+                task.release();
+                return;
+            }
+        }
+        depth.incrementAndGet();
+        queues.get(priority).add(task);
+    }
+
+    /**
+     * Belegt einen Platz in einer begrenzten Warteschlange und wartet, bis
+     * einer frei ist.
+     *
+     * @return Die Semaphore, deren Platz belegt wurde, oder <code>null</code>,
+     *     wenn die Warteschlange unbegrenzt ist.
+     */
+    private Semaphore acquire() throws InterruptedException
+    {
+        while (true)
+        {
+            Semaphore semaphore = permits;
+            if (semaphore == null)
+            {
+                return null;
+            }
+            semaphore.acquire();
+            if (semaphore == permits)
+            {
+                return semaphore;
+            }
+            // Die Begrenzung wurde inzwischen geändert.
+        }
+    }
+
+    /**
+     * Führt die wartenden Aufgaben aus. Wird von der Spielschleife einmal pro
+     * Einzelbild aufgerufen.
+     */
+    @Internal
+    void run()
+    {
+        run(true);
+    }
+
+    /**
+     * Führt die wartenden Aufgaben aus.
+     *
+     * @param budgeted Ob das Zeitbudget eingehalten wird. Ohne Zeitbudget
+     *     werden alle wartenden Aufgaben ausgeführt, sodass die Zuordnung der
+     *     Aufgaben zu den Einzelbildern nicht von der Rechenzeit abhängt, z. B.
+     *     beim Abspielen einer Aufzeichnung.
+     */
+    @Internal
+    void run(boolean budgeted)
+    {
+        gameThread = Thread.currentThread();
+        long start = System.nanoTime();
+        long deadline = start + frameBudget;
+        int executed = 0;
+        int budgetedTasks = 0;
+        long totalWait = 0;
+        long maxWait = 0;
+        for (Priority priority : Priority.values())
+        {
+            Queue<Task> queue = queues.get(priority);
+            Task task = queue.peek();
+            while (task != null)
+            {
+                long now = System.nanoTime();
+                if (budgeted && priority != Priority.INPUT)
+                {
+                    if (budgetedTasks > 0 && now >= deadline)
+                    {
+                        break;
+                    }
+                    budgetedTasks++;
+                }
+                queue.poll();
+                depth.decrementAndGet();
+                task.release();
+                if (task.key != null)
+                {
+                    keyedTasks.remove(task.key, task);
+                }
+                long wait = now - task.enqueueTime;
+                totalWait += wait;
+                maxWait = Math.max(maxWait, wait);
+                executed++;
+                task.runnable.run();
+                task = queue.peek();
+            }
+        }
+        executedInLastFrame = executed;
+        averageWaitTime = executed == 0 ? 0
+                : (double) totalWait / executed / NANOSECONDS_PER_SECOND;
+        maxWaitTime = (double) maxWait / NANOSECONDS_PER_SECOND;
+    }
+
+    /**
+     * Gibt die Anzahl der wartenden Aufgaben zurück.
+     *
+     * @return Die Anzahl der wartenden Aufgaben.
+     */
+    @API
+    public int getDepth()
+    {
+        return depth.get();
+    }
+
+    /**
+     * Gibt die Anzahl der Aufgaben zurück, die im letzten Einzelbild ausgeführt
+     * wurden.
+     *
+     * @return Die Anzahl der ausgeführten Aufgaben.
+     */
+    @API
+    public int getExecutedCount()
+    {
+        return executedInLastFrame;
+    }
+
+    /**
+     * Gibt zurück, wie lange die im letzten Einzelbild ausgeführten Aufgaben
+     * durchschnittlich gewartet haben.
+     *
+     * @return Die durchschnittliche Wartezeit in Sekunden.
+     */
+    @API
+    public double getAverageWaitTime()
+    {
+        return averageWaitTime;
+    }
+
+    /**
+     * Gibt zurück, wie lange die am längsten wartende der im letzten Einzelbild
+     * ausgeführten Aufgaben gewartet hat.
+     *
+     * @return Die längste Wartezeit in Sekunden.
+     */
+    @API
+    public double getMaxWaitTime()
+    {
+        return maxWaitTime;
+    }
+
+    /**
+     * Gibt die Anzahl der Aufgaben zurück, die
+     * {@link #offer(Priority, Runnable)} verworfen hat, weil die begrenzte
+     * Warteschlange voll war.
+     *
+     * @return Die Anzahl der verworfenen Aufgaben.
+     */
+    @API
+    public long getRejectedCount()
+    {
+        return rejected.get();
+    }
+
+    private static final class Task
+    {
+        /**
+         * Die Aufgabe. Kann durch eine neuere Aufgabe mit demselben Schlüssel
+         * ersetzt werden, solange sie wartet.
+         */
+        private volatile Runnable runnable;
+
+        private final Object key;
+
+        private final long enqueueTime = System.nanoTime();
+
+        /**
+         * Die Semaphore, deren Platz die Aufgabe belegt, oder
+         * <code>null</code>.
+         */
+        private Semaphore semaphore;
+
+        private Task(Runnable runnable, Object key, Semaphore semaphore)
+        {
+            this.runnable = runnable;
+            this.key = key;
+            this.semaphore = semaphore;
+        }
+
+        private void release()
+        {
+            if (semaphore != null)
+            {
+                semaphore.release();
+                semaphore = null;
+            }
+        }
+    }
+}
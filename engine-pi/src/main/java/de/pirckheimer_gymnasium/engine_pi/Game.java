@@ -23,6 +23,7 @@ package de.pirckheimer_gymnasium.engine_pi;
 import java.awt.Dimension;
 import java.awt.Frame;
 import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
 import java.awt.Toolkit;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
@@ -45,7 +46,11 @@ import de.pirckheimer_gymnasium.engine_pi.debug.MainAnimation;
 import de.pirckheimer_gymnasium.engine_pi.event.DefaultControl;
 import de.pirckheimer_gymnasium.engine_pi.event.DefaultListener;
 import de.pirckheimer_gymnasium.engine_pi.event.EventListeners;
+import de.pirckheimer_gymnasium.engine_pi.event.FramePhase;
 import de.pirckheimer_gymnasium.engine_pi.event.FrameUpdateListener;
+import de.pirckheimer_gymnasium.engine_pi.event.InputQueue;
+import de.pirckheimer_gymnasium.engine_pi.event.InputState;
+import de.pirckheimer_gymnasium.engine_pi.event.KeyCodeListeners;
 import de.pirckheimer_gymnasium.engine_pi.event.KeyStrokeListener;
 import de.pirckheimer_gymnasium.engine_pi.event.KeyStrokeListenerRegistration;
 import de.pirckheimer_gymnasium.engine_pi.event.MouseButton;
@@ -99,9 +104,12 @@ public final class Game
     private static int pixelMultiplication = 1;
 
     /**
-     * Eigentliches Fenster des Spiels.
+     * Eigentliches Fenster des Spiels oder <code>null</code>, wenn kein
+     * Bildschirm zur Verfügung steht, z. B. beim Abspielen einer Aufzeichnung
+     * mit dem {@link InputReplayer}.
      */
-    private static final Frame frame = new Frame("Engine Pi");
+    private static final Frame frame = GraphicsEnvironment.isHeadless() ? null
+            : new Frame("Engine Pi");
 
     private static RenderPanel renderPanel;
 
@@ -123,12 +131,30 @@ public final class Game
     private static DefaultListener defaultControl = new DefaultControl();
 
     /**
-     * Letzte Mausposition.
+     * Die Eingabeereignisse, die der AWT-Thread für das nächste Einzelbild
+     * einreiht.
      */
-    private static java.awt.Point mousePosition;
+    private static final InputQueue inputQueue = new InputQueue();
+
+    /**
+     * Der Zustand der Eingabegeräte im aktuellen Einzelbild.
+     */
+    private static final InputState inputState = new InputState();
+
+    /**
+     * Die Aufgaben anderer Threads, die auf dem Spielthread ausgeführt werden.
+     */
+    private static final DispatchQueue dispatchQueue = new DispatchQueue();
+
+    /**
+     * Zeichnet die Eingabeereignisse auf, falls gerade eine Aufzeichnung läuft.
+     */
+    private static volatile InputRecorder inputRecorder;
 
     private static final EventListeners<KeyStrokeListener> keyStrokeListeners = new EventListeners<>();
 
+    private static final KeyCodeListeners keyCodeListeners = new KeyCodeListeners();
+
     private static final EventListeners<MouseClickListener> mouseClickListeners = new EventListeners<>();
 
     private static final EventListeners<MouseScrollListener> mouseScrollListeners = new EventListeners<>();
@@ -143,7 +169,10 @@ public final class Game
     @API
     public static void setTitle(String title)
     {
-        frame.setTitle(title);
+        if (frame != null)
+        {
+            frame.setTitle(title);
+        }
     }
 
     /**
@@ -217,6 +246,11 @@ public final class Game
             throw new IllegalStateException(
                     "Game.start wurde bereits ausgeführt und kann nur einmal ausgeführt werden");
         }
+        if (frame == null)
+        {
+            throw new IllegalStateException(
+                    "Game.start benötigt einen Bildschirm, der in dieser Umgebung nicht zur Verfügung steht.");
+        }
         setPixelMultiplication(pixelMultiplication);
         width *= pixelMultiplication;
         height *= pixelMultiplication;
@@ -267,7 +301,7 @@ public final class Game
             // Logger.warning("IO", "Standard-Icon konnte nicht geladen
             // werden.");
         }
-        mousePosition = new java.awt.Point(width / 2, height / 2);
+        inputState.setMousePosition(width / 2, height / 2);
         Thread mainThread = new Thread(Game::run,
                 "de.pirckheimer_gymnasium.engine_pi.main");
         mainThread.start();
@@ -360,9 +394,61 @@ public final class Game
         });
     }
 
+    /**
+     * Lässt eine Aufgabe auf dem Spielthread ausführen, z. B. um von einem
+     * anderen Thread aus Figuren zur Szene hinzuzufügen.
+     *
+     * <p>
+     * Die Aufgaben werden nach Priorität und innerhalb eines Zeitbudgets pro
+     * Einzelbild ausgeführt. Eine Aufgabe läuft deshalb nicht unbedingt im
+     * nächsten Einzelbild: Ist das Zeitbudget ausgeschöpft, wird sie erst in
+     * einem der folgenden Einzelbilder ausgeführt. Die Warteschlange lässt sich
+     * über {@link #getDispatchQueue()} einstellen.
+     * </p>
+     *
+     * <p>
+     * Ist die Warteschlange begrenzt und voll, wartet ein anderer Thread, bis
+     * wieder Platz ist. Wird er dabei unterbrochen, wird die Aufgabe trotzdem
+     * eingereiht und der Unterbrechungsstatus des Threads wiederhergestellt,
+     * damit er die Unterbrechung selbst behandeln kann. Wer stattdessen eine
+     * {@link InterruptedException} erhalten möchte, verwendet
+     * {@link DispatchQueue#enqueue(Runnable)}.
+     * </p>
+     *
+     * @param runnable Die Aufgabe.
+     */
+    @API
+    public static void enqueue(Runnable runnable)
+    {
+        try
+        {
+            dispatchQueue.enqueue(runnable);
+        }
+        catch (InterruptedException e)
+        {
+            dispatchQueue.enqueueIgnoringCapacity(DispatchQueue.Priority.NORMAL,
+                    runnable);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gibt die Warteschlange zurück, deren Aufgaben die Spielschleife auf dem
+     * Spielthread ausführt, z. B. um das Zeitbudget, die Kapazität oder die
+     * Kennzahlen abzufragen.
+     *
+     * @return Die Warteschlange für Aufgaben.
+     */
+    @API
+    public static DispatchQueue getDispatchQueue()
+    {
+        return dispatchQueue;
+    }
+
     private static void run()
     {
-        loop = new GameLoop(renderPanel, Game::getActiveScene, Game::isDebug);
+        loop = new GameLoop(renderPanel, Game::getActiveScene, Game::isDebug,
+                Game::handleInput, dispatchQueue);
         sceneLaunchListeners.invoke((listener) -> listener
                 .onSceneLaunch(Game.getActiveScene(), null));
         loop.run();
@@ -426,15 +512,104 @@ public final class Game
      */
     private static void enqueueMouseScrollEvent(MouseWheelEvent event)
     {
-        MouseScrollEvent mouseScrollEvent = new MouseScrollEvent(
-                event.getPreciseWheelRotation());
-        loop.enqueue(() -> {
-            mouseScrollListeners.invoke(
-                    (listener) -> listener.onMouseScrollMove(mouseScrollEvent));
-            scene.invokeMouseScrollListeners(mouseScrollEvent);
+        inputQueue.offer(InputQueue.MOUSE_SCROLL, 0,
+                event.getPreciseWheelRotation(), 0, null);
+    }
+
+    /**
+     * Entnimmt einmal pro Einzelbild alle Eingabeereignisse aus der
+     * {@link InputQueue} und zeichnet sie gegebenenfalls auf.
+     *
+     * @param pastTime Die vergangene Zeit des Einzelbilds in Sekunden.
+     */
+    private static void handleInput(double pastTime)
+    {
+        InputRecorder recorder = inputRecorder;
+        if (recorder == null)
+        {
+            inputQueue.drain(inputState, Game::dispatchInput);
+            return;
+        }
+        recorder.beginFrame(pastTime);
+        inputQueue.drain(inputState, (type, code, x, y, source) -> {
+            recorder.record(type, code, x, y, source);
+            dispatchInput(type, code, x, y, source);
         });
     }
 
+    private static void dispatchInput(int type, int code, double x, double y,
+            Object source)
+    {
+        dispatchInput(scene, type, code, x, y, source);
+    }
+
+    /**
+     * Ruft die Beobachter für ein Eingabeereignis auf, das die Spielschleife
+     * aus der {@link InputQueue} entnommen hat.
+     *
+     * @param scene Die Szene, deren Beobachter aufgerufen werden.
+     */
+    @Internal
+    static void dispatchInput(Scene scene, int type, int code, double x,
+            double y, Object source)
+    {
+        switch (type)
+        {
+        case InputQueue.KEY_DOWN:
+        {
+            KeyEvent event = (KeyEvent) source;
+            keyStrokeListeners.invoke(listener -> listener.onKeyDown(event));
+            keyCodeListeners.invokeKeyDown(event);
+            scene.invokeKeyDownListeners(event);
+            break;
+        }
+
+        case InputQueue.KEY_UP:
+        {
+            KeyEvent event = (KeyEvent) source;
+            keyStrokeListeners.invoke(listener -> listener.onKeyUp(event));
+            keyCodeListeners.invokeKeyUp(event);
+            scene.invokeKeyUpListeners(event);
+            break;
+        }
+
+        case InputQueue.MOUSE_DOWN:
+        {
+            Vector position = convertMousePosition(scene,
+                    new java.awt.Point((int) x, (int) y));
+            MouseButton button = MouseButton.values()[code];
+            mouseClickListeners
+                    .invoke(listener -> listener.onMouseDown(position, button));
+            scene.invokeMouseDownListeners(position, button);
+            break;
+        }
+
+        case InputQueue.MOUSE_UP:
+        {
+            Vector position = convertMousePosition(scene,
+                    new java.awt.Point((int) x, (int) y));
+            MouseButton button = MouseButton.values()[code];
+            mouseClickListeners
+                    .invoke(listener -> listener.onMouseUp(position, button));
+            scene.invokeMouseUpListeners(position, button);
+            break;
+        }
+
+        case InputQueue.MOUSE_SCROLL:
+        {
+            MouseScrollEvent event = new MouseScrollEvent(x);
+            mouseScrollListeners
+                    .invoke(listener -> listener.onMouseScrollMove(event));
+            scene.invokeMouseScrollListeners(event);
+            break;
+        }
+
+        default:
+            // Mausbewegungen verändern nur den Zustand.
+            break;
+        }
+    }
+
     /**
      * Registriert einen statischen, d. h. globalen Beobachter, der auf
      * Bildaktualisierungen reagiert.
@@ -480,6 +655,23 @@ public final class Game
         loop.getFrameUpdateListener().remove(listener);
     }
 
+    /**
+     * Gibt zurück, wie lange eine Phase der Bildaktualisierung im letzten
+     * Einzelbild gedauert hat.
+     *
+     * @param phase Die Phase des Einzelbilds.
+     *
+     * @return Die Dauer der Phase in Sekunden oder 0, wenn das Spiel noch nicht
+     *     gestartet wurde.
+     *
+     * @see Scene#addFrameUpdateListener(FramePhase, FrameUpdateListener)
+     */
+    @API
+    public static double getPhaseTime(FramePhase phase)
+    {
+        return loop == null ? 0 : loop.getPhaseTime(phase);
+    }
+
     /**
      * Fügt einen statisch {@link KeyStrokeListener} hinzu, d. h. dieser
      * KeyStrokeListener gilt global über das ganze Spiel und ist unabhängig von
@@ -559,6 +751,35 @@ public final class Game
         keyStrokeListeners.remove(listener);
     }
 
+    /**
+     * Fügt einen statischen {@link KeyStrokeListener} hinzu, der nur bei
+     * <b>einer bestimmten Taste</b> aufgerufen wird.
+     *
+     * @param keyCode Die Tastennummer, zum Beispiel {@code KeyEvent.VK_SPACE}.
+     * @param listener Ein Objekt der Klasse {@link KeyStrokeListener}.
+     *
+     * @see KeyStrokeListenerRegistration#addKeyStrokeListener(int,
+     *     KeyStrokeListener)
+     */
+    public static void addKeyStrokeListener(int keyCode,
+            KeyStrokeListener listener)
+    {
+        keyCodeListeners.add(keyCode, listener);
+    }
+
+    /**
+     * Entfernt einen statischen {@link KeyStrokeListener}, der für eine
+     * bestimmte Taste angemeldet wurde.
+     *
+     * @param keyCode Die Tastennummer, für die der Beobachter angemeldet wurde.
+     * @param listener Ein Objekt der Klasse {@link KeyStrokeListener}.
+     */
+    public static void removeKeyStrokeListener(int keyCode,
+            KeyStrokeListener listener)
+    {
+        keyCodeListeners.remove(keyCode, listener);
+    }
+
     public static void addMouseClickListener(MouseClickListener listener)
     {
         mouseClickListeners.add(listener);
@@ -621,6 +842,91 @@ public final class Game
         return pressedKeys.contains(keyCode);
     }
 
+    /**
+     * Setzt den Zustand einer Taste, ohne dass ein Ereignis der Tastatur
+     * eingetroffen ist, z. B. beim Abspielen einer Aufzeichnung.
+     */
+    @Internal
+    static void setKeyPressed(int keyCode, boolean pressed)
+    {
+        if (pressed)
+        {
+            pressedKeys.add(keyCode);
+        }
+        else
+        {
+            pressedKeys.remove(keyCode);
+        }
+    }
+
+    /**
+     * Setzt die Fenstergröße, die zur Umrechnung der Mauskoordinaten verwendet
+     * wird, ohne ein Fenster zu öffnen, z. B. beim Abspielen einer
+     * Aufzeichnung.
+     */
+    @Internal
+    static void setHeadlessSize(int width, int height)
+    {
+        if (renderPanel != null)
+        {
+            throw new IllegalStateException(
+                    "Die Fenstergröße kann nicht ohne Fenster gesetzt werden, während das Spiel läuft.");
+        }
+        Game.width = width;
+        Game.height = height;
+    }
+
+    /**
+     * Setzt die Spielschleife und die aktuelle Szene, ohne ein Fenster zu
+     * öffnen, z. B. damit Szenenwechsel beim Abspielen einer Aufzeichnung über
+     * die Spielschleife des Abspielers laufen.
+     *
+     * @param loop Die Spielschleife oder <code>null</code>, wenn keine
+     *     Spielschleife läuft.
+     * @param scene Die aktuelle Szene.
+     */
+    @Internal
+    static void setHeadlessLoop(GameLoop loop, Scene scene)
+    {
+        if (renderPanel != null)
+        {
+            throw new IllegalStateException(
+                    "Die Spielschleife kann nicht ohne Fenster gesetzt werden, während das Spiel läuft.");
+        }
+        Game.loop = loop;
+        Game.scene = scene;
+    }
+
+    /**
+     * Meldet eine Aufzeichnung der Eingabeereignisse an.
+     *
+     * @param recorder Die Aufzeichnung, die ab dem nächsten Einzelbild alle
+     *     Eingabeereignisse erhält.
+     */
+    @Internal
+    static synchronized void setInputRecorder(InputRecorder recorder)
+    {
+        if (inputRecorder != null)
+        {
+            throw new IllegalStateException(
+                    "Es läuft bereits eine Aufzeichnung der Eingabeereignisse.");
+        }
+        inputRecorder = recorder;
+    }
+
+    /**
+     * Meldet eine Aufzeichnung der Eingabeereignisse ab, falls sie gerade
+     * angemeldet ist.
+     */
+    @Internal
+    static synchronized void removeInputRecorder(InputRecorder recorder)
+    {
+        if (inputRecorder == recorder)
+        {
+            inputRecorder = null;
+        }
+    }
+
     /**
      * Gibt an, ob die Engine gerade läuft. Die Engine läuft, sobald es ein
      * sichtbares Fenster gibt. Dieses läuft, sobald {@link #start(Scene)}
@@ -634,7 +940,7 @@ public final class Game
     @API
     public static boolean isRunning()
     {
-        return frame.isVisible();
+        return frame != null && frame.isVisible();
     }
 
     /**
@@ -871,7 +1177,27 @@ public final class Game
     @Internal
     public static java.awt.Point getMousePositionInFrame()
     {
-        return mousePosition;
+        return new java.awt.Point(inputState.getMouseX(),
+                inputState.getMouseY());
+    }
+
+    /**
+     * Gibt den Zustand der Tastatur und der Maus im aktuellen Einzelbild
+     * zurück.
+     *
+     * <p>
+     * Im Gegensatz zu {@link #isKeyPressed(int)} ändert sich dieser Zustand nur
+     * einmal pro Einzelbild, bevor die Beobachter der Eingabeereignisse
+     * aufgerufen werden. Er sollte deshalb nur in der Spielschleife abgefragt
+     * werden, also in Beobachtern.
+     * </p>
+     *
+     * @return Der Zustand der Eingabegeräte.
+     */
+    @API
+    public static InputState getInputState()
+    {
+        return inputState;
     }
 
     /**
@@ -1025,7 +1351,6 @@ public final class Game
                 dir + "/screenshot_" + System.nanoTime() + ".png");
     }
 
-    @SuppressWarnings("AssignmentToStaticFieldFromInstanceMethod")
     private static class MouseListener extends MouseAdapter
     {
         @Override
@@ -1043,24 +1368,29 @@ public final class Game
         @Override
         public void mouseEntered(MouseEvent event)
         {
-            mousePosition = event.getPoint();
+            enqueueMouseMove(event);
         }
 
         @Override
         public void mouseMoved(MouseEvent event)
         {
-            mousePosition = event.getPoint();
+            enqueueMouseMove(event);
         }
 
         @Override
         public void mouseDragged(MouseEvent event)
         {
-            mousePosition = event.getPoint();
+            enqueueMouseMove(event);
+        }
+
+        private void enqueueMouseMove(MouseEvent event)
+        {
+            inputQueue.offer(InputQueue.MOUSE_MOVE, 0, event.getX(),
+                    event.getY(), null);
         }
 
         private void enqueueMouseEvent(MouseEvent event, boolean down)
         {
-            Vector position = convertMousePosition(scene, event.getPoint());
             MouseButton button;
             switch (event.getButton())
             {
@@ -1076,20 +1406,8 @@ public final class Game
                 // Ignore event
                 return;
             }
-            loop.enqueue(() -> {
-                if (down)
-                {
-                    mouseClickListeners.invoke(
-                            listener -> listener.onMouseDown(position, button));
-                    scene.invokeMouseDownListeners(position, button);
-                }
-                else
-                {
-                    mouseClickListeners.invoke(
-                            listener -> listener.onMouseDown(position, button));
-                    scene.invokeMouseUpListeners(position, button);
-                }
-            });
+            inputQueue.offer(down ? InputQueue.MOUSE_DOWN : InputQueue.MOUSE_UP,
+                    button.ordinal(), event.getX(), event.getY(), null);
         }
     }
 
@@ -1123,20 +1441,8 @@ public final class Game
             {
                 pressedKeys.remove(event.getKeyCode());
             }
-            loop.enqueue(() -> {
-                if (down)
-                {
-                    keyStrokeListeners.invoke(
-                            keyListener -> keyListener.onKeyDown(event));
-                    scene.invokeKeyDownListeners(event);
-                }
-                else
-                {
-                    keyStrokeListeners
-                            .invoke(keyListener -> keyListener.onKeyUp(event));
-                    scene.invokeKeyUpListeners(event);
-                }
-            });
+            inputQueue.offer(down ? InputQueue.KEY_DOWN : InputQueue.KEY_UP,
+                    event.getKeyCode(), 0, 0, event);
         }
     }
 
@@ -23,17 +23,18 @@ package de.pirckheimer_gymnasium.engine_pi;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.geom.AffineTransform;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleConsumer;
 import java.util.function.Supplier;
 
 import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
 import de.pirckheimer_gymnasium.engine_pi.debug.CoordinateSystemDrawer;
 import de.pirckheimer_gymnasium.engine_pi.debug.InfoBoxDrawer;
 import de.pirckheimer_gymnasium.engine_pi.event.EventListeners;
+import de.pirckheimer_gymnasium.engine_pi.event.FramePhase;
 import de.pirckheimer_gymnasium.engine_pi.event.FrameUpdateListener;
 import de.pirckheimer_gymnasium.engine_pi.graphics.RenderTarget;
 
@@ -65,28 +66,79 @@ public final class GameLoop
     private final Supplier<Boolean> isDebug;
 
     /**
-     * Queue aller Dispatchables, die im nächsten Frame ausgeführt werden.
+     * Entnimmt einmal pro Einzelbild die Eingabeereignisse und ruft deren
+     * Beobachter auf. Erhält die vergangene Zeit des Einzelbilds in Sekunden.
      */
-    private final Queue<Runnable> dispatchableQueue = new ConcurrentLinkedQueue<>();
+    private final DoubleConsumer inputHandler;
+
+    /**
+     * Die Aufgaben anderer Threads, die auf dem Spielthread ausgeführt werden.
+     */
+    private final DispatchQueue dispatchQueue;
 
     /**
      * Für globale Beobachter, die auf Bildaktualisierung reagieren.
      */
     private final EventListeners<FrameUpdateListener> frameUpdateListeners = new EventListeners<>();
 
-    private double frameDuration;
+    private double frameDuration = DESIRED_FRAME_DURATION;
+
+    /**
+     * Die Anzahl der bisher berechneten Einzelbilder.
+     */
+    private long frameCount;
+
+    /**
+     * Die Dauer der einzelnen Phasen des letzten Einzelbilds in Sekunden.
+     */
+    private final double[] phaseTimes = new double[FramePhase.values().length];
+
+    /**
+     * Gibt an, ob eine Aufzeichnung abgespielt wird. Dann werden die Ebenen
+     * nacheinander auf dem Spielthread statt parallel im Thread-Pool berechnet
+     * und die Aufgaben der Warteschlange ohne Zeitbudget ausgeführt.
+     */
+    private boolean replaying;
 
     public GameLoop(RenderTarget render, Supplier<Scene> currentScene,
-            Supplier<Boolean> isDebug)
+            Supplier<Boolean> isDebug, DoubleConsumer inputHandler,
+            DispatchQueue dispatchQueue)
     {
         this.render = render;
         this.currentScene = currentScene;
         this.isDebug = isDebug;
+        this.inputHandler = inputHandler;
+        this.dispatchQueue = dispatchQueue;
+    }
+
+    public GameLoop(RenderTarget render, Supplier<Scene> currentScene,
+            Supplier<Boolean> isDebug, DoubleConsumer inputHandler)
+    {
+        this(render, currentScene, isDebug, inputHandler, new DispatchQueue());
     }
 
+    public GameLoop(RenderTarget render, Supplier<Scene> currentScene,
+            Supplier<Boolean> isDebug)
+    {
+        this(render, currentScene, isDebug, pastTime -> {
+        });
+    }
+
+    /**
+     * Reiht eine Aufgabe ein, die im nächsten Einzelbild ohne Zeitbudget vor
+     * allen anderen Aufgaben ausgeführt wird.
+     *
+     * @param runnable Die Aufgabe.
+     */
     public void enqueue(Runnable runnable)
     {
-        dispatchableQueue.add(runnable);
+        dispatchQueue.enqueueIgnoringCapacity(DispatchQueue.Priority.INPUT,
+                runnable);
+    }
+
+    public DispatchQueue getDispatchQueue()
+    {
+        return dispatchQueue;
     }
 
     public void run()
@@ -96,24 +148,9 @@ public final class GameLoop
         long frameEnd;
         while (!Thread.currentThread().isInterrupted())
         {
-            Scene scene = this.currentScene.get();
             try
             {
-                double pastTime = Math.min(2 * DESIRED_FRAME_DURATION,
-                        frameDuration);
-                scene.step(pastTime, threadPoolExecutor::submit);
-                // Beobachter der Bildaktualisierung.
-                frameUpdateListeners
-                        .invoke(listener -> listener.onFrameUpdate(pastTime));
-                scene.getCamera().onFrameUpdate();
-                scene.invokeFrameUpdateListeners(pastTime);
-                Runnable runnable = dispatchableQueue.poll();
-                while (runnable != null)
-                {
-                    runnable.run();
-                    runnable = dispatchableQueue.poll();
-                }
-                render();
+                runFrame(Math.min(2 * DESIRED_FRAME_DURATION, frameDuration));
                 frameEnd = System.nanoTime();
                 double duration = (double) (frameEnd - frameStart)
                         / NANOSECONDS_PER_SECOND;
@@ -145,6 +182,113 @@ public final class GameLoop
                 throw new RuntimeException(e);
             }
         }
+        shutdown();
+    }
+
+    /**
+     * Berechnet und zeichnet ein einzelnes Bild, ohne auf den nächsten
+     * Zeitpunkt zu warten.
+     *
+     * @param pastTime Die Zeit in Sekunden, die seit dem letzten Einzelbild
+     *     vergangen sein soll.
+     *
+     * @throws InterruptedException Falls der Thread während des Physik-Schritts
+     *     unterbrochen wird.
+     */
+    @Internal
+    void runFrame(double pastTime) throws InterruptedException
+    {
+        Scene scene = this.currentScene.get();
+        long time = System.nanoTime();
+        scene.invokeFrameUpdateListeners(FramePhase.PRE_PHYSICS, pastTime);
+        measure(FramePhase.PRE_PHYSICS, time);
+        if (replaying)
+        {
+            scene.step(pastTime, task -> {
+                task.run();
+                return CompletableFuture.completedFuture(null);
+            });
+        }
+        else
+        {
+            scene.step(pastTime, threadPoolExecutor::submit);
+        }
+        time = System.nanoTime();
+        scene.invokeFrameUpdateListeners(FramePhase.POST_PHYSICS, pastTime);
+        time = measure(FramePhase.POST_PHYSICS, time);
+        // Beobachter der Bildaktualisierung.
+        frameUpdateListeners
+                .invoke(listener -> listener.onFrameUpdate(pastTime));
+        scene.getCamera().onFrameUpdate();
+        scene.invokeFrameUpdateListeners(pastTime);
+        measure(FramePhase.UPDATE, time);
+        inputHandler.accept(pastTime);
+        dispatchQueue.run(!replaying);
+        time = System.nanoTime();
+        scene.invokeFrameUpdateListeners(FramePhase.PRE_RENDER, pastTime);
+        measure(FramePhase.PRE_RENDER, time);
+        render();
+        time = System.nanoTime();
+        scene.invokeFrameUpdateListeners(FramePhase.POST_RENDER, pastTime);
+        measure(FramePhase.POST_RENDER, time);
+        frameCount++;
+    }
+
+    /**
+     * Legt fest, ob eine Aufzeichnung abgespielt wird. Die Ebenen werden dann
+     * nacheinander auf dem Spielthread berechnet, damit sie die Zufallszahlen
+     * des initialisierten Zufallsgenerators in derselben Reihenfolge erhalten.
+     * Die Aufgaben der Warteschlange werden ohne Zeitbudget ausgeführt, damit
+     * sie unabhängig von der Rechenzeit in denselben Einzelbildern laufen.
+     *
+     * @param replaying Ob eine Aufzeichnung abgespielt wird.
+     */
+    @Internal
+    void setReplaying(boolean replaying)
+    {
+        this.replaying = replaying;
+    }
+
+    /**
+     * Speichert die Dauer einer Phase.
+     *
+     * @param start Der Zeitpunkt in Nanosekunden, an dem die Phase begonnen
+     *     hat.
+     *
+     * @return Der Zeitpunkt in Nanosekunden, an dem die Phase geendet hat.
+     */
+    private long measure(FramePhase phase, long start)
+    {
+        long end = System.nanoTime();
+        phaseTimes[phase.ordinal()] = (double) (end - start)
+                / NANOSECONDS_PER_SECOND;
+        return end;
+    }
+
+    /**
+     * Gibt zurück, wie lange eine Phase im letzten Einzelbild gedauert hat.
+     *
+     * <p>
+     * Die Phase {@link FramePhase#UPDATE} umfasst die globalen Beobachter, die
+     * Kamera sowie die Beobachter der Szene und ihrer Ebenen. Die Dauer des
+     * Physik-Schritts ist in keiner Phase enthalten.
+     * </p>
+     *
+     * @param phase Die Phase des Einzelbilds.
+     *
+     * @return Die Dauer der Phase in Sekunden.
+     */
+    public double getPhaseTime(FramePhase phase)
+    {
+        return phaseTimes[phase.ordinal()];
+    }
+
+    /**
+     * Beendet den Thread-Pool, in dem die Physik-Schritte berechnet werden.
+     */
+    @Internal
+    void shutdown()
+    {
         threadPoolExecutor.shutdown();
         try
         {
@@ -152,11 +296,21 @@ public final class GameLoop
         }
         catch (InterruptedException e)
         {
-            // noinspection UnnecessaryReturnStatement
-            return; // if interrupted again, don't wait
+            Thread.currentThread().interrupt();
         }
     }
 
+    /**
+     * Gibt die Anzahl der bisher berechneten Einzelbilder zurück.
+     *
+     * @return Die Anzahl der bisher berechneten Einzelbilder.
+     */
+    @Internal
+    public long getFrameCount()
+    {
+        return frameCount;
+    }
+
     public EventListeners<FrameUpdateListener> getFrameUpdateListener()
     {
         return frameUpdateListeners;
@@ -201,7 +355,7 @@ public final class GameLoop
         {
             new CoordinateSystemDrawer(g, scene, width, height).draw();
             InfoBoxDrawer.draw(g, scene, frameDuration,
-                    scene.getWorldHandler().getWorld().getBodyCount());
+                    scene.getWorldHandler().getStatistics(), phaseTimes);
         }
         g.dispose();
     }
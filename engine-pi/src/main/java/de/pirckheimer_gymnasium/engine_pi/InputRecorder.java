@@ -0,0 +1,315 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi;
+
+import java.awt.event.KeyEvent;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+import de.pirckheimer_gymnasium.engine_pi.event.InputQueue;
+
+/**
+ * Zeichnet alle <b>Eingabeereignisse</b> (Tastatur, Mausklicks, Mausbewegungen
+ * und Mausrad) zusammen mit der Nummer und der vergangenen Zeit des jeweiligen
+ * Einzelbilds in einer kompakten Binärdatei auf.
+ *
+ * <p>
+ * Beim Start der Aufzeichnung wird {@link Random} mit einem festen Startwert
+ * initialisiert, der in der Datei gespeichert wird. Eine Aufzeichnung sollte
+ * deshalb <b>vor</b> dem Erzeugen der ersten Szene gestartet werden. Mit dem
+ * {@link InputReplayer} lässt sich die Aufzeichnung später ohne Fenster
+ * abspielen, um z. B. die Dauer der Einzelbilder verschiedener Versionen eines
+ * Spiels zu vergleichen.
+ * </p>
+ *
+ * <pre>{@code
+ * InputRecorder recorder = InputRecorder.start(Path.of("spiel.rec"));
+ * Game.start(new MeineSzene());
+ * // ...
+ * recorder.close();
+ * }</pre>
+ *
+ * <p>
+ * Die Ereignisse werden im Takt der Spielschleife aufgezeichnet. Spiele, die
+ * deterministisch abgespielt werden sollen, fragen den Zustand der
+ * Eingabegeräte deshalb über {@link Game#getInputState()} oder über Beobachter
+ * ab.
+ * </p>
+ *
+ * @author Josef Friedrich
+ *
+ * @see InputReplayer
+ */
+public final class InputRecorder implements AutoCloseable
+{
+    /**
+     * Die ersten vier Bytes jeder Aufzeichnung: {@code EPIR}.
+     */
+    static final int MAGIC = 0x45504952;
+
+    static final int VERSION = 1;
+
+    /**
+     * Die Kennung eines Datensatzes, mit dem ein neues Einzelbild beginnt. Die
+     * Kennungen der Eingabeereignisse entsprechen den Konstanten der
+     * {@link InputQueue}.
+     */
+    static final int FRAME = 0;
+
+    private final DataOutputStream out;
+
+    private final long seed;
+
+    private final Supplier<Vector> windowSize;
+
+    private long frame = -1;
+
+    private boolean closed;
+
+    /**
+     * Ob die Aufzeichnung bei der Spielschleife angemeldet ist.
+     */
+    private boolean registered;
+
+    /**
+     * Der erste Schreibfehler. Er wird beim Schließen der Aufzeichnung
+     * geworfen, damit die Spielschleife nicht abbricht.
+     */
+    private IOException error;
+
+    @Internal
+    InputRecorder(OutputStream out, long seed, Supplier<Vector> windowSize)
+    {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.seed = seed;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Startet eine Aufzeichnung mit einem zufälligen Startwert.
+     *
+     * @param file Die Datei, in die die Ereignisse geschrieben werden.
+     *
+     * @return Die laufende Aufzeichnung.
+     *
+     * @throws IOException Falls die Datei nicht angelegt werden kann.
+     */
+    @API
+    public static InputRecorder start(Path file) throws IOException
+    {
+        return start(file, System.nanoTime());
+    }
+
+    /**
+     * Startet eine Aufzeichnung.
+     *
+     * @param file Die Datei, in die die Ereignisse geschrieben werden.
+     * @param seed Der Startwert, mit dem {@link Random} initialisiert wird.
+     *
+     * @return Die laufende Aufzeichnung.
+     *
+     * @throws IOException Falls die Datei nicht angelegt werden kann.
+     */
+    @API
+    public static InputRecorder start(Path file, long seed) throws IOException
+    {
+        InputRecorder recorder = new InputRecorder(Files.newOutputStream(file),
+                seed, Game::getWindowSize);
+        try
+        {
+            Game.setInputRecorder(recorder);
+            recorder.registered = true;
+        }
+        catch (IllegalStateException e)
+        {
+            recorder.out.close();
+            throw e;
+        }
+        Random.setSeed(seed);
+        return recorder;
+    }
+
+    /**
+     * Gibt den Startwert zurück, mit dem {@link Random} initialisiert wurde.
+     *
+     * @return Der Startwert des Zufallsgenerators.
+     */
+    @API
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * Gibt die Anzahl der bisher aufgezeichneten Einzelbilder zurück.
+     *
+     * @return Die Anzahl der bisher aufgezeichneten Einzelbilder.
+     */
+    @API
+    public long getFrameCount()
+    {
+        return frame + 1;
+    }
+
+    /**
+     * Beginnt ein neues Einzelbild. Wird von der Spielschleife einmal pro
+     * Einzelbild aufgerufen, bevor die Eingabeereignisse aufgezeichnet werden.
+     *
+     * @param pastTime Die vergangene Zeit des Einzelbilds in Sekunden.
+     */
+    @Internal
+    synchronized void beginFrame(double pastTime)
+    {
+        if (closed || error != null)
+        {
+            return;
+        }
+        try
+        {
+            if (frame < 0)
+            {
+                writeHeader();
+            }
+            frame++;
+            out.writeByte(FRAME);
+            out.writeInt((int) frame);
+            out.writeDouble(pastTime);
+        }
+        catch (IOException e)
+        {
+            error = e;
+        }
+    }
+
+    /**
+     * Zeichnet ein Eingabeereignis des aktuellen Einzelbilds auf.
+     *
+     * @see InputQueue.Visitor#visit(int, int, double, double, Object)
+     */
+    @Internal
+    synchronized void record(int type, int code, double x, double y,
+            Object source)
+    {
+        if (closed || error != null || frame < 0)
+        {
+            return;
+        }
+        try
+        {
+            switch (type)
+            {
+            case InputQueue.KEY_DOWN:
+            case InputQueue.KEY_UP:
+                KeyEvent event = (KeyEvent) source;
+                out.writeByte(type);
+                out.writeInt(event.getKeyCode());
+                out.writeChar(event.getKeyChar());
+                out.writeInt(event.getModifiersEx());
+                out.writeByte(event.getKeyLocation());
+                break;
+
+            case InputQueue.MOUSE_DOWN:
+            case InputQueue.MOUSE_UP:
+                out.writeByte(type);
+                out.writeByte(code);
+                out.writeInt((int) x);
+                out.writeInt((int) y);
+                break;
+
+            case InputQueue.MOUSE_MOVE:
+                out.writeByte(type);
+                out.writeInt((int) x);
+                out.writeInt((int) y);
+                break;
+
+            case InputQueue.MOUSE_SCROLL:
+                out.writeByte(type);
+                out.writeDouble(x);
+                break;
+
+            default:
+                break;
+            }
+        }
+        catch (IOException e)
+        {
+            error = e;
+        }
+    }
+
+    private void writeHeader() throws IOException
+    {
+        Vector size = windowSize.get();
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(seed);
+        out.writeInt((int) size.getX());
+        out.writeInt((int) size.getY());
+    }
+
+    /**
+     * Beendet die Aufzeichnung und schließt die Datei.
+     *
+     * @throws IOException Falls beim Schreiben der Aufzeichnung ein Fehler
+     *     aufgetreten ist.
+     */
+    @API
+    @Override
+    public void close() throws IOException
+    {
+        if (registered)
+        {
+            Game.removeInputRecorder(this);
+        }
+        synchronized (this)
+        {
+            if (closed)
+            {
+                return;
+            }
+            closed = true;
+            try
+            {
+                if (error == null && frame < 0)
+                {
+                    writeHeader();
+                }
+                out.close();
+            }
+            catch (IOException e)
+            {
+                if (error == null)
+                {
+                    error = e;
+                }
+            }
+        }
+        if (error != null)
+        {
+            throw error;
+        }
+    }
+}
@@ -0,0 +1,423 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi;
+
+import java.awt.Canvas;
+import java.awt.Component;
+import java.awt.Graphics2D;
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+import de.pirckheimer_gymnasium.engine_pi.event.FrameUpdateInvoker;
+import de.pirckheimer_gymnasium.engine_pi.event.InputQueue;
+import de.pirckheimer_gymnasium.engine_pi.graphics.RenderTarget;
+
+/**
+ * Spielt eine mit dem {@link InputRecorder} erstellte <b>Aufzeichnung der
+ * Eingabeereignisse</b> ohne Fenster ab.
+ *
+ * <p>
+ * Vor dem Abspielen wird {@link Random} mit dem aufgezeichneten Startwert
+ * initialisiert und erst danach die Szene erzeugt. Die Ebenen, die Regionen
+ * einer {@link PartitionedLayer aufgeteilten Ebene} und die
+ * {@link de.pirckheimer_gymnasium.engine_pi.event.ParallelFrameUpdateListener
+ * parallelen Beobachter} werden dabei nacheinander auf dem abspielenden Thread
+ * berechnet, damit sie die Zufallszahlen in jedem Durchlauf in derselben
+ * Reihenfolge erhalten und gleich lautende Ergebnisse liefern. Die Aufgaben aus
+ * {@link Game#enqueue(Runnable)} werden ohne Zeitbudget jeweils im nächsten
+ * Einzelbild ausgeführt. Die Einzelbilder werden ohne Wartezeit nacheinander
+ * berechnet und in ein Bild im Speicher gezeichnet. Jedes Einzelbild erhält
+ * dabei die aufgezeichnete vergangene Zeit oder einen festen Zeitschritt,
+ * sodass mehrere Durchläufe die gleichen Weltzustände berechnen. Zurückgegeben
+ * wird die gemessene Dauer jedes Einzelbilds, z. B. um verschiedene Versionen
+ * eines Spiels zu vergleichen.
+ * </p>
+ *
+ * <pre>{@code
+ * double[] durations = InputReplayer.load(Path.of("spiel.rec"))
+ *         .replay(MeineSzene::new);
+ * }</pre>
+ *
+ * <p>
+ * Aufgerufen werden die Beobachter der Szene sowie die statischen Beobachter
+ * der Tastatur und der Maus von {@link Game}. Szenenwechsel über
+ * {@link Game#transitionToScene(Scene)} werden wie im Spiel zu Beginn des
+ * nächsten Einzelbilds ausgeführt. Statische Beobachter der Bildaktualisierung
+ * von {@link Game} werden nur aufgerufen, wenn sie während des Abspielens
+ * angemeldet werden.
+ * </p>
+ *
+ * @author Josef Friedrich
+ *
+ * @see InputRecorder
+ */
+public final class InputReplayer
+{
+    /**
+     * Die Komponente, die als Quelle der nachgebildeten Tastaturereignisse
+     * dient.
+     */
+    private static final Component KEY_EVENT_SOURCE = new Canvas();
+
+    private final long seed;
+
+    private final int width;
+
+    private final int height;
+
+    private final List<Frame> frames;
+
+    /**
+     * Der feste Zeitschritt in Sekunden oder 0, wenn die aufgezeichnete
+     * vergangene Zeit verwendet wird.
+     */
+    private double fixedTimestep = 0;
+
+    private InputReplayer(long seed, int width, int height, List<Frame> frames)
+    {
+        this.seed = seed;
+        this.width = width;
+        this.height = height;
+        this.frames = frames;
+    }
+
+    /**
+     * Lädt eine Aufzeichnung aus einer Datei.
+     *
+     * @param file Die Datei, die der {@link InputRecorder} geschrieben hat.
+     *
+     * @return Die geladene Aufzeichnung.
+     *
+     * @throws IOException Falls die Datei nicht gelesen werden kann oder keine
+     *     gültige Aufzeichnung enthält.
+     */
+    @API
+    public static InputReplayer load(Path file) throws IOException
+    {
+        try (InputStream in = Files.newInputStream(file))
+        {
+            return read(in);
+        }
+    }
+
+    @Internal
+    static InputReplayer read(InputStream stream) throws IOException
+    {
+        DataInputStream in = new DataInputStream(
+                new BufferedInputStream(stream));
+        if (in.readInt() != InputRecorder.MAGIC)
+        {
+            throw new IOException(
+                    "Die Datei enthält keine Aufzeichnung der Eingabeereignisse.");
+        }
+        int version = in.readUnsignedByte();
+        if (version != InputRecorder.VERSION)
+        {
+            throw new IOException(
+                    "Nicht unterstützte Version der Aufzeichnung: " + version);
+        }
+        long seed = in.readLong();
+        int width = in.readInt();
+        int height = in.readInt();
+        List<Frame> frames = new ArrayList<>();
+        Frame frame = null;
+        int type;
+        while ((type = in.read()) >= 0)
+        {
+            if (type == InputRecorder.FRAME)
+            {
+                int number = in.readInt();
+                if (number != frames.size())
+                {
+                    throw new IOException("Einzelbild " + frames.size()
+                            + " erwartet, war " + number);
+                }
+                frame = new Frame(in.readDouble());
+                frames.add(frame);
+                continue;
+            }
+            if (frame == null)
+            {
+                throw new IOException(
+                        "Eingabeereignis vor dem ersten Einzelbild.");
+            }
+            frame.events.add(readEvent(in, type));
+        }
+        return new InputReplayer(seed, width, height, frames);
+    }
+
+    private static Event readEvent(DataInputStream in, int type)
+            throws IOException
+    {
+        try
+        {
+            switch (type)
+            {
+            case InputQueue.KEY_DOWN:
+            case InputQueue.KEY_UP:
+            {
+                int keyCode = in.readInt();
+                char keyChar = in.readChar();
+                int modifiers = in.readInt();
+                int location = in.readUnsignedByte();
+                KeyEvent event = new KeyEvent(KEY_EVENT_SOURCE,
+                        type == InputQueue.KEY_DOWN ? KeyEvent.KEY_PRESSED
+                                : KeyEvent.KEY_RELEASED,
+                        0, modifiers, keyCode, keyChar, location);
+                return new Event(type, keyCode, 0, 0, event);
+            }
+
+            case InputQueue.MOUSE_DOWN:
+            case InputQueue.MOUSE_UP:
+            {
+                int button = in.readUnsignedByte();
+                int x = in.readInt();
+                int y = in.readInt();
+                return new Event(type, button, x, y, null);
+            }
+
+            case InputQueue.MOUSE_MOVE:
+            {
+                int x = in.readInt();
+                int y = in.readInt();
+                return new Event(type, 0, x, y, null);
+            }
+
+            case InputQueue.MOUSE_SCROLL:
+                return new Event(type, 0, in.readDouble(), 0, null);
+
+            default:
+                throw new IOException(
+                        "Unbekannte Art eines Eingabeereignisses: " + type);
+            }
+        }
+        catch (EOFException e)
+        {
+            throw new IOException("Die Aufzeichnung ist unvollständig.", e);
+        }
+    }
+
+    /**
+     * Gibt den Startwert zurück, mit dem {@link Random} initialisiert wird.
+     *
+     * @return Der aufgezeichnete Startwert des Zufallsgenerators.
+     */
+    @API
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * Gibt die Anzahl der aufgezeichneten Einzelbilder zurück.
+     *
+     * @return Die Anzahl der aufgezeichneten Einzelbilder.
+     */
+    @API
+    public int getFrameCount()
+    {
+        return frames.size();
+    }
+
+    /**
+     * Gibt die aufgezeichnete vergangene Zeit eines Einzelbilds zurück.
+     *
+     * @param frame Die Nummer des Einzelbilds, beginnend bei 0.
+     *
+     * @return Die vergangene Zeit in Sekunden.
+     */
+    @API
+    public double getPastTime(int frame)
+    {
+        return frames.get(frame).pastTime;
+    }
+
+    /**
+     * Gibt die Anzahl der Eingabeereignisse eines Einzelbilds zurück.
+     *
+     * @param frame Die Nummer des Einzelbilds, beginnend bei 0.
+     *
+     * @return Die Anzahl der Eingabeereignisse des Einzelbilds.
+     */
+    @API
+    public int getEventCount(int frame)
+    {
+        return frames.get(frame).events.size();
+    }
+
+    /**
+     * Legt fest, dass jedes Einzelbild mit dem gleichen Zeitschritt statt mit
+     * der aufgezeichneten vergangenen Zeit berechnet wird.
+     *
+     * @param fixedTimestep Der Zeitschritt in Sekunden oder 0, um die
+     *     aufgezeichnete vergangene Zeit zu verwenden.
+     *
+     * @return Eine Instanz dieses Objekts, damit das Objekt über verkettete
+     *     Setter konfiguriert werden kann.
+     */
+    @API
+    public InputReplayer setFixedTimestep(double fixedTimestep)
+    {
+        if (fixedTimestep < 0)
+        {
+            throw new IllegalArgumentException(
+                    "Der Zeitschritt darf nicht negativ sein, war "
+                            + fixedTimestep);
+        }
+        this.fixedTimestep = fixedTimestep;
+        return this;
+    }
+
+    /**
+     * Gibt den festen Zeitschritt zurück, mit dem jedes Einzelbild berechnet
+     * wird.
+     *
+     * @return Der Zeitschritt in Sekunden oder 0, wenn die aufgezeichnete
+     *     vergangene Zeit verwendet wird.
+     *
+     * @see #setFixedTimestep(double)
+     */
+    @API
+    public double getFixedTimestep()
+    {
+        return fixedTimestep;
+    }
+
+    /**
+     * Spielt die Aufzeichnung ab. Darf nicht aufgerufen werden, während das
+     * Spiel in einem Fenster läuft.
+     *
+     * @param sceneSupplier Erzeugt die Szene, nachdem {@link Random}
+     *     initialisiert wurde.
+     *
+     * @return Die gemessene Dauer jedes Einzelbilds in Sekunden.
+     *
+     * @throws InterruptedException Falls der Thread während des Abspielens
+     *     unterbrochen wird.
+     */
+    @API
+    public double[] replay(Supplier<Scene> sceneSupplier)
+            throws InterruptedException
+    {
+        Game.setHeadlessSize(width, height);
+        Scene previous = Game.getActiveScene();
+        BufferedImage image = new BufferedImage(Math.max(1, width),
+                Math.max(1, height), BufferedImage.TYPE_INT_RGB);
+        RenderTarget target = source -> {
+            Graphics2D g = image.createGraphics();
+            source.render(g, image.getWidth(), image.getHeight());
+        };
+        InputQueue queue = new InputQueue();
+        int[] current = { 0 };
+        GameLoop loop = new GameLoop(target, Game::getActiveScene, () -> false,
+                pastTime -> {
+                    for (Event event : frames.get(current[0]).events)
+                    {
+                        queue.offer(event.type, event.code, event.x, event.y,
+                                event.source);
+                    }
+                    queue.drain(Game.getInputState(),
+                            (type, code, x, y, source) -> {
+                                if (type == InputQueue.KEY_DOWN
+                                        || type == InputQueue.KEY_UP)
+                                {
+                                    Game.setKeyPressed(code,
+                                            type == InputQueue.KEY_DOWN);
+                                }
+                                Game.dispatchInput(Game.getActiveScene(), type,
+                                        code, x, y, source);
+                            });
+                }, Game.getDispatchQueue());
+        loop.setReplaying(true);
+        double[] durations = new double[frames.size()];
+        Random.setSeed(seed);
+        FrameUpdateInvoker.setSequential(true);
+        try
+        {
+            // Die Spielschleife wird schon vor dem Erzeugen der Szene gesetzt,
+            // damit deren Konstruktor Beobachter und Szenenwechsel anmelden
+            // kann.
+            Game.setHeadlessLoop(loop, previous);
+            Game.setHeadlessLoop(loop, sceneSupplier.get());
+            for (; current[0] < frames.size(); current[0]++)
+            {
+                Frame frame = frames.get(current[0]);
+                double pastTime = fixedTimestep > 0 ? fixedTimestep
+                        : frame.pastTime;
+                long start = System.nanoTime();
+                loop.runFrame(pastTime);
+                durations[current[0]] = (System.nanoTime() - start) / 1e9;
+            }
+        }
+        finally
+        {
+            loop.shutdown();
+            Random.clearSeed();
+            FrameUpdateInvoker.setSequential(false);
+            Game.setHeadlessLoop(null, previous);
+        }
+        return durations;
+    }
+
+    private static final class Frame
+    {
+        private final double pastTime;
+
+        private final List<Event> events = new ArrayList<>();
+
+        private Frame(double pastTime)
+        {
+            this.pastTime = pastTime;
+        }
+    }
+
+    private static final class Event
+    {
+        private final int type;
+
+        private final int code;
+
+        private final double x;
+
+        private final double y;
+
+        private final Object source;
+
+        private Event(int type, int code, double x, double y, Object source)
+        {
+            this.type = type;
+            this.code = code;
+            this.x = x;
+            this.y = y;
+            this.source = source;
+        }
+    }
+}
@@ -21,32 +21,47 @@
 package de.pirckheimer_gymnasium.engine_pi;
 
 import java.awt.Graphics2D;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
-import de.pirckheimer_gymnasium.jbox2d.dynamics.Body;
 import de.pirckheimer_gymnasium.jbox2d.dynamics.World;
 
 import de.pirckheimer_gymnasium.engine_pi.actor.Actor;
 import de.pirckheimer_gymnasium.engine_pi.actor.ActorAdder;
 import de.pirckheimer_gymnasium.engine_pi.annotations.API;
 import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+import de.pirckheimer_gymnasium.engine_pi.event.BatchProgressListener;
 import de.pirckheimer_gymnasium.engine_pi.event.EventListeners;
+import de.pirckheimer_gymnasium.engine_pi.event.FrameUpdateInvoker;
 import de.pirckheimer_gymnasium.engine_pi.event.FrameUpdateListener;
 import de.pirckheimer_gymnasium.engine_pi.event.FrameUpdateListenerRegistration;
+import de.pirckheimer_gymnasium.engine_pi.event.KeyCodeListeners;
 import de.pirckheimer_gymnasium.engine_pi.event.KeyStrokeListener;
 import de.pirckheimer_gymnasium.engine_pi.event.KeyStrokeListenerRegistration;
 import de.pirckheimer_gymnasium.engine_pi.event.MouseClickListener;
 import de.pirckheimer_gymnasium.engine_pi.event.MouseClickListenerRegistration;
 import de.pirckheimer_gymnasium.engine_pi.event.MouseScrollListener;
 import de.pirckheimer_gymnasium.engine_pi.event.MouseScrollListenerRegistration;
+import de.pirckheimer_gymnasium.engine_pi.event.TimingWheel;
+import de.pirckheimer_gymnasium.engine_pi.physics.ArcadeHandler;
 import de.pirckheimer_gymnasium.engine_pi.physics.BodyHandler;
+import de.pirckheimer_gymnasium.engine_pi.physics.FixtureData;
 import de.pirckheimer_gymnasium.engine_pi.physics.NullHandler;
+import de.pirckheimer_gymnasium.engine_pi.physics.PhysicsBackend;
 import de.pirckheimer_gymnasium.engine_pi.physics.PhysicsData;
 import de.pirckheimer_gymnasium.engine_pi.physics.PhysicsHandler;
+import de.pirckheimer_gymnasium.engine_pi.physics.QueryVisitor;
+import de.pirckheimer_gymnasium.engine_pi.physics.RaycastHit;
+import de.pirckheimer_gymnasium.engine_pi.physics.RaycastVisitor;
+import de.pirckheimer_gymnasium.engine_pi.physics.SolverAutoTuner;
 import de.pirckheimer_gymnasium.engine_pi.physics.WorldHandler;
 
 /**
@@ -75,7 +90,7 @@ public class Layer implements KeyStrokeListenerRegistration,
         };
     }
 
-    private final List<Actor> actors;
+    private final ArrayList<Actor> actors;
 
     private double parallaxX = 1;
 
@@ -102,6 +117,9 @@ public class Layer implements KeyStrokeListenerRegistration,
     private final EventListeners<KeyStrokeListener> keyStrokeListeners = new EventListeners<>(
             createParentSupplier(Scene::getKeyStrokeListeners));
 
+    private final KeyCodeListeners keyCodeListeners = new KeyCodeListeners(
+            createParentSupplier(Scene::getKeyCodeListeners));
+
     private final EventListeners<MouseClickListener> mouseClickListeners = new EventListeners<>(
             createParentSupplier(Scene::getMouseClickListeners));
 
@@ -110,6 +128,11 @@ public class Layer implements KeyStrokeListenerRegistration,
 
     private final EventListeners<FrameUpdateListener> frameUpdateListeners = new EventListeners<>();
 
+    private final FrameUpdateInvoker frameUpdateInvoker = new FrameUpdateInvoker(
+            frameUpdateListeners);
+
+    private final TimingWheel timingWheel = new TimingWheel();
+
     /**
      * Erstellt eine neue Ebene.
      */
@@ -142,6 +165,7 @@ public class Layer implements KeyStrokeListenerRegistration,
         if (parent != null)
         {
             keyStrokeListeners.invoke(parent::addKeyStrokeListener);
+            keyCodeListeners.forEach(parent::addKeyStrokeListener);
             mouseClickListeners.invoke(parent::addMouseClickListener);
             mouseScrollListeners.invoke(parent::addMouseScrollListener);
             frameUpdateListeners.invoke(parent::addFrameUpdateListener);
@@ -149,6 +173,7 @@ public class Layer implements KeyStrokeListenerRegistration,
         else
         {
             keyStrokeListeners.invoke(this.parent::removeKeyStrokeListener);
+            keyCodeListeners.forEach(this.parent::removeKeyStrokeListener);
             mouseClickListeners.invoke(this.parent::removeMouseClickListener);
             mouseScrollListeners.invoke(this.parent::removeMouseScrollListener);
             frameUpdateListeners.invoke(this.parent::removeFrameUpdateListener);
@@ -337,6 +362,187 @@ public class Layer implements KeyStrokeListenerRegistration,
         return Vector.of(getWorld().getGravity());
     }
 
+    /**
+     * Legt fest, mit welcher Physik-Engine die Figuren dieser Ebene simuliert
+     * werden.
+     *
+     * <p>
+     * Mit {@link PhysicsBackend#ARCADE} wird statt JBox2D eine einfache
+     * Arcade-Physik verwendet, die nur achsenparallele Rechtecke und Kreise
+     * kennt und deutlich weniger Rechenzeit pro Figur benötigt. Schwerkraft,
+     * Schrittrate, Pausieren und die Kollisionsbeobachter funktionieren wie
+     * gewohnt. Strahl-, Bereichs- und Umrissabfragen sowie Schnappschüsse
+     * stehen dagegen nur mit JBox2D zur Verfügung.
+     * </p>
+     *
+     * @param backend Die Physik-Engine.
+     *
+     * @throws IllegalStateException Falls bereits Figuren an der Ebene
+     *     angemeldet sind.
+     */
+    @API
+    public void setPhysicsBackend(PhysicsBackend backend)
+    {
+        synchronized (worldHandler)
+        {
+            if (!actors.isEmpty())
+            {
+                throw new IllegalStateException(
+                        "Die Physik-Engine kann nur geändert werden, solange keine Figuren an der Ebene angemeldet sind.");
+            }
+            worldHandler.setPhysicsBackend(backend);
+        }
+    }
+
+    /**
+     * Gibt die Physik-Engine zurück, mit der diese Ebene berechnet wird.
+     *
+     * @return Die Physik-Engine dieser Ebene.
+     */
+    @API
+    public PhysicsBackend getPhysicsBackend()
+    {
+        return worldHandler.getPhysicsBackend();
+    }
+
+    /**
+     * Setzt die Kantenlänge einer Zelle des Hashgitters, über das die
+     * Arcade-Physik mögliche Kollisionspaare findet. Sie sollte etwa der
+     * doppelten Größe einer typischen Figur entsprechen.
+     *
+     * @param cellSize Die Kantenlänge in Meter.
+     *
+     * @throws IllegalStateException Falls die Ebene nicht das
+     *     {@link PhysicsBackend#ARCADE Arcade-Backend} verwendet.
+     */
+    @API
+    public void setArcadeCellSize(double cellSize)
+    {
+        worldHandler.setArcadeCellSize(cellSize);
+    }
+
+    /**
+     * Setzt, wie oft pro Sekunde die Physik dieser Ebene berechnet wird.
+     *
+     * <p>
+     * Standardmäßig werden 125 Physik-Schritte pro Sekunde ausgeführt. Eine
+     * höhere Schrittrate macht die Simulation genauer, kostet aber mehr
+     * Rechenzeit.
+     * </p>
+     *
+     * @param stepRate Die Anzahl der Physik-Schritte pro Sekunde.
+     *
+     * @see #setSolverIterations(int, int)
+     */
+    @API
+    public void setPhysicsStepRate(double stepRate)
+    {
+        worldHandler.setStepRate(stepRate);
+    }
+
+    /**
+     * Gibt an, wie oft pro Sekunde die Physik dieser Ebene berechnet wird.
+     *
+     * @return Die Anzahl der Physik-Schritte pro Sekunde.
+     */
+    @API
+    public double getPhysicsStepRate()
+    {
+        return worldHandler.getStepRate();
+    }
+
+    /**
+     * Setzt die Anzahl der Iterationen, die der Physik-Löser pro Schritt
+     * ausführt.
+     *
+     * <p>
+     * Standardmäßig werden 6 Geschwindigkeits- und 3 Positions-Iterationen
+     * ausgeführt. Mehr Iterationen lösen z. B. hohe Stapel von Objekten
+     * stabiler, kosten aber mehr Rechenzeit.
+     * </p>
+     *
+     * @param velocityIterations Die Anzahl der Geschwindigkeits-Iterationen.
+     * @param positionIterations Die Anzahl der Positions-Iterationen.
+     */
+    @API
+    public void setSolverIterations(int velocityIterations,
+            int positionIterations)
+    {
+        worldHandler.setVelocityIterations(velocityIterations);
+        worldHandler.setPositionIterations(positionIterations);
+    }
+
+    /**
+     * Gibt die Anzahl der Geschwindigkeits-Iterationen zurück, die der
+     * Physik-Löser pro Schritt ausführt.
+     *
+     * <p>
+     * Ein gesetzter {@link #setSolverAutoTuner(SolverAutoTuner) Regler} kann
+     * vorübergehend weniger Iterationen ausführen lassen. Zurückgegeben wird
+     * der eingestellte Wert.
+     * </p>
+     *
+     * @return Die Anzahl der Geschwindigkeits-Iterationen.
+     *
+     * @see #setSolverIterations(int, int)
+     */
+    @API
+    public int getVelocityIterations()
+    {
+        return worldHandler.getVelocityIterations();
+    }
+
+    /**
+     * Gibt die Anzahl der Positions-Iterationen zurück, die der Physik-Löser
+     * pro Schritt ausführt.
+     *
+     * <p>
+     * Ein gesetzter {@link #setSolverAutoTuner(SolverAutoTuner) Regler} kann
+     * vorübergehend weniger Iterationen ausführen lassen. Zurückgegeben wird
+     * der eingestellte Wert.
+     * </p>
+     *
+     * @return Die Anzahl der Positions-Iterationen.
+     *
+     * @see #setSolverIterations(int, int)
+     */
+    @API
+    public int getPositionIterations()
+    {
+        return worldHandler.getPositionIterations();
+    }
+
+    /**
+     * Setzt einen Regler, der die Schrittrate und die Iterationen dieser Ebene
+     * automatisch verringert, wenn die Physik zu viel Rechenzeit benötigt, und
+     * wieder bis zu den eingestellten Werten anhebt, wenn genügend Zeit übrig
+     * ist.
+     *
+     * @param solverAutoTuner Der Regler oder {@code null}, um die automatische
+     *     Anpassung abzuschalten.
+     *
+     * @see #setPhysicsStepRate(double)
+     * @see #setSolverIterations(int, int)
+     */
+    @API
+    public void setSolverAutoTuner(SolverAutoTuner solverAutoTuner)
+    {
+        worldHandler.setSolverAutoTuner(solverAutoTuner);
+    }
+
+    /**
+     * Gibt den Regler zurück, der die Genauigkeit des Physik-Lösers dieser
+     * Ebene an die verfügbare Rechenzeit anpasst.
+     *
+     * @return Der Regler oder {@code null}, falls keine automatische Anpassung
+     *     eingeschaltet ist.
+     */
+    @API
+    public SolverAutoTuner getSolverAutoTuner()
+    {
+        return worldHandler.getSolverAutoTuner();
+    }
+
     /**
      * Setzt, ob diese Ebene sichtbar sein soll.
      *
@@ -377,29 +583,144 @@ public class Layer implements KeyStrokeListenerRegistration,
         defer(() -> {
             for (Actor actor : actors)
             {
-                if (actor.isMounted())
+                if (mount(actor))
                 {
-                    if (actor.getLayer() != this)
-                    {
-                        throw new IllegalArgumentException(
-                                "Ein Actor kann nur an einem Layer gleichzeitig angemeldet sein");
-                    }
-                    else
+                    this.actors.add(actor);
+                }
+            }
+            this.actors.sort(ACTOR_COMPARATOR);
+        });
+    }
+
+    /**
+     * Fügt <b>viele Figuren auf einmal</b> der Ebene hinzu.
+     *
+     * <p>
+     * Im Gegensatz zu {@link #add(Actor...)} wird der Speicher für die Figuren
+     * nur einmal vergrößert, alle Körper werden in einem einzigen gesperrten
+     * Abschnitt der Physik-Welt erzeugt und die Zeichenreihenfolge wird nur
+     * einmal hergestellt.
+     * </p>
+     *
+     * @param actors Die Figuren, die hinzugefügt werden sollen.
+     *
+     * @see #addAll(Collection, int, BatchProgressListener)
+     */
+    @API
+    public void addAll(Collection<? extends Actor> actors)
+    {
+        addAll(actors, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Fügt <b>sehr viele Figuren</b> in Teilstapeln der Ebene hinzu. Pro
+     * Einzelbild wird höchstens ein Teilstapel verarbeitet, damit das Spiel
+     * nicht für mehrere Einzelbilder stehen bleibt.
+     *
+     * @param actors Die Figuren, die hinzugefügt werden sollen.
+     * @param chunkSize Die maximale Anzahl an Figuren, die pro Einzelbild
+     *     hinzugefügt werden.
+     * @param progressListener Wird nach jedem Teilstapel informiert. Darf
+     *     <code>null</code> sein.
+     */
+    @API
+    public void addAll(Collection<? extends Actor> actors, int chunkSize,
+            BatchProgressListener progressListener)
+    {
+        assertValidChunkSize(chunkSize);
+        addChunk(actors.toArray(new Actor[0]), 0, chunkSize, progressListener);
+    }
+
+    private void addChunk(Actor[] batch, int from, int chunkSize,
+            BatchProgressListener progressListener)
+    {
+        defer(() -> {
+            if (from == 0)
+            {
+                this.actors.ensureCapacity(this.actors.size() + batch.length);
+            }
+            int to = (int) Math.min((long) from + chunkSize, batch.length);
+            List<Actor> added = new ArrayList<>(to - from);
+            runExclusive(() -> {
+                for (int i = from; i < to; i++)
+                {
+                    if (mount(batch[i]))
                     {
-                        return;
+                        added.add(batch[i]);
                     }
                 }
-                PhysicsHandler oldHandler = actor.getPhysicsHandler();
-                PhysicsHandler newHandler = new BodyHandler(actor,
-                        oldHandler.getPhysicsData(), worldHandler);
-                actor.setPhysicsHandler(newHandler);
-                oldHandler.applyMountCallbacks(newHandler);
-                this.actors.add(actor);
-            }
+            });
+            added.sort(ACTOR_COMPARATOR);
+            this.actors.addAll(added);
+            // Die Liste besteht nun aus zwei sortierten Abschnitten, die der
+            // TimSort-Algorithmus in linearer Zeit zusammenführt.
             this.actors.sort(ACTOR_COMPARATOR);
+            if (progressListener != null)
+            {
+                progressListener.onProgress(to, batch.length);
+            }
+            if (to < batch.length)
+            {
+                addChunk(batch, to, chunkSize, progressListener);
+            }
         });
     }
 
+    /**
+     * Führt eine Aktion aus, während die Physik-Welt dieser Ebene keinen
+     * World-Step berechnet, z. B. um viele Körper auf einmal zu erzeugen.
+     */
+    void runExclusive(Runnable action)
+    {
+        worldHandler.runExclusive(action);
+    }
+
+    /**
+     * Meldet eine Figur bei der Physik-Welt dieser Ebene an.
+     *
+     * @return <code>false</code>, falls die Figur bereits an dieser Ebene
+     *     angemeldet ist.
+     */
+    private boolean mount(Actor actor)
+    {
+        if (actor.isMounted())
+        {
+            if (actor.getLayer() != this)
+            {
+                throw new IllegalArgumentException(
+                        "Ein Actor kann nur an einem Layer gleichzeitig angemeldet sein");
+            }
+            return false;
+        }
+        PhysicsHandler oldHandler = actor.getPhysicsHandler();
+        PhysicsData physicsData = oldHandler.getPhysicsData();
+        WorldHandler target = selectWorldHandler(physicsData);
+        PhysicsHandler newHandler;
+        if (target.getPhysicsBackend() == PhysicsBackend.ARCADE)
+        {
+            newHandler = new ArcadeHandler(actor, physicsData, target);
+        }
+        else
+        {
+            newHandler = new BodyHandler(actor, physicsData, target);
+        }
+        actor.setPhysicsHandler(newHandler);
+        oldHandler.applyMountCallbacks(newHandler);
+        return true;
+    }
+
+    /**
+     * Gibt die Physik-Welt zurück, in der eine neu angemeldete Figur simuliert
+     * wird.
+     *
+     * @param physicsData Die physikalischen Eigenschaften der Figur, u. a. ihre
+     *     Position.
+     */
+    WorldHandler selectWorldHandler(PhysicsData physicsData)
+    {
+        return worldHandler;
+    }
+
     /**
      * Entferne einen oder mehrere {@link Actor}-Objekte aus der Ebene.
      *
@@ -412,21 +733,108 @@ public class Layer implements KeyStrokeListenerRegistration,
             for (Actor actor : actors)
             {
                 this.actors.remove(actor);
-                PhysicsData physicsData = actor.getPhysicsHandler()
-                        .getPhysicsData();
-                PhysicsHandler physicsHandler = actor.getPhysicsHandler();
-                if (physicsHandler.getWorldHandler() == null)
+                unmount(actor);
+            }
+        });
+    }
+
+    /**
+     * Entfernt <b>viele Figuren auf einmal</b> aus der Ebene.
+     *
+     * <p>
+     * Anstatt die Liste der Figuren für jede Figur einzeln zu durchsuchen, wird
+     * sie nur einmal durchlaufen. Die Zeichenreihenfolge der übrigen Figuren
+     * bleibt dabei erhalten.
+     * </p>
+     *
+     * @param actors Die Figuren, die entfernt werden sollen.
+     *
+     * @see #removeAll(Collection, int, BatchProgressListener)
+     */
+    @API
+    public void removeAll(Collection<? extends Actor> actors)
+    {
+        removeAll(actors, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Entfernt <b>sehr viele Figuren</b> in Teilstapeln aus der Ebene. Pro
+     * Einzelbild wird höchstens ein Teilstapel verarbeitet.
+     *
+     * @param actors Die Figuren, die entfernt werden sollen.
+     * @param chunkSize Die maximale Anzahl an Figuren, die pro Einzelbild
+     *     entfernt werden.
+     * @param progressListener Wird nach jedem Teilstapel informiert. Darf
+     *     <code>null</code> sein.
+     */
+    @API
+    public void removeAll(Collection<? extends Actor> actors, int chunkSize,
+            BatchProgressListener progressListener)
+    {
+        assertValidChunkSize(chunkSize);
+        removeChunk(actors.toArray(new Actor[0]), 0, chunkSize,
+                progressListener);
+    }
+
+    private void removeChunk(Actor[] batch, int from, int chunkSize,
+            BatchProgressListener progressListener)
+    {
+        defer(() -> {
+            int to = (int) Math.min((long) from + chunkSize, batch.length);
+            Set<Actor> removed = Collections
+                    .newSetFromMap(new IdentityHashMap<>(to - from));
+            runExclusive(() -> {
+                for (int i = from; i < to; i++)
                 {
-                    return;
+                    removed.add(batch[i]);
+                    unmount(batch[i]);
                 }
-                Body body = physicsHandler.getBody();
-                worldHandler.removeAllInternalReferences(body);
-                worldHandler.getWorld().destroyBody(body);
-                actor.setPhysicsHandler(new NullHandler(physicsData));
+            });
+            this.actors.removeIf(removed::contains);
+            if (progressListener != null)
+            {
+                progressListener.onProgress(to, batch.length);
+            }
+            if (to < batch.length)
+            {
+                removeChunk(batch, to, chunkSize, progressListener);
             }
         });
     }
 
+    /**
+     * Meldet eine Figur von der Physik-Welt dieser Ebene ab.
+     */
+    private void unmount(Actor actor)
+    {
+        PhysicsHandler physicsHandler = actor.getPhysicsHandler();
+        if (physicsHandler.getWorldHandler() == null)
+        {
+            return;
+        }
+        PhysicsData physicsData = physicsHandler.getPhysicsData();
+        if (physicsHandler instanceof ArcadeHandler arcadeHandler)
+        {
+            arcadeHandler.destroy();
+        }
+        else
+        {
+            physicsHandler.getWorldHandler()
+                    .destroyBody(physicsHandler.getBody());
+        }
+        actor.setPhysicsHandler(new NullHandler(physicsData));
+    }
+
+    private static void assertValidChunkSize(int chunkSize)
+    {
+        if (chunkSize < 1)
+        {
+            throw new IllegalArgumentException(
+                    "Die Größe eines Teilstapels muss mindestens 1 sein, war "
+                            + chunkSize);
+        }
+    }
+
     /**
      * Übersetzt einen Punkt auf diesem Layer zu der analogen, aktuellen
      * Pixelkoordinate im zeichnenden Frame.
@@ -555,6 +963,283 @@ public class Layer implements KeyStrokeListenerRegistration,
         }
     }
 
+    /* ____________ Schnappschüsse ____________ */
+
+    /**
+     * Speichert den physikalischen Zustand dieser Ebene in einem neuen,
+     * kompakten Puffer, z. B. für Spielstände, zum Zurückspulen oder für
+     * Rollback-Netzwerkcode.
+     *
+     * <p>
+     * Gespeichert werden die Positionen, Drehungen und Geschwindigkeiten sowie
+     * der Schlafzustand aller Körper und die einstellbaren Werte aller Gelenke.
+     * </p>
+     *
+     * @return Ein Puffer, der zum Lesen bereit ist.
+     *
+     * @throws IllegalStateException Falls die Ebene das
+     *     {@link PhysicsBackend#ARCADE Arcade-Backend} verwendet.
+     *
+     * @see #restore(ByteBuffer)
+     */
+    @API
+    public ByteBuffer snapshot()
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(getSnapshotSize());
+        snapshot(buffer);
+        return buffer.flip();
+    }
+
+    /**
+     * Schreibt den physikalischen Zustand dieser Ebene ab der aktuellen
+     * Position in einen wiederverwendbaren Puffer.
+     *
+     * @param buffer Der Puffer mit mindestens {@link #getSnapshotSize()} freien
+     *     Bytes.
+     */
+    @API
+    public void snapshot(ByteBuffer buffer)
+    {
+        worldHandler.snapshot(buffer);
+    }
+
+    /**
+     * Gibt an, wie viele Bytes ein Schnappschuss dieser Ebene höchstens belegt.
+     *
+     * @return Die maximale Größe eines Schnappschusses in Bytes.
+     */
+    @API
+    public int getSnapshotSize()
+    {
+        return worldHandler.getSnapshotSize();
+    }
+
+    /**
+     * Stellt den physikalischen Zustand dieser Ebene aus einem Schnappschuss
+     * wieder her. Die Körper werden dabei nicht neu erzeugt. Seit dem
+     * Schnappschuss dürfen deshalb keine Figuren oder Gelenke hinzugefügt oder
+     * entfernt worden sein.
+     *
+     * @param buffer Der Puffer, der ab der aktuellen Position den Schnappschuss
+     *     enthält.
+     *
+     * @throws IllegalStateException Falls seit dem Schnappschuss Figuren oder
+     *     Gelenke hinzugefügt, entfernt oder ersetzt wurden. Der Zustand der
+     *     Ebene bleibt dann unverändert.
+     *
+     * @see #snapshot()
+     */
+    @API
+    public void restore(ByteBuffer buffer)
+    {
+        worldHandler.restore(buffer);
+    }
+
+    /**
+     * Prüft, ob ein Schnappschuss zu dieser Ebene passt, ohne etwas zu
+     * verändern. Danach steht der Puffer hinter dem Schnappschuss.
+     */
+    void validateSnapshot(ByteBuffer buffer)
+    {
+        worldHandler.validateSnapshot(buffer);
+    }
+
+    /* ____________ Abfragen ____________ */
+
+    /**
+     * Sucht die <b>erste Figur</b>, die ein Strahl vom Start- zum Endpunkt
+     * trifft, z. B. um die Sichtlinie einer Spielfigur oder den Treffer eines
+     * Schusses zu bestimmen.
+     *
+     * <p>
+     * Bei der Abfrage werden keine neuen Objekte erzeugt. Der Treffer wird in
+     * das übergebene, wiederverwendbare {@link RaycastHit}-Objekt geschrieben.
+     * </p>
+     *
+     * @param fromX Die x-Koordinate des Startpunkts.
+     * @param fromY Die y-Koordinate des Startpunkts.
+     * @param toX Die x-Koordinate des Endpunkts.
+     * @param toY Die y-Koordinate des Endpunkts.
+     * @param categoryMask Die Kategorien der Figuren, die berücksichtigt
+     *     werden, z. B. {@link WorldHandler#CATEGORY_STATIC} |
+     *     {@link WorldHandler#CATEGORY_DYNAMIC} oder
+     *     {@link WorldHandler#CATEGORY_ALL}.
+     * @param hit Das Objekt, in das der Treffer geschrieben wird.
+     *
+     * @return <code>true</code>, falls eine Figur getroffen wurde, sonst
+     *     <code>false</code>.
+     *
+     * @throws IllegalStateException Falls die Ebene das
+     *     {@link PhysicsBackend#ARCADE Arcade-Backend} verwendet.
+     */
+    @API
+    public boolean raycast(double fromX, double fromY, double toX, double toY,
+            int categoryMask, RaycastHit hit)
+    {
+        return worldHandler.raycast(fromX, fromY, toX, toY, categoryMask, hit);
+    }
+
+    /**
+     * Sucht die <b>erste Figur</b>, die ein Strahl vom Start- zum Endpunkt
+     * trifft. Es werden Figuren aller Kategorien berücksichtigt.
+     *
+     * @param from Der Startpunkt des Strahls.
+     * @param to Der Endpunkt des Strahls.
+     * @param hit Das Objekt, in das der Treffer geschrieben wird.
+     *
+     * @return <code>true</code>, falls eine Figur getroffen wurde, sonst
+     *     <code>false</code>.
+     *
+     * @throws IllegalStateException Falls die Ebene das
+     *     {@link PhysicsBackend#ARCADE Arcade-Backend} verwendet.
+     *
+     * @see #raycast(double, double, double, double, int, RaycastHit)
+     */
+    @API
+    public boolean raycast(Vector from, Vector to, RaycastHit hit)
+    {
+        return raycast(from.getX(), from.getY(), to.getX(), to.getY(),
+                WorldHandler.CATEGORY_ALL, hit);
+    }
+
+    /**
+     * Schreibt <b>alle Figuren</b>, die ein Strahl trifft, nach Entfernung vom
+     * Startpunkt sortiert in das übergebene Feld. Jede Figur wird höchstens
+     * einmal mit ihrem nächstgelegenen Treffer eingetragen. Passen nicht alle
+     * Treffer in das Feld, werden die nächstgelegenen behalten.
+     *
+     * @param fromX Die x-Koordinate des Startpunkts.
+     * @param fromY Die y-Koordinate des Startpunkts.
+     * @param toX Die x-Koordinate des Endpunkts.
+     * @param toY Die y-Koordinate des Endpunkts.
+     * @param categoryMask Die Kategorien der Figuren, die berücksichtigt
+     *     werden.
+     * @param hits Ein wiederverwendbares Feld für die Treffer.
+     *
+     * @return Die Anzahl der Treffer, die in das Feld geschrieben wurden.
+     *
+     * @throws IllegalStateException Falls die Ebene das
+     *     {@link PhysicsBackend#ARCADE Arcade-Backend} verwendet.
+     */
+    @API
+    public int raycastAll(double fromX, double fromY, double toX, double toY,
+            int categoryMask, RaycastHit[] hits)
+    {
+        return worldHandler.raycastAll(fromX, fromY, toX, toY, categoryMask,
+                hits);
+    }
+
+    /**
+     * Meldet <b>alle Figuren</b>, die ein Strahl trifft, an einen Besucher.
+     *
+     * @param fromX Die x-Koordinate des Startpunkts.
+     * @param fromY Die y-Koordinate des Startpunkts.
+     * @param toX Die x-Koordinate des Endpunkts.
+     * @param toY Die y-Koordinate des Endpunkts.
+     * @param categoryMask Die Kategorien der Figuren, die berücksichtigt
+     *     werden.
+     * @param visitor Der Besucher, der für jeden Treffer aufgerufen wird.
+     *
+     * @throws IllegalStateException Falls die Ebene das
+     *     {@link PhysicsBackend#ARCADE Arcade-Backend} verwendet.
+     */
+    @API
+    public void raycastAll(double fromX, double fromY, double toX, double toY,
+            int categoryMask, RaycastVisitor visitor)
+    {
+        worldHandler.raycastAll(fromX, fromY, toX, toY, categoryMask, visitor);
+    }
+
+    /**
+     * Schreibt alle Figuren, deren Umrisse das <b>achsenparallele Rechteck</b>
+     * berühren, in das übergebene Feld. Jede Figur wird höchstens einmal
+     * eingetragen.
+     *
+     * @param bounds Das Rechteck, in dem gesucht wird.
+     * @param categoryMask Die Kategorien der Figuren, die berücksichtigt
+     *     werden.
+     * @param actors Ein wiederverwendbares Feld für die gefundenen Figuren.
+     *
+     * @return Die Anzahl der Figuren, die in das Feld geschrieben wurden.
+     *
+     * @throws IllegalStateException Falls die Ebene das
+     *     {@link PhysicsBackend#ARCADE Arcade-Backend} verwendet.
+     */
+    @API
+    public int queryAABB(Bounds bounds, int categoryMask, Actor[] actors)
+    {
+        return worldHandler.queryAABB(bounds, categoryMask, actors);
+    }
+
+    /**
+     * Meldet alle Figuren, deren Umrisse das <b>achsenparallele Rechteck</b>
+     * berühren, an einen Besucher.
+     *
+     * @param bounds Das Rechteck, in dem gesucht wird.
+     * @param categoryMask Die Kategorien der Figuren, die berücksichtigt
+     *     werden.
+     * @param visitor Der Besucher, der für jede gefundene Figur aufgerufen
+     *     wird.
+     *
+     * @throws IllegalStateException Falls die Ebene das
+     *     {@link PhysicsBackend#ARCADE Arcade-Backend} verwendet.
+     */
+    @API
+    public void queryAABB(Bounds bounds, int categoryMask, QueryVisitor visitor)
+    {
+        worldHandler.queryAABB(bounds, categoryMask, visitor);
+    }
+
+    /**
+     * Schreibt alle Figuren, die sich mit einem <b>Umriss</b> an der
+     * angegebenen Position überschneiden, in das übergebene Feld. Jede Figur
+     * wird höchstens einmal eingetragen.
+     *
+     * @param shape Der Umriss, z. B. aus
+     *     {@link de.pirckheimer_gymnasium.engine_pi.physics.FixtureBuilder#circle(double, double, double)}.
+     * @param x Die x-Koordinate, an die der Umriss verschoben wird.
+     * @param y Die y-Koordinate, an die der Umriss verschoben wird.
+     * @param rotation Die Drehung des Umrisses in Grad.
+     * @param categoryMask Die Kategorien der Figuren, die berücksichtigt
+     *     werden.
+     * @param actors Ein wiederverwendbares Feld für die gefundenen Figuren.
+     *
+     * @return Die Anzahl der Figuren, die in das Feld geschrieben wurden.
+     *
+     * @throws IllegalStateException Falls die Ebene das
+     *     {@link PhysicsBackend#ARCADE Arcade-Backend} verwendet.
+     */
+    @API
+    public int queryShape(FixtureData shape, double x, double y,
+            double rotation, int categoryMask, Actor[] actors)
+    {
+        return worldHandler.queryShape(shape, x, y, rotation, categoryMask,
+                actors);
+    }
+
+    /**
+     * Meldet alle Figuren, die sich mit einem <b>Umriss</b> an der angegebenen
+     * Position überschneiden, an einen Besucher.
+     *
+     * @param shape Der Umriss.
+     * @param x Die x-Koordinate, an die der Umriss verschoben wird.
+     * @param y Die y-Koordinate, an die der Umriss verschoben wird.
+     * @param rotation Die Drehung des Umrisses in Grad.
+     * @param categoryMask Die Kategorien der Figuren, die berücksichtigt
+     *     werden.
+     * @param visitor Der Besucher, der für jede gefundene Figur aufgerufen
+     *     wird.
+     *
+     * @throws IllegalStateException Falls die Ebene das
+     *     {@link PhysicsBackend#ARCADE Arcade-Backend} verwendet.
+     */
+    @API
+    public void queryShape(FixtureData shape, double x, double y,
+            double rotation, int categoryMask, QueryVisitor visitor)
+    {
+        worldHandler.queryShape(shape, x, y, rotation, categoryMask, visitor);
+    }
+
     /**
      * Gibt den {@link WorldHandler} dieser Ebene aus.
      *
@@ -574,10 +1259,42 @@ public class Layer implements KeyStrokeListenerRegistration,
     @Internal
     public void step(double pastTime)
     {
-        synchronized (worldHandler)
-        {
-            worldHandler.step(pastTime * timeDistort);
-        }
+        worldHandler.step(pastTime * timeDistort);
+    }
+
+    /**
+     * Fügt die Aufgaben hinzu, die den World-Step dieser Ebene ausführen. Die
+     * Aufgaben aller Ebenen laufen parallel.
+     *
+     * @param pastTime Die Echtzeit, die seit dem letzten World-Step vergangen
+     *     ist.
+     * @param tasks Die Sammlung, in die die Aufgaben eingefügt werden.
+     */
+    void addStepTasks(double pastTime, Collection<Runnable> tasks)
+    {
+        tasks.add(() -> step(pastTime));
+    }
+
+    /**
+     * Wird aufgerufen, nachdem die World-Steps aller Ebenen abgeschlossen sind.
+     */
+    void afterStep()
+    {
+        // nothing to do
+    }
+
+    /**
+     * Gibt die Figuren dieser Ebene in Zeichenreihenfolge zurück. Darf nur vom
+     * Thread der Spielschleife gelesen werden.
+     */
+    List<Actor> getActorList()
+    {
+        return actors;
+    }
+
+    double getTimeDistort()
+    {
+        return timeDistort;
     }
 
     @API
@@ -592,6 +1309,12 @@ public class Layer implements KeyStrokeListenerRegistration,
         return keyStrokeListeners;
     }
 
+    @API
+    public KeyCodeListeners getKeyCodeListeners()
+    {
+        return keyCodeListeners;
+    }
+
     @API
     public EventListeners<MouseClickListener> getMouseClickListeners()
     {
@@ -604,11 +1327,18 @@ public class Layer implements KeyStrokeListenerRegistration,
         return mouseScrollListeners;
     }
 
+    @Override
+    @Internal
+    public TimingWheel getTimingWheel()
+    {
+        return timingWheel;
+    }
+
     @Internal
     void invokeFrameUpdateListeners(double pastTime)
     {
         double scaledSeconds = pastTime * timeDistort;
-        frameUpdateListeners.invoke(frameUpdateListener -> frameUpdateListener
-                .onFrameUpdate(scaledSeconds));
+        timingWheel.advance(scaledSeconds);
+        frameUpdateInvoker.invoke(scaledSeconds);
     }
 }
@@ -0,0 +1,325 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import de.pirckheimer_gymnasium.engine_pi.actor.Actor;
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+import de.pirckheimer_gymnasium.engine_pi.physics.FixtureData;
+import de.pirckheimer_gymnasium.engine_pi.physics.PhysicsBackend;
+import de.pirckheimer_gymnasium.engine_pi.physics.PhysicsData;
+import de.pirckheimer_gymnasium.engine_pi.physics.QueryVisitor;
+import de.pirckheimer_gymnasium.engine_pi.physics.RaycastHit;
+import de.pirckheimer_gymnasium.engine_pi.physics.RaycastVisitor;
+import de.pirckheimer_gymnasium.engine_pi.physics.WorldHandler;
+import de.pirckheimer_gymnasium.engine_pi.physics.WorldPartition;
+
+/**
+ * Eine <b>Ebene</b>, deren Physik in ein Gitter aus <b>Regionen</b> aufgeteilt
+ * ist, die parallel berechnet werden.
+ *
+ * <p>
+ * Eine gewöhnliche Ebene besitzt eine einzige Physik-Welt, die auf einem
+ * Prozessorkern berechnet wird. Diese Ebene legt stattdessen für jede belegte
+ * Region eine eigene Welt an. Alle Regionen werden gleichzeitig auf dem
+ * Thread-Pool der Spielschleife berechnet. Das lohnt sich bei großen Levels mit
+ * mehreren voneinander entfernten Schauplätzen, z. B. vielen Arenen oder
+ * Räumen.
+ * </p>
+ *
+ * <p>
+ * Figuren, die eine Regionsgrenze überqueren, werden automatisch an die
+ * Nachbarregion übergeben. Damit Kollisionen über Grenzen hinweg funktionieren,
+ * erhalten Figuren nahe einer Grenze Geisterkopien in den Nachbarregionen,
+ * siehe {@link WorldPartition}. Strahl- und Bereichsabfragen durchsuchen alle
+ * Regionen. Schnappschüsse sowie Gelenke zwischen Figuren verschiedener
+ * Regionen werden nicht unterstützt.
+ * </p>
+ *
+ * <p>
+ * <b>Achtung:</b> Die Kollisionsbeobachter werden während des World-Steps ihrer
+ * Region aufgerufen. Beobachter von Figuren in verschiedenen Regionen laufen
+ * deshalb <b>gleichzeitig auf verschiedenen Threads</b>. Greifen sie auf
+ * gemeinsame Daten zu, z. B. einen Punktestand, müssen sie diese selbst
+ * synchronisieren oder die Änderung mit {@link Game#enqueue(Runnable)} an den
+ * Spielthread übergeben.
+ * </p>
+ *
+ * <p>
+ * <b>Figuren mit Gelenken werden nie an eine andere Region übergeben.</b> Sie
+ * werden weiter in der Region berechnet, in der sie angemeldet wurden, und
+ * kollidieren außerhalb davon nur noch mit Geisterkopien.
+ * </p>
+ *
+ * @author Josef Friedrich
+ */
+public class PartitionedLayer extends Layer
+{
+    private final WorldPartition partition;
+
+    /**
+     * Erzeugt eine neue aufgeteilte Ebene.
+     *
+     * @param regionWidth Die Breite einer Region in Meter.
+     * @param regionHeight Die Höhe einer Region in Meter.
+     */
+    @API
+    public PartitionedLayer(double regionWidth, double regionHeight)
+    {
+        partition = new WorldPartition(this, getWorldHandler(), regionWidth,
+                regionHeight);
+    }
+
+    /**
+     * Setzt den Abstand zu einer Regionsgrenze, ab dem eine Figur eine
+     * Geisterkopie in der Nachbarregion erhält. Standardmäßig sind es 0,5
+     * Meter.
+     *
+     * @param ghostMargin Der Abstand in Meter.
+     */
+    @API
+    public void setGhostMargin(double ghostMargin)
+    {
+        partition.setGhostMargin(ghostMargin);
+    }
+
+    @API
+    public double getGhostMargin()
+    {
+        return partition.getGhostMargin();
+    }
+
+    /**
+     * Gibt die Anzahl der Regionen zurück, die gerade Körper enthalten.
+     *
+     * @return Die Anzahl der Regionen.
+     */
+    @API
+    public int getRegionCount()
+    {
+        return partition.getRegionCount();
+    }
+
+    /**
+     * Gibt die Physik-Welten aller Regionen zurück, z. B. um ihre
+     * {@link WorldHandler#getStatistics() Kennzahlen} abzufragen.
+     *
+     * @return Die Physik-Welten aller Regionen.
+     */
+    @Internal
+    public List<WorldHandler> getRegionWorldHandlers()
+    {
+        return partition.getWorldHandlers();
+    }
+
+    /**
+     * Eine aufgeteilte Ebene unterstützt nur die Physik-Engine JBox2D.
+     *
+     * @throws IllegalArgumentException Falls das {@link PhysicsBackend#ARCADE
+     *     Arcade-Backend} gewählt wird.
+     */
+    @Override
+    public void setPhysicsBackend(PhysicsBackend backend)
+    {
+        if (backend != PhysicsBackend.JBOX2D)
+        {
+            throw new IllegalArgumentException(
+                    "Eine aufgeteilte Ebene unterstützt nur JBox2D.");
+        }
+        super.setPhysicsBackend(backend);
+    }
+
+    @Override
+    public void setGravity(Vector gravity)
+    {
+        super.setGravity(gravity);
+        partition.copySettings();
+    }
+
+    @Override
+    public void setPhysicsStepRate(double stepRate)
+    {
+        super.setPhysicsStepRate(stepRate);
+        partition.copySettings();
+    }
+
+    @Override
+    public void setSolverIterations(int velocityIterations,
+            int positionIterations)
+    {
+        super.setSolverIterations(velocityIterations, positionIterations);
+        partition.copySettings();
+    }
+
+    /**
+     * Jede Region sperrt ihre Welt selbst, während darin Körper erzeugt oder
+     * entfernt werden. Die Vorlage enthält keine Körper und muss daher nicht
+     * gesperrt werden.
+     */
+    @Override
+    void runExclusive(Runnable action)
+    {
+        action.run();
+    }
+
+    @Override
+    WorldHandler selectWorldHandler(PhysicsData physicsData)
+    {
+        return partition.getWorldHandler(physicsData.getX(),
+                physicsData.getY());
+    }
+
+    @Override
+    void addStepTasks(double pastTime, Collection<Runnable> tasks)
+    {
+        partition.addStepTasks(pastTime * getTimeDistort(), tasks);
+    }
+
+    @Override
+    void afterStep()
+    {
+        partition.update(getActorList());
+    }
+
+    @Internal
+    @Override
+    public void step(double pastTime)
+    {
+        List<Runnable> tasks = new ArrayList<>();
+        addStepTasks(pastTime, tasks);
+        for (Runnable task : tasks)
+        {
+            task.run();
+        }
+        afterStep();
+    }
+
+    /* ____________ Schnappschüsse ____________ */
+
+    /**
+     * Wird von einer aufgeteilten Ebene nicht unterstützt.
+     *
+     * @throws UnsupportedOperationException Immer.
+     */
+    @Override
+    public void snapshot(ByteBuffer buffer)
+    {
+        throw unsupportedSnapshot();
+    }
+
+    /**
+     * Wird von einer aufgeteilten Ebene nicht unterstützt.
+     *
+     * @throws UnsupportedOperationException Immer.
+     */
+    @Override
+    public int getSnapshotSize()
+    {
+        throw unsupportedSnapshot();
+    }
+
+    /**
+     * Wird von einer aufgeteilten Ebene nicht unterstützt.
+     *
+     * @throws UnsupportedOperationException Immer.
+     */
+    @Override
+    public void restore(ByteBuffer buffer)
+    {
+        throw unsupportedSnapshot();
+    }
+
+    @Override
+    void validateSnapshot(ByteBuffer buffer)
+    {
+        throw unsupportedSnapshot();
+    }
+
+    private static UnsupportedOperationException unsupportedSnapshot()
+    {
+        return new UnsupportedOperationException(
+                "Schnappschüsse werden von aufgeteilten Ebenen nicht unterstützt.");
+    }
+
+    /* ____________ Abfragen ____________ */
+
+    /**
+     * Durchsucht alle Regionen und gibt den nächstgelegenen Treffer zurück.
+     */
+    @Override
+    public boolean raycast(double fromX, double fromY, double toX, double toY,
+            int categoryMask, RaycastHit hit)
+    {
+        return partition.raycast(fromX, fromY, toX, toY, categoryMask, hit);
+    }
+
+    /**
+     * Durchsucht alle Regionen und führt die Treffer nach Entfernung sortiert
+     * zusammen.
+     */
+    @Override
+    public int raycastAll(double fromX, double fromY, double toX, double toY,
+            int categoryMask, RaycastHit[] hits)
+    {
+        return partition.raycastAll(fromX, fromY, toX, toY, categoryMask, hits);
+    }
+
+    /**
+     * Durchsucht alle Regionen nacheinander. Die Treffer sind nur innerhalb
+     * einer Region nach Entfernung sortiert.
+     */
+    @Override
+    public void raycastAll(double fromX, double fromY, double toX, double toY,
+            int categoryMask, RaycastVisitor visitor)
+    {
+        partition.raycastAll(fromX, fromY, toX, toY, categoryMask, visitor);
+    }
+
+    @Override
+    public int queryAABB(Bounds bounds, int categoryMask, Actor[] actors)
+    {
+        return partition.queryAABB(bounds, categoryMask, actors);
+    }
+
+    @Override
+    public void queryAABB(Bounds bounds, int categoryMask, QueryVisitor visitor)
+    {
+        partition.queryAABB(bounds, categoryMask, visitor);
+    }
+
+    @Override
+    public int queryShape(FixtureData shape, double x, double y,
+            double rotation, int categoryMask, Actor[] actors)
+    {
+        return partition.queryShape(shape, x, y, rotation, categoryMask,
+                actors);
+    }
+
+    @Override
+    public void queryShape(FixtureData shape, double x, double y,
+            double rotation, int categoryMask, QueryVisitor visitor)
+    {
+        partition.queryShape(shape, x, y, rotation, categoryMask, visitor);
+    }
+}
@@ -27,10 +27,22 @@ import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
 
 /**
  * Diese Klasse liefert Methoden, die <b>zufällig verteilte Rückgaben</b> haben.
+ *
+ * <p>
+ * Mit {@link #setSeed(long)} liefern alle Methoden eine reproduzierbare Folge
+ * von Zufallszahlen, z. B. um eine Aufzeichnung der Eingabeereignisse
+ * deterministisch abzuspielen.
+ * </p>
  */
 @API
 public final class Random
 {
+    /**
+     * Der Zufallsgenerator mit festem Startwert oder <code>null</code>, wenn
+     * der Zufallsgenerator des jeweiligen Threads verwendet wird.
+     */
+    private static volatile java.util.Random seeded;
+
     /**
      * Privater Konstruktor.
      */
@@ -40,6 +52,37 @@ public final class Random
         // Es sollen keine Instanzen dieser Klasse erstellt werden.
     }
 
+    /**
+     * Legt den <b>Startwert</b> fest, aus dem alle folgenden Zufallszahlen
+     * berechnet werden. Bei gleichem Startwert und gleicher Reihenfolge der
+     * Aufrufe liefern alle Methoden dieser Klasse die gleichen Werte.
+     *
+     * @param seed Der Startwert des Zufallsgenerators.
+     *
+     * @see #clearSeed()
+     */
+    @API
+    public static void setSeed(long seed)
+    {
+        seeded = new java.util.Random(seed);
+    }
+
+    /**
+     * Verwirft einen mit {@link #setSeed(long)} festgelegten Startwert, sodass
+     * wieder nicht reproduzierbare Zufallszahlen geliefert werden.
+     */
+    @API
+    public static void clearSeed()
+    {
+        seeded = null;
+    }
+
+    private static java.util.Random generator()
+    {
+        java.util.Random random = seeded;
+        return random != null ? random : ThreadLocalRandom.current();
+    }
+
     /**
      * Gibt einen <b>zufälligen</b> <code>boolean</code>-Wert zurück.<br>
      * Die Wahrscheinlichkeiten für <code>true</code> bzw. <code>false</code>
@@ -51,7 +94,7 @@ public final class Random
     @API
     public static boolean toggle()
     {
-        return ThreadLocalRandom.current().nextBoolean();
+        return generator().nextBoolean();
     }
 
     /**
@@ -74,7 +117,7 @@ public final class Random
             throw new IllegalArgumentException(
                     "Achtung! Für eine Zufallszahl muss die definierte Obergrenze (die inklusiv in der Ergebnismenge ist) eine nichtnegative Zahl sein!");
         }
-        return ThreadLocalRandom.current().nextInt(upperLimit + 1);
+        return generator().nextInt(upperLimit + 1);
     }
 
     /**
@@ -100,13 +143,13 @@ public final class Random
         }
         else if (lowerLimit < upperLimit)
         {
-            return lowerLimit + ThreadLocalRandom.current()
-                    .nextInt(upperLimit - lowerLimit + 1);
+            return lowerLimit
+                    + generator().nextInt(upperLimit - lowerLimit + 1);
         }
         else
         {
-            return upperLimit + ThreadLocalRandom.current()
-                    .nextInt(lowerLimit - upperLimit + 1);
+            return upperLimit
+                    + generator().nextInt(lowerLimit - upperLimit + 1);
         }
     }
 
@@ -122,7 +165,7 @@ public final class Random
     @API
     public static double range()
     {
-        return ThreadLocalRandom.current().nextDouble();
+        return generator().nextDouble();
     }
 
     /**
@@ -148,13 +191,13 @@ public final class Random
         }
         else if (lowerLimit < upperLimit)
         {
-            return lowerLimit + ThreadLocalRandom.current().nextDouble()
-                    * (upperLimit - lowerLimit);
+            return lowerLimit
+                    + generator().nextDouble() * (upperLimit - lowerLimit);
         }
         else
         {
-            return upperLimit + ThreadLocalRandom.current().nextDouble()
-                    * (lowerLimit - upperLimit);
+            return upperLimit
+                    + generator().nextDouble() * (lowerLimit - upperLimit);
         }
     }
 }
@@ -24,9 +24,11 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.event.KeyEvent;
 import java.awt.geom.AffineTransform;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -43,9 +45,13 @@ import de.pirckheimer_gymnasium.engine_pi.actor.Actor;
 import de.pirckheimer_gymnasium.engine_pi.actor.ActorAdder;
 import de.pirckheimer_gymnasium.engine_pi.annotations.API;
 import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+import de.pirckheimer_gymnasium.engine_pi.event.BatchProgressListener;
 import de.pirckheimer_gymnasium.engine_pi.event.EventListeners;
+import de.pirckheimer_gymnasium.engine_pi.event.FramePhase;
+import de.pirckheimer_gymnasium.engine_pi.event.FrameUpdateInvoker;
 import de.pirckheimer_gymnasium.engine_pi.event.FrameUpdateListener;
 import de.pirckheimer_gymnasium.engine_pi.event.FrameUpdateListenerRegistration;
+import de.pirckheimer_gymnasium.engine_pi.event.KeyCodeListeners;
 import de.pirckheimer_gymnasium.engine_pi.event.KeyStrokeListener;
 import de.pirckheimer_gymnasium.engine_pi.event.KeyStrokeListenerRegistration;
 import de.pirckheimer_gymnasium.engine_pi.event.MouseButton;
@@ -54,6 +60,11 @@ import de.pirckheimer_gymnasium.engine_pi.event.MouseClickListenerRegistration;
 import de.pirckheimer_gymnasium.engine_pi.event.MouseScrollEvent;
 import de.pirckheimer_gymnasium.engine_pi.event.MouseScrollListener;
 import de.pirckheimer_gymnasium.engine_pi.event.MouseScrollListenerRegistration;
+import de.pirckheimer_gymnasium.engine_pi.event.TimingWheel;
+import de.pirckheimer_gymnasium.engine_pi.physics.FixtureData;
+import de.pirckheimer_gymnasium.engine_pi.physics.QueryVisitor;
+import de.pirckheimer_gymnasium.engine_pi.physics.RaycastHit;
+import de.pirckheimer_gymnasium.engine_pi.physics.RaycastVisitor;
 import de.pirckheimer_gymnasium.engine_pi.physics.WorldHandler;
 import de.pirckheimer_gymnasium.engine_pi.resources.ColorContainer;
 
@@ -82,8 +93,25 @@ public class Scene implements KeyStrokeListenerRegistration,
 
     private final EventListeners<FrameUpdateListener> frameUpdateListeners = new EventListeners<>();
 
+    private final FrameUpdateInvoker frameUpdateInvoker = new FrameUpdateInvoker(
+            frameUpdateListeners);
+
+    /**
+     * Die Beobachter der einzelnen Phasen eines Einzelbilds. Die Phase
+     * {@link FramePhase#UPDATE} verweist auf {@link #frameUpdateListeners}.
+     */
+    private final EnumMap<FramePhase, EventListeners<FrameUpdateListener>> phaseListeners = new EnumMap<>(
+            FramePhase.class);
+
+    private final EnumMap<FramePhase, FrameUpdateInvoker> phaseInvokers = new EnumMap<>(
+            FramePhase.class);
+
     private final EventListeners<KeyStrokeListener> keyStrokeListeners = new EventListeners<>();
 
+    private final KeyCodeListeners keyCodeListeners = new KeyCodeListeners();
+
+    private final TimingWheel timingWheel = new TimingWheel();
+
     private final EventListeners<MouseClickListener> mouseClickListeners = new EventListeners<>();
 
     private final EventListeners<MouseScrollListener> mouseScrollListeners = new EventListeners<>();
@@ -109,6 +137,20 @@ public class Scene implements KeyStrokeListenerRegistration,
 
     public Scene()
     {
+        for (FramePhase phase : FramePhase.values())
+        {
+            if (phase == FramePhase.UPDATE)
+            {
+                phaseListeners.put(phase, frameUpdateListeners);
+                phaseInvokers.put(phase, frameUpdateInvoker);
+            }
+            else
+            {
+                phaseListeners.put(phase, new EventListeners<>());
+                phaseInvokers.put(phase,
+                        new FrameUpdateInvoker(phaseListeners.get(phase)));
+            }
+        }
         camera = new Camera();
         mainLayer = new Layer();
         mainLayer.setLayerPosition(0);
@@ -144,11 +186,15 @@ public class Scene implements KeyStrokeListenerRegistration,
     {
         synchronized (layers)
         {
-            Collection<Future<?>> layerFutures = new ArrayList<>(layers.size());
+            Collection<Runnable> tasks = new ArrayList<>(layers.size());
             for (Layer layer : layers)
             {
-                Future<?> future = invoker.apply(() -> layer.step(pastTime));
-                layerFutures.add(future);
+                layer.addStepTasks(pastTime, tasks);
+            }
+            Collection<Future<?>> layerFutures = new ArrayList<>(tasks.size());
+            for (Runnable task : tasks)
+            {
+                layerFutures.add(invoker.apply(task));
             }
             for (Future<?> layerFuture : layerFutures)
             {
@@ -161,6 +207,10 @@ public class Scene implements KeyStrokeListenerRegistration,
                     throw new RuntimeException(e);
                 }
             }
+            for (Layer layer : layers)
+            {
+                layer.afterStep();
+            }
         }
     }
 
@@ -503,12 +553,244 @@ public class Scene implements KeyStrokeListenerRegistration,
         }
     }
 
+    /**
+     * Speichert den physikalischen Zustand aller Ebenen dieser Szene in einem
+     * neuen, kompakten Puffer.
+     *
+     * @return Ein Puffer, der zum Lesen bereit ist.
+     *
+     * @see Layer#snapshot()
+     * @see #restore(ByteBuffer)
+     */
+    @API
+    public ByteBuffer snapshot()
+    {
+        synchronized (layers)
+        {
+            int size = 4;
+            for (Layer layer : layers)
+            {
+                size += layer.getSnapshotSize();
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(size);
+            buffer.putInt(layers.size());
+            for (Layer layer : layers)
+            {
+                layer.snapshot(buffer);
+            }
+            return buffer.flip();
+        }
+    }
+
+    /**
+     * Stellt den physikalischen Zustand aller Ebenen dieser Szene aus einem
+     * Schnappschuss wieder her.
+     *
+     * @param buffer Der Puffer, der ab der aktuellen Position den Schnappschuss
+     *     enthält.
+     *
+     * @see Layer#restore(ByteBuffer)
+     */
+    @API
+    public void restore(ByteBuffer buffer)
+    {
+        synchronized (layers)
+        {
+            int start = buffer.position();
+            int layerCount = buffer.getInt();
+            if (layerCount != layers.size())
+            {
+                buffer.position(start);
+                throw new IllegalStateException("Der Schnappschuss enthält "
+                        + layerCount + " Ebenen, die Szene aber "
+                        + layers.size() + ".");
+            }
+            // Zuerst alle Ebenen prüfen, damit bei einem Fehler keine Ebene
+            // verändert wird.
+            try
+            {
+                for (Layer layer : layers)
+                {
+                    layer.validateSnapshot(buffer);
+                }
+            }
+            finally
+            {
+                buffer.position(start + 4);
+            }
+            for (Layer layer : layers)
+            {
+                layer.restore(buffer);
+            }
+        }
+    }
+
+    /**
+     * Fügt viele Figuren auf einmal der Hauptebene hinzu.
+     *
+     * @param actors Die Figuren, die hinzugefügt werden sollen.
+     *
+     * @see Layer#addAll(Collection)
+     */
+    @API
+    public void addAll(Collection<? extends Actor> actors)
+    {
+        mainLayer.addAll(actors);
+    }
+
+    /**
+     * Fügt sehr viele Figuren in Teilstapeln der Hauptebene hinzu.
+     *
+     * @see Layer#addAll(Collection, int, BatchProgressListener)
+     */
+    @API
+    public void addAll(Collection<? extends Actor> actors, int chunkSize,
+            BatchProgressListener progressListener)
+    {
+        mainLayer.addAll(actors, chunkSize, progressListener);
+    }
+
+    /**
+     * Entfernt viele Figuren auf einmal aus der Hauptebene.
+     *
+     * @param actors Die Figuren, die entfernt werden sollen.
+     *
+     * @see Layer#removeAll(Collection)
+     */
+    @API
+    public void removeAll(Collection<? extends Actor> actors)
+    {
+        mainLayer.removeAll(actors);
+    }
+
+    /**
+     * Entfernt sehr viele Figuren in Teilstapeln aus der Hauptebene.
+     *
+     * @see Layer#removeAll(Collection, int, BatchProgressListener)
+     */
+    @API
+    public void removeAll(Collection<? extends Actor> actors, int chunkSize,
+            BatchProgressListener progressListener)
+    {
+        mainLayer.removeAll(actors, chunkSize, progressListener);
+    }
+
+    /**
+     * Sucht die erste Figur der Hauptebene, die ein Strahl vom Start- zum
+     * Endpunkt trifft.
+     *
+     * @see Layer#raycast(double, double, double, double, int, RaycastHit)
+     */
+    @API
+    public boolean raycast(double fromX, double fromY, double toX, double toY,
+            int categoryMask, RaycastHit hit)
+    {
+        return mainLayer.raycast(fromX, fromY, toX, toY, categoryMask, hit);
+    }
+
+    /**
+     * Sucht die erste Figur der Hauptebene, die ein Strahl vom Start- zum
+     * Endpunkt trifft.
+     *
+     * @see Layer#raycast(Vector, Vector, RaycastHit)
+     */
+    @API
+    public boolean raycast(Vector from, Vector to, RaycastHit hit)
+    {
+        return mainLayer.raycast(from, to, hit);
+    }
+
+    /**
+     * Schreibt alle Figuren der Hauptebene, die ein Strahl trifft, sortiert in
+     * das übergebene Feld.
+     *
+     * @see Layer#raycastAll(double, double, double, double, int, RaycastHit[])
+     */
+    @API
+    public int raycastAll(double fromX, double fromY, double toX, double toY,
+            int categoryMask, RaycastHit[] hits)
+    {
+        return mainLayer.raycastAll(fromX, fromY, toX, toY, categoryMask, hits);
+    }
+
+    /**
+     * Meldet alle Figuren der Hauptebene, die ein Strahl trifft, an einen
+     * Besucher.
+     *
+     * @see Layer#raycastAll(double, double, double, double, int,
+     *     RaycastVisitor)
+     */
+    @API
+    public void raycastAll(double fromX, double fromY, double toX, double toY,
+            int categoryMask, RaycastVisitor visitor)
+    {
+        mainLayer.raycastAll(fromX, fromY, toX, toY, categoryMask, visitor);
+    }
+
+    /**
+     * Schreibt alle Figuren der Hauptebene, die das Rechteck berühren, in das
+     * übergebene Feld.
+     *
+     * @see Layer#queryAABB(Bounds, int, Actor[])
+     */
+    @API
+    public int queryAABB(Bounds bounds, int categoryMask, Actor[] actors)
+    {
+        return mainLayer.queryAABB(bounds, categoryMask, actors);
+    }
+
+    /**
+     * Meldet alle Figuren der Hauptebene, die das Rechteck berühren, an einen
+     * Besucher.
+     *
+     * @see Layer#queryAABB(Bounds, int, QueryVisitor)
+     */
+    @API
+    public void queryAABB(Bounds bounds, int categoryMask, QueryVisitor visitor)
+    {
+        mainLayer.queryAABB(bounds, categoryMask, visitor);
+    }
+
+    /**
+     * Schreibt alle Figuren der Hauptebene, die sich mit dem Umriss
+     * überschneiden, in das übergebene Feld.
+     *
+     * @see Layer#queryShape(FixtureData, double, double, double, int, Actor[])
+     */
+    @API
+    public int queryShape(FixtureData shape, double x, double y,
+            double rotation, int categoryMask, Actor[] actors)
+    {
+        return mainLayer.queryShape(shape, x, y, rotation, categoryMask,
+                actors);
+    }
+
+    /**
+     * Meldet alle Figuren der Hauptebene, die sich mit dem Umriss
+     * überschneiden, an einen Besucher.
+     *
+     * @see Layer#queryShape(FixtureData, double, double, double, int,
+     *     QueryVisitor)
+     */
+    @API
+    public void queryShape(FixtureData shape, double x, double y,
+            double rotation, int categoryMask, QueryVisitor visitor)
+    {
+        mainLayer.queryShape(shape, x, y, rotation, categoryMask, visitor);
+    }
+
     @API
     public EventListeners<KeyStrokeListener> getKeyStrokeListeners()
     {
         return keyStrokeListeners;
     }
 
+    @API
+    public KeyCodeListeners getKeyCodeListeners()
+    {
+        return keyCodeListeners;
+    }
+
     @API
     public EventListeners<MouseClickListener> getMouseClickListeners()
     {
@@ -527,11 +809,82 @@ public class Scene implements KeyStrokeListenerRegistration,
         return frameUpdateListeners;
     }
 
+    /**
+     * Gibt die Beobachter zurück, die in einer bestimmten Phase des Einzelbilds
+     * aufgerufen werden.
+     *
+     * @param phase Die Phase des Einzelbilds.
+     *
+     * @return Die Beobachter der Phase.
+     */
+    @API
+    public EventListeners<FrameUpdateListener> getFrameUpdateListeners(
+            FramePhase phase)
+    {
+        return phaseListeners.get(phase);
+    }
+
+    /**
+     * Meldet einen Beobachter an, der in einer bestimmten Phase jedes
+     * Einzelbilds aufgerufen wird.
+     *
+     * @param phase Die Phase des Einzelbilds, z. B.
+     *     {@link FramePhase#POST_PHYSICS}.
+     * @param listener Der Beobachter, der angemeldet werden soll.
+     */
+    @API
+    public void addFrameUpdateListener(FramePhase phase,
+            FrameUpdateListener listener)
+    {
+        phaseListeners.get(phase).add(listener);
+    }
+
+    /**
+     * Meldet einen Beobachter einer bestimmten Phase des Einzelbilds ab.
+     *
+     * @param phase Die Phase, in der der Beobachter angemeldet wurde.
+     * @param listener Der Beobachter, der abgemeldet werden soll.
+     */
+    @API
+    public void removeFrameUpdateListener(FramePhase phase,
+            FrameUpdateListener listener)
+    {
+        phaseListeners.get(phase).remove(listener);
+    }
+
+    @Override
+    @Internal
+    public TimingWheel getTimingWheel()
+    {
+        return timingWheel;
+    }
+
+    /**
+     * Ruft die Beobachter einer Phase des Einzelbilds auf.
+     *
+     * @param phase Die Phase des Einzelbilds.
+     * @param pastTime Die Zeit in Sekunden, die seit dem letzten Einzelbild
+     *     vergangen ist.
+     */
+    @Internal
+    public final void invokeFrameUpdateListeners(FramePhase phase,
+            double pastTime)
+    {
+        if (phase == FramePhase.UPDATE)
+        {
+            invokeFrameUpdateListeners(pastTime);
+        }
+        else
+        {
+            phaseInvokers.get(phase).invoke(pastTime);
+        }
+    }
+
     @Internal
     public final void invokeFrameUpdateListeners(double pastTime)
     {
-        frameUpdateListeners.invoke(frameUpdateListener -> frameUpdateListener
-                .onFrameUpdate(pastTime));
+        timingWheel.advance(pastTime);
+        frameUpdateInvoker.invoke(pastTime);
         synchronized (layers)
         {
             for (Layer layer : layers)
@@ -545,12 +898,14 @@ public class Scene implements KeyStrokeListenerRegistration,
     final void invokeKeyDownListeners(KeyEvent event)
     {
         keyStrokeListeners.invoke(listener -> listener.onKeyDown(event));
+        keyCodeListeners.invokeKeyDown(event);
     }
 
     @Internal
     final void invokeKeyUpListeners(KeyEvent event)
     {
         keyStrokeListeners.invoke(listener -> listener.onKeyUp(event));
+        keyCodeListeners.invokeKeyUp(event);
     }
 
     @Internal
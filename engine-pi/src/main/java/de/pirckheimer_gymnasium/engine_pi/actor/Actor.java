@@ -28,7 +28,9 @@ import java.awt.geom.AffineTransform;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import de.pirckheimer_gymnasium.jbox2d.collision.shapes.CircleShape;
@@ -55,20 +57,27 @@ import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
 import de.pirckheimer_gymnasium.engine_pi.debug.DebugConfiguration;
 import de.pirckheimer_gymnasium.engine_pi.event.CollisionEvent;
 import de.pirckheimer_gymnasium.engine_pi.event.CollisionListener;
+import de.pirckheimer_gymnasium.engine_pi.event.ContactVisitor;
 import de.pirckheimer_gymnasium.engine_pi.event.EventListenerBundle;
 import de.pirckheimer_gymnasium.engine_pi.event.EventListeners;
+import de.pirckheimer_gymnasium.engine_pi.event.FrameUpdateInvoker;
 import de.pirckheimer_gymnasium.engine_pi.event.FrameUpdateListener;
 import de.pirckheimer_gymnasium.engine_pi.event.FrameUpdateListenerRegistration;
+import de.pirckheimer_gymnasium.engine_pi.event.KeyCodeListeners;
 import de.pirckheimer_gymnasium.engine_pi.event.KeyStrokeListener;
 import de.pirckheimer_gymnasium.engine_pi.event.KeyStrokeListenerRegistration;
+import de.pirckheimer_gymnasium.engine_pi.event.ListenerProfiler;
 import de.pirckheimer_gymnasium.engine_pi.event.MouseClickListener;
 import de.pirckheimer_gymnasium.engine_pi.event.MouseClickListenerRegistration;
 import de.pirckheimer_gymnasium.engine_pi.event.MouseScrollListener;
 import de.pirckheimer_gymnasium.engine_pi.event.MouseScrollListenerRegistration;
+import de.pirckheimer_gymnasium.engine_pi.event.TimingWheel;
+import de.pirckheimer_gymnasium.engine_pi.physics.ArcadeHandler;
 import de.pirckheimer_gymnasium.engine_pi.physics.FixtureBuilder;
 import de.pirckheimer_gymnasium.engine_pi.physics.FixtureData;
 import de.pirckheimer_gymnasium.engine_pi.physics.NullHandler;
 import de.pirckheimer_gymnasium.engine_pi.physics.PhysicsData;
+import de.pirckheimer_gymnasium.engine_pi.physics.PhysicsEdit;
 import de.pirckheimer_gymnasium.engine_pi.physics.PhysicsHandler;
 import de.pirckheimer_gymnasium.engine_pi.physics.WorldHandler;
 import de.pirckheimer_gymnasium.engine_pi.resources.ColorContainer;
@@ -140,14 +149,36 @@ public abstract class Actor implements KeyStrokeListenerRegistration,
     private final EventListeners<KeyStrokeListener> keyStrokeListeners = new EventListeners<>(
             createParentSupplier(Layer::getKeyStrokeListeners));
 
+    private final KeyCodeListeners keyCodeListeners = new KeyCodeListeners(
+            createParentSupplier(Layer::getKeyCodeListeners));
+
     private final EventListeners<MouseClickListener> mouseClickListeners = new EventListeners<>(
             createParentSupplier(Layer::getMouseClickListeners));
 
     private final EventListeners<MouseScrollListener> mouseScrollListeners = new EventListeners<>(
             createParentSupplier(Layer::getMouseScrollListeners));
 
+    private volatile UpdatePolicy updatePolicy = UpdatePolicy.ALWAYS;
+
+    /**
+     * Die Beobachter der Bildaktualisierung. Sie werden nur einzeln an der
+     * Ebene angemeldet, solange die Richtlinie {@link UpdatePolicy#ALWAYS}
+     * gilt, sonst nur der Stellvertreter {@link #updateGate}.
+     */
     private final EventListeners<FrameUpdateListener> frameUpdateListeners = new EventListeners<>(
-            createParentSupplier(Layer::getFrameUpdateListeners));
+            createParentSupplier(layer -> updatePolicy.isAlways()
+                    ? layer.getFrameUpdateListeners()
+                    : null));
+
+    private final UpdateGate updateGate = new UpdateGate();
+
+    /**
+     * Das Zeitrad für verzögerte und wiederholte Aufgaben dieser Figur. Es wird
+     * erst bei Bedarf erzeugt und als einzelner {@link FrameUpdateListener}
+     * angemeldet, damit die Aufgaben nur laufen, solange die Figur an einer
+     * Ebene angemeldet ist.
+     */
+    private TimingWheel timingWheel;
 
     /**
      * Erstellt ein neues Objekt.
@@ -452,6 +483,10 @@ public abstract class Actor implements KeyStrokeListenerRegistration,
     @API
     public final boolean overlaps(Actor other)
     {
+        if (physicsHandler instanceof ArcadeHandler arcadeHandler)
+        {
+            return arcadeHandler.isTouching(other.getPhysicsHandler());
+        }
         Body a = physicsHandler.getBody();
         Body b = other.getPhysicsHandler().getBody();
         return WorldHandler.isBodyCollision(a, b);
@@ -467,6 +502,42 @@ public abstract class Actor implements KeyStrokeListenerRegistration,
         return physicsHandler.getCollisions();
     }
 
+    /**
+     * Besucht alle aktuellen Berührungen dieser Figur mit anderen Figuren.
+     *
+     * <p>
+     * Im Gegensatz zu {@link #getCollisions()} werden dabei keine Objekte
+     * erzeugt. Die Methode eignet sich daher für Abfragen, die in jedem
+     * Einzelbild für viele Figuren ausgeführt werden.
+     * </p>
+     *
+     * @param visitor Der Besucher, der für jede Berührung aufgerufen wird. Gibt
+     *     er <code>false</code> zurück, wird der Durchlauf abgebrochen.
+     *
+     * @return <code>false</code>, falls der Besucher den Durchlauf abgebrochen
+     *     hat, sonst <code>true</code>.
+     */
+    @API
+    public final boolean forEachContact(ContactVisitor visitor)
+    {
+        return physicsHandler.forEachContact(visitor);
+    }
+
+    /**
+     * Zählt die aktuellen Berührungen dieser Figur mit anderen Figuren, die
+     * eine Bedingung erfüllen, ohne dabei Objekte zu erzeugen.
+     *
+     * @param predicate Die Bedingung, die die andere Figur erfüllen muss, z. B.
+     *     {@code other -> other.getBodyType() == BodyType.STATIC}.
+     *
+     * @return Die Anzahl der passenden Berührungen.
+     */
+    @API
+    public final int countContacts(Predicate<Actor> predicate)
+    {
+        return physicsHandler.countContacts(predicate);
+    }
+
     /**
      * Setzt das allgemeine Verhalten, dass dieses Objekt im Rahmen der
      * Physics-Engine (und Kollisionserkennungen) haben soll. Eine Erläuterung
@@ -886,6 +957,7 @@ public abstract class Actor implements KeyStrokeListenerRegistration,
     public final <E extends Actor> Actor addCollisionListener(E collider,
             CollisionListener<E> listener)
     {
+        ListenerProfiler.registered(listener);
         WorldHandler.addSpecificCollisionListener(this, collider, listener);
         return this;
     }
@@ -911,6 +983,7 @@ public abstract class Actor implements KeyStrokeListenerRegistration,
     public final <E extends Actor> Actor addCollisionListener(Class<E> clazz,
             CollisionListener<E> listener)
     {
+        ListenerProfiler.registered(listener);
         // noinspection OverlyComplexAnonymousInnerClass
         WorldHandler.addGenericCollisionListener(new CollisionListener<>()
         {
@@ -919,8 +992,10 @@ public abstract class Actor implements KeyStrokeListenerRegistration,
             {
                 if (clazz.isInstance(collisionEvent.getColliding()))
                 {
+                    long start = ListenerProfiler.start();
                     // noinspection unchecked
                     listener.onCollision((CollisionEvent<E>) collisionEvent);
+                    ListenerProfiler.stop(listener, start);
                 }
             }
 
@@ -929,8 +1004,10 @@ public abstract class Actor implements KeyStrokeListenerRegistration,
             {
                 if (clazz.isInstance(collisionEvent.getColliding()))
                 {
+                    long start = ListenerProfiler.start();
                     // noinspection unchecked
                     listener.onCollisionEnd((CollisionEvent<E>) collisionEvent);
+                    ListenerProfiler.stop(listener, start);
                 }
             }
         }, this);
@@ -955,6 +1032,7 @@ public abstract class Actor implements KeyStrokeListenerRegistration,
     @API
     public final Actor addCollisionListener(CollisionListener<Actor> listener)
     {
+        ListenerProfiler.registered(listener);
         WorldHandler.addGenericCollisionListener(listener, this);
         return this;
     }
@@ -982,9 +1060,10 @@ public abstract class Actor implements KeyStrokeListenerRegistration,
             }
             Layer layer = previousWorldHandler.getLayer();
             keyStrokeListeners.invoke(layer::removeKeyStrokeListener);
+            keyCodeListeners.forEach(layer::removeKeyStrokeListener);
             mouseClickListeners.invoke(layer::removeMouseClickListener);
             mouseScrollListeners.invoke(layer::removeMouseScrollListener);
-            frameUpdateListeners.invoke(layer::removeFrameUpdateListener);
+            removeFrameUpdateListenersFrom(layer);
             listeners.unmount.invoke(Runnable::run);
             physicsHandler = handler;
         }
@@ -992,19 +1071,121 @@ public abstract class Actor implements KeyStrokeListenerRegistration,
         {
             if (previousWorldHandler != null)
             {
+                if (previousWorldHandler.getLayer() == worldHandler.getLayer())
+                {
+                    // Übergabe zwischen zwei Regionen derselben Ebene, die
+                    // Beobachter bleiben angemeldet.
+                    physicsHandler = handler;
+                }
                 return this;
             }
             physicsHandler = handler;
             Layer layer = worldHandler.getLayer();
             listeners.mount.invoke(Runnable::run);
             keyStrokeListeners.invoke(layer::addKeyStrokeListener);
+            keyCodeListeners.forEach(layer::addKeyStrokeListener);
             mouseClickListeners.invoke(layer::addMouseClickListener);
             mouseScrollListeners.invoke(layer::addMouseScrollListener);
+            addFrameUpdateListenersTo(layer);
+        }
+        return this;
+    }
+
+    private void addFrameUpdateListenersTo(Layer layer)
+    {
+        if (updatePolicy.isAlways())
+        {
             frameUpdateListeners.invoke(layer::addFrameUpdateListener);
         }
+        else
+        {
+            layer.addFrameUpdateListener(updateGate);
+        }
+    }
+
+    private void removeFrameUpdateListenersFrom(Layer layer)
+    {
+        if (updatePolicy.isAlways())
+        {
+            frameUpdateListeners.invoke(layer::removeFrameUpdateListener);
+        }
+        else
+        {
+            layer.removeFrameUpdateListener(updateGate);
+        }
+    }
+
+    /**
+     * Legt fest, wann die Beobachter der Bildaktualisierung dieser Figur
+     * aufgerufen werden, z. B. nur solange die Figur sichtbar ist.
+     *
+     * @param policy Die Richtlinie, z. B. {@link UpdatePolicy#VISIBLE}.
+     *
+     * @return Eine Referenz auf die eigene Instanz der Figur, damit nach dem
+     *     Erbauer/Builder-Entwurfsmuster die Eigenschaften der Figur durch
+     *     aneinander gekettete Setter festgelegt werden können, z. B.
+     *     {@code actor.setColor(..).setPostion(..)}.
+     *
+     * @see UpdatePolicy
+     */
+    @API
+    public final synchronized Actor setUpdatePolicy(UpdatePolicy policy)
+    {
+        Objects.requireNonNull(policy, "Richtlinie darf nicht null sein");
+        Layer layer = getLayer();
+        if (layer != null && policy.isAlways() != updatePolicy.isAlways())
+        {
+            removeFrameUpdateListenersFrom(layer);
+            updatePolicy = policy;
+            addFrameUpdateListenersTo(layer);
+        }
+        else
+        {
+            updatePolicy = policy;
+        }
         return this;
     }
 
+    @API
+    public final UpdatePolicy getUpdatePolicy()
+    {
+        return updatePolicy;
+    }
+
+    /**
+     * Ruft alle Beobachter der Bildaktualisierung dieser Figur gemeinsam auf,
+     * wenn die Figur nach ihrer {@link UpdatePolicy} aktiv ist.
+     */
+    private final class UpdateGate implements FrameUpdateListener
+    {
+        private final FrameUpdateInvoker invoker = new FrameUpdateInvoker(
+                frameUpdateListeners);
+
+        /**
+         * Die Zeit in Sekunden, die seit dem letzten Aufruf der Beobachter in
+         * aktiven Einzelbildern vergangen ist.
+         */
+        private double pastTime;
+
+        @Override
+        public void onFrameUpdate(double pastTime)
+        {
+            UpdatePolicy policy = updatePolicy;
+            if (!policy.isActive(Actor.this))
+            {
+                return;
+            }
+            this.pastTime += pastTime;
+            if (this.pastTime < policy.getInterval())
+            {
+                return;
+            }
+            double elapsed = this.pastTime;
+            this.pastTime = 0;
+            invoker.invoke(elapsed);
+        }
+    }
+
     /**
      * @return Gibt die Ebene zurück, an der das aktuelle Objekt angemeldet ist,
      *     sonst {@code null}.
@@ -1056,6 +1237,16 @@ public abstract class Actor implements KeyStrokeListenerRegistration,
         return keyStrokeListeners;
     }
 
+    /**
+     * @return Die {@link KeyStrokeListener}, die für bestimmte Tasten
+     *     angemeldet sind.
+     */
+    @API
+    public final KeyCodeListeners getKeyCodeListeners()
+    {
+        return keyCodeListeners;
+    }
+
     /**
      * @return Liste der {@link MouseClickListener}.
      */
@@ -1083,6 +1274,18 @@ public abstract class Actor implements KeyStrokeListenerRegistration,
         return frameUpdateListeners;
     }
 
+    @Override
+    @Internal
+    public final synchronized TimingWheel getTimingWheel()
+    {
+        if (timingWheel == null)
+        {
+            timingWheel = new TimingWheel();
+            addFrameUpdateListener(timingWheel);
+        }
+        return timingWheel;
+    }
+
     /**
      * Setzt, ob <i>im Rahmen der physikalischen Simulation</i> die Rotation
      * dieses Objekts blockiert werden soll.
@@ -1445,6 +1648,35 @@ public abstract class Actor implements KeyStrokeListenerRegistration,
         return this;
     }
 
+    /**
+     * Ändert <b>mehrere physikalische Eigenschaften</b> der Figur in einem
+     * einzigen Durchgang.
+     *
+     * <p>
+     * Die Änderungen werden zunächst gesammelt und anschließend gemeinsam
+     * übernommen. Die Halterungen werden dabei nur einmal durchlaufen und die
+     * Masse wird höchstens einmal neu berechnet, z. B.
+     * {@code actor.edit(e -> e.density(2).friction(0.3).type(BodyType.DYNAMIC))}.
+     * </p>
+     *
+     * @param editor Eine Funktion, die die gewünschten Änderungen festlegt.
+     *
+     * @return Eine Referenz auf die eigene Instanz der Figur, damit nach dem
+     *     Erbauer/Builder-Entwurfsmuster die Eigenschaften der Figur durch
+     *     aneinander gekettete Setter festgelegt werden können, z. B.
+     *     {@code actor.setColor(..).setPostion(..)}.
+     *
+     * @see PhysicsEdit
+     */
+    @API
+    public final Actor edit(Consumer<PhysicsEdit> editor)
+    {
+        PhysicsEdit edit = new PhysicsEdit();
+        editor.accept(edit);
+        physicsHandler.edit(edit);
+        return this;
+    }
+
     /**
      * Gibt die Stoßzahl bzw. den Restitutionskoeffizienten zurück.
      *
@@ -1719,10 +1951,8 @@ public abstract class Actor implements KeyStrokeListenerRegistration,
      * <i>Ein Objekt steht genau dann, wenn alle Eigenschaften erfüllt sind:</i>
      * <ul>
      * <li>Es ist ein <b>dynamisches Objekt</b>.</li>
-     * <li>Direkt unter der Mitte der minimalen <a href=
-     * "https://en.wikipedia.org/wiki/Minimum_bounding_box#Axis-aligned_minimum_bounding_box">AABB</a>,
-     * die das gesamte Objekt umspannt, befindet sich ein <b>statisches
-     * Objekt</b>.</li>
+     * <li>Es berührt ein <b>statisches Objekt</b>, dessen Berührungsnormale
+     * nach unten zeigt, das also unter dem Objekt liegt.</li>
      * </ul>
      *
      * @return {@code true}, falls das Objekt auf einem anderen Objekt steht,
@@ -1935,9 +2165,9 @@ public abstract class Actor implements KeyStrokeListenerRegistration,
     }
 
     /**
-     * Setzt die Position des Objektes gänzlich neu auf der Zeichenebene. Das
-     * Setzen ist technisch gesehen eine Verschiebung von der aktuellen Position
-     * an die neue.
+     * Setzt die Position des Objektes gänzlich neu auf der Zeichenebene.
+     * Während eines World-Steps wird die Position erst nach dem Teilschritt
+     * übernommen, bei mehreren Aufrufen gilt dann der letzte.
      *
      * @param position Der neue Zielpunkt.
      *
@@ -1954,7 +2184,7 @@ public abstract class Actor implements KeyStrokeListenerRegistration,
     @API
     public final Actor setPosition(Vector position)
     {
-        moveBy(position.subtract(getPosition()));
+        physicsHandler.setPosition(position.getX(), position.getY());
         return this;
     }
 
@@ -2060,7 +2290,9 @@ public abstract class Actor implements KeyStrokeListenerRegistration,
     @API
     public final Actor setCenter(Vector center)
     {
-        moveBy(getCenter().negate().add(center));
+        Vector offset = getCenter().subtract(getPosition());
+        physicsHandler.setPosition(center.getX() - offset.getX(),
+                center.getY() - offset.getY());
         return this;
     }
 
@@ -2106,7 +2338,7 @@ public abstract class Actor implements KeyStrokeListenerRegistration,
     @API
     public final Actor setX(double x)
     {
-        moveBy(x - getX(), 0);
+        physicsHandler.setPosition(x, Double.NaN);
         return this;
     }
 
@@ -2152,7 +2384,7 @@ public abstract class Actor implements KeyStrokeListenerRegistration,
     @API
     public final Actor setY(double y)
     {
-        moveBy(0, y - getY());
+        physicsHandler.setPosition(Double.NaN, y);
         return this;
     }
 
@@ -0,0 +1,286 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.actor;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import de.pirckheimer_gymnasium.engine_pi.Layer;
+import de.pirckheimer_gymnasium.engine_pi.Scene;
+import de.pirckheimer_gymnasium.engine_pi.Vector;
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+import de.pirckheimer_gymnasium.engine_pi.physics.PhysicsHandler;
+import de.pirckheimer_gymnasium.engine_pi.physics.WorldHandler;
+
+/**
+ * Ein <b>Vorrat an wiederverwendbaren Figuren</b> für kurzlebige Objekte wie
+ * Geschosse, Münzen oder Partikel.
+ *
+ * <p>
+ * Anstatt eine Figur zu entfernen und später eine neue zu erzeugen, wird sie
+ * mit {@link #release(Actor)} an den Vorrat zurückgegeben. Die Figur bleibt
+ * dabei an der Ebene angemeldet: Sie wird unsichtbar und ihr Körper wird
+ * deaktiviert, sodass er nicht mehr simuliert wird und nicht mehr kollidiert.
+ * Mit {@link #acquire(Vector, Vector, BodyType)} wird sie wieder an eine neue
+ * Position gesetzt und aktiviert. Halterungen, Kollisionsbeobachter und andere
+ * angemeldete Beobachter bleiben dabei erhalten und müssen nicht neu aufgebaut
+ * werden.
+ * </p>
+ *
+ * <p>
+ * Da die Beobachter erhalten bleiben, werden auch die Bildaktualisierungen
+ * einer geparkten Figur weiterhin aufgerufen, es sei denn, sie verwendet die
+ * Richtlinie {@link UpdatePolicy#VISIBLE}. Mit {@link #isParked(Actor)} lässt
+ * sich prüfen, ob eine Figur gerade im Vorrat liegt.
+ * </p>
+ *
+ * @param <T> Der Typ der Figuren im Vorrat.
+ *
+ * @author Josef Friedrich
+ */
+public class ActorPool<T extends Actor>
+{
+    private final Layer layer;
+
+    private final Supplier<T> factory;
+
+    /**
+     * Die maximale Anzahl an geparkten Figuren. Weitere zurückgegebene Figuren
+     * werden aus der Ebene entfernt.
+     */
+    private final int capacity;
+
+    private final ArrayDeque<T> parked;
+
+    private final Set<Actor> parkedActors = Collections
+            .newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Erzeugt einen neuen Vorrat an Figuren.
+     *
+     * @param layer Die Ebene, an der die Figuren angemeldet werden.
+     * @param factory Erzeugt eine neue Figur, wenn der Vorrat leer ist.
+     * @param capacity Die maximale Anzahl an geparkten Figuren.
+     */
+    @API
+    public ActorPool(Layer layer, Supplier<T> factory, int capacity)
+    {
+        if (capacity < 0)
+        {
+            throw new IllegalArgumentException(
+                    "Die Kapazität darf nicht negativ sein, war " + capacity);
+        }
+        this.layer = layer;
+        this.factory = factory;
+        this.capacity = capacity;
+        parked = new ArrayDeque<>(Math.min(capacity, 1024));
+    }
+
+    /**
+     * Erzeugt einen neuen Vorrat an Figuren für die Hauptebene einer Szene.
+     *
+     * @param scene Die Szene, an deren Hauptebene die Figuren angemeldet
+     *     werden.
+     * @param factory Erzeugt eine neue Figur, wenn der Vorrat leer ist.
+     * @param capacity Die maximale Anzahl an geparkten Figuren.
+     */
+    @API
+    public ActorPool(Scene scene, Supplier<T> factory, int capacity)
+    {
+        this(scene.getMainLayer(), factory, capacity);
+    }
+
+    /**
+     * Erzeugt vorab Figuren und legt sie in den Vorrat, damit später beim
+     * Anfordern keine Körper erzeugt werden müssen.
+     *
+     * @param count Die Anzahl der Figuren, die erzeugt werden sollen.
+     *
+     * @return Eine Referenz auf diesen Vorrat.
+     */
+    @API
+    public synchronized ActorPool<T> prefill(int count)
+    {
+        for (int i = 0; i < count && parked.size() < capacity; i++)
+        {
+            T actor = factory.get();
+            actor.setVisible(false);
+            // Wird beim Anmelden an der Ebene auf den neuen Körper übertragen.
+            actor.getPhysicsHandler().setActive(false);
+            layer.add(actor);
+            park(actor);
+        }
+        return this;
+    }
+
+    /**
+     * Holt eine Figur aus dem Vorrat oder erzeugt eine neue, falls der Vorrat
+     * leer ist, und setzt sie an die angegebene Position.
+     *
+     * @param position Die neue Position der Figur.
+     * @param velocity Die neue Geschwindigkeit der Figur in Meter pro Sekunde.
+     * @param type Der neue Typ des Körpers.
+     *
+     * @return Die einsatzbereite Figur.
+     */
+    @API
+    public synchronized T acquire(Vector position, Vector velocity,
+            BodyType type)
+    {
+        T actor = parked.pollFirst();
+        if (actor == null)
+        {
+            actor = factory.get();
+            layer.add(actor);
+        }
+        else
+        {
+            parkedActors.remove(actor);
+        }
+        actor.setBodyType(type);
+        actor.setPosition(position);
+        actor.resetMovement();
+        actor.setVelocity(velocity);
+        actor.getPhysicsHandler().setActive(true);
+        actor.setVisible(true);
+        return actor;
+    }
+
+    /**
+     * Holt eine ruhende Figur aus dem Vorrat oder erzeugt eine neue und setzt
+     * sie an die angegebene Position. Der Typ des Körpers bleibt unverändert.
+     *
+     * @param position Die neue Position der Figur.
+     *
+     * @return Die einsatzbereite Figur.
+     */
+    @API
+    public synchronized T acquire(Vector position)
+    {
+        T actor = parked.peekFirst();
+        if (actor == null)
+        {
+            actor = factory.get();
+            actor.setPosition(position);
+            layer.add(actor);
+            return actor;
+        }
+        return acquire(position, Vector.NULL, actor.getBodyType());
+    }
+
+    /**
+     * Gibt eine Figur an den Vorrat zurück. Die Figur wird unsichtbar und ihr
+     * Körper wird deaktiviert.
+     *
+     * <p>
+     * Die Methode darf auch in einem Kollisionsbeobachter aufgerufen werden.
+     * Der Körper wird dann erst nach dem laufenden Physik-Schritt deaktiviert.
+     * Ob die Figur geparkt oder wegen voller Kapazität entfernt wird,
+     * entscheidet sich erst zu diesem Zeitpunkt.
+     * </p>
+     *
+     * @param actor Die Figur, die zurückgegeben wird.
+     */
+    @API
+    public synchronized void release(T actor)
+    {
+        if (parkedActors.contains(actor))
+        {
+            return;
+        }
+        if (parked.size() >= capacity)
+        {
+            layer.remove(actor);
+            return;
+        }
+        actor.setVisible(false);
+        PhysicsHandler physicsHandler = actor.getPhysicsHandler();
+        WorldHandler worldHandler = physicsHandler.getWorldHandler();
+        if (worldHandler != null && worldHandler.getWorld().isLocked())
+        {
+            // Während des Physik-Schritts dürfen Körper nicht deaktiviert
+            // werden.
+            layer.defer(() -> releaseDeferred(actor));
+            return;
+        }
+        physicsHandler.setActive(false);
+        park(actor);
+    }
+
+    private synchronized void releaseDeferred(T actor)
+    {
+        if (parkedActors.contains(actor) || actor.isVisible())
+        {
+            // Die Figur wurde inzwischen erneut verwendet.
+            return;
+        }
+        if (parked.size() >= capacity)
+        {
+            // Der Vorrat hat sich seit dem Aufruf von release(T) gefüllt.
+            layer.remove(actor);
+            return;
+        }
+        actor.getPhysicsHandler().setActive(false);
+        park(actor);
+    }
+
+    private void park(T actor)
+    {
+        parked.addFirst(actor);
+        parkedActors.add(actor);
+    }
+
+    /**
+     * Gibt an, ob eine Figur gerade im Vorrat geparkt ist.
+     *
+     * @param actor Die Figur, die geprüft wird.
+     *
+     * @return <code>true</code>, falls die Figur geparkt ist.
+     */
+    @API
+    public synchronized boolean isParked(Actor actor)
+    {
+        return parkedActors.contains(actor);
+    }
+
+    /**
+     * Gibt die Anzahl der geparkten Figuren zurück.
+     *
+     * @return Die Anzahl der geparkten Figuren.
+     */
+    @API
+    public synchronized int getParkedCount()
+    {
+        return parked.size();
+    }
+
+    /**
+     * Gibt die maximale Anzahl an geparkten Figuren zurück.
+     *
+     * @return Die maximale Anzahl an geparkten Figuren.
+     */
+    @API
+    public int getCapacity()
+    {
+        return capacity;
+    }
+}
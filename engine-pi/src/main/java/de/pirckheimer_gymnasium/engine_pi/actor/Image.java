@@ -33,6 +33,7 @@ import de.pirckheimer_gymnasium.engine_pi.annotations.API;
 import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
 import de.pirckheimer_gymnasium.engine_pi.debug.ToStringFormatter;
 import de.pirckheimer_gymnasium.engine_pi.physics.FixtureBuilder;
+import de.pirckheimer_gymnasium.engine_pi.physics.ImageColliderBuilder;
 import de.pirckheimer_gymnasium.engine_pi.util.ColorUtil;
 
 /**
@@ -243,6 +244,39 @@ public class Image extends Actor
                 image.getHeight() / pixelPerMeter);
     }
 
+    /**
+     * Setzt die Kollisionsformen passend zu den nicht durchsichtigen Pixeln des
+     * Bildes. Die Formen werden mit den Standardeinstellungen des
+     * {@link ImageColliderBuilder} berechnet und zwischengespeichert.
+     *
+     * <p>
+     * Eine Spiegelung des Bildes wird dabei nicht berücksichtigt.
+     * </p>
+     *
+     * @see #setFixturesFromAlpha(ImageColliderBuilder)
+     */
+    @API
+    public void setFixturesFromAlpha()
+    {
+        setFixturesFromAlpha(new ImageColliderBuilder());
+    }
+
+    /**
+     * Setzt die Kollisionsformen passend zu den nicht durchsichtigen Pixeln des
+     * Bildes.
+     *
+     * @param builder Der Erzeuger, über den Schwellwert, Vereinfachung und
+     *     Zwischenspeicher eingestellt werden.
+     */
+    @API
+    public void setFixturesFromAlpha(ImageColliderBuilder builder)
+    {
+        BufferedImage image = this.image;
+        double width = this.width;
+        double height = this.height;
+        setFixtures(() -> builder.build(image, width, height));
+    }
+
     private void assertViableSizes(double width, double height)
     {
         if (width <= 0 || height <= 0)
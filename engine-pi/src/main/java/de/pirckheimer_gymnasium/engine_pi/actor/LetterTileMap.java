@@ -78,6 +78,10 @@ abstract class LetterTileMap
 
     protected HashMap<String, Character> namesToLetter;
 
+    /**
+     * Die Buchstaben der Kacheln, die fest sind, also an der Kollision
+     * teilnehmen.
+     */
     protected HashSet<Character> obstacles;
 
     protected String pathPrefix;
@@ -111,6 +115,7 @@ abstract class LetterTileMap
         letters = new HashSet<>();
         names = new HashMap<>();
         namesToLetter = new HashMap<>();
+        obstacles = new HashSet<>();
         letterMap = new char[width][height];
         this.pathPrefix = pathPrefix;
         this.extension = extension;
@@ -192,6 +197,46 @@ abstract class LetterTileMap
         registerImage(letter, filePath, null);
     }
 
+    /**
+     * Markiert eine Kachel als Hindernis. Alle Positionen mit diesem Buchstaben
+     * nehmen an der Kollision teil, benachbarte Hindernisse werden dabei zu
+     * möglichst wenigen Halterungen zusammengefasst.
+     *
+     * @param letter Der Buchstabe, der für ein bestimmtes Kachelbild registiert
+     *     wurde.
+     *
+     * @see TileRegistration#setSolid(int, int, boolean)
+     */
+    public final void registerObstacle(char letter)
+    {
+        checkLetter(letter);
+        if (!obstacles.add(letter))
+        {
+            return;
+        }
+        for (int x = 0; x < width; x++)
+        {
+            for (int y = 0; y < height; y++)
+            {
+                if (letterMap[x][y] == letter)
+                {
+                    container.setSolid(x, y, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Überprüfe, ob eine Kachel als Hindernis markiert ist.
+     *
+     * @param letter Der Buchstabe, der für ein bestimmtes Kachelbild registiert
+     *     wurde.
+     */
+    public final boolean isObstacle(char letter)
+    {
+        return obstacles.contains(letter);
+    }
+
     /**
      * @param x Die x-Position im Kachelgitter. 0 adressiert die erste, (ganz am
      *     linken Rand gelegene) Spalte.
@@ -298,6 +343,7 @@ abstract class LetterTileMap
         checkLetter(tile);
         letterMap[x][y] = tile;
         container.setTile(x, y, getTileFromCache(x, y));
+        container.setSolid(x, y, obstacles.contains(tile));
     }
 
     /**
@@ -0,0 +1,318 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.actor;
+
+import java.awt.Color;
+
+import de.pirckheimer_gymnasium.engine_pi.Random;
+import de.pirckheimer_gymnasium.engine_pi.Resources;
+import de.pirckheimer_gymnasium.engine_pi.Vector;
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+
+/**
+ * Ein <b>Emitter</b> (Ausstoßer), der in einem {@link ParticleSystem}
+ * gleichmäßig neue Partikel erzeugt.
+ *
+ * <p>
+ * Die Partikel werden an der Position des Emitters in eine zufällige Richtung
+ * innerhalb des Streuwinkels mit einer zufälligen Geschwindigkeit und
+ * Lebensdauer ausgestoßen.
+ * </p>
+ *
+ * @author Josef Friedrich
+ *
+ * @see ParticleSystem#addEmitter(ParticleEmitter)
+ */
+public class ParticleEmitter
+{
+    private double x;
+
+    private double y;
+
+    /**
+     * Die Anzahl an Partikeln pro Sekunde.
+     */
+    private double rate = 100;
+
+    /**
+     * Die Richtung in Grad.
+     */
+    private double direction = 90;
+
+    /**
+     * Der Streuwinkel in Grad.
+     */
+    private double spread = 360;
+
+    private double minSpeed = 1;
+
+    private double maxSpeed = 2;
+
+    private double minLifetime = 0.5;
+
+    private double maxLifetime = 1;
+
+    private int color = Color.YELLOW.getRGB();
+
+    private boolean active = true;
+
+    /**
+     * Die noch nicht ausgestoßenen Bruchteile von Partikeln.
+     */
+    private double pending;
+
+    /**
+     * Erzeugt einen neuen Emitter an der angegebenen Position.
+     *
+     * @param x Die x-Koordinate des Emitters in Meter.
+     * @param y Die y-Koordinate des Emitters in Meter.
+     */
+    @API
+    public ParticleEmitter(double x, double y)
+    {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Erzeugt einen neuen Emitter im Ursprung.
+     */
+    @API
+    public ParticleEmitter()
+    {
+        this(0, 0);
+    }
+
+    /**
+     * Setzt die Position des Emitters, z. B. um ihn einer Figur folgen zu
+     * lassen.
+     *
+     * @param x Die x-Koordinate des Emitters in Meter.
+     * @param y Die y-Koordinate des Emitters in Meter.
+     *
+     * @return Eine Referenz auf die eigene Instanz des Emitters, damit nach dem
+     *     Erbauer/Builder-Entwurfsmuster die Eigenschaften durch aneinander
+     *     gekettete Setter festgelegt werden können.
+     */
+    @API
+    public ParticleEmitter setPosition(double x, double y)
+    {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+
+    /**
+     * Setzt die Position des Emitters.
+     *
+     * @param position Die neue Position in Meter.
+     *
+     * @return Eine Referenz auf die eigene Instanz des Emitters.
+     */
+    @API
+    public ParticleEmitter setPosition(Vector position)
+    {
+        return setPosition(position.getX(), position.getY());
+    }
+
+    @API
+    public double getX()
+    {
+        return x;
+    }
+
+    @API
+    public double getY()
+    {
+        return y;
+    }
+
+    /**
+     * Setzt, wie viele Partikel pro Sekunde ausgestoßen werden.
+     *
+     * @param rate Die Anzahl an Partikeln pro Sekunde.
+     *
+     * @return Eine Referenz auf die eigene Instanz des Emitters.
+     */
+    @API
+    public ParticleEmitter setRate(double rate)
+    {
+        if (rate < 0)
+        {
+            throw new IllegalArgumentException(
+                    "Die Rate darf nicht negativ sein, war " + rate);
+        }
+        this.rate = rate;
+        return this;
+    }
+
+    @API
+    public double getRate()
+    {
+        return rate;
+    }
+
+    /**
+     * Setzt die Richtung und den Streuwinkel, in die Partikel ausgestoßen
+     * werden.
+     *
+     * @param direction Die Richtung in Grad. 0 zeigt nach rechts, 90 nach oben.
+     * @param spread Der Streuwinkel in Grad um die Richtung. 360 stößt die
+     *     Partikel in alle Richtungen aus.
+     *
+     * @return Eine Referenz auf die eigene Instanz des Emitters.
+     */
+    @API
+    public ParticleEmitter setDirection(double direction, double spread)
+    {
+        this.direction = direction;
+        this.spread = spread;
+        return this;
+    }
+
+    /**
+     * Setzt den Bereich der Anfangsgeschwindigkeit.
+     *
+     * @param minSpeed Die minimale Geschwindigkeit in Meter pro Sekunde.
+     * @param maxSpeed Die maximale Geschwindigkeit in Meter pro Sekunde.
+     *
+     * @return Eine Referenz auf die eigene Instanz des Emitters.
+     */
+    @API
+    public ParticleEmitter setSpeed(double minSpeed, double maxSpeed)
+    {
+        this.minSpeed = minSpeed;
+        this.maxSpeed = maxSpeed;
+        return this;
+    }
+
+    /**
+     * Setzt den Bereich der Lebensdauer.
+     *
+     * @param minLifetime Die minimale Lebensdauer in Sekunden.
+     * @param maxLifetime Die maximale Lebensdauer in Sekunden.
+     *
+     * @return Eine Referenz auf die eigene Instanz des Emitters.
+     */
+    @API
+    public ParticleEmitter setLifetime(double minLifetime, double maxLifetime)
+    {
+        if (minLifetime <= 0 || maxLifetime <= 0)
+        {
+            throw new IllegalArgumentException(
+                    "Die Lebensdauer muss größer als 0 sein.");
+        }
+        this.minLifetime = minLifetime;
+        this.maxLifetime = maxLifetime;
+        return this;
+    }
+
+    /**
+     * Setzt die Farbe der ausgestoßenen Partikel.
+     *
+     * @param color Die Farbe der Partikel.
+     *
+     * @return Eine Referenz auf die eigene Instanz des Emitters.
+     */
+    @API
+    public ParticleEmitter setColor(Color color)
+    {
+        this.color = color.getRGB();
+        return this;
+    }
+
+    /**
+     * Setzt die Farbe der ausgestoßenen Partikel.
+     *
+     * @param color Ein Farbname, ein Farbalias oder eine Farbe in hexadezimaler
+     *     Codierung (z. B. {@code #ff0000}).
+     *
+     * @return Eine Referenz auf die eigene Instanz des Emitters.
+     */
+    @API
+    public ParticleEmitter setColor(String color)
+    {
+        return setColor(Resources.COLORS.getSafe(color));
+    }
+
+    /**
+     * Schaltet den Emitter ein oder aus.
+     *
+     * @param active <code>true</code>, damit der Emitter Partikel ausstößt.
+     *
+     * @return Eine Referenz auf die eigene Instanz des Emitters.
+     */
+    @API
+    public ParticleEmitter setActive(boolean active)
+    {
+        this.active = active;
+        if (!active)
+        {
+            pending = 0;
+        }
+        return this;
+    }
+
+    @API
+    public boolean isActive()
+    {
+        return active;
+    }
+
+    /**
+     * Stößt entsprechend der Rate die Partikel für die vergangene Zeit aus.
+     */
+    void emit(ParticleSystem system, double pastTime)
+    {
+        if (!active)
+        {
+            return;
+        }
+        pending += rate * pastTime;
+        while (pending >= 1)
+        {
+            pending--;
+            emitOne(system);
+        }
+    }
+
+    /**
+     * Stößt sofort eine bestimmte Anzahl an Partikeln aus, z. B. für eine
+     * Explosion.
+     *
+     * @param system Das Partikelsystem, in dem die Partikel erzeugt werden.
+     * @param count Die Anzahl an Partikeln.
+     */
+    void burst(ParticleSystem system, int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            emitOne(system);
+        }
+    }
+
+    private void emitOne(ParticleSystem system)
+    {
+        double angle = Math
+                .toRadians(direction + Random.range(-spread / 2, spread / 2));
+        double speed = Random.range(minSpeed, maxSpeed);
+        system.emit(x, y, Math.cos(angle) * speed, Math.sin(angle) * speed,
+                Random.range(minLifetime, maxLifetime), color);
+    }
+}
@@ -0,0 +1,685 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.actor;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import de.pirckheimer_gymnasium.jbox2d.callbacks.QueryCallback;
+import de.pirckheimer_gymnasium.jbox2d.collision.AABB;
+import de.pirckheimer_gymnasium.jbox2d.common.Vec2;
+import de.pirckheimer_gymnasium.jbox2d.dynamics.Fixture;
+import de.pirckheimer_gymnasium.jbox2d.dynamics.World;
+
+import de.pirckheimer_gymnasium.engine_pi.Layer;
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+import de.pirckheimer_gymnasium.engine_pi.physics.FixtureBuilder;
+import de.pirckheimer_gymnasium.engine_pi.physics.WorldHandler;
+
+/**
+ * Ein <b>leichtgewichtiges Partikelsystem</b>, das sehr viele Partikel ohne die
+ * Physik-Engine simuliert und zeichnet.
+ *
+ * <p>
+ * Im Gegensatz zu {@link Actor#animateParticle(double)} ist ein Partikel keine
+ * eigene Figur mit eigenem Körper, sondern nur ein Eintrag in einigen Feldern
+ * primitiver Datentypen (Position, Geschwindigkeit, Alter, Lebensdauer und
+ * Farbe). Alle Partikel werden gemeinsam bewegt und in einem einzigen
+ * Zeichenvorgang in ein Bild gezeichnet.
+ * </p>
+ *
+ * <p>
+ * Die Partikel werden in Weltkoordinaten (Meter) gespeichert. Die Position und
+ * die Drehung der Figur selbst haben deshalb keinen Einfluss auf die Partikel.
+ * </p>
+ *
+ * <p>
+ * Optional können die Partikel an statischen Figuren abprallen. Dazu werden
+ * einmal pro Einzelbild die statischen Umrisse im Bereich der Partikel
+ * abgefragt. Diese Kollisionserkennung ist für einfache Umgebungen mit wenigen
+ * statischen Figuren gedacht.
+ * </p>
+ *
+ * @author Josef Friedrich
+ *
+ * @see ParticleEmitter
+ */
+public class ParticleSystem extends Actor
+{
+    private static final int BYTE_MASK = 0xFF;
+
+    private double[] x;
+
+    private double[] y;
+
+    private double[] velocityX;
+
+    private double[] velocityY;
+
+    private double[] age;
+
+    private double[] lifetime;
+
+    private int[] colors;
+
+    /**
+     * Die Anzahl der lebenden Partikel. Die lebenden Partikel liegen immer
+     * lückenlos am Anfang der Felder.
+     */
+    private int count;
+
+    private final int capacity;
+
+    private final List<ParticleEmitter> emitters = new ArrayList<>();
+
+    private double gravityX = 0;
+
+    private double gravityY = 0;
+
+    /**
+     * Der Luftwiderstand: Der Anteil der Geschwindigkeit, der pro Sekunde
+     * verloren geht.
+     */
+    private double drag = 0;
+
+    /**
+     * Die Kantenlänge eines Partikels in Meter.
+     */
+    private double particleSize = 0.1;
+
+    private boolean fadeOut = true;
+
+    private boolean collideWithStatic = false;
+
+    /**
+     * Der Anteil der Geschwindigkeit, der beim Abprallen erhalten bleibt.
+     */
+    private double restitution = 0.5;
+
+    /* ____________ Kollision ____________ */
+
+    private Fixture[] staticFixtures = new Fixture[16];
+
+    private double[] staticBounds = new double[16 * 4];
+
+    private int staticCount;
+
+    private final AABB queryBounds = new AABB();
+
+    private final Vec2 testPoint = new Vec2();
+
+    private final QueryCallback staticCollector = this::collectStatic;
+
+    /* ____________ Zeichnen ____________ */
+
+    private BufferedImage buffer;
+
+    private int[] pixels;
+
+    /**
+     * Erzeugt ein neues Partikelsystem.
+     *
+     * @param capacity Die maximale Anzahl an gleichzeitig lebenden Partikeln.
+     */
+    @API
+    public ParticleSystem(int capacity)
+    {
+        super(() -> FixtureBuilder.rectangle(1, 1));
+        if (capacity < 1)
+        {
+            throw new IllegalArgumentException(
+                    "Die Kapazität muss mindestens 1 sein, war " + capacity);
+        }
+        this.capacity = capacity;
+        int initial = Math.min(capacity, 1024);
+        x = new double[initial];
+        y = new double[initial];
+        velocityX = new double[initial];
+        velocityY = new double[initial];
+        age = new double[initial];
+        lifetime = new double[initial];
+        colors = new int[initial];
+        addFrameUpdateListener(this::update);
+    }
+
+    /**
+     * Erzeugt ein neues Partikelsystem für bis zu 10.000 Partikel.
+     */
+    @API
+    public ParticleSystem()
+    {
+        this(10000);
+    }
+
+    /**
+     * Fügt einen Emitter hinzu, der ab sofort Partikel ausstößt.
+     *
+     * @param emitter Der Emitter.
+     *
+     * @return Der hinzugefügte Emitter.
+     */
+    @API
+    public ParticleEmitter addEmitter(ParticleEmitter emitter)
+    {
+        emitters.add(emitter);
+        return emitter;
+    }
+
+    /**
+     * Entfernt einen Emitter. Bereits ausgestoßene Partikel leben weiter.
+     *
+     * @param emitter Der Emitter.
+     */
+    @API
+    public void removeEmitter(ParticleEmitter emitter)
+    {
+        emitters.remove(emitter);
+    }
+
+    /**
+     * Lässt einen Emitter sofort eine bestimmte Anzahl an Partikeln ausstoßen,
+     * z. B. für eine Explosion. Der Emitter muss dafür nicht hinzugefügt sein.
+     *
+     * @param emitter Der Emitter, dessen Einstellungen verwendet werden.
+     * @param count Die Anzahl an Partikeln.
+     */
+    @API
+    public void burst(ParticleEmitter emitter, int count)
+    {
+        emitter.burst(this, count);
+    }
+
+    /**
+     * Erzeugt ein einzelnes Partikel. Ist die Kapazität erschöpft, wird kein
+     * Partikel erzeugt.
+     *
+     * @param x Die x-Koordinate in Meter.
+     * @param y Die y-Koordinate in Meter.
+     * @param velocityX Die Geschwindigkeit in x-Richtung in Meter pro Sekunde.
+     * @param velocityY Die Geschwindigkeit in y-Richtung in Meter pro Sekunde.
+     * @param lifetime Die Lebensdauer in Sekunden.
+     * @param color Die Farbe als ARGB-Wert, z. B. {@link Color#getRGB()}.
+     *
+     * @return <code>true</code>, falls das Partikel erzeugt wurde.
+     */
+    @API
+    public boolean emit(double x, double y, double velocityX, double velocityY,
+            double lifetime, int color)
+    {
+        if (count == capacity)
+        {
+            return false;
+        }
+        if (count == this.x.length)
+        {
+            grow();
+        }
+        this.x[count] = x;
+        this.y[count] = y;
+        this.velocityX[count] = velocityX;
+        this.velocityY[count] = velocityY;
+        this.age[count] = 0;
+        this.lifetime[count] = lifetime;
+        this.colors[count] = color;
+        count++;
+        return true;
+    }
+
+    private void grow()
+    {
+        int length = (int) Math.min(capacity, x.length * 2L);
+        x = Arrays.copyOf(x, length);
+        y = Arrays.copyOf(y, length);
+        velocityX = Arrays.copyOf(velocityX, length);
+        velocityY = Arrays.copyOf(velocityY, length);
+        age = Arrays.copyOf(age, length);
+        lifetime = Arrays.copyOf(lifetime, length);
+        colors = Arrays.copyOf(colors, length);
+    }
+
+    /**
+     * Entfernt alle Partikel.
+     */
+    @API
+    public void clear()
+    {
+        count = 0;
+    }
+
+    /**
+     * Gibt die Anzahl der lebenden Partikel zurück.
+     *
+     * @return Die Anzahl der lebenden Partikel.
+     */
+    @API
+    public int getParticleCount()
+    {
+        return count;
+    }
+
+    /**
+     * Gibt die x-Koordinate eines lebenden Partikels zurück. Die Indizes ändern
+     * sich, wenn Partikel entfernt werden.
+     */
+    double getParticleX(int index)
+    {
+        return x[checkIndex(index)];
+    }
+
+    /**
+     * Gibt die y-Koordinate eines lebenden Partikels zurück.
+     */
+    double getParticleY(int index)
+    {
+        return y[checkIndex(index)];
+    }
+
+    /**
+     * Gibt die Geschwindigkeit in x-Richtung eines lebenden Partikels zurück.
+     */
+    double getParticleVelocityX(int index)
+    {
+        return velocityX[checkIndex(index)];
+    }
+
+    /**
+     * Gibt die Geschwindigkeit in y-Richtung eines lebenden Partikels zurück.
+     */
+    double getParticleVelocityY(int index)
+    {
+        return velocityY[checkIndex(index)];
+    }
+
+    /**
+     * Gibt die Farbe eines lebenden Partikels als ARGB-Wert zurück.
+     */
+    int getParticleColor(int index)
+    {
+        return colors[checkIndex(index)];
+    }
+
+    private int checkIndex(int index)
+    {
+        return Objects.checkIndex(index, count);
+    }
+
+    /**
+     * Setzt die Schwerkraft, die auf alle Partikel wirkt. Sie ist unabhängig
+     * von der Schwerkraft der Ebene.
+     *
+     * @param gravityX Die Schwerkraft in x-Richtung in [m/s^2].
+     * @param gravityY Die Schwerkraft in y-Richtung in [m/s^2].
+     *
+     * @return Eine Referenz auf die eigene Instanz.
+     */
+    @API
+    public ParticleSystem setGravity(double gravityX, double gravityY)
+    {
+        this.gravityX = gravityX;
+        this.gravityY = gravityY;
+        return this;
+    }
+
+    /**
+     * Setzt den Luftwiderstand.
+     *
+     * @param drag Der Anteil der Geschwindigkeit, der pro Sekunde verloren
+     *     geht, z. B. 0.5 für die Hälfte.
+     *
+     * @return Eine Referenz auf die eigene Instanz.
+     */
+    @API
+    public ParticleSystem setDrag(double drag)
+    {
+        if (drag < 0)
+        {
+            throw new IllegalArgumentException(
+                    "Der Luftwiderstand darf nicht negativ sein, war " + drag);
+        }
+        this.drag = drag;
+        return this;
+    }
+
+    /**
+     * Setzt die Kantenlänge eines Partikels.
+     *
+     * @param particleSize Die Kantenlänge in Meter.
+     *
+     * @return Eine Referenz auf die eigene Instanz.
+     */
+    @API
+    public ParticleSystem setParticleSize(double particleSize)
+    {
+        this.particleSize = particleSize;
+        return this;
+    }
+
+    /**
+     * Setzt, ob die Partikel gegen Ende ihrer Lebensdauer durchsichtig werden.
+     *
+     * @param fadeOut <code>true</code>, damit die Partikel ausblenden.
+     *
+     * @return Eine Referenz auf die eigene Instanz.
+     */
+    @API
+    public ParticleSystem setFadeOut(boolean fadeOut)
+    {
+        this.fadeOut = fadeOut;
+        return this;
+    }
+
+    /**
+     * Setzt, ob die Partikel an statischen Figuren der Ebene abprallen.
+     *
+     * @param collideWithStatic <code>true</code>, damit die Partikel abprallen.
+     * @param restitution Der Anteil der Geschwindigkeit, der beim Abprallen
+     *     erhalten bleibt.
+     *
+     * @return Eine Referenz auf die eigene Instanz.
+     */
+    @API
+    public ParticleSystem setCollideWithStatic(boolean collideWithStatic,
+            double restitution)
+    {
+        this.collideWithStatic = collideWithStatic;
+        this.restitution = restitution;
+        return this;
+    }
+
+    /**
+     * Bewegt alle Partikel um einen Zeitschritt weiter.
+     *
+     * @param pastTime Die vergangene Zeit in Sekunden.
+     */
+    void update(double pastTime)
+    {
+        for (int i = 0; i < emitters.size(); i++)
+        {
+            emitters.get(i).emit(this, pastTime);
+        }
+        if (count == 0)
+        {
+            return;
+        }
+        boolean collide = collideWithStatic && collectStaticFixtures(pastTime);
+        double dragFactor = Math.max(0, 1 - drag * pastTime);
+        double gravityStepX = gravityX * pastTime;
+        double gravityStepY = gravityY * pastTime;
+        int i = 0;
+        while (i < count)
+        {
+            age[i] += pastTime;
+            if (age[i] >= lifetime[i])
+            {
+                removeParticle(i);
+                continue;
+            }
+            velocityX[i] = (velocityX[i] + gravityStepX) * dragFactor;
+            velocityY[i] = (velocityY[i] + gravityStepY) * dragFactor;
+            double nextX = x[i] + velocityX[i] * pastTime;
+            double nextY = y[i] + velocityY[i] * pastTime;
+            if (collide && isInsideStatic(nextX, nextY))
+            {
+                // Getrennt nach Achsen prüfen, um die Richtung des Abprallens
+                // ohne Flächennormale zu bestimmen.
+                if (isInsideStatic(nextX, y[i]))
+                {
+                    velocityX[i] = -velocityX[i] * restitution;
+                    nextX = x[i];
+                }
+                if (isInsideStatic(nextX, nextY))
+                {
+                    velocityY[i] = -velocityY[i] * restitution;
+                    nextY = y[i];
+                }
+            }
+            x[i] = nextX;
+            y[i] = nextY;
+            i++;
+        }
+    }
+
+    /**
+     * Entfernt ein Partikel, indem das letzte Partikel an seine Stelle kopiert
+     * wird.
+     */
+    private void removeParticle(int index)
+    {
+        int last = --count;
+        x[index] = x[last];
+        y[index] = y[last];
+        velocityX[index] = velocityX[last];
+        velocityY[index] = velocityY[last];
+        age[index] = age[last];
+        lifetime[index] = lifetime[last];
+        colors[index] = colors[last];
+    }
+
+    /**
+     * Fragt einmal pro Einzelbild alle statischen Umrisse im Bereich der
+     * Partikel ab.
+     *
+     * @return <code>true</code>, falls statische Umrisse gefunden wurden.
+     */
+    private boolean collectStaticFixtures(double pastTime)
+    {
+        Layer layer = getLayer();
+        if (layer == null)
+        {
+            return false;
+        }
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (int i = 0; i < count; i++)
+        {
+            double margin = (Math.abs(velocityX[i]) + Math.abs(velocityY[i])
+                    + Math.abs(gravityX) + Math.abs(gravityY)) * pastTime;
+            minX = Math.min(minX, x[i] - margin);
+            minY = Math.min(minY, y[i] - margin);
+            maxX = Math.max(maxX, x[i] + margin);
+            maxY = Math.max(maxY, y[i] + margin);
+        }
+        queryBounds.lowerBound.set((float) minX, (float) minY);
+        queryBounds.upperBound.set((float) maxX, (float) maxY);
+        staticCount = 0;
+        World world = layer.getWorldHandler().getWorld();
+        synchronized (world)
+        {
+            world.queryAABB(staticCollector, queryBounds);
+        }
+        return staticCount > 0;
+    }
+
+    private boolean collectStatic(Fixture fixture)
+    {
+        if ((fixture.filter.categoryBits & WorldHandler.CATEGORY_STATIC) == 0
+                || fixture.isSensor())
+        {
+            return true;
+        }
+        if (staticCount == staticFixtures.length)
+        {
+            staticFixtures = Arrays.copyOf(staticFixtures, staticCount * 2);
+            staticBounds = Arrays.copyOf(staticBounds, staticCount * 8);
+        }
+        AABB aabb = fixture.getAABB(0);
+        staticFixtures[staticCount] = fixture;
+        staticBounds[staticCount * 4] = aabb.lowerBound.x;
+        staticBounds[staticCount * 4 + 1] = aabb.lowerBound.y;
+        staticBounds[staticCount * 4 + 2] = aabb.upperBound.x;
+        staticBounds[staticCount * 4 + 3] = aabb.upperBound.y;
+        staticCount++;
+        return true;
+    }
+
+    private boolean isInsideStatic(double px, double py)
+    {
+        for (int i = 0; i < staticCount; i++)
+        {
+            int b = i * 4;
+            if (px < staticBounds[b] || py < staticBounds[b + 1]
+                    || px > staticBounds[b + 2] || py > staticBounds[b + 3])
+            {
+                continue;
+            }
+            testPoint.set((float) px, (float) py);
+            if (staticFixtures[i].testPoint(testPoint))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Zeichnet alle Partikel in einem einzigen Zeichenvorgang: Die Partikel
+     * werden zunächst direkt in die Pixel eines Bildes in der Größe des
+     * sichtbaren Bereichs geschrieben, das anschließend als Ganzes gezeichnet
+     * wird.
+     *
+     * @param g Das {@link Graphics2D}-Objekt, in das gezeichnet werden soll.
+     * @param pixelPerMeter Gibt an, wie viele Pixel ein Meter misst.
+     */
+    @Override
+    public void render(Graphics2D g, double pixelPerMeter)
+    {
+        if (count == 0 || g.getClip() == null)
+        {
+            return;
+        }
+        AffineTransform original = g.getTransform();
+        // Die Drehung der Figur rückgängig machen, da die Partikel in
+        // Weltkoordinaten vorliegen.
+        g.rotate(Math.toRadians(getRotation()));
+        AffineTransform toDevice = g.getTransform();
+        java.awt.Rectangle area = toDevice.createTransformedShape(g.getClip())
+                .getBounds();
+        g.setTransform(original);
+        if (area.width <= 0 || area.height <= 0)
+        {
+            return;
+        }
+        ensureBuffer(area.width, area.height);
+        int stride = buffer.getWidth();
+        for (int row = 0; row < area.height; row++)
+        {
+            Arrays.fill(pixels, row * stride, row * stride + area.width, 0);
+        }
+        double originX = getX();
+        double originY = getY();
+        double m00 = toDevice.getScaleX();
+        double m01 = toDevice.getShearX();
+        double m10 = toDevice.getShearY();
+        double m11 = toDevice.getScaleY();
+        double m02 = toDevice.getTranslateX() - area.x;
+        double m12 = toDevice.getTranslateY() - area.y;
+        double scale = Math.sqrt(Math.abs(m00 * m11 - m01 * m10));
+        int size = Math.max(1,
+                (int) Math.round(particleSize * pixelPerMeter * scale));
+        int half = size / 2;
+        for (int i = 0; i < count; i++)
+        {
+            double localX = (x[i] - originX) * pixelPerMeter;
+            double localY = -(y[i] - originY) * pixelPerMeter;
+            int deviceX = (int) (m00 * localX + m01 * localY + m02) - half;
+            int deviceY = (int) (m10 * localX + m11 * localY + m12) - half;
+            if (deviceX + size <= 0 || deviceY + size <= 0
+                    || deviceX >= area.width || deviceY >= area.height)
+            {
+                continue;
+            }
+            int argb = colors[i];
+            int alpha = argb >>> 24;
+            if (fadeOut)
+            {
+                alpha = (int) (alpha * (1 - age[i] / lifetime[i]));
+            }
+            if (alpha <= 0)
+            {
+                continue;
+            }
+            fill(Math.max(0, deviceX), Math.max(0, deviceY),
+                    Math.min(area.width, deviceX + size),
+                    Math.min(area.height, deviceY + size), stride, argb, alpha);
+        }
+        g.setTransform(new AffineTransform());
+        g.drawImage(buffer, area.x, area.y, area.x + area.width,
+                area.y + area.height, 0, 0, area.width, area.height, null);
+        g.setTransform(original);
+    }
+
+    /**
+     * Mischt ein Rechteck in einer Farbe mit vormultiplizierter Transparenz in
+     * die Pixel des Puffers.
+     */
+    private void fill(int fromX, int fromY, int toX, int toY, int stride,
+            int argb, int alpha)
+    {
+        int red = ((argb >> 16) & BYTE_MASK) * alpha / BYTE_MASK;
+        int green = ((argb >> 8) & BYTE_MASK) * alpha / BYTE_MASK;
+        int blue = (argb & BYTE_MASK) * alpha / BYTE_MASK;
+        int inverse = BYTE_MASK - alpha;
+        for (int row = fromY; row < toY; row++)
+        {
+            int offset = row * stride;
+            for (int column = fromX; column < toX; column++)
+            {
+                int destination = pixels[offset + column];
+                if (destination == 0 || inverse == 0)
+                {
+                    pixels[offset + column] = alpha << 24 | red << 16
+                            | green << 8 | blue;
+                    continue;
+                }
+                int a = alpha + (destination >>> 24) * inverse / BYTE_MASK;
+                int r = red + ((destination >> 16) & BYTE_MASK) * inverse
+                        / BYTE_MASK;
+                int gr = green + ((destination >> 8) & BYTE_MASK) * inverse
+                        / BYTE_MASK;
+                int b = blue + (destination & BYTE_MASK) * inverse / BYTE_MASK;
+                pixels[offset + column] = a << 24 | r << 16 | gr << 8 | b;
+            }
+        }
+    }
+
+    private void ensureBuffer(int width, int height)
+    {
+        if (buffer != null && buffer.getWidth() >= width
+                && buffer.getHeight() >= height)
+        {
+            return;
+        }
+        int newWidth = buffer == null ? width
+                : Math.max(width, buffer.getWidth());
+        int newHeight = buffer == null ? height
+                : Math.max(height, buffer.getHeight());
+        buffer = new BufferedImage(newWidth, newHeight,
+                BufferedImage.TYPE_INT_ARGB_PRE);
+        pixels = ((DataBufferInt) buffer.getRaster().getDataBuffer()).getData();
+    }
+}
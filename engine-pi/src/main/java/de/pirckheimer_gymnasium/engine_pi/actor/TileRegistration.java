@@ -22,10 +22,14 @@ package de.pirckheimer_gymnasium.engine_pi.actor;
 
 import java.awt.Graphics2D;
 import java.awt.geom.AffineTransform;
+import java.util.ArrayList;
+import java.util.List;
 
 import de.pirckheimer_gymnasium.engine_pi.annotations.API;
 import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
 import de.pirckheimer_gymnasium.engine_pi.physics.FixtureBuilder;
+import de.pirckheimer_gymnasium.engine_pi.physics.FixtureData;
+import de.pirckheimer_gymnasium.engine_pi.physics.TileColliderBuilder;
 
 /**
  * Ein <code>TileContainer</code> ist eine schachbrettartige Anordnung
@@ -51,6 +55,20 @@ public class TileRegistration extends Actor implements TileMap
      */
     private final double tileHeight;
 
+    /**
+     * Fasst die festen Tiles zu Halterungen zusammen. Wird erst erzeugt, wenn
+     * das erste Tile als fest markiert wird. Bis dahin besteht die Figur aus
+     * einem einzigen Rechteck über den ganzen Container.
+     */
+    private TileColliderBuilder colliders;
+
+    /**
+     * Ob die Halterungen der Figur bereits aus den festen Tiles erzeugt wurden.
+     * Danach werden nur noch die Halterungen der geänderten Blöcke
+     * ausgetauscht.
+     */
+    private boolean collidersApplied;
+
     /**
      * Erstellt einen <b>leeren</b> Tile-Container. Er ist erst "sichtbar", wenn
      * Tiles gesetzt werden.
@@ -123,6 +141,104 @@ public class TileRegistration extends Actor implements TileMap
         tiles[x][y] = tile;
     }
 
+    /**
+     * Legt fest, ob ein Tile fest ist, also an der Kollision teilnimmt.
+     *
+     * <p>
+     * Sobald das erste Tile als fest markiert wird, besteht die Figur nicht
+     * mehr aus einem Rechteck über den ganzen Container, sondern nur noch aus
+     * den festen Tiles. Benachbarte feste Tiles werden dabei über einen
+     * {@link TileColliderBuilder} zu möglichst wenigen Halterungen
+     * zusammengefasst. Die Halterungen werden zu Beginn des nächsten
+     * Einzelbilds aktualisiert, wobei nur die geänderten Bereiche neu
+     * zusammengefasst werden.
+     * </p>
+     *
+     * @param x Die x-Position im Kachelgitter. 0 adressiert die erste, (ganz am
+     *     linken Rand gelegene) Spalte.
+     * @param y Die y-Position im Kachelgitter. 0 adressiert die erste,
+     *     (oberste) Zeile.
+     * @param solid Ob das Tile fest ist.
+     *
+     * @see #updateColliders()
+     */
+    @API
+    public void setSolid(int x, int y, boolean solid)
+    {
+        if (colliders == null && !solid)
+        {
+            return;
+        }
+        getColliders().setSolid(x, y, solid);
+    }
+
+    private TileColliderBuilder getColliders()
+    {
+        if (colliders == null)
+        {
+            colliders = new TileColliderBuilder(tiles.length, tiles[0].length,
+                    tileWidth, tileHeight);
+            addFrameUpdateListener(pastTime -> updateColliders());
+        }
+        return colliders;
+    }
+
+    /**
+     * Gibt an, ob ein Tile fest ist, also an der Kollision teilnimmt.
+     *
+     * @param x Die x-Position im Kachelgitter. 0 adressiert die erste, (ganz am
+     *     linken Rand gelegene) Spalte.
+     * @param y Die y-Position im Kachelgitter. 0 adressiert die erste,
+     *     (oberste) Zeile.
+     */
+    @API
+    public boolean isSolid(int x, int y)
+    {
+        return colliders != null && colliders.isSolid(x, y);
+    }
+
+    /**
+     * Legt fest, ob die festen Tiles zu Rechtecken oder zu Umrisslinien
+     * zusammengefasst werden.
+     *
+     * @param mode {@link TileColliderBuilder.Mode#RECTANGLES} oder
+     *     {@link TileColliderBuilder.Mode#OUTLINES} (nur für statische
+     *     Figuren).
+     */
+    @API
+    public void setColliderMode(TileColliderBuilder.Mode mode)
+    {
+        getColliders().setMode(mode);
+    }
+
+    /**
+     * Aktualisiert die Halterungen sofort, falls sich seit der letzten
+     * Aktualisierung feste Tiles geändert haben. Dabei werden nur die
+     * Halterungen der geänderten Blöcke entfernt und neu erzeugt.
+     *
+     * @see #setSolid(int, int, boolean)
+     */
+    @API
+    public void updateColliders()
+    {
+        if (colliders == null || !colliders.isDirty())
+        {
+            return;
+        }
+        if (!collidersApplied)
+        {
+            // Das Rechteck über den ganzen Container ersetzen.
+            List<FixtureData> fixtures = colliders.build();
+            setFixtures(() -> fixtures);
+            collidersApplied = true;
+            return;
+        }
+        List<FixtureData> removed = new ArrayList<>();
+        List<FixtureData> added = new ArrayList<>();
+        List<FixtureData> fixtures = colliders.build(removed, added);
+        getPhysicsHandler().updateFixtures(removed, added, () -> fixtures);
+    }
+
     /**
      * Zeichnet die Figur an der Position {@code (0|0)} mit der Rotation
      * {@code 0}.
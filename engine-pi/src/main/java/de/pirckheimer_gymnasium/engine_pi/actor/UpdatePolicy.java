@@ -0,0 +1,187 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.actor;
+
+import java.util.function.Predicate;
+
+import de.pirckheimer_gymnasium.engine_pi.Layer;
+import de.pirckheimer_gymnasium.engine_pi.Scene;
+import de.pirckheimer_gymnasium.engine_pi.Vector;
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+
+/**
+ * Legt fest, wann die
+ * {@link de.pirckheimer_gymnasium.engine_pi.event.FrameUpdateListener
+ * Beobachter der Bildaktualisierung} einer Figur aufgerufen werden.
+ *
+ * <p>
+ * Figuren mit einer anderen Richtlinie als {@link #ALWAYS} melden ihre
+ * Beobachter nicht einzeln an der Ebene an, sondern nur einen gemeinsamen
+ * Stellvertreter. Dieser prüft die Richtlinie einmal pro Einzelbild und
+ * überspringt alle Beobachter der Figur auf einmal, solange die Figur inaktiv
+ * ist. Das betrifft auch Animationen und die mit
+ * {@link Actor#delay(double, Runnable)} oder
+ * {@link Actor#repeat(double, Runnable)} geplanten Aufgaben der Figur.
+ * </p>
+ *
+ * <p>
+ * Solange eine Figur inaktiv ist, steht für ihre Beobachter die Zeit still. Bei
+ * einer gedrosselten Richtlinie erhalten die Beobachter dagegen die gesamte
+ * Zeit, die seit ihrem letzten Aufruf vergangen ist.
+ * </p>
+ *
+ * <pre>{@code
+ * enemy.setUpdatePolicy(UpdatePolicy.withinCameraRadius(20).throttle(10));
+ * }</pre>
+ *
+ * @author Josef Friedrich
+ *
+ * @see Actor#setUpdatePolicy(UpdatePolicy)
+ */
+public final class UpdatePolicy
+{
+    /**
+     * Die Beobachter werden in jedem Einzelbild aufgerufen.
+     */
+    @API
+    public static final UpdatePolicy ALWAYS = new UpdatePolicy(null, 0);
+
+    /**
+     * Die Beobachter werden nur aufgerufen, solange die Figur und ihre Ebene
+     * sichtbar sind.
+     */
+    @API
+    public static final UpdatePolicy VISIBLE = new UpdatePolicy(
+            UpdatePolicy::isVisible, 0);
+
+    /**
+     * Die Bedingung, unter der die Figur aktiv ist, oder <code>null</code>,
+     * wenn sie immer aktiv ist.
+     */
+    private final Predicate<Actor> condition;
+
+    /**
+     * Der Mindestabstand zwischen zwei Aufrufen in Sekunden.
+     */
+    private final double interval;
+
+    private UpdatePolicy(Predicate<Actor> condition, double interval)
+    {
+        this.condition = condition;
+        this.interval = interval;
+    }
+
+    /**
+     * Die Beobachter werden nur aufgerufen, solange der Mittelpunkt der Figur
+     * höchstens den angegebenen Abstand vom Mittelpunkt der Kamera hat.
+     *
+     * @param radius Der Abstand in Meter.
+     *
+     * @return Die Richtlinie.
+     */
+    @API
+    public static UpdatePolicy withinCameraRadius(double radius)
+    {
+        if (radius <= 0)
+        {
+            throw new IllegalArgumentException(
+                    "Der Radius muss größer als 0 sein, war " + radius);
+        }
+        double squaredRadius = radius * radius;
+        return new UpdatePolicy(actor -> {
+            Layer layer = actor.getLayer();
+            Scene scene = layer == null ? null : layer.getParent();
+            if (scene == null)
+            {
+                return false;
+            }
+            Vector distance = actor.getCenter()
+                    .subtract(scene.getCamera().getCenter());
+            return distance.getX() * distance.getX()
+                    + distance.getY() * distance.getY() <= squaredRadius;
+        }, 0);
+    }
+
+    /**
+     * Die Beobachter werden höchstens mit der angegebenen Frequenz aufgerufen.
+     *
+     * @param frequency Die Anzahl der Aufrufe pro Sekunde.
+     *
+     * @return Die Richtlinie.
+     */
+    @API
+    public static UpdatePolicy throttled(double frequency)
+    {
+        return ALWAYS.throttle(frequency);
+    }
+
+    /**
+     * Erzeugt eine Richtlinie mit derselben Bedingung, deren Beobachter
+     * höchstens mit der angegebenen Frequenz aufgerufen werden.
+     *
+     * @param frequency Die Anzahl der Aufrufe pro Sekunde.
+     *
+     * @return Die neue Richtlinie.
+     */
+    @API
+    public UpdatePolicy throttle(double frequency)
+    {
+        if (frequency <= 0)
+        {
+            throw new IllegalArgumentException(
+                    "Die Frequenz muss größer als 0 sein, war " + frequency);
+        }
+        return new UpdatePolicy(condition, 1 / frequency);
+    }
+
+    private static boolean isVisible(Actor actor)
+    {
+        Layer layer = actor.getLayer();
+        return actor.isVisible() && (layer == null || layer.isVisible());
+    }
+
+    /**
+     * Gibt an, ob die Beobachter der Figur in jedem Einzelbild ohne Prüfung
+     * aufgerufen werden.
+     */
+    @Internal
+    boolean isAlways()
+    {
+        return condition == null && interval == 0;
+    }
+
+    /**
+     * Gibt an, ob die Figur im aktuellen Einzelbild aktiv ist.
+     */
+    @Internal
+    boolean isActive(Actor actor)
+    {
+        return condition == null || condition.test(actor);
+    }
+
+    /**
+     * Gibt den Mindestabstand zwischen zwei Aufrufen in Sekunden zurück.
+     */
+    @Internal
+    double getInterval()
+    {
+        return interval;
+    }
+}
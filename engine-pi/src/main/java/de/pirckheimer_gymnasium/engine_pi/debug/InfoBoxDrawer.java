@@ -28,6 +28,10 @@ import de.pirckheimer_gymnasium.engine_pi.Resources;
 import de.pirckheimer_gymnasium.engine_pi.Scene;
 import de.pirckheimer_gymnasium.engine_pi.Vector;
 import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+import de.pirckheimer_gymnasium.engine_pi.event.FramePhase;
+import de.pirckheimer_gymnasium.engine_pi.event.ListenerProfiler;
+import de.pirckheimer_gymnasium.engine_pi.event.ListenerStatistics;
+import de.pirckheimer_gymnasium.engine_pi.physics.PhysicsStatistics;
 import de.pirckheimer_gymnasium.engine_pi.util.Graphics2DUtil;
 
 /**
@@ -50,26 +54,69 @@ public final class InfoBoxDrawer
      * Zeichnet einige <b>Informationsboxen</b> in das linke obere Eck.
      *
      * @param g Das {@link Graphics2D}-Objekt, in das gezeichnet werden soll.
+     * @param statistics Die Kennzahlen der Physik-Welt der Hauptebene.
+     * @param phaseTimes Die Dauer der Phasen des letzten Einzelbilds in
+     *     Sekunden, in der Reihenfolge von {@link FramePhase}.
      */
     @Internal
     public static void draw(Graphics2D g, Scene scene, double frameDuration,
-            int actorsCount)
+            PhysicsStatistics statistics, double[] phaseTimes)
     {
         // Einzelbilder pro Sekunden
         Graphics2DUtil.drawTextBox(g, "FPS: "
                 + (frameDuration == 0 ? "∞" : Math.round(1 / frameDuration)),
                 10, COLORS.getSafe("blue"));
         // Anzahl an Figuren
-        Graphics2DUtil.drawTextBox(g, "Actors: " + actorsCount, 50,
-                COLORS.getSafe("green"));
+        Graphics2DUtil.drawTextBox(g,
+                "Actors: " + statistics.bodyCount() + " (awake: "
+                        + statistics.awakeBodyCount() + ")",
+                50, COLORS.getSafe("green"));
+        // Kontakte und Gelenke
+        Graphics2DUtil.drawTextBox(g,
+                "Contacts: " + statistics.touchingContactCount() + "/"
+                        + statistics.contactCount() + " Joints: "
+                        + statistics.jointCount(),
+                90, COLORS.getSafe("yellow"));
+        // Dauer der Physik-Simulation
+        Graphics2DUtil.drawTextBox(g,
+                String.format("Physics: %.2f ms (%d steps)",
+                        statistics.stepTime() * 1000, statistics.substeps()),
+                130, COLORS.getSafe("orange"));
+        // Dauer der Phasen der Bildaktualisierung
+        Graphics2DUtil.drawTextBox(g,
+                String.format(
+                        "Update: %.2f ms (pre %.2f post %.2f render %.2f/%.2f)",
+                        phaseTimes[FramePhase.UPDATE.ordinal()] * 1000,
+                        phaseTimes[FramePhase.PRE_PHYSICS.ordinal()] * 1000,
+                        phaseTimes[FramePhase.POST_PHYSICS.ordinal()] * 1000,
+                        phaseTimes[FramePhase.PRE_RENDER.ordinal()] * 1000,
+                        phaseTimes[FramePhase.POST_RENDER.ordinal()] * 1000),
+                170, COLORS.getSafe("red"));
         // Schwerkraft
         Vector gravity = scene.getGravity();
         Color gravityColor = Resources.colorScheme.getBluePurple();
         if (!gravity.isNull())
         {
             Graphics2DUtil.drawTextBox(g, String.format("G(x,y): %.2f,%.2f",
-                    gravity.getX(), gravity.getY()), 90, gravityColor);
-            drawGravityVector(g, 40, 145, gravity, gravityColor);
+                    gravity.getX(), gravity.getY()), 210, gravityColor);
+            drawGravityVector(g, 40, 265, gravity, gravityColor);
+        }
+        // Die teuersten Beobachter
+        if (ListenerProfiler.isEnabled())
+        {
+            int y = 310;
+            for (ListenerStatistics listener : ListenerProfiler
+                    .getTopOffenders(3))
+            {
+                String name = listener.listener();
+                Graphics2DUtil.drawTextBox(g,
+                        String.format("%s: avg %.3f ms, max %.2f ms",
+                                name.substring(name.lastIndexOf('.') + 1),
+                                listener.averageTime() / 1e6,
+                                listener.maxTime() / 1e6),
+                        y, COLORS.getSafe("gray"));
+                y += 40;
+            }
         }
     }
 
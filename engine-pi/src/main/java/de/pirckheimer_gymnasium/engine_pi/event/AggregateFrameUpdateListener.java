@@ -33,6 +33,8 @@ public abstract class AggregateFrameUpdateListener
 {
     private final EventListeners<FrameUpdateListener> listeners = new EventListeners<>();
 
+    private final TimingWheel timingWheel = new TimingWheel();
+
     private boolean paused = false;
 
     @API
@@ -52,6 +54,7 @@ public abstract class AggregateFrameUpdateListener
     {
         if (!paused)
         {
+            timingWheel.advance(pastTime);
             listeners.invoke(listener -> listener.onFrameUpdate(pastTime));
         }
     }
@@ -61,4 +64,10 @@ public abstract class AggregateFrameUpdateListener
     {
         return listeners;
     }
+
+    @Override
+    public TimingWheel getTimingWheel()
+    {
+        return timingWheel;
+    }
 }
@@ -0,0 +1,44 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.event;
+
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+
+/**
+ * Wird über den <b>Fortschritt einer Stapelverarbeitung</b> informiert, die
+ * über mehrere Einzelbilder verteilt wird, z. B. beim Hinzufügen oder Entfernen
+ * sehr vieler Figuren.
+ *
+ * @author Josef Friedrich
+ *
+ * @see de.pirckheimer_gymnasium.engine_pi.Layer#addAll(java.util.Collection,
+ *     int, BatchProgressListener)
+ */
+@FunctionalInterface
+public interface BatchProgressListener
+{
+    /**
+     * Wird aufgerufen, nachdem ein Teilstapel verarbeitet wurde.
+     *
+     * @param done Die Anzahl der bereits verarbeiteten Elemente.
+     * @param total Die Gesamtzahl der Elemente.
+     */
+    @API
+    void onProgress(int done, int total);
+}
@@ -32,6 +32,8 @@ import de.pirckheimer_gymnasium.engine_pi.Vector;
 import de.pirckheimer_gymnasium.engine_pi.actor.Actor;
 import de.pirckheimer_gymnasium.engine_pi.annotations.API;
 import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+import de.pirckheimer_gymnasium.engine_pi.physics.ArcadeContact;
+import de.pirckheimer_gymnasium.engine_pi.physics.WorldHandler;
 
 /**
  * Ein Objekt der Klasse {@link CollisionEvent} repräsentiert eine <b>Kollision
@@ -75,6 +77,12 @@ public class CollisionEvent<E extends Actor>
      */
     private final Contact contact;
 
+    /**
+     * Der Kontakt der Arcade-Physik, falls die Ebene das Arcade-Backend
+     * verwendet, sonst {@code null}.
+     */
+    private final ArcadeContact arcadeContact;
+
     /**
      * Das kollidierende {@link Actor}-Objekt.
      */
@@ -93,6 +101,21 @@ public class CollisionEvent<E extends Actor>
     public CollisionEvent(Contact contact, E colliding)
     {
         this.contact = contact;
+        this.arcadeContact = null;
+        this.colliding = colliding;
+    }
+
+    /**
+     * Erstellt ein Collision-Event der Arcade-Physik.
+     *
+     * @param contact Der Kontakt der Arcade-Physik.
+     * @param colliding Das kollidierende {@link Actor}-Objekt.
+     */
+    @Internal
+    public CollisionEvent(ArcadeContact contact, E colliding)
+    {
+        this.contact = null;
+        this.arcadeContact = contact;
         this.colliding = colliding;
     }
 
@@ -130,6 +153,11 @@ public class CollisionEvent<E extends Actor>
     @API
     public void ignoreCollision()
     {
+        if (arcadeContact != null)
+        {
+            arcadeContact.setEnabled(false);
+            return;
+        }
         contact.setEnabled(false);
         colliding.getPhysicsHandler().getWorldHandler()
                 .addContactToBlacklist(contact);
@@ -142,10 +170,16 @@ public class CollisionEvent<E extends Actor>
     @API
     public Vector getTangentNormal()
     {
+        if (arcadeContact != null)
+        {
+            Vector normal = arcadeContact.getNormal();
+            return arcadeContact.getActorA() == colliding ? normal.negate()
+                    : normal;
+        }
         WorldManifold worldManifold = CollisionEvent.worldManifold.get();
         contact.getWorldManifold(worldManifold);
         Vector normal = Vector.of(worldManifold.normal);
-        if (contact.fixtureA.getBody().getUserData() == colliding)
+        if (WorldHandler.getActor(contact.fixtureA.getBody()) == colliding)
         {
             normal = normal.negate();
         }
@@ -164,6 +198,10 @@ public class CollisionEvent<E extends Actor>
     @API
     public List<Vector> getPoints()
     {
+        if (arcadeContact != null)
+        {
+            return Collections.singletonList(arcadeContact.getPoint());
+        }
         WorldManifold worldManifold = CollisionEvent.worldManifold.get();
         contact.getWorldManifold(worldManifold);
         int pointCount = contact.getManifold().pointCount;
@@ -195,6 +233,10 @@ public class CollisionEvent<E extends Actor>
      */
     public boolean isIgnored()
     {
+        if (arcadeContact != null)
+        {
+            return !arcadeContact.isEnabled();
+        }
         return !contact.isEnabled();
     }
 
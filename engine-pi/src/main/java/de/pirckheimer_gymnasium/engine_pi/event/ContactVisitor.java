@@ -0,0 +1,56 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.event;
+
+import de.pirckheimer_gymnasium.engine_pi.actor.Actor;
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+
+/**
+ * Besucht die <b>aktuellen Berührungen</b> einer Figur, ohne dass dabei Objekte
+ * erzeugt werden.
+ *
+ * <p>
+ * Im Gegensatz zu {@link Actor#getCollisions()} wird weder eine Liste noch ein
+ * {@link CollisionEvent} pro Berührung angelegt. Die Normale wird als zwei
+ * Zahlen übergeben. Das eignet sich für Abfragen, die in jedem Einzelbild für
+ * viele Figuren ausgeführt werden.
+ * </p>
+ *
+ * @author Josef Friedrich
+ *
+ * @see Actor#forEachContact(ContactVisitor)
+ */
+@FunctionalInterface
+public interface ContactVisitor
+{
+    /**
+     * Wird für jede Berührung der Figur mit einer anderen Figur aufgerufen.
+     *
+     * @param other Die andere Figur.
+     * @param normalX Die x-Komponente der Normalen, die von der Figur zur
+     *     anderen Figur zeigt.
+     * @param normalY Die y-Komponente der Normalen, die von der Figur zur
+     *     anderen Figur zeigt.
+     *
+     * @return <code>true</code>, um mit der nächsten Berührung fortzufahren,
+     *     <code>false</code>, um den Durchlauf abzubrechen.
+     */
+    @API
+    boolean visit(Actor other, double normalX, double normalY);
+}
@@ -20,9 +20,8 @@
  */
 package de.pirckheimer_gymnasium.engine_pi.event;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -35,18 +34,41 @@ import de.pirckheimer_gymnasium.engine_pi.annotations.API;
  * Die Klasse stellt Methoden bereit, um Beobachter an- ({@link #add(Object)})
  * und abzumelden ({@link #remove(Object)}).
  * </p>
+ *
+ * <p>
+ * {@link #invoke(Consumer)} durchläuft eine unveränderliche Momentaufnahme der
+ * Beobachter als einfaches Feld und kommt ohne Sperre aus. Änderungen werden
+ * unter einer Sperre in einer Menge vorgenommen und verwerfen lediglich die
+ * Momentaufnahme, die beim nächsten Aufruf einmalig neu erzeugt wird. Werden
+ * während eines Aufrufs Beobachter an- oder abgemeldet, wirkt sich das erst
+ * beim nächsten Aufruf aus.
+ * </p>
+ *
+ * <p>
+ * Ist der {@link ListenerProfiler} eingeschaltet, wird die Dauer jedes Aufrufs
+ * gemessen.
+ * </p>
  */
 public final class EventListeners<T>
 {
-    private final Collection<T> listeners = new LinkedHashSet<>();
+    private static final Object[] EMPTY = new Object[0];
 
-    private final Collection<T> listenerIterationCopy = new LinkedHashSet<>();
+    /**
+     * Die angemeldeten Beobachter in der Reihenfolge ihrer Anmeldung. Wird nur
+     * unter der Sperre {@link #lock} gelesen oder verändert.
+     */
+    private final Set<T> listeners = new LinkedHashSet<>();
 
-    private final Collection<Runnable> pendingCopyModifications = new ArrayList<>();
+    private final Object lock = new Object();
 
-    private final Supplier<EventListeners<T>> parentSupplier;
+    /**
+     * Die unveränderliche Momentaufnahme, die {@link #invoke(Consumer)}
+     * durchläuft, oder <code>null</code>, wenn sie nach einer Änderung neu
+     * erzeugt werden muss.
+     */
+    private volatile Object[] snapshot = EMPTY;
 
-    private boolean iterating = false;
+    private final Supplier<EventListeners<T>> parentSupplier;
 
     public EventListeners()
     {
@@ -64,17 +86,18 @@ public final class EventListeners<T>
      * @param listener Der Beobachter, der angemeldet werden soll.
      */
     @API
-    public synchronized void add(T listener)
+    public void add(T listener)
     {
-        listeners.add(listener);
-        if (iterating)
+        if (ListenerProfiler.isEnabled())
         {
-            pendingCopyModifications
-                    .add(() -> listenerIterationCopy.add(listener));
+            ListenerProfiler.registered(listener);
         }
-        else
+        synchronized (lock)
         {
-            listenerIterationCopy.add(listener);
+            if (listeners.add(listener))
+            {
+                snapshot = null;
+            }
         }
         EventListeners<T> parent = parentSupplier.get();
         if (parent != null)
@@ -89,17 +112,14 @@ public final class EventListeners<T>
      * @param listener Der Beobachter, der abgemeldet werden soll.
      */
     @API
-    public synchronized void remove(T listener)
+    public void remove(T listener)
     {
-        listeners.remove(listener);
-        if (iterating)
+        synchronized (lock)
         {
-            pendingCopyModifications
-                    .add(() -> listenerIterationCopy.remove(listener));
-        }
-        else
-        {
-            listenerIterationCopy.remove(listener);
+            if (listeners.remove(listener))
+            {
+                snapshot = null;
+            }
         }
         EventListeners<T> parent = parentSupplier.get();
         if (parent != null)
@@ -117,35 +137,65 @@ public final class EventListeners<T>
      *     sonst falsch.
      */
     @API
-    public synchronized boolean contains(T listener)
+    public boolean contains(T listener)
     {
-        return listeners.contains(listener);
+        synchronized (lock)
+        {
+            return listeners.contains(listener);
+        }
     }
 
+    /**
+     * Ruft alle Beobachter auf, die zu Beginn des Aufrufs angemeldet waren.
+     *
+     * @param invoker Wird für jeden Beobachter aufgerufen.
+     */
     @API
-    public synchronized void invoke(Consumer<T> invoker)
+    @SuppressWarnings("unchecked")
+    public void invoke(Consumer<T> invoker)
     {
-        if (iterating)
-        {
-            throw new IllegalStateException(
-                    "Recursive invocation of event listeners is unsupported");
-        }
-        try
+        Object[] listeners = getSnapshot();
+        if (ListenerProfiler.isEnabled())
         {
-            iterating = true;
-            for (T listener : listenerIterationCopy)
+            for (int i = 0; i < listeners.length; i++)
             {
-                invoker.accept(listener);
+                long start = ListenerProfiler.start();
+                try
+                {
+                    invoker.accept((T) listeners[i]);
+                }
+                finally
+                {
+                    ListenerProfiler.stop(listeners[i], start);
+                }
             }
+            return;
         }
-        finally
+        for (int i = 0; i < listeners.length; i++)
         {
-            iterating = false;
-            for (Runnable pendingModification : pendingCopyModifications)
+            invoker.accept((T) listeners[i]);
+        }
+    }
+
+    /**
+     * Gibt die aktuelle Momentaufnahme zurück und erzeugt sie bei Bedarf neu.
+     */
+    private Object[] getSnapshot()
+    {
+        Object[] current = snapshot;
+        if (current != null)
+        {
+            return current;
+        }
+        synchronized (lock)
+        {
+            current = snapshot;
+            if (current == null)
             {
-                pendingModification.run();
+                current = listeners.isEmpty() ? EMPTY : listeners.toArray();
+                snapshot = current;
             }
-            pendingCopyModifications.clear();
+            return current;
         }
     }
 
@@ -155,18 +205,33 @@ public final class EventListeners<T>
      * @return wahr, wenn diese Instanz keine Beobachter enthält, sonst falsch.
      */
     @API
-    public synchronized boolean isEmpty()
+    public boolean isEmpty()
+    {
+        return getSnapshot().length == 0;
+    }
+
+    /**
+     * Gibt die Anzahl der angemeldeten Beobachter zurück.
+     *
+     * @return Die Anzahl der angemeldeten Beobachter.
+     */
+    @API
+    public int size()
     {
-        return listeners.isEmpty();
+        return getSnapshot().length;
     }
 
     /**
      * Löscht alle Beobachter aus der Instanz.
      */
     @API
-    public synchronized void clear()
+    public void clear()
     {
-        listeners.clear();
+        synchronized (lock)
+        {
+            listeners.clear();
+            snapshot = EMPTY;
+        }
     }
 
     /**
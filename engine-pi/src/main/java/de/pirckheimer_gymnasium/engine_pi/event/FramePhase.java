@@ -0,0 +1,73 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.event;
+
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+
+/**
+ * Die <b>Phasen</b> eines Einzelbilds, in denen eine Szene ihre
+ * {@link FrameUpdateListener} aufruft.
+ *
+ * <p>
+ * Die Spielschleife durchläuft die Phasen in der Reihenfolge ihrer Deklaration.
+ * Innerhalb einer Phase werden die Beobachter in der Reihenfolge ihrer
+ * Anmeldung aufgerufen, {@link ParallelFrameUpdateListener} im Anschluss
+ * gemeinsam.
+ * </p>
+ *
+ * @author Josef Friedrich
+ *
+ * @see de.pirckheimer_gymnasium.engine_pi.Scene#addFrameUpdateListener(FramePhase,
+ *     FrameUpdateListener)
+ */
+@API
+public enum FramePhase
+{
+    /**
+     * Vor dem Physik-Schritt, z. B. um Kräfte oder Geschwindigkeiten zu setzen,
+     * die noch im selben Einzelbild wirken sollen.
+     */
+    PRE_PHYSICS,
+
+    /**
+     * Direkt nach dem Physik-Schritt und vor der Kamera, z. B. um auf die neuen
+     * Positionen der Figuren zu reagieren.
+     */
+    POST_PHYSICS,
+
+    /**
+     * Die gewöhnliche Aktualisierung: Die globalen Beobachter, die Kamera und
+     * die Beobachter, die ohne Phase an der Szene und ihren Ebenen angemeldet
+     * wurden.
+     */
+    UPDATE,
+
+    /**
+     * Nach der Verarbeitung der Eingaben unmittelbar vor dem Zeichnen, z. B. um
+     * Anzeigen auf den endgültigen Stand zu bringen.
+     */
+    PRE_RENDER,
+
+    /**
+     * Nach dem Zeichnen als letzte Arbeit des Einzelbilds, z. B. für
+     * Aufräumarbeiten oder Auswertungen. Was die Beobachter dieser Phase
+     * verändern, wird erst im nächsten Einzelbild gezeichnet.
+     */
+    POST_RENDER
+}
@@ -0,0 +1,239 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+
+/**
+ * Ruft die {@link FrameUpdateListener} einer Szene, Ebene oder Figur auf.
+ *
+ * <p>
+ * Gewöhnliche Beobachter werden nacheinander in der Reihenfolge ihrer Anmeldung
+ * auf dem aufrufenden Thread ausgeführt. Anschließend werden alle
+ * {@link ParallelFrameUpdateListener} gemeinsam auf dem
+ * {@link ForkJoinPool#commonPool() gemeinsamen Fork-Join-Pool} ausgeführt.
+ * {@link #invoke(double)} kehrt erst zurück, wenn alle Beobachter fertig sind,
+ * und wirft eine Ausnahme eines parallelen Beobachters auf dem aufrufenden
+ * Thread erneut.
+ * </p>
+ *
+ * <p>
+ * Beim Abspielen einer Aufzeichnung werden auch die parallelen Beobachter
+ * nacheinander auf dem aufrufenden Thread ausgeführt, siehe
+ * {@link #setSequential(boolean)}.
+ * </p>
+ *
+ * <p>
+ * Eine Instanz darf nur von einem Thread, der Spielschleife, verwendet werden.
+ * </p>
+ *
+ * @author Josef Friedrich
+ */
+@Internal
+public final class FrameUpdateInvoker
+{
+    /**
+     * Die Anzahl an Teilaufgaben, die pro Thread des Pools angestrebt wird.
+     * Mehrere Teilaufgaben pro Thread gleichen unterschiedlich lange Beobachter
+     * aus, ohne für jeden Beobachter eine eigene Teilaufgabe zu erzeugen.
+     */
+    private static final int BATCHES_PER_THREAD = 4;
+
+    /**
+     * Ob die parallelen Beobachter aller Instanzen nacheinander in der
+     * Reihenfolge ihrer Anmeldung auf dem aufrufenden Thread ausgeführt werden.
+     */
+    private static volatile boolean sequential = false;
+
+    private final EventListeners<FrameUpdateListener> listeners;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Die parallelen Beobachter des aktuellen Einzelbilds. Die Liste wird in
+     * jedem Einzelbild wiederverwendet.
+     */
+    private final List<FrameUpdateListener> parallel = new ArrayList<>();
+
+    private final Consumer<FrameUpdateListener> invokeOrCollect = this::invokeOrCollect;
+
+    private double pastTime;
+
+    /**
+     * Bis zu dieser Anzahl an Beobachtern wird eine Teilaufgabe im aktuellen
+     * Einzelbild nicht weiter aufgeteilt.
+     */
+    private int batchSize;
+
+    public FrameUpdateInvoker(EventListeners<FrameUpdateListener> listeners)
+    {
+        this(listeners, ForkJoinPool.commonPool());
+    }
+
+    public FrameUpdateInvoker(EventListeners<FrameUpdateListener> listeners,
+            ForkJoinPool pool)
+    {
+        this.listeners = listeners;
+        this.pool = pool;
+    }
+
+    /**
+     * Legt fest, ob die parallelen Beobachter aller Instanzen nacheinander auf
+     * dem aufrufenden Thread ausgeführt werden. Der
+     * {@link de.pirckheimer_gymnasium.engine_pi.InputReplayer} schaltet das
+     * während des Abspielens ein, damit jeder Durchlauf die Beobachter in
+     * derselben Reihenfolge aufruft.
+     *
+     * @param sequential Ob die parallelen Beobachter nacheinander ausgeführt
+     *     werden.
+     */
+    @Internal
+    public static void setSequential(boolean sequential)
+    {
+        FrameUpdateInvoker.sequential = sequential;
+    }
+
+    @Internal
+    public static boolean isSequential()
+    {
+        return sequential;
+    }
+
+    /**
+     * Ruft alle Beobachter auf.
+     *
+     * @param pastTime Die Zeit in Sekunden, die seit dem letzten Einzelbild
+     *     vergangen ist.
+     */
+    public void invoke(double pastTime)
+    {
+        this.pastTime = pastTime;
+        listeners.invoke(invokeOrCollect);
+        int size = parallel.size();
+        if (size == 0)
+        {
+            return;
+        }
+        // Die Wartezeit auf die parallelen Beobachter wird nicht dem
+        // umgebenden Beobachter angerechnet.
+        long start = ListenerProfiler.start();
+        try
+        {
+            if (size == 1 || sequential)
+            {
+                for (int i = 0; i < size; i++)
+                {
+                    runParallel(parallel.get(i));
+                }
+            }
+            else
+            {
+                batchSize = batchSize(size, pool.getParallelism());
+                pool.invoke(new Batch(0, size));
+            }
+        }
+        finally
+        {
+            ListenerProfiler.skip(start);
+            parallel.clear();
+        }
+    }
+
+    /**
+     * Berechnet, bis zu welcher Anzahl an Beobachtern eine Teilaufgabe nicht
+     * weiter aufgeteilt wird, sodass jeder Thread des Pools etwa
+     * {@value #BATCHES_PER_THREAD} Teilaufgaben erhält.
+     *
+     * @param size Die Anzahl der parallelen Beobachter.
+     * @param parallelism Die Anzahl der Threads des Pools.
+     *
+     * @return Die Anzahl der Beobachter pro Teilaufgabe, mindestens 1.
+     */
+    static int batchSize(int size, int parallelism)
+    {
+        return Math.max(1, size / (parallelism * BATCHES_PER_THREAD));
+    }
+
+    private void invokeOrCollect(FrameUpdateListener listener)
+    {
+        if (listener instanceof ParallelFrameUpdateListener)
+        {
+            parallel.add(listener);
+        }
+        else
+        {
+            listener.onFrameUpdate(pastTime);
+        }
+    }
+
+    /**
+     * Ruft einen parallelen Beobachter auf. Der Aufruf wurde beim Einsammeln
+     * bereits vom {@link ListenerProfiler} gezählt, hier wird nur noch seine
+     * Dauer ergänzt.
+     */
+    private void runParallel(FrameUpdateListener listener)
+    {
+        long start = ListenerProfiler.start();
+        try
+        {
+            listener.onFrameUpdate(pastTime);
+        }
+        finally
+        {
+            ListenerProfiler.stop(listener, start, false);
+        }
+    }
+
+    /**
+     * Teilt die parallelen Beobachter rekursiv in Hälften auf.
+     */
+    private final class Batch extends RecursiveAction
+    {
+        private final int from;
+
+        private final int to;
+
+        private Batch(int from, int to)
+        {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (to - from <= batchSize)
+            {
+                for (int i = from; i < to; i++)
+                {
+                    runParallel(parallel.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Batch(from, middle), new Batch(middle, to));
+        }
+    }
+}
@@ -21,6 +21,7 @@
 package de.pirckheimer_gymnasium.engine_pi.event;
 
 import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
 
 /**
  * Eine Schnittstelle zum An- und Abmelden von Beobachtern, die auf die
@@ -42,6 +43,24 @@ public interface FrameUpdateListenerRegistration
      */
     EventListeners<FrameUpdateListener> getFrameUpdateListeners();
 
+    /**
+     * Gibt das Zeitrad zurück, in dem {@link #delay(double, Runnable)},
+     * {@link #repeat(double, Runnable)} und {@link #defer(Runnable)} ihre
+     * Aufgaben einplanen.
+     *
+     * <p>
+     * Ohne Zeitrad werden die Aufgaben wie gewöhnliche
+     * {@link FrameUpdateListener} bei jedem Einzelbild aufgerufen.
+     * </p>
+     *
+     * @return Das Zeitrad oder <code>null</code>.
+     */
+    @Internal
+    default TimingWheel getTimingWheel()
+    {
+        return null;
+    }
+
     /**
      * Fügt einen neuen {@link FrameUpdateListener} hinzu.
      */
@@ -58,6 +77,10 @@ public interface FrameUpdateListenerRegistration
     default void removeFrameUpdateListener(FrameUpdateListener listener)
     {
         getFrameUpdateListeners().remove(listener);
+        if (listener instanceof ScheduledTask task)
+        {
+            task.cancel();
+        }
     }
 
     /**
@@ -68,6 +91,12 @@ public interface FrameUpdateListenerRegistration
     @API
     default void defer(Runnable runnable)
     {
+        TimingWheel timingWheel = getTimingWheel();
+        if (timingWheel != null)
+        {
+            timingWheel.defer(runnable);
+            return;
+        }
         FrameUpdateListener frameUpdateListener = new FrameUpdateListener()
         {
             @Override
@@ -94,8 +123,16 @@ public interface FrameUpdateListenerRegistration
     {
         // Später können wir den Return-Type auf SingleTask ändern, falls das
         // notwendig werden sollte
-        FrameUpdateListener singleTask = new SingleTask(delay, task, this);
-        addFrameUpdateListener(singleTask);
+        SingleTask singleTask = new SingleTask(delay, task, this);
+        TimingWheel timingWheel = getTimingWheel();
+        if (timingWheel != null)
+        {
+            timingWheel.schedule(singleTask, delay);
+        }
+        else
+        {
+            addFrameUpdateListener(singleTask);
+        }
         return singleTask;
     }
 
@@ -119,7 +156,15 @@ public interface FrameUpdateListenerRegistration
     {
         PeriodicTaskExecutor periodicTask = new PeriodicTaskExecutor(interval,
                 repetitions, task, finalTask, this);
-        addFrameUpdateListener(periodicTask);
+        TimingWheel timingWheel = getTimingWheel();
+        if (timingWheel != null)
+        {
+            timingWheel.schedule(periodicTask, interval);
+        }
+        else
+        {
+            addFrameUpdateListener(periodicTask);
+        }
         return periodicTask;
     }
 
@@ -0,0 +1,264 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.event;
+
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+
+/**
+ * Eine <b>Warteschlange für Eingabeereignisse</b> als Ringpuffer mit fester
+ * Größe.
+ *
+ * <p>
+ * Jedes Ereignis wird als Datensatz aus primitiven Werten (Art, Code, x, y) in
+ * vorab angelegten Feldern gespeichert, sodass beim Einreihen keine Objekte
+ * erzeugt werden. Genau ein Thread (der AWT-Thread) reiht Ereignisse ein und
+ * genau ein Thread (die Spielschleife) entnimmt sie; dafür genügen zwei
+ * {@code volatile}-Zähler ohne Sperre.
+ * </p>
+ *
+ * <p>
+ * Beim Entnehmen einmal pro Einzelbild werden aufeinanderfolgende
+ * Mausbewegungen zur letzten Position und aufeinanderfolgende
+ * Mausrad-Ereignisse zu ihrer Summe zusammengefasst.
+ * </p>
+ *
+ * @author Josef Friedrich
+ */
+@Internal
+public final class InputQueue
+{
+    /**
+     * Eine Taste wurde gedrückt. Code: Tastennummer.
+     */
+    public static final int KEY_DOWN = 1;
+
+    /**
+     * Eine Taste wurde losgelassen. Code: Tastennummer.
+     */
+    public static final int KEY_UP = 2;
+
+    /**
+     * Eine Maustaste wurde gedrückt. Code: {@link MouseButton#ordinal()}, x und
+     * y: Position in Pixel.
+     */
+    public static final int MOUSE_DOWN = 3;
+
+    /**
+     * Eine Maustaste wurde losgelassen. Code: {@link MouseButton#ordinal()}, x
+     * und y: Position in Pixel.
+     */
+    public static final int MOUSE_UP = 4;
+
+    /**
+     * Die Maus wurde bewegt. x und y: Position in Pixel.
+     */
+    public static final int MOUSE_MOVE = 5;
+
+    /**
+     * Das Mausrad wurde gedreht. x: Die Drehung.
+     */
+    public static final int MOUSE_SCROLL = 6;
+
+    /**
+     * Empfängt die Datensätze beim Entnehmen.
+     */
+    @FunctionalInterface
+    public interface Visitor
+    {
+        /**
+         * @param type Die Art des Ereignisses, zum Beispiel {@link #KEY_DOWN}.
+         * @param code Die Tasten- oder Maustastennummer.
+         * @param x Die x-Koordinate bzw. die Drehung des Mausrads.
+         * @param y Die y-Koordinate.
+         * @param source Das ursprüngliche AWT-Ereignis bei Tastaturereignissen,
+         *     sonst <code>null</code>.
+         */
+        void visit(int type, int code, double x, double y, Object source);
+    }
+
+    private final int mask;
+
+    private final int[] types;
+
+    private final int[] codes;
+
+    private final double[] xs;
+
+    private final double[] ys;
+
+    private final Object[] sources;
+
+    /**
+     * Die Anzahl der bisher eingereihten Datensätze. Wird nur vom einreihenden
+     * Thread geschrieben.
+     */
+    private volatile long head;
+
+    /**
+     * Die Anzahl der bisher entnommenen Datensätze. Wird nur vom entnehmenden
+     * Thread geschrieben.
+     */
+    private volatile long tail;
+
+    private volatile long dropped;
+
+    /**
+     * Erzeugt eine Warteschlange mit Platz für 1024 Ereignisse.
+     */
+    public InputQueue()
+    {
+        this(1024);
+    }
+
+    /**
+     * Erzeugt eine Warteschlange.
+     *
+     * @param capacity Die Anzahl an Ereignissen, die höchstens zwischen zwei
+     *     Einzelbildern gepuffert werden. Wird auf die nächste Zweierpotenz
+     *     aufgerundet.
+     */
+    public InputQueue(int capacity)
+    {
+        if (capacity < 2)
+        {
+            throw new IllegalArgumentException(
+                    "Die Kapazität muss mindestens 2 sein, war " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        mask = size - 1;
+        types = new int[size];
+        codes = new int[size];
+        xs = new double[size];
+        ys = new double[size];
+        sources = new Object[size];
+    }
+
+    /**
+     * Reiht ein Ereignis ein. Darf nur von einem einzigen Thread aufgerufen
+     * werden.
+     *
+     * @return falsch, wenn die Warteschlange voll ist und das Ereignis
+     *     verworfen wurde.
+     */
+    public boolean offer(int type, int code, double x, double y, Object source)
+    {
+        long position = head;
+        if (position - tail > mask)
+        {
+            dropped++;
+            return false;
+        }
+        int index = (int) (position & mask);
+        types[index] = type;
+        codes[index] = code;
+        xs[index] = x;
+        ys[index] = y;
+        sources[index] = source;
+        head = position + 1;
+        return true;
+    }
+
+    /**
+     * Gibt die Anzahl der Ereignisse zurück, die wegen einer vollen
+     * Warteschlange verworfen wurden.
+     */
+    @API
+    public long getDroppedCount()
+    {
+        return dropped;
+    }
+
+    /**
+     * Gibt die Anzahl der Ereignisse zurück, die auf die Entnahme warten.
+     */
+    @API
+    public int size()
+    {
+        return (int) (head - tail);
+    }
+
+    /**
+     * Entnimmt alle Ereignisse, die bis jetzt eingereiht wurden. Darf nur von
+     * einem einzigen Thread aufgerufen werden.
+     *
+     * <p>
+     * Zuerst wird der Zustand {@code state} mit allen Ereignissen aktualisiert,
+     * danach werden die zusammengefassten Ereignisse der Reihe nach an
+     * {@code visitor} übergeben. Die Beobachter sehen so während des ganzen
+     * Einzelbilds denselben Zustand.
+     * </p>
+     *
+     * @param state Der Zustand, der aktualisiert wird, oder <code>null</code>.
+     * @param visitor Empfängt die Ereignisse.
+     *
+     * @return Die Anzahl der übergebenen Ereignisse.
+     */
+    public int drain(InputState state, Visitor visitor)
+    {
+        long end = head;
+        long start = tail;
+        if (state != null)
+        {
+            state.beginFrame();
+            for (long position = start; position < end; position++)
+            {
+                int index = (int) (position & mask);
+                state.apply(types[index], codes[index], xs[index], ys[index]);
+            }
+        }
+        int count = 0;
+        long position = start;
+        while (position < end)
+        {
+            int index = (int) (position & mask);
+            int type = types[index];
+            int code = codes[index];
+            double x = xs[index];
+            double y = ys[index];
+            Object source = sources[index];
+            sources[index] = null;
+            position++;
+            if (type == MOUSE_MOVE)
+            {
+                while (position < end
+                        && types[(int) (position & mask)] == MOUSE_MOVE)
+                {
+                    index = (int) (position & mask);
+                    x = xs[index];
+                    y = ys[index];
+                    position++;
+                }
+            }
+            else if (type == MOUSE_SCROLL)
+            {
+                while (position < end
+                        && types[(int) (position & mask)] == MOUSE_SCROLL)
+                {
+                    x += xs[(int) (position & mask)];
+                    position++;
+                }
+            }
+            visitor.visit(type, code, x, y, source);
+            count++;
+        }
+        tail = end;
+        return count;
+    }
+}
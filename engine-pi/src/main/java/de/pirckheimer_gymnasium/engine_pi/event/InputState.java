@@ -0,0 +1,170 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.event;
+
+import java.util.BitSet;
+
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+
+/**
+ * Der <b>Zustand der Eingabegeräte</b> zu Beginn der Eingabeverarbeitung eines
+ * Einzelbilds: gedrückte Tasten, Mausposition, gedrückte Maustasten und die
+ * Drehung des Mausrads.
+ *
+ * <p>
+ * Der Zustand wird von der Spielschleife einmal pro Einzelbild aktualisiert,
+ * bevor die Beobachter der Eingabeereignisse aufgerufen werden. Innerhalb der
+ * Spielschleife liefern alle Abfragen eines Einzelbilds deshalb dieselben
+ * Werte, auch wenn der Benutzer zwischenzeitlich weitere Tasten drückt.
+ * </p>
+ *
+ * @author Josef Friedrich
+ *
+ * @see de.pirckheimer_gymnasium.engine_pi.Game#getInputState()
+ */
+public final class InputState
+{
+    private final BitSet keys = new BitSet(256);
+
+    private final boolean[] buttons = new boolean[MouseButton.values().length];
+
+    private int mouseX;
+
+    private int mouseY;
+
+    private double scroll;
+
+    private long frame;
+
+    /**
+     * Gibt an, ob die Taste gedrückt ist.
+     *
+     * @param keyCode Die Tastennummer, zum Beispiel {@code KeyEvent.VK_A}.
+     *
+     * @return wahr, wenn die Taste gedrückt ist, sonst falsch.
+     */
+    @API
+    public boolean isKeyPressed(int keyCode)
+    {
+        return keyCode >= 0 && keys.get(keyCode);
+    }
+
+    /**
+     * Gibt an, ob die Maustaste gedrückt ist.
+     *
+     * @param button Die Maustaste.
+     *
+     * @return wahr, wenn die Maustaste gedrückt ist, sonst falsch.
+     */
+    @API
+    public boolean isMouseButtonPressed(MouseButton button)
+    {
+        return buttons[button.ordinal()];
+    }
+
+    /**
+     * @return Die x-Koordinate der Maus im Fenster in Pixel.
+     */
+    @API
+    public int getMouseX()
+    {
+        return mouseX;
+    }
+
+    /**
+     * @return Die y-Koordinate der Maus im Fenster in Pixel.
+     */
+    @API
+    public int getMouseY()
+    {
+        return mouseY;
+    }
+
+    /**
+     * @return Die Drehung des Mausrads im aktuellen Einzelbild.
+     */
+    @API
+    public double getScrollRotation()
+    {
+        return scroll;
+    }
+
+    /**
+     * @return Die Nummer des Einzelbilds, für das dieser Zustand gilt.
+     */
+    @API
+    public long getFrame()
+    {
+        return frame;
+    }
+
+    @Internal
+    public void setMousePosition(int x, int y)
+    {
+        mouseX = x;
+        mouseY = y;
+    }
+
+    @Internal
+    void beginFrame()
+    {
+        frame++;
+        scroll = 0;
+    }
+
+    /**
+     * Aktualisiert den Zustand mit einem Datensatz der {@link InputQueue}.
+     */
+    @Internal
+    void apply(int type, int code, double x, double y)
+    {
+        switch (type)
+        {
+        case InputQueue.KEY_DOWN:
+            keys.set(code);
+            break;
+
+        case InputQueue.KEY_UP:
+            keys.clear(code);
+            break;
+
+        case InputQueue.MOUSE_DOWN:
+            buttons[code] = true;
+            setMousePosition((int) x, (int) y);
+            break;
+
+        case InputQueue.MOUSE_UP:
+            buttons[code] = false;
+            setMousePosition((int) x, (int) y);
+            break;
+
+        case InputQueue.MOUSE_MOVE:
+            setMousePosition((int) x, (int) y);
+            break;
+
+        case InputQueue.MOUSE_SCROLL:
+            scroll += x;
+            break;
+
+        default:
+            break;
+        }
+    }
+}
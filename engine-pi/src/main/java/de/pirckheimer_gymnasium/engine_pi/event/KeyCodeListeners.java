@@ -0,0 +1,177 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.event;
+
+import java.awt.event.KeyEvent;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+
+/**
+ * Verwaltet {@link KeyStrokeListener Tastenbeobachter}, die nur auf eine
+ * <b>bestimmte Taste</b> reagieren.
+ *
+ * <p>
+ * Die Beobachter werden nach Tastennummer abgelegt. Ein Tastendruck erreicht
+ * deshalb nur die Beobachter dieser Taste, anstatt dass jeder Beobachter selbst
+ * die Tastennummer prüfen muss.
+ * </p>
+ *
+ * @author Josef Friedrich
+ *
+ * @see KeyStrokeListenerRegistration#addKeyStrokeListener(int,
+ *     KeyStrokeListener)
+ */
+public final class KeyCodeListeners
+{
+    private final Map<Integer, EventListeners<KeyStrokeListener>> listeners = new ConcurrentHashMap<>();
+
+    private final Supplier<KeyCodeListeners> parentSupplier;
+
+    public KeyCodeListeners()
+    {
+        this(() -> null);
+    }
+
+    public KeyCodeListeners(Supplier<KeyCodeListeners> parentSupplier)
+    {
+        this.parentSupplier = parentSupplier;
+    }
+
+    /**
+     * Meldet einen Beobachter für eine Taste an.
+     *
+     * @param keyCode Die Tastennummer, zum Beispiel {@code KeyEvent.VK_SPACE}.
+     * @param listener Der Beobachter, der angemeldet werden soll.
+     */
+    @API
+    public void add(int keyCode, KeyStrokeListener listener)
+    {
+        listeners.computeIfAbsent(keyCode, code -> new EventListeners<>())
+                .add(listener);
+        KeyCodeListeners parent = parentSupplier.get();
+        if (parent != null)
+        {
+            parent.add(keyCode, listener);
+        }
+    }
+
+    /**
+     * Meldet einen Beobachter für eine Taste ab.
+     *
+     * @param keyCode Die Tastennummer, für die der Beobachter angemeldet wurde.
+     * @param listener Der Beobachter, der abgemeldet werden soll.
+     */
+    @API
+    public void remove(int keyCode, KeyStrokeListener listener)
+    {
+        EventListeners<KeyStrokeListener> keyListeners = listeners.get(keyCode);
+        if (keyListeners != null)
+        {
+            keyListeners.remove(listener);
+        }
+        KeyCodeListeners parent = parentSupplier.get();
+        if (parent != null)
+        {
+            parent.remove(keyCode, listener);
+        }
+    }
+
+    /**
+     * Gibt wahr zurück, wenn der Beobachter für die Taste angemeldet ist.
+     */
+    @API
+    public boolean contains(int keyCode, KeyStrokeListener listener)
+    {
+        EventListeners<KeyStrokeListener> keyListeners = listeners.get(keyCode);
+        return keyListeners != null && keyListeners.contains(listener);
+    }
+
+    /**
+     * Gibt wahr zurück, wenn für keine Taste ein Beobachter angemeldet ist.
+     */
+    @API
+    public boolean isEmpty()
+    {
+        for (EventListeners<KeyStrokeListener> keyListeners : listeners
+                .values())
+        {
+            if (!keyListeners.isEmpty())
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Löscht alle Beobachter.
+     */
+    @API
+    public void clear()
+    {
+        listeners.clear();
+    }
+
+    /**
+     * Ruft die Aktion für jedes Paar aus Tastennummer und Beobachter auf. Damit
+     * werden die Beobachter an eine übergeordnete Instanz weitergegeben.
+     *
+     * @param action Die Aktion, die mit Tastennummer und Beobachter aufgerufen
+     *     wird.
+     */
+    @Internal
+    public void forEach(BiConsumer<Integer, KeyStrokeListener> action)
+    {
+        listeners.forEach((keyCode, keyListeners) -> keyListeners
+                .invoke(listener -> action.accept(keyCode, listener)));
+    }
+
+    /**
+     * Ruft die Beobachter der gedrückten Taste auf.
+     */
+    @Internal
+    public void invokeKeyDown(KeyEvent event)
+    {
+        EventListeners<KeyStrokeListener> keyListeners = listeners
+                .get(event.getKeyCode());
+        if (keyListeners != null)
+        {
+            keyListeners.invoke(listener -> listener.onKeyDown(event));
+        }
+    }
+
+    /**
+     * Ruft die Beobachter der losgelassenen Taste auf.
+     */
+    @Internal
+    public void invokeKeyUp(KeyEvent event)
+    {
+        EventListeners<KeyStrokeListener> keyListeners = listeners
+                .get(event.getKeyCode());
+        if (keyListeners != null)
+        {
+            keyListeners.invoke(listener -> listener.onKeyUp(event));
+        }
+    }
+}
@@ -26,6 +26,8 @@ public interface KeyStrokeListenerRegistration
 {
     EventListeners<KeyStrokeListener> getKeyStrokeListeners();
 
+    KeyCodeListeners getKeyCodeListeners();
+
     /**
      * Fügt einen statisch {@link KeyStrokeListener} hinzu, d. h. dieser
      * KeyStrokeListener gilt global über das ganze Spiel und ist unabhängig von
@@ -103,4 +105,40 @@ public interface KeyStrokeListenerRegistration
     {
         getKeyStrokeListeners().remove(listener);
     }
+
+    /**
+     * Fügt einen {@link KeyStrokeListener} hinzu, der nur bei <b>einer
+     * bestimmten Taste</b> aufgerufen wird. Eine Prüfung der Tastennummer im
+     * Beobachter ist dann nicht mehr nötig.
+     *
+     * <pre>{@code
+     * obj.addKeyStrokeListener(KeyEvent.VK_SPACE, e -> {
+     *     // Code here
+     * });
+     * }</pre>
+     *
+     * @param keyCode Die Tastennummer, zum Beispiel {@code KeyEvent.VK_SPACE}.
+     * @param listener Ein Objekt der Klasse {@link KeyStrokeListener}.
+     *
+     * @see #removeKeyStrokeListener(int, KeyStrokeListener)
+     */
+    @API
+    default void addKeyStrokeListener(int keyCode, KeyStrokeListener listener)
+    {
+        getKeyCodeListeners().add(keyCode, listener);
+    }
+
+    /**
+     * Entfernt einen {@link KeyStrokeListener}, der für eine bestimmte Taste
+     * angemeldet wurde.
+     *
+     * @param keyCode Die Tastennummer, für die der Beobachter angemeldet wurde.
+     * @param listener Ein Objekt der Klasse {@link KeyStrokeListener}.
+     */
+    @API
+    default void removeKeyStrokeListener(int keyCode,
+            KeyStrokeListener listener)
+    {
+        getKeyCodeListeners().remove(keyCode, listener);
+    }
 }
@@ -0,0 +1,402 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.event;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+
+/**
+ * Misst, wie viel Zeit die einzelnen <b>Beobachter</b> verbrauchen, um langsame
+ * Beobachter zu finden, die ein Einzelbild verzögern.
+ *
+ * <p>
+ * Die Messung ist standardmäßig ausgeschaltet und kostet dann nur eine Abfrage
+ * pro Aufruf von {@link EventListeners#invoke(Consumer)}. Eingeschaltet werden
+ * für jeden Beobachter der Bildaktualisierung, der Tastatur, der Maus und der
+ * Kollisionen die Anzahl der Aufrufe sowie die gesamte und die längste Dauer
+ * gemessen. Gemessen wird die Eigenzeit: Ruft ein Beobachter weitere gemessene
+ * Beobachter auf, wie z. B. der Stellvertreter einer Figur mit einer
+ * {@link de.pirckheimer_gymnasium.engine_pi.actor.UpdatePolicy} oder ein
+ * {@link TimingWheel}, wird deren Dauer nur ihnen angerechnet. Die Stelle, an
+ * der ein Beobachter angemeldet wurde, ist nur für Beobachter bekannt, die nach
+ * dem Einschalten angemeldet wurden. Die Messung sollte deshalb vor dem
+ * Erzeugen der Szene eingeschaltet werden.
+ * </p>
+ *
+ * <pre>{@code
+ * ListenerProfiler.setEnabled(true);
+ * Game.start(new MeineSzene());
+ * // ...
+ * ListenerProfiler.getTopOffenders(5).forEach(System.out::println);
+ * }</pre>
+ *
+ * <p>
+ * Im {@link de.pirckheimer_gymnasium.engine_pi.Game#debug() Debug-Modus} werden
+ * die drei teuersten Beobachter in der Informationsbox angezeigt.
+ * </p>
+ *
+ * @author Josef Friedrich
+ */
+public final class ListenerProfiler
+{
+    private static final String ENGINE_PACKAGE = "de.pirckheimer_gymnasium.engine_pi.";
+
+    private static final String EVENT_PACKAGE = ENGINE_PACKAGE + "event.";
+
+    private static volatile boolean enabled = false;
+
+    /**
+     * Die Messwerte der Beobachter. Die Beobachter werden über ihre Identität
+     * und nur schwach referenziert, damit abgemeldete Beobachter freigegeben
+     * werden können und Beobachter mit eigenem {@code equals()} sich nicht
+     * einen Eintrag teilen.
+     */
+    private static final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Die Schlüssel, deren Beobachter freigegeben wurden.
+     */
+    private static final ReferenceQueue<Object> released = new ReferenceQueue<>();
+
+    /**
+     * Die gerade gemessenen, ineinander verschachtelten Aufrufe jedes Threads.
+     */
+    private static final ThreadLocal<Calls> running = ThreadLocal
+            .withInitial(Calls::new);
+
+    private ListenerProfiler()
+    {
+        // Es sollen keine Instanzen dieser Klasse erstellt werden.
+    }
+
+    /**
+     * Schaltet die Messung ein oder aus.
+     *
+     * @param enabled Ob die Messung eingeschaltet sein soll.
+     */
+    @API
+    public static void setEnabled(boolean enabled)
+    {
+        ListenerProfiler.enabled = enabled;
+    }
+
+    @API
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Verwirft alle bisherigen Messwerte.
+     */
+    @API
+    public static void reset()
+    {
+        for (Entry entry : entries.values())
+        {
+            entry.calls.set(0);
+            entry.totalTime.set(0);
+            entry.maxTime.set(0);
+        }
+    }
+
+    /**
+     * Gibt die Beobachter zurück, die insgesamt am meisten Zeit verbraucht
+     * haben.
+     *
+     * @param count Die maximale Anzahl der Beobachter.
+     *
+     * @return Die Messwerte der Beobachter, absteigend nach ihrer gesamten
+     *     Dauer sortiert.
+     */
+    @API
+    public static List<ListenerStatistics> getTopOffenders(int count)
+    {
+        List<ListenerStatistics> statistics = new ArrayList<>();
+        for (Map.Entry<Key, Entry> entry : entries.entrySet())
+        {
+            Object listener = entry.getKey().get();
+            Entry value = entry.getValue();
+            long calls = value.calls.get();
+            if (listener != null && calls > 0)
+            {
+                statistics.add(new ListenerStatistics(getName(listener),
+                        value.registrationSite, calls, value.totalTime.get(),
+                        value.maxTime.get()));
+            }
+        }
+        statistics.sort(Comparator.comparingLong(ListenerStatistics::totalTime)
+                .reversed());
+        return statistics.subList(0, Math.min(count, statistics.size()));
+    }
+
+    /**
+     * Merkt sich die Stelle, an der ein Beobachter angemeldet wird. Wird nur
+     * bei eingeschalteter Messung ausgewertet.
+     *
+     * @param listener Der Beobachter, der gerade angemeldet wird.
+     */
+    @Internal
+    public static void registered(Object listener)
+    {
+        if (!enabled)
+        {
+            return;
+        }
+        String registrationSite = findRegistrationSite();
+        entries.computeIfAbsent(new Key(listener),
+                key -> new Entry(registrationSite));
+    }
+
+    /**
+     * Beginnt die Messung eines Aufrufs. Jedem Aufruf mit einem Rückgabewert
+     * ungleich 0 muss auf demselben Thread ein Aufruf von
+     * {@link #stop(Object, long)} folgen.
+     *
+     * @return Die aktuelle Zeit in Nanosekunden oder 0, wenn die Messung
+     *     ausgeschaltet ist.
+     */
+    @Internal
+    public static long start()
+    {
+        if (!enabled)
+        {
+            return 0;
+        }
+        running.get().push();
+        return System.nanoTime();
+    }
+
+    /**
+     * Beendet die Messung eines Aufrufs, die mit {@link #start()} begonnen
+     * wurde.
+     *
+     * @param listener Der aufgerufene Beobachter.
+     * @param start Der Rückgabewert von {@link #start()}.
+     */
+    @Internal
+    public static void stop(Object listener, long start)
+    {
+        stop(listener, start, true);
+    }
+
+    /**
+     * Beendet die Messung eines Aufrufs.
+     *
+     * @param count Ob der Aufruf gezählt wird. Parallele Beobachter wurden
+     *     bereits beim Einsammeln gezählt, hier wird nur noch ihre Dauer
+     *     ergänzt.
+     */
+    @Internal
+    static void stop(Object listener, long start, boolean count)
+    {
+        if (start == 0)
+        {
+            return;
+        }
+        long selfTime = running.get().pop(System.nanoTime() - start);
+        Entry entry = getEntry(listener);
+        if (count)
+        {
+            entry.calls.incrementAndGet();
+        }
+        entry.totalTime.addAndGet(selfTime);
+        entry.maxTime.accumulateAndGet(selfTime, Math::max);
+    }
+
+    /**
+     * Beendet einen mit {@link #start()} begonnenen Abschnitt, ohne ihn einem
+     * Beobachter anzurechnen. Die Dauer des Abschnitts wird wie die eines
+     * Beobachters von der Eigenzeit des umgebenden Aufrufs abgezogen, z. B.
+     * während der Spielthread auf parallele Beobachter wartet.
+     *
+     * @param start Der Rückgabewert von {@link #start()}.
+     */
+    @Internal
+    static void skip(long start)
+    {
+        if (start != 0)
+        {
+            running.get().pop(System.nanoTime() - start);
+        }
+    }
+
+    private static Entry getEntry(Object listener)
+    {
+        Key stale;
+        while ((stale = (Key) released.poll()) != null)
+        {
+            entries.remove(stale);
+        }
+        return entries.computeIfAbsent(new Key(listener),
+                key -> new Entry(null));
+    }
+
+    /**
+     * Sucht im Aufrufstapel die erste Stelle außerhalb der Engine bzw.
+     * außerhalb des Pakets für die Ereignisse.
+     */
+    private static String findRegistrationSite()
+    {
+        List<StackWalker.StackFrame> stack = StackWalker.getInstance()
+                .walk(frames -> frames.collect(Collectors.toList()));
+        for (StackWalker.StackFrame frame : stack)
+        {
+            if (!frame.getClassName().startsWith(ENGINE_PACKAGE))
+            {
+                return format(frame);
+            }
+        }
+        for (StackWalker.StackFrame frame : stack)
+        {
+            if (!frame.getClassName().startsWith(EVENT_PACKAGE))
+            {
+                return format(frame);
+            }
+        }
+        return null;
+    }
+
+    private static String format(StackWalker.StackFrame frame)
+    {
+        return frame.getClassName() + "." + frame.getMethodName() + ":"
+                + frame.getLineNumber();
+    }
+
+    /**
+     * Gibt den Namen der Klasse eines Beobachters zurück. Bei Lambda-Ausdrücken
+     * wird der Name der umgebenden Klasse verwendet.
+     */
+    private static String getName(Object listener)
+    {
+        String name = listener.getClass().getName();
+        int lambda = name.indexOf("$$Lambda");
+        if (lambda >= 0)
+        {
+            return name.substring(0, lambda) + " (Lambda)";
+        }
+        return name;
+    }
+
+    /**
+     * Ein schwach referenzierter Beobachter, der über seine Identität
+     * verglichen wird.
+     */
+    private static final class Key extends WeakReference<Object>
+    {
+        private final int hash;
+
+        private Key(Object listener)
+        {
+            super(listener, released);
+            hash = System.identityHashCode(listener);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            if (this == other)
+            {
+                return true;
+            }
+            if (!(other instanceof Key))
+            {
+                return false;
+            }
+            Object listener = get();
+            return listener != null && listener == ((Key) other).get();
+        }
+    }
+
+    /**
+     * Die Dauer der Aufrufe, die innerhalb der gerade gemessenen Aufrufe eines
+     * Threads gemessen wurden.
+     */
+    private static final class Calls
+    {
+        /**
+         * An der Stelle 0 liegt die Dauer der Aufrufe außerhalb jeder Messung,
+         * an der Stelle {@link #depth} die des innersten Aufrufs.
+         */
+        private long[] childTimes = new long[16];
+
+        private int depth;
+
+        private void push()
+        {
+            depth++;
+            if (depth == childTimes.length)
+            {
+                childTimes = Arrays.copyOf(childTimes, depth * 2);
+            }
+            childTimes[depth] = 0;
+        }
+
+        /**
+         * Beendet den innersten Aufruf und rechnet seine Dauer dem umgebenden
+         * Aufruf an.
+         *
+         * @return Die Eigenzeit des beendeten Aufrufs.
+         */
+        private long pop(long duration)
+        {
+            long selfTime = duration - childTimes[depth];
+            if (depth > 0)
+            {
+                depth--;
+            }
+            childTimes[depth] += duration;
+            return Math.max(0, selfTime);
+        }
+    }
+
+    private static final class Entry
+    {
+        private final String registrationSite;
+
+        private final AtomicLong calls = new AtomicLong();
+
+        private final AtomicLong totalTime = new AtomicLong();
+
+        private final AtomicLong maxTime = new AtomicLong();
+
+        private Entry(String registrationSite)
+        {
+            this.registrationSite = registrationSite;
+        }
+    }
+}
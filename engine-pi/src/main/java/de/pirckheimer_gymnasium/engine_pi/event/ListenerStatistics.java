@@ -0,0 +1,58 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.event;
+
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+
+/**
+ * Die gemessenen <b>Kosten eines Beobachters</b>.
+ *
+ * <p>
+ * Die Zeiten sind in Nanosekunden angegeben und beziehen sich auf den Zeitraum
+ * seit dem Einschalten bzw. dem letzten Zurücksetzen des
+ * {@link ListenerProfiler}.
+ * </p>
+ *
+ * @param listener Der Name der Klasse des Beobachters.
+ * @param registrationSite Die Stelle im Quelltext, an der der Beobachter
+ *     angemeldet wurde, oder <code>null</code>, wenn er vor dem Einschalten
+ *     angemeldet wurde.
+ * @param calls Die Anzahl der Aufrufe.
+ * @param totalTime Die gesamte Dauer aller Aufrufe.
+ * @param maxTime Die Dauer des längsten Aufrufs.
+ *
+ * @author Josef Friedrich
+ *
+ * @see ListenerProfiler#getTopOffenders(int)
+ */
+@API
+public record ListenerStatistics(String listener, String registrationSite,
+        long calls, long totalTime, long maxTime)
+{
+    /**
+     * Gibt die durchschnittliche Dauer eines Aufrufs zurück.
+     *
+     * @return Die durchschnittliche Dauer eines Aufrufs in Nanosekunden.
+     */
+    @API
+    public double averageTime()
+    {
+        return calls == 0 ? 0 : (double) totalTime / calls;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.event;
+
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+
+/**
+ * Ein {@link FrameUpdateListener}, der <b>gleichzeitig</b> mit anderen
+ * Beobachtern dieser Art aufgerufen werden darf.
+ *
+ * <p>
+ * Die Engine ruft zuerst alle gewöhnlichen Beobachter einer Szene bzw. einer
+ * Ebene nacheinander in der Reihenfolge ihrer Anmeldung auf. Danach werden die
+ * parallelen Beobachter auf einem Fork-Join-Pool gleichzeitig ausgeführt. Erst
+ * wenn alle parallelen Beobachter fertig sind, geht das Einzelbild weiter.
+ * </p>
+ *
+ * <p>
+ * Parallele Beobachter eignen sich für unabhängige Berechnungen, z. B. die
+ * künstliche Intelligenz einzelner Gegner. Sie dürfen keine gemeinsamen Daten
+ * ohne Synchronisation verändern und sollten Änderungen an der Szene (z. B. das
+ * Hinzufügen von Figuren) mit
+ * {@link FrameUpdateListenerRegistration#defer(Runnable)} auf den Spielthread
+ * verschieben.
+ * </p>
+ *
+ * <pre>{@code
+ * ParallelFrameUpdateListener ai = pastTime -> enemy.think(pastTime);
+ * scene.addFrameUpdateListener(ai);
+ * }</pre>
+ *
+ * @author Josef Friedrich
+ *
+ * @see FrameUpdateInvoker
+ */
+@API
+@FunctionalInterface
+public interface ParallelFrameUpdateListener extends FrameUpdateListener
+{
+}
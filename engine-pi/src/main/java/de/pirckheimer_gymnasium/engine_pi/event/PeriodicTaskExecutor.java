@@ -33,7 +33,8 @@ import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
  * @see FrameUpdateListenerRegistration#repeat(double, int, PeriodicTask,
  *     PeriodicTask)
  */
-public final class PeriodicTaskExecutor implements FrameUpdateListener
+public final class PeriodicTaskExecutor extends ScheduledTask
+        implements FrameUpdateListener
 {
     /**
      * Aktuelle Zeit bis zur nächsten Ausführung in Sekunden.
@@ -170,6 +171,10 @@ public final class PeriodicTaskExecutor implements FrameUpdateListener
         }
         this.interval = interval;
         this.countdown = interval;
+        if (isScheduled())
+        {
+            wheel.schedule(this, interval);
+        }
         return this;
     }
 
@@ -266,6 +271,11 @@ public final class PeriodicTaskExecutor implements FrameUpdateListener
     public void pause()
     {
         isPaused = true;
+        if (isScheduled())
+        {
+            countdown = dueTime - wheel.getTime();
+            wheel.cancel(this);
+        }
     }
 
     /**
@@ -276,6 +286,10 @@ public final class PeriodicTaskExecutor implements FrameUpdateListener
     public void resume()
     {
         isPaused = false;
+        if (wheel != null && !isScheduled())
+        {
+            wheel.schedule(this, countdown);
+        }
     }
 
     /**
@@ -306,6 +320,7 @@ public final class PeriodicTaskExecutor implements FrameUpdateListener
      */
     public void unregister()
     {
+        cancel();
         if (container != null)
         {
             container.removeFrameUpdateListener(this);
@@ -327,6 +342,7 @@ public final class PeriodicTaskExecutor implements FrameUpdateListener
      */
     public void unregisterSafe()
     {
+        cancel();
         if (container != null)
         {
             container.removeFrameUpdateListener(this);
@@ -350,26 +366,64 @@ public final class PeriodicTaskExecutor implements FrameUpdateListener
         countdown -= pastTime;
         while (countdown < 0)
         {
-            if (repetitions > 0)
-            {
-                repetitions--;
-            }
             countdown += interval;
-            if (repetitions == 0 && finalTask != null)
+            if (runOnce())
             {
-                counter++;
-                finalTask.run(counter);
+                return;
             }
-            else
+        }
+    }
+
+    /**
+     * @hidden
+     */
+    @Override
+    @Internal
+    protected double expire(double time)
+    {
+        double nextTime = dueTime;
+        while (nextTime <= time)
+        {
+            nextTime += interval;
+            if (runOnce())
             {
-                counter++;
-                task.run(counter);
+                return Double.NaN;
             }
-            if (repetitions == 0)
+            if (isPaused)
             {
-                unregister();
-                return;
+                // Die Aufgabe hat sich selbst pausiert.
+                countdown = nextTime - time;
+                return Double.NaN;
             }
         }
+        return nextTime;
+    }
+
+    /**
+     * Führt die Aufgabe einmal aus.
+     *
+     * @return wahr, wenn alle Wiederholungen ausgeführt wurden.
+     */
+    private boolean runOnce()
+    {
+        if (repetitions > 0)
+        {
+            repetitions--;
+        }
+        counter++;
+        if (repetitions == 0 && finalTask != null)
+        {
+            finalTask.run(counter);
+        }
+        else
+        {
+            task.run(counter);
+        }
+        if (repetitions == 0)
+        {
+            unregister();
+            return true;
+        }
+        return false;
     }
 }
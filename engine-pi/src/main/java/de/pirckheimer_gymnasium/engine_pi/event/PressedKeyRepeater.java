@@ -97,7 +97,7 @@ public class PressedKeyRepeater implements KeyStrokeListener
         {
             this.action = action;
             countdown = action.getInitialInterval();
-            Game.addKeyStrokeListener(this);
+            Game.addKeyStrokeListener(action.getKeyCode(), this);
             Game.addFrameUpdateListener(this);
             action.runInitialTask();
             action.runRepeatedTask();
@@ -122,18 +122,15 @@ public class PressedKeyRepeater implements KeyStrokeListener
         public void stop()
         {
             Game.removeFrameUpdateListener(this);
-            Game.removeKeyStrokeListener(this);
+            Game.removeKeyStrokeListener(action.getKeyCode(), this);
             action.runFinalTask();
         }
 
         @Override
         public void onKeyUp(KeyEvent e)
         {
-            if (e.getKeyCode() == action.getKeyCode())
-            {
-                stop();
-                executors.remove(this);
-            }
+            stop();
+            executors.remove(this);
         }
     }
 
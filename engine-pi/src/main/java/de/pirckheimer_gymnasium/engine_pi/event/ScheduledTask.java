@@ -0,0 +1,96 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.event;
+
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+
+/**
+ * Eine Aufgabe, die in einem {@link TimingWheel Zeitrad} zu einem bestimmten
+ * Zeitpunkt ausgeführt wird.
+ *
+ * <p>
+ * Die Felder werden ausschließlich vom Zeitrad verwaltet. Eine Aufgabe ist
+ * dabei Glied einer doppelt verketteten Liste, damit sie ohne Suche wieder
+ * entfernt werden kann.
+ * </p>
+ *
+ * @author Josef Friedrich
+ */
+public abstract class ScheduledTask
+{
+    /**
+     * Das Zeitrad, in dem die Aufgabe zuletzt eingeplant wurde.
+     */
+    TimingWheel wheel;
+
+    ScheduledTask previous;
+
+    ScheduledTask next;
+
+    /**
+     * Die Ebene des Zeitrads, in deren Fach die Aufgabe liegt, oder {@code -1},
+     * wenn sie nicht eingeplant ist.
+     */
+    int level = -1;
+
+    int slot;
+
+    /**
+     * Der Zeitpunkt der nächsten Ausführung in Sekunden Spielzeit.
+     */
+    double dueTime;
+
+    long dueTick;
+
+    /**
+     * Gibt an, ob die Aufgabe gerade in einem Zeitrad eingeplant ist.
+     *
+     * @return wahr, wenn die Aufgabe eingeplant ist, sonst falsch.
+     */
+    @API
+    public final boolean isScheduled()
+    {
+        return level >= 0;
+    }
+
+    /**
+     * Nimmt die Aufgabe aus dem Zeitrad, ohne sie auszuführen.
+     */
+    @API
+    public final void cancel()
+    {
+        if (wheel != null)
+        {
+            wheel.cancel(this);
+        }
+    }
+
+    /**
+     * Wird vom Zeitrad aufgerufen, sobald die Aufgabe fällig ist.
+     *
+     * @param time Die aktuelle Spielzeit in Sekunden. Sie ist mindestens so
+     *     groß wie der Zeitpunkt, zu dem die Aufgabe fällig war.
+     *
+     * @return Der Zeitpunkt der nächsten Ausführung oder {@link Double#NaN},
+     *     wenn die Aufgabe nicht erneut eingeplant werden soll.
+     */
+    @Internal
+    protected abstract double expire(double time);
+}
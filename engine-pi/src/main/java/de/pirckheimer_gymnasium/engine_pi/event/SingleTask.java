@@ -31,7 +31,8 @@ import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
  * @see FrameUpdateListenerRegistration#delay(double, Runnable)
  */
 @Internal
-public final class SingleTask implements FrameUpdateListener
+public final class SingleTask extends ScheduledTask
+        implements FrameUpdateListener
 {
     /**
      * Verzögerung in Sekunden.
@@ -108,4 +109,19 @@ public final class SingleTask implements FrameUpdateListener
             done = true;
         }
     }
+
+    /**
+     * @hidden
+     */
+    @Override
+    @Internal
+    protected double expire(double time)
+    {
+        if (!done)
+        {
+            done = true;
+            task.run();
+        }
+        return Double.NaN;
+    }
 }
@@ -0,0 +1,330 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+
+/**
+ * Ein <b>hierarchisches Zeitrad</b>, das verzögerte und wiederholte Aufgaben
+ * nach Spielzeit ausführt.
+ *
+ * <p>
+ * Die Spielzeit wird in Takte von einer Millisekunde eingeteilt. Das Zeitrad
+ * besteht aus mehreren Ebenen mit je 64 Fächern; jede Ebene deckt einen 64-mal
+ * so großen Zeitraum ab wie die darunterliegende. Eine Aufgabe wird in
+ * konstanter Zeit in das passende Fach eingehängt und ebenso wieder entfernt.
+ * Pro Takt wird nur das fällige Fach der untersten Ebene abgearbeitet; erreicht
+ * die Zeit den Bereich eines Fachs einer höheren Ebene, werden dessen Aufgaben
+ * auf die unteren Ebenen verteilt. Aufgaben, die noch nicht fällig sind, werden
+ * daher nicht bei jedem Einzelbild angefasst.
+ * </p>
+ *
+ * <p>
+ * Dauert ein Einzelbild länger, werden die Takte nacheinander abgearbeitet.
+ * Wiederholte Aufgaben holen dadurch alle verpassten Ausführungen nach, ohne
+ * dass sich ihr Takt verschiebt.
+ * </p>
+ *
+ * @author Josef Friedrich
+ *
+ * @see FrameUpdateListenerRegistration#delay(double, Runnable)
+ * @see FrameUpdateListenerRegistration#repeat(double, Runnable)
+ */
+public final class TimingWheel implements FrameUpdateListener
+{
+    private static final int SLOT_BITS = 6;
+
+    private static final int SLOTS = 1 << SLOT_BITS;
+
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private static final int LEVELS = 6;
+
+    /**
+     * Der größte Abstand in Takten, den das Zeitrad direkt aufnehmen kann.
+     * Spätere Aufgaben werden zunächst im letzten Fach abgelegt.
+     */
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final double tickLength;
+
+    /**
+     * Der Anfang der Liste jedes Fachs. Innerhalb eines Fachs werden die
+     * Aufgaben in der Reihenfolge ihrer Einplanung ausgeführt.
+     */
+    private final ScheduledTask[][] slots = new ScheduledTask[LEVELS][SLOTS];
+
+    private final ScheduledTask[][] tails = new ScheduledTask[LEVELS][SLOTS];
+
+    /**
+     * Aufgaben, die beim nächsten Einzelbild ausgeführt werden.
+     */
+    private List<Runnable> deferred = new ArrayList<>();
+
+    private List<Runnable> deferredSwap = new ArrayList<>();
+
+    private long currentTick;
+
+    private double time;
+
+    private int size;
+
+    /**
+     * Erzeugt ein Zeitrad mit Takten von einer Millisekunde.
+     */
+    @API
+    public TimingWheel()
+    {
+        this(0.001);
+    }
+
+    /**
+     * Erzeugt ein Zeitrad.
+     *
+     * @param tickLength Die Länge eines Takts in Sekunden.
+     */
+    @API
+    public TimingWheel(double tickLength)
+    {
+        if (tickLength <= 0)
+        {
+            throw new IllegalArgumentException(
+                    "Die Taktlänge muss größer als 0 sein, war " + tickLength);
+        }
+        this.tickLength = tickLength;
+    }
+
+    /**
+     * Gibt die Spielzeit zurück, die dieses Zeitrad bereits durchlaufen hat.
+     *
+     * @return Die Spielzeit in Sekunden.
+     */
+    @API
+    public synchronized double getTime()
+    {
+        return time;
+    }
+
+    /**
+     * Gibt die Anzahl der eingeplanten Aufgaben zurück.
+     *
+     * @return Die Anzahl der eingeplanten Aufgaben.
+     */
+    @API
+    public synchronized int size()
+    {
+        return size;
+    }
+
+    /**
+     * Plant eine Aufgabe ein, die nach der angegebenen Verzögerung ausgeführt
+     * wird. Ist die Aufgabe bereits eingeplant, wird sie verschoben.
+     *
+     * @param task Die Aufgabe.
+     * @param delay Die Verzögerung in Sekunden Spielzeit.
+     */
+    @API
+    public synchronized void schedule(ScheduledTask task, double delay)
+    {
+        scheduleAt(task, time + delay);
+    }
+
+    /**
+     * Plant eine Aufgabe zu einem festen Zeitpunkt ein.
+     *
+     * @param task Die Aufgabe.
+     * @param dueTime Der Zeitpunkt in Sekunden Spielzeit.
+     */
+    @Internal
+    synchronized void scheduleAt(ScheduledTask task, double dueTime)
+    {
+        if (task.wheel != null && task.isScheduled())
+        {
+            task.wheel.cancel(task);
+        }
+        task.wheel = this;
+        task.dueTime = dueTime;
+        task.dueTick = Math.max(currentTick + 1,
+                (long) Math.ceil(dueTime / tickLength));
+        insert(task);
+        size++;
+    }
+
+    /**
+     * Führt eine Aufgabe beim nächsten Einzelbild aus, unabhängig davon, wie
+     * viel Spielzeit vergeht.
+     *
+     * @param runnable Die Aufgabe.
+     */
+    @API
+    public synchronized void defer(Runnable runnable)
+    {
+        deferred.add(runnable);
+    }
+
+    /**
+     * Nimmt eine Aufgabe aus dem Zeitrad.
+     *
+     * @param task Die Aufgabe.
+     */
+    @API
+    public synchronized void cancel(ScheduledTask task)
+    {
+        if (task.wheel != this || !task.isScheduled())
+        {
+            return;
+        }
+        unlink(task);
+        size--;
+    }
+
+    private void insert(ScheduledTask task)
+    {
+        long delta = Math.min(task.dueTick - currentTick, MAX_DELTA);
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1)))
+        {
+            level++;
+        }
+        long tick = currentTick + delta;
+        int slot = (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        task.level = level;
+        task.slot = slot;
+        task.next = null;
+        task.previous = tails[level][slot];
+        if (task.previous != null)
+        {
+            task.previous.next = task;
+        }
+        else
+        {
+            slots[level][slot] = task;
+        }
+        tails[level][slot] = task;
+    }
+
+    private void unlink(ScheduledTask task)
+    {
+        if (task.previous != null)
+        {
+            task.previous.next = task.next;
+        }
+        else
+        {
+            slots[task.level][task.slot] = task.next;
+        }
+        if (task.next != null)
+        {
+            task.next.previous = task.previous;
+        }
+        else
+        {
+            tails[task.level][task.slot] = task.previous;
+        }
+        task.previous = null;
+        task.next = null;
+        task.level = -1;
+    }
+
+    /**
+     * Verteilt die Aufgaben eines Fachs neu auf die unteren Ebenen.
+     */
+    private void cascade(int level, int slot)
+    {
+        ScheduledTask task = slots[level][slot];
+        slots[level][slot] = null;
+        tails[level][slot] = null;
+        while (task != null)
+        {
+            ScheduledTask next = task.next;
+            insert(task);
+            task = next;
+        }
+    }
+
+    /**
+     * Lässt die Spielzeit voranschreiten und führt alle fälligen Aufgaben aus.
+     *
+     * @param pastTime Die vergangene Spielzeit in Sekunden.
+     */
+    @API
+    public synchronized void advance(double pastTime)
+    {
+        if (!deferred.isEmpty())
+        {
+            List<Runnable> runnables = deferred;
+            deferred = deferredSwap;
+            deferredSwap = runnables;
+            for (Runnable runnable : runnables)
+            {
+                runnable.run();
+            }
+            runnables.clear();
+        }
+        time += pastTime;
+        long targetTick = (long) Math.floor(time / tickLength);
+        while (currentTick < targetTick)
+        {
+            if (size == 0)
+            {
+                currentTick = targetTick;
+                break;
+            }
+            currentTick++;
+            for (int level = 1; level < LEVELS; level++)
+            {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0)
+                {
+                    break;
+                }
+                cascade(level, (int) ((currentTick >>> (SLOT_BITS * level))
+                        & SLOT_MASK));
+            }
+            int slot = (int) (currentTick & SLOT_MASK);
+            ScheduledTask task;
+            // Aufgaben werden einzeln vom Kopf entnommen, damit sie während
+            // der Ausführung anderer Aufgaben abgebrochen werden können.
+            while ((task = slots[0][slot]) != null)
+            {
+                unlink(task);
+                size--;
+                double nextTime = task.expire(
+                        Math.max(currentTick * tickLength, task.dueTime));
+                if (!Double.isNaN(nextTime) && !task.isScheduled())
+                {
+                    scheduleAt(task, nextTime);
+                }
+            }
+        }
+    }
+
+    /**
+     * @hidden
+     */
+    @Override
+    @Internal
+    public void onFrameUpdate(double pastTime)
+    {
+        advance(pastTime);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import de.pirckheimer_gymnasium.engine_pi.Vector;
+import de.pirckheimer_gymnasium.engine_pi.actor.Actor;
+import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+
+/**
+ * Ein Kontakt zwischen zwei sich überlappenden Körpern der {@link ArcadeWorld}.
+ * Entspricht dem JBox2D-Kontakt einer
+ * {@link de.pirckheimer_gymnasium.engine_pi.event.CollisionEvent Kollision}.
+ *
+ * @author Josef Friedrich
+ */
+@Internal
+public final class ArcadeContact
+{
+    final ArcadeHandler a;
+
+    final ArcadeHandler b;
+
+    /**
+     * Die Normale von A nach B.
+     */
+    double normalX;
+
+    double normalY;
+
+    /**
+     * Die Eindringtiefe entlang der Normalen in Meter.
+     */
+    double depth;
+
+    double pointX;
+
+    double pointY;
+
+    /**
+     * Die Nummer des letzten Schritts, in dem sich die Körper überlappt haben.
+     */
+    long stamp;
+
+    private boolean enabled = true;
+
+    ArcadeContact(ArcadeHandler a, ArcadeHandler b)
+    {
+        this.a = a;
+        this.b = b;
+    }
+
+    ArcadeHandler getOther(ArcadeHandler handler)
+    {
+        return handler == a ? b : a;
+    }
+
+    /**
+     * Gibt die Figur zurück, von der die {@link #getNormal() Normale} ausgeht.
+     */
+    @Internal
+    public Actor getActorA()
+    {
+        return a.getActor();
+    }
+
+    /**
+     * Gibt die Normale des Kontakts zurück. Sie zeigt von der Figur A zur Figur
+     * B.
+     */
+    @Internal
+    public Vector getNormal()
+    {
+        return new Vector(normalX, normalY);
+    }
+
+    /**
+     * Gibt den Mittelpunkt der Überlappung zurück.
+     */
+    @Internal
+    public Vector getPoint()
+    {
+        return new Vector(pointX, pointY);
+    }
+
+    @Internal
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Legt fest, ob der Kontakt aufgelöst wird. Ein deaktivierter Kontakt
+     * bleibt deaktiviert, bis sich die Körper nicht mehr überlappen.
+     */
+    @Internal
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+}
@@ -0,0 +1,907 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import de.pirckheimer_gymnasium.jbox2d.collision.AABB;
+import de.pirckheimer_gymnasium.jbox2d.collision.shapes.CircleShape;
+import de.pirckheimer_gymnasium.jbox2d.collision.shapes.Shape;
+import de.pirckheimer_gymnasium.jbox2d.common.Transform;
+import de.pirckheimer_gymnasium.jbox2d.dynamics.Body;
+
+import de.pirckheimer_gymnasium.engine_pi.Vector;
+import de.pirckheimer_gymnasium.engine_pi.actor.Actor;
+import de.pirckheimer_gymnasium.engine_pi.actor.BodyType;
+import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+import de.pirckheimer_gymnasium.engine_pi.event.CollisionEvent;
+import de.pirckheimer_gymnasium.engine_pi.event.CollisionListener;
+import de.pirckheimer_gymnasium.engine_pi.event.ContactVisitor;
+import de.pirckheimer_gymnasium.engine_pi.event.ListenerProfiler;
+
+/**
+ * Die <i>physikalische Darstellung</i> eines {@link Actor}-Objekts in einer
+ * Ebene mit dem {@link PhysicsBackend#ARCADE Arcade-Backend}.
+ *
+ * <p>
+ * Die Kollisionsform ist entweder ein Kreis (falls die Figur aus genau einer
+ * kreisförmigen Halterung besteht) oder das achsenparallele Rechteck, das alle
+ * Halterungen umschließt. Die Drehung der Figur wird gespeichert und
+ * gezeichnet, verändert die Kollisionsform aber nicht.
+ * </p>
+ *
+ * @author Josef Friedrich
+ *
+ * @see ArcadeWorld
+ */
+public class ArcadeHandler implements PhysicsHandler
+{
+    private final Actor actor;
+
+    private final WorldHandler worldHandler;
+
+    private final ArcadeWorld arcadeWorld;
+
+    /**
+     * Speichert die Materialeigenschaften und Halterungen. Position und
+     * Geschwindigkeit werden erst in {@link #getPhysicsData()} übertragen.
+     */
+    private final PhysicsData physicsData;
+
+    /**
+     * Die Position im Arcade-Welt-Array.
+     */
+    int index;
+
+    double x;
+
+    double y;
+
+    private double rotation;
+
+    double velocityX;
+
+    double velocityY;
+
+    /**
+     * Die Winkelgeschwindigkeit in Umdrehungen pro Sekunde.
+     */
+    private double angularVelocity;
+
+    private double forceX;
+
+    private double forceY;
+
+    private double torque;
+
+    private double mass;
+
+    double inverseMass;
+
+    private double inverseInertia;
+
+    boolean circle;
+
+    /**
+     * Die Kollisionsform relativ zur Position der Figur.
+     */
+    private double localMinX;
+
+    private double localMinY;
+
+    private double localMaxX;
+
+    private double localMaxY;
+
+    /**
+     * Das Begrenzungsrechteck in Weltkoordinaten.
+     */
+    double minX;
+
+    double minY;
+
+    double maxX;
+
+    double maxY;
+
+    boolean active = true;
+
+    /**
+     * Der Bewegungszustand zu Beginn des letzten World-Steps, siehe
+     * {@link WorldHandler#execute(Runnable)}.
+     */
+    private volatile BodyState state;
+
+    /**
+     * Alle Kontakte, an denen dieser Körper beteiligt ist.
+     */
+    final List<ArcadeContact> contacts = new ArrayList<>();
+
+    private final List<CollisionListener<Actor>> collisionListeners = new CopyOnWriteArrayList<>();
+
+    private final CopyOnWriteArrayList<SpecificCollisionListener<?>> specificCollisionListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Erstellt einen neuen Arcade-Handler und meldet ihn in der Arcade-Welt des
+     * World-Handlers an.
+     */
+    @Internal
+    public ArcadeHandler(Actor actor, PhysicsData physicsData,
+            WorldHandler worldHandler)
+    {
+        this.actor = actor;
+        this.worldHandler = worldHandler;
+        this.arcadeWorld = worldHandler.getArcadeWorld();
+        if (arcadeWorld == null)
+        {
+            throw new IllegalStateException(
+                    "Die Ebene verwendet nicht das Arcade-Backend.");
+        }
+        this.physicsData = physicsData;
+        List<FixtureData> fixtures = physicsData.getFixtures().get();
+        physicsData.setFixtures(() -> fixtures);
+        x = physicsData.getX();
+        y = physicsData.getY();
+        rotation = physicsData.getRotation();
+        velocityX = physicsData.getVelocity().getX();
+        velocityY = physicsData.getVelocity().getY();
+        angularVelocity = physicsData.getAngularVelocity();
+        torque = physicsData.getTorque();
+        updateShape();
+        arcadeWorld.add(this);
+        publishState();
+    }
+
+    /**
+     * Veröffentlicht den aktuellen Bewegungszustand für Getter, die während
+     * eines World-Steps aus anderen Threads aufgerufen werden.
+     */
+    void publishState()
+    {
+        BodyState previous = state;
+        if (previous != null && previous.hasTransform(x, y, rotation)
+                && previous.velocityX() == velocityX
+                && previous.velocityY() == velocityY
+                && previous.angularVelocity() == angularVelocity)
+        {
+            return;
+        }
+        state = new BodyState(x, y, rotation, velocityX, velocityY,
+                angularVelocity, (minX + maxX) / 2, (minY + maxY) / 2);
+    }
+
+    Actor getActor()
+    {
+        return actor;
+    }
+
+    /**
+     * Berechnet die Kollisionsform aus den Halterungen.
+     */
+    private void updateShape()
+    {
+        List<FixtureData> fixtures = physicsData.getFixtures().get();
+        circle = fixtures.size() == 1
+                && fixtures.get(0).getShape() instanceof CircleShape;
+        if (fixtures.isEmpty())
+        {
+            localMinX = localMinY = localMaxX = localMaxY = 0;
+        }
+        else if (circle)
+        {
+            CircleShape shape = (CircleShape) fixtures.get(0).getShape();
+            localMinX = shape.p.x - shape.radius;
+            localMinY = shape.p.y - shape.radius;
+            localMaxX = shape.p.x + shape.radius;
+            localMaxY = shape.p.y + shape.radius;
+        }
+        else
+        {
+            localMinX = localMinY = Double.MAX_VALUE;
+            localMaxX = localMaxY = -Double.MAX_VALUE;
+            AABB bounds = new AABB();
+            Transform identity = new Transform();
+            for (FixtureData fixture : fixtures)
+            {
+                Shape shape = fixture.getShape();
+                // JBox2D vergrößert Polygone und Linien um ihren Hautradius,
+                // der hier nicht zur Kollisionsform gehören soll.
+                double skin = shape instanceof CircleShape ? 0 : shape.radius;
+                for (int child = 0; child < shape.getChildCount(); child++)
+                {
+                    shape.computeAABB(bounds, identity, child);
+                    localMinX = Math.min(localMinX, bounds.lowerBound.x + skin);
+                    localMinY = Math.min(localMinY, bounds.lowerBound.y + skin);
+                    localMaxX = Math.max(localMaxX, bounds.upperBound.x - skin);
+                    localMaxY = Math.max(localMaxY, bounds.upperBound.y - skin);
+                }
+            }
+        }
+        updateMass();
+        updateBounds();
+    }
+
+    private void updateMass()
+    {
+        double width = localMaxX - localMinX;
+        double height = localMaxY - localMinY;
+        double area = circle ? Math.PI * width * width / 4 : width * height;
+        Double fixedMass = physicsData.getMass();
+        mass = fixedMass != null ? fixedMass
+                : physicsData.getGlobalDensity() * area;
+        if (mass <= 0)
+        {
+            // Wie in JBox2D erhalten Körper ohne Fläche die Masse 1.
+            mass = 1;
+        }
+        BodyType type = getType();
+        if (type == BodyType.STATIC || type == BodyType.KINEMATIC)
+        {
+            inverseMass = 0;
+            inverseInertia = 0;
+            return;
+        }
+        inverseMass = 1 / mass;
+        double inertia = circle ? mass * width * width / 8
+                : mass * (width * width + height * height) / 12;
+        inverseInertia = inertia > 0 ? 1 / inertia : 0;
+    }
+
+    void updateBounds()
+    {
+        minX = x + localMinX;
+        minY = y + localMinY;
+        maxX = x + localMaxX;
+        maxY = y + localMaxY;
+    }
+
+    /**
+     * Integriert Kräfte und Geschwindigkeit über einen Zeitschritt.
+     */
+    void integrate(double dt, double gravityX, double gravityY)
+    {
+        if (getType() != BodyType.STATIC)
+        {
+            boolean rotationLocked = physicsData.isRotationLocked();
+            if (inverseMass > 0)
+            {
+                double gravityScale = physicsData.getGravityScale();
+                velocityX += (gravityX * gravityScale + forceX * inverseMass)
+                        * dt;
+                velocityY += (gravityY * gravityScale + forceY * inverseMass)
+                        * dt;
+                double linearDamping = 1
+                        / (1 + dt * physicsData.getLinearDamping());
+                velocityX *= linearDamping;
+                velocityY *= linearDamping;
+                if (!rotationLocked)
+                {
+                    angularVelocity += torque * inverseInertia * dt
+                            / (2 * Math.PI);
+                    angularVelocity /= 1 + dt * physicsData.getAngularDamping();
+                }
+            }
+            x += velocityX * dt;
+            y += velocityY * dt;
+            if (!rotationLocked)
+            {
+                rotation += angularVelocity * 360 * dt;
+            }
+        }
+        forceX = 0;
+        forceY = 0;
+        torque = 0;
+        updateBounds();
+    }
+
+    /**
+     * Gibt den Kontakt mit einem anderen Körper zurück, falls es einen gibt.
+     */
+    ArcadeContact findContact(ArcadeHandler other)
+    {
+        for (int i = 0; i < contacts.size(); i++)
+        {
+            ArcadeContact contact = contacts.get(i);
+            if (contact.a == other || contact.b == other)
+            {
+                return contact;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Prüft, ob sich dieser Körper gerade mit einem anderen Körper überlappt.
+     */
+    @Internal
+    public boolean isTouching(PhysicsHandler other)
+    {
+        return other instanceof ArcadeHandler
+                && findContact((ArcadeHandler) other) != null;
+    }
+
+    /**
+     * Prüft anhand der Körpertypen, ob zwei Körper miteinander kollidieren
+     * können. Es gelten dieselben Regeln wie in JBox2D.
+     */
+    static boolean canCollide(ArcadeHandler a, ArcadeHandler b)
+    {
+        BodyType typeA = a.getType();
+        BodyType typeB = b.getType();
+        if (a.inverseMass == 0 && b.inverseMass == 0)
+        {
+            return false;
+        }
+        return (BodyHandler.getCategoryBits(typeA)
+                & BodyHandler.getMaskBits(typeB)) != 0
+                && (BodyHandler.getCategoryBits(typeB)
+                        & BodyHandler.getMaskBits(typeA)) != 0;
+    }
+
+    @Internal
+    public void addCollisionListener(CollisionListener<Actor> listener)
+    {
+        collisionListeners.add(listener);
+    }
+
+    @Internal
+    public <E extends Actor> void addCollisionListener(E collider,
+            CollisionListener<E> listener)
+    {
+        // Meldet sich der Kollisionspartner neu an, wird die Anmeldung
+        // wiederholt.
+        specificCollisionListeners.addIfAbsent(
+                new SpecificCollisionListener<>(collider, listener));
+    }
+
+    /**
+     * Informiert die Kollisionsbeobachter über den Beginn oder das Ende eines
+     * Kontakts.
+     */
+    void fireCollision(ArcadeContact contact, boolean begin)
+    {
+        Actor other = contact.getOther(this).actor;
+        for (CollisionListener<Actor> listener : collisionListeners)
+        {
+            CollisionEvent<Actor> event = new CollisionEvent<>(contact, other);
+            long start = ListenerProfiler.start();
+            if (begin)
+            {
+                listener.onCollision(event);
+            }
+            else
+            {
+                listener.onCollisionEnd(event);
+            }
+            ListenerProfiler.stop(listener, start);
+        }
+        for (SpecificCollisionListener<?> listener : specificCollisionListeners)
+        {
+            if (listener.collider == other)
+            {
+                listener.fire(contact, begin);
+            }
+        }
+    }
+
+    private record SpecificCollisionListener<E extends Actor>(E collider,
+            CollisionListener<E> listener)
+    {
+        void fire(ArcadeContact contact, boolean begin)
+        {
+            CollisionEvent<E> event = new CollisionEvent<>(contact, collider);
+            long start = ListenerProfiler.start();
+            if (begin)
+            {
+                listener.onCollision(event);
+            }
+            else
+            {
+                listener.onCollisionEnd(event);
+            }
+            ListenerProfiler.stop(listener, start);
+        }
+    }
+
+    /**
+     * Meldet diesen Körper von der Arcade-Welt ab.
+     */
+    @Internal
+    public void destroy()
+    {
+        worldHandler.runExclusive(() -> arcadeWorld.remove(this));
+    }
+
+    @Override
+    public void moveBy(Vector meters)
+    {
+        worldHandler.execute(() -> {
+            x += meters.getX();
+            y += meters.getY();
+            updateBounds();
+        });
+    }
+
+    @Override
+    public void setPosition(double x, double y)
+    {
+        worldHandler.execute(() -> {
+            if (!Double.isNaN(x))
+            {
+                this.x = x;
+            }
+            if (!Double.isNaN(y))
+            {
+                this.y = y;
+            }
+            updateBounds();
+        });
+    }
+
+    @Override
+    public Vector getCenter()
+    {
+        long stamp = worldHandler.beginRead();
+        double centerX = (minX + maxX) / 2;
+        double centerY = (minY + maxY) / 2;
+        if (worldHandler.validateRead(stamp))
+        {
+            return new Vector(centerX, centerY);
+        }
+        return state.getCenter();
+    }
+
+    @Override
+    public boolean contains(Vector p)
+    {
+        if (circle)
+        {
+            double radius = (maxX - minX) / 2;
+            double dx = p.getX() - (minX + radius);
+            double dy = p.getY() - (minY + radius);
+            return dx * dx + dy * dy <= radius * radius;
+        }
+        return p.getX() >= minX && p.getX() <= maxX && p.getY() >= minY
+                && p.getY() <= maxY;
+    }
+
+    @Override
+    public Vector getPosition()
+    {
+        long stamp = worldHandler.beginRead();
+        double x = this.x;
+        double y = this.y;
+        if (worldHandler.validateRead(stamp))
+        {
+            return new Vector(x, y);
+        }
+        return state.getPosition();
+    }
+
+    @Override
+    public double getRotation()
+    {
+        long stamp = worldHandler.beginRead();
+        double rotation = this.rotation;
+        if (worldHandler.validateRead(stamp))
+        {
+            return rotation;
+        }
+        return state.rotation();
+    }
+
+    @Override
+    public void rotateBy(double degree)
+    {
+        worldHandler.execute(() -> rotation += degree);
+    }
+
+    @Override
+    public void setRotation(double degree)
+    {
+        worldHandler.execute(() -> rotation = degree);
+    }
+
+    @Override
+    public void setDensity(double density)
+    {
+        worldHandler.execute(() -> {
+            physicsData.setGlobalDensity(density);
+            updateMass();
+        });
+    }
+
+    @Override
+    public double getDensity()
+    {
+        worldHandler.applyPendingCommands();
+        return physicsData.getGlobalDensity();
+    }
+
+    @Override
+    public void setGravityScale(double factor)
+    {
+        physicsData.setGravityScale(factor);
+    }
+
+    @Override
+    public double getGravityScale()
+    {
+        worldHandler.applyPendingCommands();
+        return physicsData.getGravityScale();
+    }
+
+    @Override
+    public void setFriction(double friction)
+    {
+        physicsData.setGlobalFriction(friction);
+    }
+
+    @Override
+    public double getFriction()
+    {
+        worldHandler.applyPendingCommands();
+        return physicsData.getGlobalFriction();
+    }
+
+    @Override
+    public void setRestitution(double restitution)
+    {
+        physicsData.setGlobalRestitution(restitution);
+    }
+
+    @Override
+    public double getRestitution()
+    {
+        worldHandler.applyPendingCommands();
+        return physicsData.getGlobalRestitution();
+    }
+
+    @Override
+    public void setLinearDamping(double damping)
+    {
+        physicsData.setLinearDamping(damping);
+    }
+
+    @Override
+    public double getLinearDamping()
+    {
+        worldHandler.applyPendingCommands();
+        return physicsData.getLinearDamping();
+    }
+
+    @Override
+    public void setAngularDamping(double damping)
+    {
+        physicsData.setAngularDamping(damping);
+    }
+
+    @Override
+    public double getAngularDamping()
+    {
+        worldHandler.applyPendingCommands();
+        return physicsData.getAngularDamping();
+    }
+
+    @Override
+    public double getMass()
+    {
+        worldHandler.applyPendingCommands();
+        return mass;
+    }
+
+    @Override
+    public void applyForce(Vector force)
+    {
+        worldHandler.execute(() -> {
+            forceX += force.getX();
+            forceY += force.getY();
+        });
+    }
+
+    @Override
+    public void applyTorque(double torque)
+    {
+        worldHandler.execute(() -> this.torque += torque);
+    }
+
+    @Override
+    public void applyRotationImpulse(double rotationImpulse)
+    {
+        worldHandler.execute(() -> addRotationImpulse(rotationImpulse));
+    }
+
+    private void addRotationImpulse(double rotationImpulse)
+    {
+        if (!physicsData.isRotationLocked())
+        {
+            angularVelocity += rotationImpulse * inverseInertia / (2 * Math.PI);
+        }
+    }
+
+    @Override
+    public void setType(BodyType type)
+    {
+        worldHandler.execute(() -> {
+            physicsData.setType(type);
+            updateMass();
+        });
+    }
+
+    @Override
+    public BodyType getType()
+    {
+        worldHandler.applyPendingCommands();
+        return physicsData.getType();
+    }
+
+    @Override
+    public void applyForce(Vector forceInN, Vector globalLocation)
+    {
+        worldHandler.execute(() -> {
+            forceX += forceInN.getX();
+            forceY += forceInN.getY();
+            torque += cross(globalLocation, forceInN);
+        });
+    }
+
+    @Override
+    public void applyImpulse(Vector impulseInNs, Vector globalLocation)
+    {
+        worldHandler.execute(() -> {
+            velocityX += impulseInNs.getX() * inverseMass;
+            velocityY += impulseInNs.getY() * inverseMass;
+            addRotationImpulse(cross(globalLocation, impulseInNs));
+        });
+    }
+
+    /**
+     * Berechnet das Kreuzprodukt des Hebelarms vom Mittelpunkt zu einem Punkt
+     * mit einem Vektor.
+     */
+    private double cross(Vector globalLocation, Vector vector)
+    {
+        double armX = globalLocation.getX() - (minX + maxX) / 2;
+        double armY = globalLocation.getY() - (minY + maxY) / 2;
+        return armX * vector.getY() - armY * vector.getX();
+    }
+
+    @Override
+    public void resetMovement()
+    {
+        worldHandler.execute(() -> {
+            velocityX = 0;
+            velocityY = 0;
+            angularVelocity = 0;
+        });
+    }
+
+    @Override
+    public void setVelocity(Vector metersPerSecond)
+    {
+        worldHandler.execute(() -> {
+            velocityX = metersPerSecond.getX();
+            velocityY = metersPerSecond.getY();
+        });
+    }
+
+    @Override
+    public Vector getVelocity()
+    {
+        long stamp = worldHandler.beginRead();
+        double velocityX = this.velocityX;
+        double velocityY = this.velocityY;
+        if (worldHandler.validateRead(stamp))
+        {
+            return new Vector(velocityX, velocityY);
+        }
+        return state.getVelocity();
+    }
+
+    @Override
+    public void setAngularVelocity(double rotationsPerSecond)
+    {
+        worldHandler.execute(() -> angularVelocity = rotationsPerSecond);
+    }
+
+    @Override
+    public double getAngularVelocity()
+    {
+        long stamp = worldHandler.beginRead();
+        double angularVelocity = this.angularVelocity;
+        if (worldHandler.validateRead(stamp))
+        {
+            return angularVelocity;
+        }
+        return state.angularVelocity();
+    }
+
+    @Override
+    public void setRotationLocked(boolean locked)
+    {
+        physicsData.setRotationLocked(locked);
+    }
+
+    @Override
+    public boolean isRotationLocked()
+    {
+        return physicsData.isRotationLocked();
+    }
+
+    @Override
+    public boolean isGrounded()
+    {
+        if (this.getType() != BodyType.DYNAMIC)
+        {
+            throw new RuntimeException(
+                    "Der Steh-Test ist nur für dynamische Objekte definiert");
+        }
+        return !forEachContact(BodyHandler.GROUND_SEARCH);
+    }
+
+    @Override
+    public void setFixtures(Supplier<List<FixtureData>> fixtures)
+    {
+        worldHandler.execute(() -> {
+            List<FixtureData> list = fixtures.get();
+            physicsData.setFixtures(() -> list);
+            updateShape();
+        });
+    }
+
+    /**
+     * Die Arcade-Physik kennt nur eine Kollisionsform pro Figur, die ohnehin
+     * aus allen Halterungen neu berechnet wird.
+     */
+    @Override
+    public void updateFixtures(Collection<FixtureData> removed,
+            Collection<FixtureData> added, Supplier<List<FixtureData>> fixtures)
+    {
+        setFixtures(fixtures);
+    }
+
+    @Override
+    @Internal
+    public PhysicsData getPhysicsData()
+    {
+        worldHandler.applyPendingCommands();
+        physicsData.setX(x);
+        physicsData.setY(y);
+        physicsData.setRotation(rotation);
+        physicsData.setVelocity(new Vector(velocityX, velocityY));
+        physicsData.setAngularVelocity(angularVelocity);
+        physicsData.setTorque(torque);
+        return physicsData;
+    }
+
+    @Override
+    public void applyMountCallbacks(PhysicsHandler otherHandler)
+    {
+        // nothing to do
+    }
+
+    @Override
+    public List<CollisionEvent<Actor>> getCollisions()
+    {
+        synchronized (worldHandler)
+        {
+            List<CollisionEvent<Actor>> events = new ArrayList<>(
+                    contacts.size());
+            for (ArcadeContact contact : contacts)
+            {
+                events.add(new CollisionEvent<>(contact,
+                        contact.getOther(this).actor));
+            }
+            return events;
+        }
+    }
+
+    @Override
+    public boolean forEachContact(ContactVisitor visitor)
+    {
+        synchronized (worldHandler)
+        {
+            for (int i = 0; i < contacts.size(); i++)
+            {
+                ArcadeContact contact = contacts.get(i);
+                // Die Normale zeigt von A nach B.
+                double sign = contact.a == this ? 1 : -1;
+                if (!visitor.visit(contact.getOther(this).actor,
+                        sign * contact.normalX, sign * contact.normalY))
+                {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int countContacts(Predicate<Actor> predicate)
+    {
+        int count = 0;
+        synchronized (worldHandler)
+        {
+            for (int i = 0; i < contacts.size(); i++)
+            {
+                if (predicate.test(contacts.get(i).getOther(this).actor))
+                {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public WorldHandler getWorldHandler()
+    {
+        return worldHandler;
+    }
+
+    /**
+     * Arcade-Körper besitzen keinen JBox2D-Körper.
+     *
+     * @return Immer <code>null</code>.
+     */
+    @Override
+    public Body getBody()
+    {
+        return null;
+    }
+
+    /**
+     * Arcade-Körper schlafen nie, da sie keine Löser-Iterationen kosten.
+     */
+    @Override
+    public void setAwake(boolean value)
+    {
+        // nothing to do
+    }
+
+    @Override
+    public void setActive(boolean value)
+    {
+        worldHandler.execute(() -> active = value);
+    }
+
+    @Override
+    public boolean isActive()
+    {
+        worldHandler.applyPendingCommands();
+        return active;
+    }
+
+    @Override
+    public void edit(PhysicsEdit edit)
+    {
+        worldHandler.execute(() -> {
+            edit.applyTo(physicsData);
+            if (edit.affectsMass())
+            {
+                updateMass();
+            }
+        });
+    }
+}
@@ -0,0 +1,458 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.pirckheimer_gymnasium.engine_pi.actor.BodyType;
+import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+
+/**
+ * Eine <b>einfache Arcade-Physik</b> als günstige Alternative zu JBox2D.
+ *
+ * <p>
+ * Pro Schritt werden die Geschwindigkeiten integriert, mögliche Paare über ein
+ * {@link SpatialHash räumliches Hashgitter} gesucht, Überlappungen von
+ * achsenparallelen Rechtecken und Kreisen bestimmt und in einem einzigen
+ * Durchgang ohne Löser-Iterationen aufgelöst.
+ * </p>
+ *
+ * @author Josef Friedrich
+ *
+ * @see PhysicsBackend#ARCADE
+ */
+@Internal
+final class ArcadeWorld
+{
+    /**
+     * Die voreingestellte Kantenlänge einer Zelle des Hashgitters in Meter.
+     */
+    static final double DEFAULT_CELL_SIZE = 2;
+
+    /**
+     * Die Eindringtiefe, die bei der Auflösung bestehen bleibt, damit ruhende
+     * Kontakte nicht in jedem Schritt enden und neu beginnen.
+     */
+    private static final double LINEAR_SLOP = 0.005;
+
+    private final List<ArcadeHandler> handlers = new ArrayList<>();
+
+    private final List<ArcadeContact> contacts = new ArrayList<>();
+
+    private final SpatialHash spatialHash = new SpatialHash(DEFAULT_CELL_SIZE);
+
+    private final SpatialHash.PairVisitor narrowPhase = this::collide;
+
+    /**
+     * Die Nummer des aktuellen Schritts.
+     */
+    private long stamp;
+
+    /*
+     * Die seit dem letzten Zurücksetzen in den einzelnen Phasen verbrachte Zeit
+     * in Nanosekunden.
+     */
+    long broadphaseNanos;
+
+    long narrowphaseNanos;
+
+    long solverNanos;
+
+    /*
+     * Das Ergebnis des letzten Überlappungstests.
+     */
+
+    private double normalX;
+
+    private double normalY;
+
+    private double depth;
+
+    private double pointX;
+
+    private double pointY;
+
+    void add(ArcadeHandler handler)
+    {
+        handler.index = handlers.size();
+        handlers.add(handler);
+    }
+
+    void remove(ArcadeHandler handler)
+    {
+        int index = handler.index;
+        if (index < 0 || index >= handlers.size()
+                || handlers.get(index) != handler)
+        {
+            return;
+        }
+        for (ArcadeContact contact : new ArrayList<>(handler.contacts))
+        {
+            contacts.remove(contact);
+            endContact(contact);
+        }
+        ArcadeHandler last = handlers.remove(handlers.size() - 1);
+        if (last != handler)
+        {
+            last.index = index;
+            handlers.set(index, last);
+        }
+        handler.index = -1;
+    }
+
+    /**
+     * Veröffentlicht den Bewegungszustand aller Körper, siehe
+     * {@link ArcadeHandler#publishState()}.
+     */
+    void publishStates()
+    {
+        for (int i = 0; i < handlers.size(); i++)
+        {
+            handlers.get(i).publishState();
+        }
+    }
+
+    int getBodyCount()
+    {
+        return handlers.size();
+    }
+
+    int getContactCount()
+    {
+        return contacts.size();
+    }
+
+    void resetTimings()
+    {
+        broadphaseNanos = 0;
+        narrowphaseNanos = 0;
+        solverNanos = 0;
+    }
+
+    void setCellSize(double cellSize)
+    {
+        spatialHash.setCellSize(cellSize);
+    }
+
+    double getCellSize()
+    {
+        return spatialHash.getCellSize();
+    }
+
+    /**
+     * Führt einen Simulationsschritt aus.
+     *
+     * @param dt Die Dauer des Schritts in Sekunden.
+     */
+    void step(double dt, double gravityX, double gravityY)
+    {
+        stamp++;
+        long start = System.nanoTime();
+        for (int i = 0; i < handlers.size(); i++)
+        {
+            ArcadeHandler handler = handlers.get(i);
+            if (handler.active)
+            {
+                handler.integrate(dt, gravityX, gravityY);
+            }
+        }
+        long integrated = System.nanoTime();
+        spatialHash.clear();
+        for (int i = 0; i < handlers.size(); i++)
+        {
+            ArcadeHandler handler = handlers.get(i);
+            if (handler.active)
+            {
+                spatialHash.insert(i, handler.minX, handler.minY, handler.maxX,
+                        handler.maxY);
+            }
+        }
+        long inserted = System.nanoTime();
+        spatialHash.forEachPair(narrowPhase);
+        long collided = System.nanoTime();
+        for (int i = 0; i < contacts.size(); i++)
+        {
+            ArcadeContact contact = contacts.get(i);
+            if (contact.stamp == stamp && contact.isEnabled())
+            {
+                resolve(contact);
+            }
+        }
+        long resolved = System.nanoTime();
+        broadphaseNanos += inserted - integrated;
+        narrowphaseNanos += collided - inserted;
+        solverNanos += (integrated - start) + (resolved - collided);
+        int kept = 0;
+        for (int i = 0; i < contacts.size(); i++)
+        {
+            ArcadeContact contact = contacts.get(i);
+            if (contact.stamp == stamp)
+            {
+                contacts.set(kept++, contact);
+            }
+            else
+            {
+                endContact(contact);
+            }
+        }
+        while (contacts.size() > kept)
+        {
+            contacts.remove(contacts.size() - 1);
+        }
+    }
+
+    private void endContact(ArcadeContact contact)
+    {
+        contact.a.contacts.remove(contact);
+        contact.b.contacts.remove(contact);
+        contact.a.fireCollision(contact, false);
+        contact.b.fireCollision(contact, false);
+    }
+
+    /**
+     * Prüft ein mögliches Paar der Broadphase auf Überlappung.
+     */
+    private void collide(int indexA, int indexB)
+    {
+        ArcadeHandler a = handlers.get(indexA);
+        ArcadeHandler b = handlers.get(indexB);
+        if (!ArcadeHandler.canCollide(a, b))
+        {
+            return;
+        }
+        ArcadeContact contact = a.findContact(b);
+        if (contact != null)
+        {
+            // Die Normale bezieht sich immer auf die Reihenfolge im Kontakt.
+            a = contact.a;
+            b = contact.b;
+        }
+        if (!overlap(a, b))
+        {
+            return;
+        }
+        boolean begin = contact == null;
+        if (begin)
+        {
+            contact = new ArcadeContact(a, b);
+            a.contacts.add(contact);
+            b.contacts.add(contact);
+            contacts.add(contact);
+        }
+        contact.normalX = normalX;
+        contact.normalY = normalY;
+        contact.depth = depth;
+        contact.pointX = pointX;
+        contact.pointY = pointY;
+        contact.stamp = stamp;
+        if (begin)
+        {
+            a.fireCollision(contact, true);
+            b.fireCollision(contact, true);
+        }
+    }
+
+    /**
+     * Bestimmt die Überlappung zweier Körper. Das Ergebnis steht in den Feldern
+     * {@link #normalX}, {@link #normalY}, {@link #depth}, {@link #pointX} und
+     * {@link #pointY}.
+     *
+     * @return <code>true</code>, falls sich die Körper überlappen.
+     */
+    private boolean overlap(ArcadeHandler a, ArcadeHandler b)
+    {
+        if (a.maxX <= b.minX || b.maxX <= a.minX || a.maxY <= b.minY
+                || b.maxY <= a.minY)
+        {
+            return false;
+        }
+        if (a.circle && b.circle)
+        {
+            return overlapCircles(a, b);
+        }
+        if (a.circle)
+        {
+            if (!overlapBoxCircle(b, a))
+            {
+                return false;
+            }
+            normalX = -normalX;
+            normalY = -normalY;
+            return true;
+        }
+        if (b.circle)
+        {
+            return overlapBoxCircle(a, b);
+        }
+        return overlapBoxes(a, b);
+    }
+
+    private boolean overlapBoxes(ArcadeHandler a, ArcadeHandler b)
+    {
+        double left = Math.max(a.minX, b.minX);
+        double right = Math.min(a.maxX, b.maxX);
+        double bottom = Math.max(a.minY, b.minY);
+        double top = Math.min(a.maxY, b.maxY);
+        double overlapX = right - left;
+        double overlapY = top - bottom;
+        pointX = (left + right) / 2;
+        pointY = (bottom + top) / 2;
+        if (overlapX < overlapY)
+        {
+            normalX = b.minX + b.maxX >= a.minX + a.maxX ? 1 : -1;
+            normalY = 0;
+            depth = overlapX;
+        }
+        else
+        {
+            normalX = 0;
+            normalY = b.minY + b.maxY >= a.minY + a.maxY ? 1 : -1;
+            depth = overlapY;
+        }
+        return true;
+    }
+
+    private boolean overlapCircles(ArcadeHandler a, ArcadeHandler b)
+    {
+        double radiusA = (a.maxX - a.minX) / 2;
+        double radiusB = (b.maxX - b.minX) / 2;
+        double dx = (b.minX + radiusB) - (a.minX + radiusA);
+        double dy = (b.minY + radiusB) - (a.minY + radiusA);
+        double distanceSquared = dx * dx + dy * dy;
+        double radii = radiusA + radiusB;
+        if (distanceSquared >= radii * radii)
+        {
+            return false;
+        }
+        double distance = Math.sqrt(distanceSquared);
+        if (distance > 0)
+        {
+            normalX = dx / distance;
+            normalY = dy / distance;
+        }
+        else
+        {
+            normalX = 0;
+            normalY = 1;
+        }
+        depth = radii - distance;
+        pointX = a.minX + radiusA + normalX * radiusA;
+        pointY = a.minY + radiusA + normalY * radiusA;
+        return true;
+    }
+
+    /**
+     * Bestimmt die Überlappung eines Rechtecks A mit einem Kreis B.
+     */
+    private boolean overlapBoxCircle(ArcadeHandler box, ArcadeHandler circle)
+    {
+        double radius = (circle.maxX - circle.minX) / 2;
+        double centerX = circle.minX + radius;
+        double centerY = circle.minY + radius;
+        double closestX = Math.max(box.minX, Math.min(centerX, box.maxX));
+        double closestY = Math.max(box.minY, Math.min(centerY, box.maxY));
+        double dx = centerX - closestX;
+        double dy = centerY - closestY;
+        double distanceSquared = dx * dx + dy * dy;
+        if (distanceSquared > 0)
+        {
+            if (distanceSquared >= radius * radius)
+            {
+                return false;
+            }
+            double distance = Math.sqrt(distanceSquared);
+            normalX = dx / distance;
+            normalY = dy / distance;
+            depth = radius - distance;
+        }
+        else
+        {
+            // Der Mittelpunkt des Kreises liegt im Rechteck: Entlang der
+            // kürzesten Strecke nach außen schieben.
+            double left = centerX - box.minX;
+            double right = box.maxX - centerX;
+            double bottom = centerY - box.minY;
+            double top = box.maxY - centerY;
+            double min = Math.min(Math.min(left, right), Math.min(bottom, top));
+            normalX = min == right ? 1 : min == left ? -1 : 0;
+            normalY = normalX != 0 ? 0 : min == top ? 1 : -1;
+            depth = min + radius;
+        }
+        pointX = closestX;
+        pointY = closestY;
+        return true;
+    }
+
+    /**
+     * Trennt zwei sich überlappende Körper und entfernt die Geschwindigkeit
+     * entlang der Normalen (mit Rückprall und Reibung).
+     */
+    private void resolve(ArcadeContact contact)
+    {
+        ArcadeHandler a = contact.a;
+        ArcadeHandler b = contact.b;
+        if (a.getType() == BodyType.SENSOR || b.getType() == BodyType.SENSOR)
+        {
+            return;
+        }
+        double inverseMassA = a.inverseMass;
+        double inverseMassB = b.inverseMass;
+        double inverseMassSum = inverseMassA + inverseMassB;
+        if (inverseMassSum == 0)
+        {
+            return;
+        }
+        double nx = contact.normalX;
+        double ny = contact.normalY;
+        double correction = Math.max(contact.depth - LINEAR_SLOP, 0)
+                / inverseMassSum;
+        a.x -= nx * correction * inverseMassA;
+        a.y -= ny * correction * inverseMassA;
+        b.x += nx * correction * inverseMassB;
+        b.y += ny * correction * inverseMassB;
+        a.updateBounds();
+        b.updateBounds();
+        double relativeX = b.velocityX - a.velocityX;
+        double relativeY = b.velocityY - a.velocityY;
+        double normalVelocity = relativeX * nx + relativeY * ny;
+        if (normalVelocity >= 0)
+        {
+            return;
+        }
+        double restitution = Math.max(a.getRestitution(), b.getRestitution());
+        double impulse = -(1 + restitution) * normalVelocity / inverseMassSum;
+        a.velocityX -= nx * impulse * inverseMassA;
+        a.velocityY -= ny * impulse * inverseMassA;
+        b.velocityX += nx * impulse * inverseMassB;
+        b.velocityY += ny * impulse * inverseMassB;
+        // Reibung entlang der Tangente, begrenzt durch das Coulomb-Gesetz
+        double tangentX = -ny;
+        double tangentY = nx;
+        double tangentVelocity = relativeX * tangentX + relativeY * tangentY;
+        double friction = Math.sqrt(a.getFriction() * b.getFriction());
+        double maxFriction = impulse * friction;
+        double frictionImpulse = Math.max(-maxFriction,
+                Math.min(-tangentVelocity / inverseMassSum, maxFriction));
+        a.velocityX -= tangentX * frictionImpulse * inverseMassA;
+        a.velocityY -= tangentY * frictionImpulse * inverseMassA;
+        b.velocityX += tangentX * frictionImpulse * inverseMassB;
+        b.velocityY += tangentY * frictionImpulse * inverseMassB;
+    }
+}
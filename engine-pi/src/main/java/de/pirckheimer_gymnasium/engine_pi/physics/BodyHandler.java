@@ -21,13 +21,20 @@
 package de.pirckheimer_gymnasium.engine_pi.physics;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import de.pirckheimer_gymnasium.jbox2d.collision.AABB;
+import de.pirckheimer_gymnasium.jbox2d.collision.WorldManifold;
 import de.pirckheimer_gymnasium.jbox2d.common.Vec2;
 import de.pirckheimer_gymnasium.jbox2d.dynamics.Body;
 import de.pirckheimer_gymnasium.jbox2d.dynamics.Fixture;
+import de.pirckheimer_gymnasium.jbox2d.dynamics.contacts.Contact;
 import de.pirckheimer_gymnasium.jbox2d.dynamics.contacts.ContactEdge;
 
 import de.pirckheimer_gymnasium.engine_pi.Vector;
@@ -35,6 +42,7 @@ import de.pirckheimer_gymnasium.engine_pi.actor.Actor;
 import de.pirckheimer_gymnasium.engine_pi.actor.BodyType;
 import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
 import de.pirckheimer_gymnasium.engine_pi.event.CollisionEvent;
+import de.pirckheimer_gymnasium.engine_pi.event.ContactVisitor;
 
 /**
  * Ein <code>Body-Handler</code> kümmert sich um die <i>physikalische
@@ -53,6 +61,17 @@ public class BodyHandler implements PhysicsHandler
 
     private static final int DEFAULT_MASK_BITS = 0xFFFF;
 
+    /**
+     * Bricht den Durchlauf der Berührungen ab, sobald ein statisches Objekt
+     * unter der Figur gefunden wurde.
+     */
+    static final ContactVisitor GROUND_SEARCH = (other, normalX,
+            normalY) -> other == null || other.getBodyType() != BodyType.STATIC
+                    || normalY > -0.5;
+
+    private static final ThreadLocal<WorldManifold> worldManifold = ThreadLocal
+            .withInitial(WorldManifold::new);
+
     /**
      * Referenz auf den Handler der World, in der sich der Body befindet.
      */
@@ -66,6 +85,12 @@ public class BodyHandler implements PhysicsHandler
 
     private BodyType type;
 
+    /**
+     * Der Bewegungszustand zu Beginn des letzten World-Steps, siehe
+     * {@link WorldHandler#execute(Runnable)}.
+     */
+    private volatile BodyState state;
+
     /**
      * Erstellt einen neuen Body-Handler
      */
@@ -75,7 +100,46 @@ public class BodyHandler implements PhysicsHandler
     {
         this.worldHandler = worldHandler;
         this.body = physicsData.createBody(worldHandler, actor);
-        setType(physicsData.getType());
+        applyType(physicsData.getType());
+        state = captureState(null);
+    }
+
+    /**
+     * Veröffentlicht den aktuellen Bewegungszustand für Getter, die während
+     * eines World-Steps aus anderen Threads aufgerufen werden.
+     */
+    void publishState()
+    {
+        state = captureState(state);
+    }
+
+    private BodyState captureState(BodyState previous)
+    {
+        Vec2 position = body.getPosition();
+        Vec2 velocity = body.getLinearVelocity();
+        double rotation = Math.toDegrees(body.getAngle());
+        double angularVelocity = Math.toDegrees(body.getAngularVelocity())
+                / 360;
+        if (previous != null
+                && previous.hasTransform(position.x, position.y, rotation))
+        {
+            if (previous.velocityX() == velocity.x
+                    && previous.velocityY() == velocity.y
+                    && previous.angularVelocity() == angularVelocity)
+            {
+                return previous;
+            }
+            if (type != BodyType.DYNAMIC && type != BodyType.PARTICLE)
+            {
+                // Das Hüllrechteck muss nicht neu berechnet werden.
+                return new BodyState(position.x, position.y, rotation,
+                        velocity.x, velocity.y, angularVelocity,
+                        previous.centerX(), previous.centerY());
+            }
+        }
+        Vector center = calculateCenter();
+        return new BodyState(position.x, position.y, rotation, velocity.x,
+                velocity.y, angularVelocity, center.getX(), center.getY());
     }
 
     public Body getBody()
@@ -86,20 +150,42 @@ public class BodyHandler implements PhysicsHandler
     @Override
     public void moveBy(Vector meters)
     {
-        synchronized (worldHandler)
-        {
-            worldHandler.assertNoWorldStep();
+        worldHandler.execute(() -> {
             Vec2 vector = meters.toVec2();
             body.setTransform(vector.addLocal(body.getPosition()),
                     body.getAngle());
             // Wake up body, ensures in-engine (JB2D) adjustments will happen,
             // e.g. collision rejustment
             body.setAwake(true);
-        }
+        });
+    }
+
+    @Override
+    public void setPosition(double x, double y)
+    {
+        worldHandler.execute(() -> {
+            Vec2 position = body.getPosition();
+            body.setTransform(
+                    new Vec2(Double.isNaN(x) ? position.x : (float) x,
+                            Double.isNaN(y) ? position.y : (float) y),
+                    body.getAngle());
+            body.setAwake(true);
+        });
     }
 
     @Override
     public Vector getCenter()
+    {
+        long stamp = worldHandler.beginRead();
+        Vector center = calculateCenter();
+        if (worldHandler.validateRead(stamp))
+        {
+            return center;
+        }
+        return state.getCenter();
+    }
+
+    private Vector calculateCenter()
     {
         if (type == BodyType.DYNAMIC || type == BodyType.PARTICLE)
         {
@@ -125,300 +211,313 @@ public class BodyHandler implements PhysicsHandler
     @Override
     public Vector getPosition()
     {
-        return Vector.of(body.getPosition());
+        long stamp = worldHandler.beginRead();
+        Vec2 position = body.getPosition();
+        float x = position.x;
+        float y = position.y;
+        if (worldHandler.validateRead(stamp))
+        {
+            return new Vector(x, y);
+        }
+        return state.getPosition();
     }
 
     @Override
     public double getRotation()
     {
-        return (double) Math.toDegrees(body.getAngle());
+        long stamp = worldHandler.beginRead();
+        float angle = body.getAngle();
+        if (worldHandler.validateRead(stamp))
+        {
+            return (double) Math.toDegrees(angle);
+        }
+        return state.rotation();
     }
 
     @Override
     public void rotateBy(double degree)
     {
-        synchronized (worldHandler)
-        {
-            worldHandler.assertNoWorldStep();
+        worldHandler.execute(() -> {
             body.setTransform(body.getPosition(),
                     (float) (body.getAngle() + Math.toRadians(degree)));
-        }
+        });
     }
 
     @Override
     public void setRotation(double degree)
     {
-        synchronized (worldHandler)
-        {
-            worldHandler.assertNoWorldStep();
+        worldHandler.execute(() -> {
             body.setTransform(body.getPosition(),
                     (float) Math.toRadians(degree));
-        }
+        });
     }
 
     @Override
     public void setDensity(double density)
     {
-        synchronized (worldHandler)
-        {
+        worldHandler.execute(() -> {
             for (Fixture fixture = body.fixtureList; fixture != null; fixture = fixture.next)
             {
                 fixture.setDensity((float) density);
             }
             body.resetMassData();
-        }
+        });
     }
 
     @Override
     public double getDensity()
     {
+        worldHandler.applyPendingCommands();
         return body.fixtureList.getDensity();
     }
 
     @Override
     public void setGravityScale(double factor)
     {
-        body.setGravityScale((float) factor);
-        body.setAwake(true);
+        worldHandler.execute(() -> {
+            body.setGravityScale((float) factor);
+            body.setAwake(true);
+        });
     }
 
     @Override
     public double getGravityScale()
     {
+        worldHandler.applyPendingCommands();
         return body.getGravityScale();
     }
 
     @Override
     public void setFriction(double friction)
     {
-        synchronized (worldHandler)
-        {
+        worldHandler.execute(() -> {
             for (Fixture fixture = body.fixtureList; fixture != null; fixture = fixture.next)
             {
                 fixture.setFriction((float) friction);
             }
-        }
+        });
     }
 
     @Override
     public double getFriction()
     {
+        worldHandler.applyPendingCommands();
         return body.fixtureList.getFriction();
     }
 
     @Override
     public void setRestitution(double elasticity)
     {
-        synchronized (worldHandler)
-        {
+        worldHandler.execute(() -> {
             for (Fixture fixture = body.fixtureList; fixture != null; fixture = fixture.next)
             {
                 fixture.setRestitution((float) elasticity);
             }
-        }
+        });
     }
 
     @Override
     public double getRestitution()
     {
+        worldHandler.applyPendingCommands();
         return body.fixtureList.getRestitution();
     }
 
     @Override
     public void setLinearDamping(double damping)
     {
-        synchronized (worldHandler)
-        {
-            body.setLinearDamping((float) damping);
-        }
+        worldHandler.execute(() -> body.setLinearDamping((float) damping));
     }
 
     @Override
     public double getLinearDamping()
     {
+        worldHandler.applyPendingCommands();
         return body.getLinearDamping();
     }
 
     @Override
     public void setAngularDamping(double damping)
     {
-        synchronized (worldHandler)
-        {
-            body.setAngularDamping((float) damping);
-        }
+        worldHandler.execute(() -> body.setAngularDamping((float) damping));
     }
 
     @Override
     public double getAngularDamping()
     {
+        worldHandler.applyPendingCommands();
         return body.getAngularDamping();
     }
 
     @Override
     public double getMass()
     {
+        worldHandler.applyPendingCommands();
         return body.getMass();
     }
 
     @Override
     public void applyForce(Vector force)
     {
-        synchronized (worldHandler)
-        {
-            body.applyForceToCenter(force.toVec2());
-        }
+        worldHandler.execute(() -> body.applyForceToCenter(force.toVec2()));
     }
 
     @Override
     public void applyTorque(double torque)
     {
-        synchronized (worldHandler)
-        {
-            body.applyTorque((float) torque);
-        }
+        worldHandler.execute(() -> body.applyTorque((float) torque));
     }
 
     @Override
     public void applyRotationImpulse(double rotationImpulse)
     {
-        synchronized (worldHandler)
-        {
+        worldHandler.execute(() -> {
             body.applyAngularImpulse((float) rotationImpulse);
-        }
+        });
     }
 
     @Override
     public void setType(BodyType type)
     {
-        synchronized (worldHandler)
+        worldHandler.execute(() -> applyType(type));
+    }
+
+    private void applyType(BodyType type)
+    {
+        if (type == this.type)
         {
-            worldHandler.assertNoWorldStep();
-            if (type == this.type)
-            {
-                return;
-            }
-            this.type = type;
-            body.setType(type.toBox2D());
-            body.setActive(true);
-            body.setAwake(true);
-            for (Fixture fixture = body.fixtureList; fixture != null; fixture = fixture.next)
-            {
-                fixture.isSensor = type.isSensor();
-                switch (type)
-                {
-                case SENSOR:
-                    fixture.filter.categoryBits = WorldHandler.CATEGORY_PASSIVE;
-                    fixture.filter.maskBits = DEFAULT_MASK_BITS
-                            & ~WorldHandler.CATEGORY_PARTICLE;
-                    break;
-
-                case STATIC:
-                    fixture.filter.categoryBits = WorldHandler.CATEGORY_STATIC;
-                    fixture.filter.maskBits = DEFAULT_MASK_BITS;
-                    break;
-
-                case KINEMATIC:
-                    fixture.filter.categoryBits = WorldHandler.CATEGORY_KINEMATIC;
-                    fixture.filter.maskBits = DEFAULT_MASK_BITS;
-                    break;
-
-                case DYNAMIC:
-                    fixture.filter.categoryBits = WorldHandler.CATEGORY_DYNAMIC;
-                    fixture.filter.maskBits = DEFAULT_MASK_BITS
-                            & ~WorldHandler.CATEGORY_PARTICLE;
-                    break;
-
-                case PARTICLE:
-                    fixture.filter.categoryBits = WorldHandler.CATEGORY_PARTICLE;
-                    fixture.filter.maskBits = WorldHandler.CATEGORY_STATIC
-                            | WorldHandler.CATEGORY_KINEMATIC;
-                    break;
-
-                default:
-                    throw new RuntimeException("Unknown body type: " + type);
-                }
-            }
+            return;
         }
+        this.type = type;
+        body.setType(type.toBox2D());
+        body.setActive(true);
+        body.setAwake(true);
+        for (Fixture fixture = body.fixtureList; fixture != null; fixture = fixture.next)
+        {
+            fixture.isSensor = type.isSensor();
+            fixture.filter.categoryBits = getCategoryBits(type);
+            fixture.filter.maskBits = getMaskBits(type);
+        }
+    }
+
+    /**
+     * Gibt die Kategorie-Bits zurück, mit denen Körper eines Typs im
+     * Kollisionsfilter gekennzeichnet werden.
+     */
+    static int getCategoryBits(BodyType type)
+    {
+        return switch (type)
+        {
+        case SENSOR -> WorldHandler.CATEGORY_PASSIVE;
+        case STATIC -> WorldHandler.CATEGORY_STATIC;
+        case KINEMATIC -> WorldHandler.CATEGORY_KINEMATIC;
+        case DYNAMIC -> WorldHandler.CATEGORY_DYNAMIC;
+        case PARTICLE -> WorldHandler.CATEGORY_PARTICLE;
+        };
+    }
+
+    /**
+     * Gibt die Masken-Bits zurück, die festlegen, mit welchen Kategorien Körper
+     * eines Typs kollidieren.
+     */
+    static int getMaskBits(BodyType type)
+    {
+        return switch (type)
+        {
+        case SENSOR, DYNAMIC ->
+            DEFAULT_MASK_BITS & ~WorldHandler.CATEGORY_PARTICLE;
+        case STATIC, KINEMATIC -> DEFAULT_MASK_BITS;
+        case PARTICLE ->
+            WorldHandler.CATEGORY_STATIC | WorldHandler.CATEGORY_KINEMATIC;
+        };
     }
 
     @Override
     public BodyType getType()
     {
+        worldHandler.applyPendingCommands();
         return type;
     }
 
     @Override
     public void applyForce(Vector forceInN, Vector globalLocation)
     {
-        synchronized (worldHandler)
-        {
+        worldHandler.execute(() -> {
             body.applyForce(forceInN.toVec2(), globalLocation.toVec2());
-        }
+        });
     }
 
     @Override
     public void applyImpulse(Vector impulseInNs, Vector globalLocation)
     {
-        synchronized (worldHandler)
-        {
+        worldHandler.execute(() -> {
             body.applyLinearImpulse(impulseInNs.toVec2(),
                     globalLocation.toVec2(), true);
-        }
+        });
     }
 
     @Override
     public void resetMovement()
     {
-        synchronized (worldHandler)
-        {
+        worldHandler.execute(() -> {
             body.setLinearVelocity(NULL_VECTOR);
             body.setAngularVelocity(0);
-        }
+        });
     }
 
     @Override
     public void setVelocity(Vector metersPerSecond)
     {
-        synchronized (worldHandler)
-        {
+        worldHandler.execute(() -> {
             body.setLinearVelocity(metersPerSecond.toVec2());
-        }
+        });
     }
 
     @Override
     public Vector getVelocity()
     {
-        return Vector.of(body.getLinearVelocity());
+        long stamp = worldHandler.beginRead();
+        Vec2 velocity = body.getLinearVelocity();
+        float x = velocity.x;
+        float y = velocity.y;
+        if (worldHandler.validateRead(stamp))
+        {
+            return new Vector(x, y);
+        }
+        return state.getVelocity();
     }
 
     @Override
     public void setAngularVelocity(double rotationsPerSecond)
     {
-        synchronized (worldHandler)
-        {
+        worldHandler.execute(() -> {
             body.setAngularVelocity(
                     (float) Math.toRadians(rotationsPerSecond * 360));
-        }
+        });
     }
 
     @Override
     public double getAngularVelocity()
     {
-        return (double) Math.toDegrees(body.getAngularVelocity()) / 360;
+        long stamp = worldHandler.beginRead();
+        float angularVelocity = body.getAngularVelocity();
+        if (worldHandler.validateRead(stamp))
+        {
+            return (double) Math.toDegrees(angularVelocity) / 360;
+        }
+        return state.angularVelocity();
     }
 
     @Override
     public void setRotationLocked(boolean locked)
     {
-        synchronized (worldHandler)
-        {
-            body.setFixedRotation(locked);
-        }
+        worldHandler.execute(() -> body.setFixedRotation(locked));
     }
 
     @Override
     public boolean isRotationLocked()
     {
+        worldHandler.applyPendingCommands();
         return body.isFixedRotation();
     }
 
@@ -445,49 +544,69 @@ public class BodyHandler implements PhysicsHandler
             throw new RuntimeException(
                     "Der Steh-Test ist nur für dynamische Objekte definiert");
         }
-        AABB bodyBounds = calculateBodyAABB();
-        // Test-AABB: Should be a rectangle right below the body
-        // Minimal height, width of the body
-        AABB testAABB = new AABB();
-        final double epsilon = 0.0001;
-        testAABB.lowerBound.set(bodyBounds.lowerBound.x,
-                bodyBounds.lowerBound.y);
-        testAABB.upperBound.set(bodyBounds.upperBound.x,
-                (float) (bodyBounds.lowerBound.y + epsilon));
-        Fixture[] groundCandidates = worldHandler.queryAABB(testAABB);
-        for (Fixture fixture : groundCandidates)
-        {
-            Actor corresponding = (Actor) fixture.getBody().getUserData();
-            if (corresponding != null
-                    && corresponding.getBodyType() == BodyType.STATIC)
-            {
-                return true;
-            }
-        }
-        return false;
+        return !forEachContact(GROUND_SEARCH);
     }
 
     @Override
     public void setFixtures(Supplier<List<FixtureData>> fixtures)
     {
-        synchronized (worldHandler)
-        {
+        worldHandler.execute(() -> {
+            if (!worldHandler.containsBody(body))
+            {
+                // Der Körper wurde inzwischen zerstört.
+                return;
+            }
             PhysicsData physicsData = this.getPhysicsData();
-            for (Fixture fixture = body.fixtureList; fixture != null; fixture = fixture.next)
+            // destroyFixture() setzt next auf null.
+            Fixture fixture = body.fixtureList;
+            while (fixture != null)
             {
+                Fixture next = fixture.next;
                 body.destroyFixture(fixture);
+                fixture = next;
             }
             for (FixtureData fixtureData : fixtures.get())
             {
                 body.createFixture(fixtureData.createFixtureDef(physicsData));
             }
-        }
+        });
+    }
+
+    @Override
+    public void updateFixtures(Collection<FixtureData> removed,
+            Collection<FixtureData> added, Supplier<List<FixtureData>> fixtures)
+    {
+        worldHandler.execute(() -> {
+            if (!worldHandler.containsBody(body))
+            {
+                return;
+            }
+            PhysicsData physicsData = this.getPhysicsData();
+            Set<Object> origins = Collections
+                    .newSetFromMap(new IdentityHashMap<>());
+            origins.addAll(removed);
+            Fixture fixture = body.fixtureList;
+            while (fixture != null)
+            {
+                Fixture next = fixture.next;
+                if (origins.contains(fixture.getUserData()))
+                {
+                    body.destroyFixture(fixture);
+                }
+                fixture = next;
+            }
+            for (FixtureData fixtureData : added)
+            {
+                body.createFixture(fixtureData.createFixtureDef(physicsData));
+            }
+        });
     }
 
     @Override
     @Internal
     public PhysicsData getPhysicsData()
     {
+        worldHandler.applyPendingCommands();
         return PhysicsData.fromBody(body, getType());
     }
 
@@ -509,12 +628,53 @@ public class BodyHandler implements PhysicsHandler
             if (contact.contact.isTouching())
             {
                 contacts.add(new CollisionEvent<>(contact.contact,
-                        (Actor) contact.other.getUserData()));
+                        WorldHandler.getActor(contact.other)));
             }
         }
         return contacts;
     }
 
+    @Override
+    public boolean forEachContact(ContactVisitor visitor)
+    {
+        WorldManifold worldManifold = BodyHandler.worldManifold.get();
+        for (ContactEdge edge = body
+                .getContactList(); edge != null; edge = edge.next)
+        {
+            Contact contact = edge.contact;
+            if (!contact.isTouching())
+            {
+                continue;
+            }
+            contact.getWorldManifold(worldManifold);
+            // Die Normale zeigt von Halterung A zu Halterung B.
+            double sign = contact.fixtureA.getBody() == body ? 1 : -1;
+            if (!visitor.visit(WorldHandler.getActor(edge.other),
+                    sign * worldManifold.normal.x,
+                    sign * worldManifold.normal.y))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int countContacts(Predicate<Actor> predicate)
+    {
+        int count = 0;
+        for (ContactEdge edge = body
+                .getContactList(); edge != null; edge = edge.next)
+        {
+            if (edge.contact.isTouching()
+                    && predicate.test(WorldHandler.getActor(edge.other)))
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
     @Override
     public WorldHandler getWorldHandler()
     {
@@ -534,6 +694,75 @@ public class BodyHandler implements PhysicsHandler
      */
     public void setAwake(boolean value)
     {
-        body.setAwake(value);
+        worldHandler.execute(() -> body.setAwake(value));
+    }
+
+    @Override
+    public void setActive(boolean value)
+    {
+        worldHandler.execute(() -> body.setActive(value));
+    }
+
+    @Override
+    public boolean isActive()
+    {
+        worldHandler.applyPendingCommands();
+        return body.isActive();
+    }
+
+    @Override
+    public void edit(PhysicsEdit edit)
+    {
+        worldHandler.execute(() -> {
+            if (edit.isDensitySet || edit.isFrictionSet || edit.isElasticitySet)
+            {
+                for (Fixture fixture = body.fixtureList; fixture != null; fixture = fixture.next)
+                {
+                    if (edit.isDensitySet)
+                    {
+                        fixture.setDensity((float) edit.density);
+                    }
+                    if (edit.isFrictionSet)
+                    {
+                        fixture.setFriction((float) edit.friction);
+                    }
+                    if (edit.isElasticitySet)
+                    {
+                        fixture.setRestitution((float) edit.elasticity);
+                    }
+                }
+            }
+            if (edit.isGravityScaleSet)
+            {
+                body.setGravityScale((float) edit.gravityScale);
+            }
+            if (edit.isLinearDampingSet)
+            {
+                body.setLinearDamping((float) edit.linearDamping);
+            }
+            if (edit.isAngularDampingSet)
+            {
+                body.setAngularDamping((float) edit.angularDamping);
+            }
+            // setFixedRotation und setType berechnen die Masse bereits selbst
+            // neu, daher wird resetMassData nur ohne diese aufgerufen.
+            boolean massReset = false;
+            if (edit.isRotationLockedSet
+                    && edit.rotationLocked != body.isFixedRotation())
+            {
+                body.setFixedRotation(edit.rotationLocked);
+                massReset = true;
+            }
+            if (edit.type != null && edit.type != type)
+            {
+                applyType(edit.type);
+                massReset = true;
+            }
+            if (edit.isDensitySet && !massReset)
+            {
+                body.resetMassData();
+            }
+            body.setAwake(true);
+        });
     }
 }
@@ -0,0 +1,76 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import de.pirckheimer_gymnasium.engine_pi.Vector;
+import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+
+/**
+ * Der <b>veröffentlichte Bewegungszustand</b> eines Körpers zu Beginn des
+ * letzten World-Steps.
+ *
+ * <p>
+ * Getter lesen den Zustand eines Körpers ohne Sperre. Simuliert ein anderer
+ * Thread die Welt gerade oder übernimmt er eingereihte Änderungen, liefern sie
+ * stattdessen diesen Zustand, damit sie weder warten noch halb geschriebene
+ * Werte lesen.
+ * </p>
+ *
+ * @param x Die x-Koordinate der Position in Meter.
+ * @param y Die y-Koordinate der Position in Meter.
+ * @param rotation Die Drehung in Grad.
+ * @param velocityX Die Geschwindigkeit in x-Richtung in Meter pro Sekunde.
+ * @param velocityY Die Geschwindigkeit in y-Richtung in Meter pro Sekunde.
+ * @param angularVelocity Die Winkelgeschwindigkeit in Umdrehungen pro Sekunde.
+ * @param centerX Die x-Koordinate des Mittelpunkts in Meter.
+ * @param centerY Die y-Koordinate des Mittelpunkts in Meter.
+ *
+ * @author Josef Friedrich
+ *
+ * @see WorldHandler#execute(Runnable)
+ */
+@Internal
+record BodyState(double x, double y, double rotation, double velocityX,
+        double velocityY, double angularVelocity, double centerX,
+        double centerY)
+{
+    Vector getPosition()
+    {
+        return new Vector(x, y);
+    }
+
+    Vector getVelocity()
+    {
+        return new Vector(velocityX, velocityY);
+    }
+
+    Vector getCenter()
+    {
+        return new Vector(centerX, centerY);
+    }
+
+    /**
+     * Gibt an, ob sich Position und Drehung seit diesem Zustand nicht verändert
+     * haben. Der Mittelpunkt muss dann nicht neu berechnet werden.
+     */
+    boolean hasTransform(double x, double y, double rotation)
+    {
+        return this.x == x && this.y == y && this.rotation == rotation;
+    }
+}
@@ -41,6 +41,11 @@ import de.pirckheimer_gymnasium.engine_pi.Vector;
  * <p>
  * Halterungen werden verwendet, um die Größe, Form und Materialeigenschaften
  * eines Objekts in der Physikszene zu beschreiben.
+ *
+ * <p>
+ * Die Formen von {@link #rectangle(double, double)},
+ * {@link #circle(double, double, double)} und {@link #polygon(Vector...)}
+ * werden über {@link ShapePrototypes} mit allen gleich großen Figuren geteilt.
  */
 public final class FixtureBuilder
 {
@@ -54,14 +59,7 @@ public final class FixtureBuilder
      */
     public static FixtureData rectangle(double width, double height)
     {
-        PolygonShape shape = new PolygonShape();
-        shape.set(
-                new Vec2[]
-                { new Vec2(0, 0), new Vec2(0, (float) height),
-                        new Vec2((float) width, (float) height),
-                        new Vec2((float) width, 0) },
-                4);
-        shape.centroid.set(new Vec2((float) width / 2, (float) height / 2));
+        PolygonShape shape = ShapePrototypes.rectangle(width, height);
         return new FixtureData(shape);
     }
 
@@ -74,10 +72,7 @@ public final class FixtureBuilder
      */
     public static FixtureData circle(double mx, double my, double radius)
     {
-        CircleShape circleShape = new CircleShape();
-        circleShape.p.set((float) mx, (float) my);
-        circleShape.setRadius((float) radius);
-        return new FixtureData(circleShape);
+        return new FixtureData(ShapePrototypes.circle(mx, my, radius));
     }
 
     /**
@@ -99,9 +94,7 @@ public final class FixtureBuilder
         {
             vec2s[i] = points[i].toVec2();
         }
-        PolygonShape polygonShape = new PolygonShape();
-        polygonShape.set(vec2s, vec2s.length);
-        return new FixtureData(polygonShape);
+        return new FixtureData(ShapePrototypes.polygon(vec2s));
     }
 
     /**
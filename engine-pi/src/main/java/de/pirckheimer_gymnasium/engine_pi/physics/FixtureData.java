@@ -85,6 +85,16 @@ public class FixtureData
         this.restitution = restitution;
     }
 
+    /**
+     * Gibt die Form dieser Halterung zurück.
+     *
+     * <p>
+     * Die Form kann mit anderen Halterungen geteilt werden (siehe
+     * {@link ShapePrototypes}) und darf daher nicht verändert werden.
+     * </p>
+     *
+     * @return Die Form dieser Halterung.
+     */
     public Shape getShape()
     {
         return shape;
@@ -140,6 +150,18 @@ public class FixtureData
      */
     private Filter filter = new Filter();
 
+    /**
+     * Die Halterungsdaten, aus denen diese Daten ursprünglich erzeugt wurden.
+     * Wird als Benutzerdaten an die JBox2D-Fixture gehängt, damit sich eine
+     * Fixture auch nach dem Kopieren über {@link #fromFixture(Fixture)} (z. B.
+     * beim Ab- und wieder Anmelden der Figur) ihrer ursprünglichen Halterung
+     * zuordnen lässt.
+     *
+     * @see PhysicsHandler#updateFixtures(java.util.Collection,
+     *     java.util.Collection, java.util.function.Supplier)
+     */
+    private FixtureData origin = this;
+
     /**
      * Generiert eine JBox2D Fixture-Definition, die den aktuellen Settings
      * dieser Fixture-Data entspricht.
@@ -157,6 +179,7 @@ public class FixtureData
         def.isSensor = isSensorSet ? isSensor : parent.getType().isSensor();
         def.filter = filter;
         def.shape = shape;
+        def.userData = origin;
         return def;
     }
 
@@ -179,6 +202,10 @@ public class FixtureData
         data.setSensor(fixture.isSensor);
         data.filter = fixture.filter; // TODO: Adapt Filter Line once Filter
                                       // is implemented
+        if (fixture.getUserData() instanceof FixtureData)
+        {
+            data.origin = (FixtureData) fixture.getUserData();
+        }
         return data;
     }
 }
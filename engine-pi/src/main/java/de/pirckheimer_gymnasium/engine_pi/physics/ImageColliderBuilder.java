@@ -0,0 +1,828 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.pirckheimer_gymnasium.engine_pi.Vector;
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+import de.pirckheimer_gymnasium.engine_pi.util.FileUtil;
+import de.pirckheimer_gymnasium.engine_pi.util.Logger;
+
+/**
+ * Erzeugt <b>Kollisionsformen aus dem Alphakanal</b> eines Bildes.
+ *
+ * <p>
+ * Die Pixel, deren Deckkraft mindestens den {@link #setAlphaThreshold(int)
+ * Schwellwert} erreicht, bilden die Form. Für jede zusammenhängende Pixelgruppe
+ * wird der äußere Umriss verfolgt, mit dem Ramer-Douglas-Peucker-Verfahren
+ * vereinfacht und anschließend in konvexe Vielecke mit höchstens
+ * {@link #setMaxVertices(int) 20 Ecken} zerlegt, wie sie JBox2D verlangt.
+ * Löcher im Bild werden dabei gefüllt.
+ * </p>
+ *
+ * <p>
+ * Da die Berechnung bei großen Bildern spürbar dauert, werden die Vielecke in
+ * einem {@link #setCacheDirectory(Path) Verzeichnis} zwischengespeichert. Der
+ * Dateiname ist ein Hashwert aus dem Alphakanal des Bildes und den
+ * Einstellungen, sodass nach dem ersten Start nur noch die Datei gelesen wird.
+ * </p>
+ *
+ * @author Josef Friedrich
+ *
+ * @see de.pirckheimer_gymnasium.engine_pi.actor.Image#setFixturesFromAlpha()
+ */
+public final class ImageColliderBuilder
+{
+    /**
+     * Die Version des Dateiformats im Zwischenspeicher. Ändert sich das
+     * Verfahren, ergibt sich so ein neuer Hashwert.
+     */
+    private static final int CACHE_VERSION = 1;
+
+    /**
+     * Vielecke mit einer kleineren Fläche in Quadratpixeln werden verworfen.
+     */
+    private static final double MIN_AREA = 0.5;
+
+    private int alphaThreshold = 128;
+
+    private double tolerance = 1.5;
+
+    private int maxVertices = 20;
+
+    private int minPixels = 4;
+
+    private Path cacheDirectory = Paths.get(FileUtil.getHome(), ".engine-pi",
+            "colliders");
+
+    /**
+     * Setzt die Deckkraft, ab der ein Pixel zur Form gehört.
+     *
+     * @param alphaThreshold Die Deckkraft von 1 bis 255.
+     *
+     * @return Eine Instanz dieses Objekts, damit das Objekt über verkettete
+     *     Setter konfiguriert werden kann.
+     */
+    @API
+    public ImageColliderBuilder setAlphaThreshold(int alphaThreshold)
+    {
+        if (alphaThreshold < 1 || alphaThreshold > 255)
+        {
+            throw new IllegalArgumentException(
+                    "Der Schwellwert muss zwischen 1 und 255 liegen, war "
+                            + alphaThreshold);
+        }
+        this.alphaThreshold = alphaThreshold;
+        return this;
+    }
+
+    /**
+     * Setzt, wie weit der vereinfachte Umriss höchstens vom Pixelumriss
+     * abweichen darf.
+     *
+     * @param tolerance Die Abweichung in Pixeln.
+     *
+     * @return Eine Instanz dieses Objekts, damit das Objekt über verkettete
+     *     Setter konfiguriert werden kann.
+     */
+    @API
+    public ImageColliderBuilder setTolerance(double tolerance)
+    {
+        if (tolerance < 0)
+        {
+            throw new IllegalArgumentException(
+                    "Die Toleranz darf nicht negativ sein, war " + tolerance);
+        }
+        this.tolerance = tolerance;
+        return this;
+    }
+
+    /**
+     * Setzt die maximale Anzahl an Ecken eines konvexen Teilvielecks.
+     *
+     * @param maxVertices Die Anzahl von 3 bis 20.
+     *
+     * @return Eine Instanz dieses Objekts, damit das Objekt über verkettete
+     *     Setter konfiguriert werden kann.
+     */
+    @API
+    public ImageColliderBuilder setMaxVertices(int maxVertices)
+    {
+        if (maxVertices < 3 || maxVertices > 20)
+        {
+            throw new IllegalArgumentException(
+                    "Die Anzahl an Ecken muss zwischen 3 und 20 liegen, war "
+                            + maxVertices);
+        }
+        this.maxVertices = maxVertices;
+        return this;
+    }
+
+    /**
+     * Setzt die Mindestanzahl an Pixeln, damit eine zusammenhängende
+     * Pixelgruppe eine Form erhält. Kleinere Gruppen gelten als Rauschen.
+     *
+     * @return Eine Instanz dieses Objekts, damit das Objekt über verkettete
+     *     Setter konfiguriert werden kann.
+     */
+    @API
+    public ImageColliderBuilder setMinPixels(int minPixels)
+    {
+        this.minPixels = Math.max(1, minPixels);
+        return this;
+    }
+
+    /**
+     * Setzt das Verzeichnis, in dem die berechneten Vielecke
+     * zwischengespeichert werden. Standardmäßig ist das
+     * {@code ~/.engine-pi/colliders}.
+     *
+     * @param cacheDirectory Das Verzeichnis oder <code>null</code>, um nichts
+     *     zwischenzuspeichern.
+     *
+     * @return Eine Instanz dieses Objekts, damit das Objekt über verkettete
+     *     Setter konfiguriert werden kann.
+     */
+    @API
+    public ImageColliderBuilder setCacheDirectory(Path cacheDirectory)
+    {
+        this.cacheDirectory = cacheDirectory;
+        return this;
+    }
+
+    @API
+    public Path getCacheDirectory()
+    {
+        return cacheDirectory;
+    }
+
+    /**
+     * Erzeugt die Kollisionsformen für ein Bild, das mit der angegebenen Größe
+     * dargestellt wird.
+     *
+     * @param image Das Bild.
+     * @param width Die Breite der Figur in Meter.
+     * @param height Die Höhe der Figur in Meter.
+     *
+     * @return Die konvexen Formen. Ist das Bild vollständig durchsichtig, ist
+     *     die Liste leer.
+     */
+    @API
+    public List<FixtureData> build(BufferedImage image, double width,
+            double height)
+    {
+        double scaleX = width / image.getWidth();
+        double scaleY = height / image.getHeight();
+        List<FixtureData> fixtures = new ArrayList<>();
+        for (double[] polygon : computePolygons(image))
+        {
+            // Die y-Achse zeigt im Bild nach unten, in der Welt nach oben.
+            // Damit die Ecken gegen den Uhrzeigersinn laufen, wird die
+            // Reihenfolge umgedreht.
+            int count = polygon.length / 2;
+            Vector[] points = new Vector[count];
+            for (int i = 0; i < count; i++)
+            {
+                int j = count - 1 - i;
+                points[i] = new Vector(polygon[2 * j] * scaleX,
+                        (image.getHeight() - polygon[2 * j + 1]) * scaleY);
+            }
+            fixtures.add(FixtureBuilder.polygon(points));
+        }
+        return fixtures;
+    }
+
+    /**
+     * Berechnet die konvexen Vielecke eines Bildes in Pixelkoordinaten oder
+     * liest sie aus dem Zwischenspeicher.
+     *
+     * @return Die Vielecke, jeweils als Folge von x- und y-Koordinaten.
+     */
+    List<double[]> computePolygons(BufferedImage image)
+    {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] argb = image.getRGB(0, 0, width, height, null, 0, width);
+        Path cacheFile = null;
+        if (cacheDirectory != null)
+        {
+            cacheFile = cacheDirectory.resolve(hash(argb, width) + ".txt");
+            List<double[]> cached = readCache(cacheFile);
+            if (cached != null)
+            {
+                return cached;
+            }
+        }
+        boolean[] solid = new boolean[argb.length];
+        for (int i = 0; i < argb.length; i++)
+        {
+            solid[i] = (argb[i] >>> 24) >= alphaThreshold;
+        }
+        List<double[]> polygons = new ArrayList<>();
+        for (int[] contour : traceContours(solid, width, height, minPixels))
+        {
+            double[] outline = new double[contour.length];
+            for (int i = 0; i < contour.length; i++)
+            {
+                outline[i] = contour[i];
+            }
+            polygons.addAll(
+                    decompose(simplify(outline, tolerance), maxVertices));
+        }
+        if (cacheFile != null)
+        {
+            writeCache(cacheFile, polygons);
+        }
+        return polygons;
+    }
+
+    /**
+     * Bildet einen Hashwert aus dem Alphakanal und den Einstellungen.
+     */
+    private String hash(int[] argb, int width)
+    {
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] alpha = new byte[argb.length];
+            for (int i = 0; i < argb.length; i++)
+            {
+                alpha[i] = (byte) (argb[i] >>> 24);
+            }
+            digest.update(alpha);
+            digest.update((CACHE_VERSION + ":" + width + ":" + alphaThreshold
+                    + ":" + tolerance + ":" + maxVertices + ":" + minPixels)
+                    .getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest())
+            {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<double[]> readCache(Path file)
+    {
+        if (!Files.isRegularFile(file))
+        {
+            return null;
+        }
+        try
+        {
+            List<double[]> polygons = new ArrayList<>();
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8))
+            {
+                if (line.isBlank())
+                {
+                    continue;
+                }
+                String[] values = line.trim().split(" ");
+                double[] polygon = new double[values.length];
+                for (int i = 0; i < values.length; i++)
+                {
+                    polygon[i] = Double.parseDouble(values[i]);
+                }
+                polygons.add(polygon);
+            }
+            return polygons;
+        }
+        catch (IOException | NumberFormatException e)
+        {
+            Logger.warning(
+                    "Zwischenspeicher " + file
+                            + " konnte nicht gelesen werden: " + e.getMessage(),
+                    "Kollisionsformen");
+            return null;
+        }
+    }
+
+    private static void writeCache(Path file, List<double[]> polygons)
+    {
+        StringBuilder content = new StringBuilder();
+        for (double[] polygon : polygons)
+        {
+            for (int i = 0; i < polygon.length; i++)
+            {
+                if (i > 0)
+                {
+                    content.append(' ');
+                }
+                content.append(polygon[i]);
+            }
+            content.append('\n');
+        }
+        try
+        {
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, content, StandardCharsets.UTF_8);
+        }
+        catch (IOException e)
+        {
+            Logger.warning("Zwischenspeicher " + file
+                    + " konnte nicht geschrieben werden: " + e.getMessage(),
+                    "Kollisionsformen");
+        }
+    }
+
+    /**
+     * Verfolgt den äußeren Umriss jeder zusammenhängenden Pixelgruppe
+     * (Vierer-Nachbarschaft) entlang der Pixelkanten.
+     *
+     * @param solid Für jedes Pixel zeilenweise, ob es zur Form gehört.
+     * @param width Die Breite des Bildes in Pixeln.
+     * @param height Die Höhe des Bildes in Pixeln.
+     * @param minPixels Die Mindestgröße einer Pixelgruppe.
+     *
+     * @return Die Umrisse als Folge von x- und y-Koordinaten der Pixelecken. Es
+     *     werden nur die Ecken aufgenommen, an denen der Umriss abbiegt.
+     */
+    static List<int[]> traceContours(boolean[] solid, int width, int height,
+            int minPixels)
+    {
+        List<int[]> contours = new ArrayList<>();
+        boolean[] labeled = new boolean[solid.length];
+        int[] queue = new int[solid.length];
+        for (int start = 0; start < solid.length; start++)
+        {
+            if (!solid[start] || labeled[start])
+            {
+                continue;
+            }
+            // Breitensuche markiert die ganze Pixelgruppe. Das erste Pixel in
+            // Zeilenreihenfolge liegt immer auf dem äußeren Umriss.
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            labeled[start] = true;
+            while (head < tail)
+            {
+                int index = queue[head++];
+                int x = index % width;
+                int y = index / width;
+                if (x > 0 && solid[index - 1] && !labeled[index - 1])
+                {
+                    labeled[index - 1] = true;
+                    queue[tail++] = index - 1;
+                }
+                if (x < width - 1 && solid[index + 1] && !labeled[index + 1])
+                {
+                    labeled[index + 1] = true;
+                    queue[tail++] = index + 1;
+                }
+                if (y > 0 && solid[index - width] && !labeled[index - width])
+                {
+                    labeled[index - width] = true;
+                    queue[tail++] = index - width;
+                }
+                if (y < height - 1 && solid[index + width]
+                        && !labeled[index + width])
+                {
+                    labeled[index + width] = true;
+                    queue[tail++] = index + width;
+                }
+            }
+            if (tail >= minPixels)
+            {
+                contours.add(traceContour(solid, width, height, start % width,
+                        start / width));
+            }
+        }
+        return contours;
+    }
+
+    private static boolean isSolid(boolean[] solid, int width, int height,
+            int x, int y)
+    {
+        return x >= 0 && y >= 0 && x < width && y < height
+                && solid[y * width + x];
+    }
+
+    /**
+     * Läuft ausgehend von der linken oberen Ecke eines Pixels so entlang der
+     * Pixelkanten, dass die Form immer rechts liegt.
+     */
+    private static int[] traceContour(boolean[] solid, int width, int height,
+            int startX, int startY)
+    {
+        List<Integer> vertices = new ArrayList<>();
+        int x = startX;
+        int y = startY;
+        int dx = 1;
+        int dy = 0;
+        do
+        {
+            x += dx;
+            y += dy;
+            // Rechts von der Laufrichtung (die y-Achse zeigt nach unten)
+            int rx = -dy;
+            int ry = dx;
+            boolean aheadRight = isPixelSolid(solid, width, height, x, y,
+                    dx + rx, dy + ry);
+            boolean aheadLeft = isPixelSolid(solid, width, height, x, y,
+                    dx - rx, dy - ry);
+            if (!aheadRight)
+            {
+                dx = rx;
+                dy = ry;
+                vertices.add(x);
+                vertices.add(y);
+            }
+            else if (aheadLeft)
+            {
+                dx = -rx;
+                dy = -ry;
+                vertices.add(x);
+                vertices.add(y);
+            }
+        }
+        while (x != startX || y != startY || dx != 1 || dy != 0);
+        int[] contour = new int[vertices.size()];
+        for (int i = 0; i < contour.length; i++)
+        {
+            contour[i] = vertices.get(i);
+        }
+        return contour;
+    }
+
+    /**
+     * Prüft das Pixel, das von der Pixelecke {@code (x|y)} aus im Quadranten
+     * {@code (qx|qy)} liegt.
+     */
+    private static boolean isPixelSolid(boolean[] solid, int width, int height,
+            int x, int y, int qx, int qy)
+    {
+        return isSolid(solid, width, height, qx > 0 ? x : x - 1,
+                qy > 0 ? y : y - 1);
+    }
+
+    /**
+     * Vereinfacht einen geschlossenen Umriss mit dem
+     * Ramer-Douglas-Peucker-Verfahren.
+     *
+     * @param polygon Der Umriss als Folge von x- und y-Koordinaten.
+     * @param tolerance Die maximale Abweichung.
+     *
+     * @return Der vereinfachte Umriss.
+     */
+    static double[] simplify(double[] polygon, double tolerance)
+    {
+        int count = polygon.length / 2;
+        if (count <= 3)
+        {
+            return polygon;
+        }
+        // Der geschlossene Umriss wird am ersten und am davon am weitesten
+        // entfernten Punkt in zwei offene Linienzüge geteilt.
+        int far = 0;
+        double farDistance = -1;
+        for (int i = 1; i < count; i++)
+        {
+            double ddx = polygon[2 * i] - polygon[0];
+            double ddy = polygon[2 * i + 1] - polygon[1];
+            double distance = ddx * ddx + ddy * ddy;
+            if (distance > farDistance)
+            {
+                far = i;
+                farDistance = distance;
+            }
+        }
+        boolean[] keep = new boolean[count + 1];
+        keep[0] = true;
+        keep[far] = true;
+        keep[count] = true;
+        simplify(polygon, count, 0, far, tolerance, keep);
+        simplify(polygon, count, far, count, tolerance, keep);
+        List<Double> result = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+        {
+            if (keep[i])
+            {
+                result.add(polygon[2 * i]);
+                result.add(polygon[2 * i + 1]);
+            }
+        }
+        double[] simplified = new double[result.size()];
+        for (int i = 0; i < simplified.length; i++)
+        {
+            simplified[i] = result.get(i);
+        }
+        return simplified.length >= 6 ? simplified : polygon;
+    }
+
+    private static void simplify(double[] polygon, int count, int from, int to,
+            double tolerance, boolean[] keep)
+    {
+        if (to - from < 2)
+        {
+            return;
+        }
+        double ax = polygon[2 * from];
+        double ay = polygon[2 * from + 1];
+        double bx = polygon[2 * (to % count)];
+        double by = polygon[2 * (to % count) + 1];
+        double length = Math.hypot(bx - ax, by - ay);
+        int index = -1;
+        double maxDistance = tolerance;
+        for (int i = from + 1; i < to; i++)
+        {
+            double px = polygon[2 * i];
+            double py = polygon[2 * i + 1];
+            double distance = length == 0 ? Math.hypot(px - ax, py - ay)
+                    : Math.abs((bx - ax) * (ay - py) - (ax - px) * (by - ay))
+                            / length;
+            if (distance > maxDistance)
+            {
+                index = i;
+                maxDistance = distance;
+            }
+        }
+        if (index >= 0)
+        {
+            keep[index] = true;
+            simplify(polygon, count, from, index, tolerance, keep);
+            simplify(polygon, count, index, to, tolerance, keep);
+        }
+    }
+
+    /**
+     * Zerlegt ein einfaches Vieleck in konvexe Teilvielecke. Zunächst wird es
+     * durch Abschneiden von Ohren trianguliert, danach werden benachbarte Teile
+     * zusammengelegt, solange das Ergebnis konvex bleibt und höchstens
+     * {@code maxVertices} Ecken hat (Hertel-Mehlhorn).
+     *
+     * @param polygon Das Vieleck als Folge von x- und y-Koordinaten.
+     * @param maxVertices Die maximale Anzahl an Ecken eines Teilvielecks.
+     *
+     * @return Die konvexen Teilvielecke gegen den Uhrzeigersinn im
+     *     mathematischen Sinn.
+     */
+    static List<double[]> decompose(double[] polygon, int maxVertices)
+    {
+        int count = polygon.length / 2;
+        List<double[]> result = new ArrayList<>();
+        if (count < 3)
+        {
+            return result;
+        }
+        double[] points = polygon;
+        if (signedArea(polygon) < 0)
+        {
+            points = new double[polygon.length];
+            for (int i = 0; i < count; i++)
+            {
+                points[2 * i] = polygon[2 * (count - 1 - i)];
+                points[2 * i + 1] = polygon[2 * (count - 1 - i) + 1];
+            }
+        }
+        List<int[]> parts = triangulate(points);
+        merge(points, parts, maxVertices);
+        for (int[] part : parts)
+        {
+            if (part == null)
+            {
+                continue;
+            }
+            double[] coordinates = new double[part.length * 2];
+            for (int i = 0; i < part.length; i++)
+            {
+                coordinates[2 * i] = points[2 * part[i]];
+                coordinates[2 * i + 1] = points[2 * part[i] + 1];
+            }
+            if (signedArea(coordinates) >= MIN_AREA)
+            {
+                result.add(coordinates);
+            }
+        }
+        return result;
+    }
+
+    static double signedArea(double[] polygon)
+    {
+        int count = polygon.length / 2;
+        double area = 0;
+        for (int i = 0; i < count; i++)
+        {
+            int j = (i + 1) % count;
+            area += polygon[2 * i] * polygon[2 * j + 1]
+                    - polygon[2 * j] * polygon[2 * i + 1];
+        }
+        return area / 2;
+    }
+
+    private static double cross(double[] points, int a, int b, int c)
+    {
+        return (points[2 * b] - points[2 * a])
+                * (points[2 * c + 1] - points[2 * a + 1])
+                - (points[2 * b + 1] - points[2 * a + 1])
+                        * (points[2 * c] - points[2 * a]);
+    }
+
+    /**
+     * Trianguliert ein Vieleck gegen den Uhrzeigersinn durch Abschneiden von
+     * Ohren.
+     */
+    private static List<int[]> triangulate(double[] points)
+    {
+        int count = points.length / 2;
+        List<Integer> remaining = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+        {
+            remaining.add(i);
+        }
+        List<int[]> triangles = new ArrayList<>(count - 2);
+        while (remaining.size() > 3)
+        {
+            int size = remaining.size();
+            int ear = -1;
+            for (int i = 0; i < size && ear < 0; i++)
+            {
+                int a = remaining.get((i + size - 1) % size);
+                int b = remaining.get(i);
+                int c = remaining.get((i + 1) % size);
+                if (cross(points, a, b, c) <= 0)
+                {
+                    continue;
+                }
+                boolean empty = true;
+                for (int k = 0; k < size && empty; k++)
+                {
+                    int p = remaining.get(k);
+                    if (p != a && p != b && p != c
+                            && cross(points, a, b, p) >= 0
+                            && cross(points, b, c, p) >= 0
+                            && cross(points, c, a, p) >= 0)
+                    {
+                        empty = false;
+                    }
+                }
+                if (empty)
+                {
+                    ear = i;
+                }
+            }
+            if (ear < 0)
+            {
+                // Nur bei entarteten Umrissen: Ecke trotzdem abschneiden,
+                // damit das Verfahren endet.
+                ear = 0;
+            }
+            int a = remaining.get((ear + size - 1) % size);
+            int b = remaining.get(ear);
+            int c = remaining.get((ear + 1) % size);
+            if (cross(points, a, b, c) > 0)
+            {
+                triangles.add(new int[] { a, b, c });
+            }
+            remaining.remove(ear);
+        }
+        if (cross(points, remaining.get(0), remaining.get(1),
+                remaining.get(2)) > 0)
+        {
+            triangles
+                    .add(new int[]
+                    { remaining.get(0), remaining.get(1), remaining.get(2) });
+        }
+        return triangles;
+    }
+
+    private static long edgeKey(int from, int to)
+    {
+        return ((long) from << 32) | (to & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Legt benachbarte Teile zusammen, solange das Ergebnis konvex bleibt.
+     */
+    private static void merge(double[] points, List<int[]> parts,
+            int maxVertices)
+    {
+        Map<Long, Integer> owners = new HashMap<>();
+        for (int i = 0; i < parts.size(); i++)
+        {
+            register(owners, parts.get(i), i);
+        }
+        for (int i = 0; i < parts.size(); i++)
+        {
+            boolean merged = true;
+            while (merged && parts.get(i) != null)
+            {
+                merged = false;
+                int[] part = parts.get(i);
+                for (int k = 0; k < part.length && !merged; k++)
+                {
+                    int a = part[k];
+                    int b = part[(k + 1) % part.length];
+                    Integer j = owners.get(edgeKey(b, a));
+                    if (j == null || j == i)
+                    {
+                        continue;
+                    }
+                    int[] other = parts.get(j);
+                    if (part.length + other.length - 2 > maxVertices)
+                    {
+                        continue;
+                    }
+                    int[] union = union(part, k, other, a, b);
+                    if (isConvex(points, union))
+                    {
+                        unregister(owners, part);
+                        unregister(owners, other);
+                        parts.set(j, null);
+                        parts.set(i, union);
+                        register(owners, union, i);
+                        merged = true;
+                    }
+                }
+            }
+        }
+    }
+
+    private static void register(Map<Long, Integer> owners, int[] part,
+            int index)
+    {
+        for (int k = 0; k < part.length; k++)
+        {
+            owners.put(edgeKey(part[k], part[(k + 1) % part.length]), index);
+        }
+    }
+
+    private static void unregister(Map<Long, Integer> owners, int[] part)
+    {
+        for (int k = 0; k < part.length; k++)
+        {
+            owners.remove(edgeKey(part[k], part[(k + 1) % part.length]));
+        }
+    }
+
+    /**
+     * Vereinigt zwei Teile, die die Kante {@code a → b} bzw. {@code b → a}
+     * gemeinsam haben.
+     */
+    private static int[] union(int[] part, int edge, int[] other, int a, int b)
+    {
+        int[] union = new int[part.length + other.length - 2];
+        int n = 0;
+        // Von b vorwärts bis a im ersten Teil
+        for (int k = 0; k < part.length; k++)
+        {
+            union[n++] = part[(edge + 1 + k) % part.length];
+        }
+        // Nach a weiter im zweiten Teil bis vor b
+        int start = 0;
+        while (other[start] != a)
+        {
+            start++;
+        }
+        for (int k = 1; k < other.length - 1; k++)
+        {
+            union[n++] = other[(start + k) % other.length];
+        }
+        return union;
+    }
+
+    private static boolean isConvex(double[] points, int[] part)
+    {
+        for (int k = 0; k < part.length; k++)
+        {
+            if (cross(points, part[k], part[(k + 1) % part.length],
+                    part[(k + 2) % part.length]) < 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -25,6 +25,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import de.pirckheimer_gymnasium.jbox2d.collision.AABB;
@@ -35,6 +36,7 @@ import de.pirckheimer_gymnasium.engine_pi.Vector;
 import de.pirckheimer_gymnasium.engine_pi.actor.Actor;
 import de.pirckheimer_gymnasium.engine_pi.actor.BodyType;
 import de.pirckheimer_gymnasium.engine_pi.event.CollisionEvent;
+import de.pirckheimer_gymnasium.engine_pi.event.ContactVisitor;
 
 /**
  * Eine Steuerungsklasse für Operationen an {@link Actor}-Objekten, die an
@@ -48,6 +50,8 @@ public class NullHandler implements PhysicsHandler
 
     private final Collection<Consumer<PhysicsHandler>> mountCallbacks = new ArrayList<>();
 
+    private boolean active = true;
+
     public NullHandler(PhysicsData physicsData)
     {
         this.physicsData = physicsData;
@@ -60,6 +64,19 @@ public class NullHandler implements PhysicsHandler
         this.physicsData.setY(this.physicsData.getY() + v.getY());
     }
 
+    @Override
+    public void setPosition(double x, double y)
+    {
+        if (!Double.isNaN(x))
+        {
+            this.physicsData.setX(x);
+        }
+        if (!Double.isNaN(y))
+        {
+            this.physicsData.setY(y);
+        }
+    }
+
     @Override
     public Vector getCenter()
     {
@@ -320,6 +337,13 @@ public class NullHandler implements PhysicsHandler
         physicsData.setFixtures(shapes);
     }
 
+    @Override
+    public void updateFixtures(Collection<FixtureData> removed,
+            Collection<FixtureData> added, Supplier<List<FixtureData>> fixtures)
+    {
+        physicsData.setFixtures(fixtures);
+    }
+
     @Override
     public PhysicsData getPhysicsData()
     {
@@ -329,6 +353,11 @@ public class NullHandler implements PhysicsHandler
     @Override
     public void applyMountCallbacks(PhysicsHandler otherHandler)
     {
+        if (!active)
+        {
+            // Körper sind beim Anmelden aktiv, nur der letzte Zustand zählt.
+            otherHandler.setActive(false);
+        }
         for (Consumer<PhysicsHandler> mountCallback : mountCallbacks)
         {
             mountCallback.accept(otherHandler);
@@ -342,6 +371,18 @@ public class NullHandler implements PhysicsHandler
         return Collections.emptyList();
     }
 
+    @Override
+    public boolean forEachContact(ContactVisitor visitor)
+    {
+        return true;
+    }
+
+    @Override
+    public int countContacts(Predicate<Actor> predicate)
+    {
+        return 0;
+    }
+
     /**
      * Legt den Schlafzustand des Körpers fest. Ein schlafender Körper hat sehr
      * geringe CPU-Kosten.
@@ -358,4 +399,22 @@ public class NullHandler implements PhysicsHandler
     {
         // Mache nichts
     }
+
+    @Override
+    public void setActive(boolean value)
+    {
+        active = value;
+    }
+
+    @Override
+    public boolean isActive()
+    {
+        return active;
+    }
+
+    @Override
+    public void edit(PhysicsEdit edit)
+    {
+        edit.applyTo(physicsData);
+    }
 }
@@ -0,0 +1,53 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+
+/**
+ * Die Physik-Engine, mit der eine Ebene ihre Figuren simuliert.
+ *
+ * @author Josef Friedrich
+ *
+ * @see de.pirckheimer_gymnasium.engine_pi.Layer#setPhysicsBackend(PhysicsBackend)
+ */
+@API
+public enum PhysicsBackend
+{
+    /**
+     * Jede Figur wird ein starrer Körper in JBox2D. Unterstützt beliebige
+     * Formen, Drehungen, Gelenke und Abfragen wie Raycasts.
+     */
+    JBOX2D,
+
+    /**
+     * Eine einfache Arcade-Physik mit achsenparallelen Rechtecken und Kreisen.
+     * Geschwindigkeiten werden integriert und Überlappungen in einem einzigen
+     * Durchgang aufgelöst, ohne Löser-Iterationen. Ein Körper kostet dadurch
+     * nur einen Bruchteil eines JBox2D-Körpers. Geeignet für Spiele, die nur
+     * Überlappungen und einfaches Abprallen brauchen, z. B. Spiele auf einem
+     * Raster oder Top-Down-Shooter.
+     *
+     * <p>
+     * Nicht unterstützt werden Gelenke, gedrehte Kollisionsformen, Raycasts,
+     * Flächenabfragen und Schnappschüsse.
+     * </p>
+     */
+    ARCADE
+}
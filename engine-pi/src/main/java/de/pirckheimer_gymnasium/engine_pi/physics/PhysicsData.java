@@ -178,9 +178,9 @@ public class PhysicsData
     Body createBody(WorldHandler world, Actor actor)
     {
         Body body = world.createBody(createBodyDef(), actor);
-        for (FixtureDef fixtureDef : createFixtureDefs())
+        for (FixtureData fixtureData : getFixtures().get())
         {
-            body.createFixture(fixtureDef);
+            body.createFixture(fixtureData.createFixtureDef(this));
         }
         return body;
     }
@@ -0,0 +1,246 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import java.util.Objects;
+
+import de.pirckheimer_gymnasium.engine_pi.actor.BodyType;
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+
+/**
+ * Sammelt <b>mehrere Änderungen</b> an den physikalischen Eigenschaften einer
+ * Figur, die anschließend in einem einzigen Durchgang übernommen werden.
+ *
+ * <p>
+ * Statt für jede Eigenschaft einzeln die Halterungen zu durchlaufen, die Welt
+ * zu sperren und die Masse neu zu berechnen, geschieht dies beim Übernehmen nur
+ * einmal. Das lohnt sich vor allem, wenn beim Laden eines Levels tausende
+ * Figuren eingerichtet werden.
+ * </p>
+ *
+ * <pre>{@code
+ * actor.edit(e -> e.density(2).friction(0.3).type(BodyType.DYNAMIC));
+ * }</pre>
+ *
+ * @author Josef Friedrich
+ *
+ * @see de.pirckheimer_gymnasium.engine_pi.actor.Actor#edit(java.util.function.Consumer)
+ */
+public final class PhysicsEdit
+{
+    double density;
+
+    boolean isDensitySet = false;
+
+    double friction;
+
+    boolean isFrictionSet = false;
+
+    double elasticity;
+
+    boolean isElasticitySet = false;
+
+    BodyType type;
+
+    double gravityScale;
+
+    boolean isGravityScaleSet = false;
+
+    double linearDamping;
+
+    boolean isLinearDampingSet = false;
+
+    double angularDamping;
+
+    boolean isAngularDampingSet = false;
+
+    boolean rotationLocked;
+
+    boolean isRotationLockedSet = false;
+
+    /**
+     * Setzt die Dichte in <b>[kg/m^2]</b>.
+     *
+     * @return Eine Instanz dieses Objekts, damit das Objekt über verkettete
+     *     Setter konfiguriert werden kann.
+     */
+    @API
+    public PhysicsEdit density(double density)
+    {
+        if (density <= 0)
+        {
+            throw new IllegalArgumentException(
+                    "Dichte kann nicht kleiner als 0 sein. Eingabe war "
+                            + density + ".");
+        }
+        this.density = density;
+        isDensitySet = true;
+        return this;
+    }
+
+    /**
+     * Setzt den Reibungskoeffizienten.
+     *
+     * @return Eine Instanz dieses Objekts, damit das Objekt über verkettete
+     *     Setter konfiguriert werden kann.
+     */
+    @API
+    public PhysicsEdit friction(double friction)
+    {
+        this.friction = friction;
+        isFrictionSet = true;
+        return this;
+    }
+
+    /**
+     * Setzt die Stoßzahl.
+     *
+     * @return Eine Instanz dieses Objekts, damit das Objekt über verkettete
+     *     Setter konfiguriert werden kann.
+     */
+    @API
+    public PhysicsEdit elasticity(double elasticity)
+    {
+        if (Double.isNaN(elasticity))
+        {
+            throw new IllegalArgumentException(
+                    "Ungültige Stoßzahl: " + elasticity);
+        }
+        this.elasticity = elasticity;
+        isElasticitySet = true;
+        return this;
+    }
+
+    /**
+     * Setzt den {@link BodyType}.
+     *
+     * @return Eine Instanz dieses Objekts, damit das Objekt über verkettete
+     *     Setter konfiguriert werden kann.
+     */
+    @API
+    public PhysicsEdit type(BodyType type)
+    {
+        this.type = Objects.requireNonNull(type, "Typ darf nicht null sein");
+        return this;
+    }
+
+    /**
+     * Setzt den Faktor, mit dem die Schwerkraft auf die Figur wirkt.
+     *
+     * @return Eine Instanz dieses Objekts, damit das Objekt über verkettete
+     *     Setter konfiguriert werden kann.
+     */
+    @API
+    public PhysicsEdit gravityScale(double factor)
+    {
+        this.gravityScale = factor;
+        isGravityScaleSet = true;
+        return this;
+    }
+
+    /**
+     * Setzt die Dämpfung der Geschwindigkeit.
+     *
+     * @return Eine Instanz dieses Objekts, damit das Objekt über verkettete
+     *     Setter konfiguriert werden kann.
+     */
+    @API
+    public PhysicsEdit linearDamping(double damping)
+    {
+        this.linearDamping = damping;
+        isLinearDampingSet = true;
+        return this;
+    }
+
+    /**
+     * Setzt die Dämpfung der Drehgeschwindigkeit.
+     *
+     * @return Eine Instanz dieses Objekts, damit das Objekt über verkettete
+     *     Setter konfiguriert werden kann.
+     */
+    @API
+    public PhysicsEdit angularDamping(double damping)
+    {
+        this.angularDamping = damping;
+        isAngularDampingSet = true;
+        return this;
+    }
+
+    /**
+     * Legt fest, ob sich die Figur in der Simulation drehen kann.
+     *
+     * @return Eine Instanz dieses Objekts, damit das Objekt über verkettete
+     *     Setter konfiguriert werden kann.
+     */
+    @API
+    public PhysicsEdit rotationLocked(boolean rotationLocked)
+    {
+        this.rotationLocked = rotationLocked;
+        isRotationLockedSet = true;
+        return this;
+    }
+
+    /**
+     * Gibt an, ob eine Eigenschaft geändert wurde, die die Masse beeinflusst.
+     */
+    boolean affectsMass()
+    {
+        return isDensitySet || type != null || isRotationLockedSet;
+    }
+
+    /**
+     * Übernimmt die Änderungen in die gespeicherten Eigenschaften einer noch
+     * nicht angemeldeten Figur.
+     */
+    void applyTo(PhysicsData physicsData)
+    {
+        if (isDensitySet)
+        {
+            physicsData.setGlobalDensity(density);
+        }
+        if (isFrictionSet)
+        {
+            physicsData.setGlobalFriction(friction);
+        }
+        if (isElasticitySet)
+        {
+            physicsData.setGlobalRestitution(elasticity);
+        }
+        if (type != null)
+        {
+            physicsData.setType(type);
+        }
+        if (isGravityScaleSet)
+        {
+            physicsData.setGravityScale(gravityScale);
+        }
+        if (isLinearDampingSet)
+        {
+            physicsData.setLinearDamping(linearDamping);
+        }
+        if (isAngularDampingSet)
+        {
+            physicsData.setAngularDamping(angularDamping);
+        }
+        if (isRotationLockedSet)
+        {
+            physicsData.setRotationLocked(rotationLocked);
+        }
+    }
+}
@@ -20,7 +20,9 @@
  */
 package de.pirckheimer_gymnasium.engine_pi.physics;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import de.pirckheimer_gymnasium.jbox2d.dynamics.Body;
@@ -30,6 +32,7 @@ import de.pirckheimer_gymnasium.engine_pi.actor.Actor;
 import de.pirckheimer_gymnasium.engine_pi.actor.BodyType;
 import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
 import de.pirckheimer_gymnasium.engine_pi.event.CollisionEvent;
+import de.pirckheimer_gymnasium.engine_pi.event.ContactVisitor;
 
 /**
  * Beschreibt allgemein ein Objekt, dass die physikalischen Eigenschaften eines
@@ -58,6 +61,20 @@ public interface PhysicsHandler
     @Internal
     void moveBy(Vector v);
 
+    /**
+     * Setzt die Position des Ziel-Objekts. Anders als bei einer Verschiebung um
+     * den Abstand zur aktuellen Position wird die aktuelle Position erst beim
+     * Ausführen gelesen. Werden mehrere Aufrufe während eines World-Steps
+     * eingereiht, gilt so die zuletzt gesetzte Position.
+     *
+     * @param x Die neue x-Koordinate oder {@link Double#NaN}, um die
+     *     x-Koordinate beizubehalten.
+     * @param y Die neue y-Koordinate oder {@link Double#NaN}, um die
+     *     y-Koordinate beizubehalten.
+     */
+    @Internal
+    void setPosition(double x, double y);
+
     /**
      * Gibt den <b>Gewichtsmittelpunkt</b> dieses {@link Actor}-Objekts aus.
      *
@@ -283,7 +300,7 @@ public interface PhysicsHandler
 
     /**
      * Testet, ob das Objekt unter sich festen Boden hat. Dies ist der Fall,
-     * wenn direkt unter dem Objekt ein passives Objekt liegt.<br>
+     * wenn das Objekt ein statisches Objekt berührt, das unter ihm liegt.<br>
      * Diese Methode geht bei <b>unten</b> explizit von "unterhalb der Y-Achse"
      * aus. Ein Objekt hat also Boden sich, wenn am "unteren" Ende seines Bodies
      * (=höchster Y-Wert) in unmittelbarer Nähe (heuristisch getestet) ein
@@ -305,6 +322,22 @@ public interface PhysicsHandler
     @Internal
     void setFixtures(Supplier<List<FixtureData>> fixtures);
 
+    /**
+     * Entfernt einzelne Fixtures und fügt neue hinzu, ohne die übrigen Fixtures
+     * neu zu erzeugen.
+     *
+     * @param removed Die zu entfernenden Fixtures. Verglichen wird über die
+     *     Identität der Halterungsdaten, aus denen die Fixtures erzeugt wurden.
+     * @param added Die hinzuzufügenden Fixtures.
+     * @param fixtures Alle Fixtures nach der Änderung als Supplier. Wird von
+     *     Handlern ohne JBox2D-Körper anstelle der einzelnen Änderungen
+     *     übernommen.
+     */
+    @Internal
+    void updateFixtures(Collection<FixtureData> removed,
+            Collection<FixtureData> added,
+            Supplier<List<FixtureData>> fixtures);
+
     /**
      * Gibt die Proxy-Daten des Actors aus.
      *
@@ -318,6 +351,26 @@ public interface PhysicsHandler
 
     List<CollisionEvent<Actor>> getCollisions();
 
+    /**
+     * Besucht alle aktuellen Berührungen, ohne Objekte zu erzeugen.
+     *
+     * @param visitor Der Besucher, der für jede Berührung aufgerufen wird.
+     *
+     * @return <code>false</code>, falls der Besucher den Durchlauf abgebrochen
+     *     hat, sonst <code>true</code>.
+     */
+    boolean forEachContact(ContactVisitor visitor);
+
+    /**
+     * Zählt die aktuellen Berührungen, deren andere Figur die Bedingung
+     * erfüllt, ohne Objekte zu erzeugen.
+     *
+     * @param predicate Die Bedingung für die andere Figur.
+     *
+     * @return Die Anzahl der passenden Berührungen.
+     */
+    int countContacts(Predicate<Actor> predicate);
+
     /**
      * Legt den Schlafzustand des Körpers fest. Ein schlafender Körper hat sehr
      * geringe CPU-Kosten.
@@ -330,4 +383,30 @@ public interface PhysicsHandler
      * @param value Der Schlafzustand des Körpers.
      */
     void setAwake(boolean value);
+
+    /**
+     * Aktiviert oder deaktiviert den Körper. Ein deaktivierter Körper nimmt
+     * nicht an der Simulation teil, kollidiert nicht und wird von Abfragen
+     * nicht gefunden. Seine Halterungen bleiben jedoch erhalten, sodass er ohne
+     * Neuaufbau wieder aktiviert werden kann.
+     *
+     * @param value <code>true</code>, um den Körper zu aktivieren,
+     *     <code>false</code>, um ihn zu deaktivieren.
+     */
+    void setActive(boolean value);
+
+    /**
+     * Gibt an, ob der Körper an der Simulation teilnimmt.
+     *
+     * @return <code>true</code>, falls der Körper aktiv ist.
+     */
+    boolean isActive();
+
+    /**
+     * Übernimmt mehrere gesammelte Änderungen in einem Durchgang. Die Masse
+     * wird dabei höchstens einmal neu berechnet.
+     *
+     * @param edit Die gesammelten Änderungen.
+     */
+    void edit(PhysicsEdit edit);
 }
@@ -0,0 +1,61 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+
+/**
+ * Eine <b>Momentaufnahme</b> der Kennzahlen einer Physik-Welt.
+ *
+ * <p>
+ * Die Zeiten beziehen sich auf das zuletzt simulierte Einzelbild, sind über
+ * alle Teilschritte summiert und in Sekunden angegeben. Ohne simulierten
+ * Teilschritt sind sie 0.
+ * </p>
+ *
+ * @param bodyCount Die Anzahl der Körper.
+ * @param awakeBodyCount Die Anzahl der Körper, die nicht schlafen.
+ * @param contactCount Die Anzahl der Kontakte, deren Hüllrechtecke sich
+ *     überlappen.
+ * @param touchingContactCount Die Anzahl der Kontakte, deren Körper sich
+ *     tatsächlich berühren.
+ * @param jointCount Die Anzahl der Gelenke.
+ * @param substeps Die Anzahl der Teilschritte im letzten Einzelbild.
+ * @param stepTime Die gesamte Zeit, die die Teilschritte des letzten
+ *     Einzelbilds gedauert haben.
+ * @param broadphaseTime Die Zeit für die Suche nach möglichen Kontaktpaaren
+ *     (Broadphase).
+ * @param narrowphaseTime Die Zeit für die genaue Überlappungsprüfung der
+ *     Kontaktpaare (Narrowphase).
+ * @param solverTime Die Zeit für das Lösen der Kontakte und die Integration der
+ *     Bewegungen, ohne die Broadphase.
+ * @param toiTime Die Zeit für die kontinuierliche Kollisionserkennung (TOI,
+ *     <i>time of impact</i>). Beim Arcade-Backend immer 0.
+ *
+ * @author Josef Friedrich
+ *
+ * @see WorldHandler#getStatistics()
+ */
+@API
+public record PhysicsStatistics(int bodyCount, int awakeBodyCount,
+        int contactCount, int touchingContactCount, int jointCount,
+        int substeps, double stepTime, double broadphaseTime,
+        double narrowphaseTime, double solverTime, double toiTime)
+{
+}
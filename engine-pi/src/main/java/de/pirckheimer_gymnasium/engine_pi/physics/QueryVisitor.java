@@ -0,0 +1,49 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import de.pirckheimer_gymnasium.engine_pi.actor.Actor;
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+
+/**
+ * Wird bei einer Bereichsabfrage für <b>jede gefundene Figur</b> aufgerufen.
+ *
+ * <p>
+ * Hat eine Figur mehrere Umrisse, kann sie mehrfach gemeldet werden.
+ * </p>
+ *
+ * @author Josef Friedrich
+ *
+ * @see de.pirckheimer_gymnasium.engine_pi.Layer#queryAABB(
+ *     de.pirckheimer_gymnasium.engine_pi.Bounds, int, QueryVisitor)
+ */
+@FunctionalInterface
+public interface QueryVisitor
+{
+    /**
+     * Wird für eine gefundene Figur aufgerufen.
+     *
+     * @param actor Die gefundene Figur.
+     *
+     * @return <code>true</code>, falls weitere Figuren gemeldet werden sollen,
+     *     <code>false</code>, um die Abfrage abzubrechen.
+     */
+    @API
+    boolean visit(Actor actor);
+}
@@ -0,0 +1,189 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import de.pirckheimer_gymnasium.engine_pi.Vector;
+import de.pirckheimer_gymnasium.engine_pi.actor.Actor;
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+
+/**
+ * Beschreibt einen <b>Treffer eines Strahls</b> (Raycast) auf eine Figur.
+ *
+ * <p>
+ * Die Objekte dieser Klasse sind veränderlich und können über viele Abfragen
+ * hinweg wiederverwendet werden, damit bei einer Strahlabfrage keine neuen
+ * Objekte erzeugt werden müssen. Die Koordinaten werden deshalb als einzelne
+ * Zahlen und nicht als {@link Vector} gespeichert.
+ * </p>
+ *
+ * @author Josef Friedrich
+ *
+ * @see de.pirckheimer_gymnasium.engine_pi.Layer#raycast(double, double, double,
+ *     double, int, RaycastHit)
+ */
+public final class RaycastHit
+{
+    private Actor actor;
+
+    private double pointX;
+
+    private double pointY;
+
+    private double normalX;
+
+    private double normalY;
+
+    private double fraction;
+
+    void set(Actor actor, double pointX, double pointY, double normalX,
+            double normalY, double fraction)
+    {
+        this.actor = actor;
+        this.pointX = pointX;
+        this.pointY = pointY;
+        this.normalX = normalX;
+        this.normalY = normalY;
+        this.fraction = fraction;
+    }
+
+    void set(RaycastHit other)
+    {
+        set(other.actor, other.pointX, other.pointY, other.normalX,
+                other.normalY, other.fraction);
+    }
+
+    /**
+     * Setzt den Treffer zurück, sodass er keine Figur mehr enthält.
+     */
+    @API
+    public void clear()
+    {
+        set(null, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Gibt an, ob der Strahl eine Figur getroffen hat.
+     *
+     * @return <code>true</code>, falls eine Figur getroffen wurde, sonst
+     *     <code>false</code>.
+     */
+    @API
+    public boolean isHit()
+    {
+        return actor != null;
+    }
+
+    /**
+     * Gibt die getroffene Figur zurück.
+     *
+     * @return Die getroffene Figur oder <code>null</code>, falls nichts
+     *     getroffen wurde.
+     */
+    @API
+    public Actor getActor()
+    {
+        return actor;
+    }
+
+    /**
+     * Gibt die x-Koordinate des Auftreffpunkts in Meter zurück.
+     *
+     * @return Die x-Koordinate des Auftreffpunkts.
+     */
+    @API
+    public double getPointX()
+    {
+        return pointX;
+    }
+
+    /**
+     * Gibt die y-Koordinate des Auftreffpunkts in Meter zurück.
+     *
+     * @return Die y-Koordinate des Auftreffpunkts.
+     */
+    @API
+    public double getPointY()
+    {
+        return pointY;
+    }
+
+    /**
+     * Gibt den Auftreffpunkt als neuen Vektor zurück.
+     *
+     * @return Der Auftreffpunkt.
+     */
+    @API
+    public Vector getPoint()
+    {
+        return new Vector(pointX, pointY);
+    }
+
+    /**
+     * Gibt die x-Komponente der Oberflächennormalen am Auftreffpunkt zurück.
+     *
+     * @return Die x-Komponente der Normalen.
+     */
+    @API
+    public double getNormalX()
+    {
+        return normalX;
+    }
+
+    /**
+     * Gibt die y-Komponente der Oberflächennormalen am Auftreffpunkt zurück.
+     *
+     * @return Die y-Komponente der Normalen.
+     */
+    @API
+    public double getNormalY()
+    {
+        return normalY;
+    }
+
+    /**
+     * Gibt die Oberflächennormale am Auftreffpunkt als neuen Vektor zurück.
+     *
+     * @return Die Oberflächennormale.
+     */
+    @API
+    public Vector getNormal()
+    {
+        return new Vector(normalX, normalY);
+    }
+
+    /**
+     * Gibt den Anteil der Strahllänge vom Startpunkt bis zum Auftreffpunkt
+     * zurück.
+     *
+     * @return Ein Wert zwischen 0 (Startpunkt) und 1 (Endpunkt).
+     */
+    @API
+    public double getFraction()
+    {
+        return fraction;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RaycastHit[actor=" + actor + ", point=(" + pointX + ", "
+                + pointY + "), normal=(" + normalX + ", " + normalY
+                + "), fraction=" + fraction + "]";
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+
+/**
+ * Wird bei einer Strahlabfrage für <b>jeden Treffer</b> aufgerufen.
+ *
+ * <p>
+ * Die Treffer werden in keiner bestimmten Reihenfolge gemeldet. Hat eine Figur
+ * mehrere Umrisse, kann sie mehrfach gemeldet werden.
+ * </p>
+ *
+ * @author Josef Friedrich
+ *
+ * @see de.pirckheimer_gymnasium.engine_pi.Layer#raycastAll(double, double,
+ *     double, double, int, RaycastVisitor)
+ */
+@FunctionalInterface
+public interface RaycastVisitor
+{
+    /**
+     * Wird für einen Treffer aufgerufen.
+     *
+     * @param hit Der Treffer. Das Objekt wird für den nächsten Treffer
+     *     wiederverwendet und darf daher nicht gespeichert werden.
+     *
+     * @return <code>true</code>, falls weitere Treffer gemeldet werden sollen,
+     *     <code>false</code>, um die Abfrage abzubrechen.
+     */
+    @API
+    boolean visit(RaycastHit hit);
+}
@@ -0,0 +1,227 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import de.pirckheimer_gymnasium.jbox2d.collision.shapes.CircleShape;
+import de.pirckheimer_gymnasium.jbox2d.collision.shapes.PolygonShape;
+import de.pirckheimer_gymnasium.jbox2d.collision.shapes.Shape;
+import de.pirckheimer_gymnasium.jbox2d.common.Settings;
+import de.pirckheimer_gymnasium.jbox2d.common.Vec2;
+
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+
+/**
+ * Ein Zwischenspeicher für <b>gemeinsam genutzte Formen</b> (Shapes).
+ *
+ * <p>
+ * Viele gleich große Figuren, z. B. 10.000 Münzen oder Mauersteine, benötigen
+ * alle dieselbe Form. Anstatt für jede Figur eine eigene Form mit eigenen
+ * Eckpunkten zu erzeugen, wird jede Geometrie nur einmal angelegt und von allen
+ * {@link FixtureData}-Objekten geteilt. Das ist unbedenklich, da JBox2D die
+ * Form beim Erzeugen einer Halterung kopiert. Ändert eine Figur ihre Halterung,
+ * so erhält sie eine neue {@link FixtureData} und teilt die alte Form nicht
+ * mehr.
+ * </p>
+ *
+ * <p>
+ * Die geteilten Formen dürfen deshalb <b>nicht verändert</b> werden.
+ * </p>
+ *
+ * @author Josef Friedrich
+ *
+ * @see FixtureBuilder
+ */
+public final class ShapePrototypes
+{
+    /**
+     * Die maximale Anzahl an Formen im Zwischenspeicher. Darüber hinaus werden
+     * neue Formen nicht mehr zwischengespeichert, damit z. B. Texte mit sich
+     * ständig ändernder Größe den Speicher nicht füllen.
+     */
+    private static final int MAX_SIZE = 4096;
+
+    private static final Map<Object, Shape> prototypes = new ConcurrentHashMap<>();
+
+    private ShapePrototypes()
+    {
+    }
+
+    /**
+     * Gibt die gemeinsam genutzte rechteckige Form zurück, die bei (0|0)
+     * beginnt.
+     *
+     * @param width Die Breite der rechteckigen Form.
+     * @param height Die Höhe der rechteckigen Form.
+     *
+     * @return Die gemeinsam genutzte Form.
+     */
+    @Internal
+    static PolygonShape rectangle(double width, double height)
+    {
+        float w = (float) width;
+        float h = (float) height;
+        return (PolygonShape) intern(new GeometryKey('R', w, h), () -> {
+            PolygonShape shape = new PolygonShape();
+            shape.set(
+                    new Vec2[]
+                    { new Vec2(0, 0), new Vec2(0, h), new Vec2(w, h),
+                            new Vec2(w, 0) },
+                    4);
+            shape.centroid.set(new Vec2(w / 2, h / 2));
+            return shape;
+        });
+    }
+
+    /**
+     * Gibt die gemeinsam genutzte kreisförmige Form zurück.
+     *
+     * @param mx Der Mittelpunkt des Kreises, X-Koordinate.
+     * @param my Der Mittelpunkt des Kreises, Y-Koordinate.
+     * @param radius Der Radius des Kreises.
+     *
+     * @return Die gemeinsam genutzte Form.
+     */
+    @Internal
+    static CircleShape circle(double mx, double my, double radius)
+    {
+        float x = (float) mx;
+        float y = (float) my;
+        float r = (float) radius;
+        return (CircleShape) intern(new GeometryKey('C', x, y, r), () -> {
+            CircleShape shape = new CircleShape();
+            shape.p.set(x, y);
+            shape.setRadius(r);
+            return shape;
+        });
+    }
+
+    /**
+     * Gibt die gemeinsam genutzte polygonale Form zurück.
+     *
+     * @param points Die Eckpunkte der Form.
+     *
+     * @return Die gemeinsam genutzte Form.
+     */
+    @Internal
+    static PolygonShape polygon(Vec2[] points)
+    {
+        float[] coordinates = new float[points.length * 2];
+        for (int i = 0; i < points.length; i++)
+        {
+            coordinates[2 * i] = points[i].x;
+            coordinates[2 * i + 1] = points[i].y;
+        }
+        return (PolygonShape) intern(new GeometryKey('P', coordinates), () -> {
+            PolygonShape shape = new PolygonShape();
+            shape.set(points, points.length);
+            return shape;
+        });
+    }
+
+    private static Shape intern(GeometryKey key, Supplier<Shape> factory)
+    {
+        Shape shape = prototypes.get(key);
+        if (shape != null && isCurrent(shape))
+        {
+            return shape;
+        }
+        if (shape == null && prototypes.size() >= MAX_SIZE)
+        {
+            return factory.get();
+        }
+        return prototypes.compute(key,
+                (k, existing) -> existing != null && isCurrent(existing)
+                        ? existing
+                        : factory.get());
+    }
+
+    /**
+     * Prüft, ob eine Form noch kopiert werden kann. JBox2D kopiert die
+     * Eckpunkte eines Polygons in Felder der Länge
+     * {@link Settings#maxPolygonVertices}. Eine Form, die vor dem Erhöhen
+     * dieser Grenze in der Klasse {@code Game} angelegt wurde, hat zu kurze
+     * Felder und muss neu erzeugt werden.
+     */
+    private static boolean isCurrent(Shape shape)
+    {
+        return !(shape instanceof PolygonShape polygon)
+                || polygon.m_vertices.length == Settings.maxPolygonVertices;
+    }
+
+    /**
+     * Gibt die Anzahl der zwischengespeicherten Formen zurück.
+     *
+     * @return Die Anzahl der zwischengespeicherten Formen.
+     */
+    @API
+    public static int size()
+    {
+        return prototypes.size();
+    }
+
+    /**
+     * Leert den Zwischenspeicher. Bereits verteilte Formen bleiben gültig.
+     */
+    @API
+    public static void clear()
+    {
+        prototypes.clear();
+    }
+
+    /**
+     * Der Schlüssel einer Geometrie: Die Art der Form und ihre Maße.
+     */
+    private static final class GeometryKey
+    {
+        private final char type;
+
+        private final float[] values;
+
+        private final int hashCode;
+
+        private GeometryKey(char type, float... values)
+        {
+            this.type = type;
+            this.values = values;
+            hashCode = 31 * type + Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object object)
+        {
+            if (!(object instanceof GeometryKey other))
+            {
+                return false;
+            }
+            return type == other.type && Arrays.equals(values, other.values);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+}
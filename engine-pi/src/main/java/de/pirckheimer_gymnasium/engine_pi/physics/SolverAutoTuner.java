@@ -0,0 +1,319 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+
+/**
+ * Passt die <b>Genauigkeit des Physik-Lösers</b> (Iterationen und Schrittrate)
+ * einer Ebene automatisch an die verfügbare Rechenzeit an.
+ *
+ * <p>
+ * Dauert der World-Step eines Einzelbilds länger als das
+ * {@link #getFrameBudget() Zeitbudget}, wird die Genauigkeit stufenweise
+ * verringert: Zuerst die Geschwindigkeits-Iterationen, dann die
+ * Positions-Iterationen und zuletzt die Schrittrate. Bleibt über mehrere
+ * Einzelbilder genügend Zeit übrig, werden die Werte in umgekehrter Reihenfolge
+ * wieder angehoben. Die Werte, die an der Ebene eingestellt wurden, bilden
+ * dabei die Obergrenze, die Mindestwerte dieses Objekts die Untergrenze.
+ * </p>
+ *
+ * @author Josef Friedrich
+ *
+ * @see de.pirckheimer_gymnasium.engine_pi.Layer#setSolverAutoTuner(SolverAutoTuner)
+ */
+public final class SolverAutoTuner
+{
+    /**
+     * Der Faktor, um den die Schrittrate bei einer Stufe verringert bzw. erhöht
+     * wird.
+     */
+    private static final double STEP_RATE_FACTOR = 0.8;
+
+    /**
+     * Das Zeitbudget in Sekunden, das der World-Step pro Einzelbild höchstens
+     * verbrauchen darf.
+     */
+    private double frameBudget;
+
+    private int minVelocityIterations = 1;
+
+    private int minPositionIterations = 1;
+
+    private double minStepRate = 30;
+
+    /**
+     * Der Anteil am Zeitbudget, der unterschritten werden muss, damit die
+     * Genauigkeit wieder erhöht wird.
+     */
+    private double headroom = 0.5;
+
+    /**
+     * Die Anzahl an aufeinanderfolgenden Einzelbildern mit genügend Reserve,
+     * nach denen die Genauigkeit um eine Stufe erhöht wird.
+     */
+    private int raiseAfterFrames = 30;
+
+    private int velocityIterationsCap = Integer.MAX_VALUE;
+
+    private int positionIterationsCap = Integer.MAX_VALUE;
+
+    private double stepRateCap = Double.MAX_VALUE;
+
+    private int framesWithHeadroom = 0;
+
+    /**
+     * Erzeugt einen neuen automatischen Regler für den Physik-Löser.
+     *
+     * @param frameBudget Das Zeitbudget in Sekunden, das der World-Step pro
+     *     Einzelbild höchstens verbrauchen darf.
+     */
+    @API
+    public SolverAutoTuner(double frameBudget)
+    {
+        setFrameBudget(frameBudget);
+    }
+
+    /**
+     * Erzeugt einen neuen automatischen Regler für den Physik-Löser mit einem
+     * Zeitbudget von 4 Millisekunden pro Einzelbild.
+     */
+    @API
+    public SolverAutoTuner()
+    {
+        this(0.004);
+    }
+
+    /**
+     * Setzt das Zeitbudget, das der World-Step pro Einzelbild höchstens
+     * verbrauchen darf.
+     *
+     * @param frameBudget Das Zeitbudget in Sekunden. Muss größer als 0 sein.
+     *
+     * @return Eine Instanz dieses Objekts, damit das Objekt über verkettete
+     *     Setter konfiguriert werden kann.
+     */
+    @API
+    public SolverAutoTuner setFrameBudget(double frameBudget)
+    {
+        if (frameBudget <= 0)
+        {
+            throw new IllegalArgumentException(
+                    "Das Zeitbudget muss größer als 0 sein, war "
+                            + frameBudget);
+        }
+        this.frameBudget = frameBudget;
+        return this;
+    }
+
+    /**
+     * Gibt das Zeitbudget zurück, das der World-Step pro Einzelbild höchstens
+     * verbrauchen darf.
+     *
+     * @return Das Zeitbudget in Sekunden.
+     */
+    @API
+    public double getFrameBudget()
+    {
+        return frameBudget;
+    }
+
+    /**
+     * Setzt die Untergrenzen, bis zu denen die Genauigkeit verringert werden
+     * darf.
+     *
+     * @param minVelocityIterations Die minimale Anzahl an
+     *     Geschwindigkeits-Iterationen (mindestens 1).
+     * @param minPositionIterations Die minimale Anzahl an Positions-Iterationen
+     *     (mindestens 1).
+     * @param minStepRate Die minimale Anzahl an Physik-Schritten pro Sekunde.
+     *
+     * @return Eine Instanz dieses Objekts, damit das Objekt über verkettete
+     *     Setter konfiguriert werden kann.
+     */
+    @API
+    public SolverAutoTuner setLimits(int minVelocityIterations,
+            int minPositionIterations, double minStepRate)
+    {
+        if (minVelocityIterations < 1 || minPositionIterations < 1)
+        {
+            throw new IllegalArgumentException(
+                    "Die Anzahl an Iterationen muss mindestens 1 sein.");
+        }
+        if (minStepRate <= 0)
+        {
+            throw new IllegalArgumentException(
+                    "Die Schrittrate muss größer als 0 sein, war "
+                            + minStepRate);
+        }
+        this.minVelocityIterations = minVelocityIterations;
+        this.minPositionIterations = minPositionIterations;
+        this.minStepRate = minStepRate;
+        return this;
+    }
+
+    /**
+     * Gibt die minimale Anzahl an Geschwindigkeits-Iterationen zurück.
+     *
+     * @return Die minimale Anzahl an Geschwindigkeits-Iterationen.
+     */
+    @API
+    public int getMinVelocityIterations()
+    {
+        return minVelocityIterations;
+    }
+
+    /**
+     * Gibt die minimale Anzahl an Positions-Iterationen zurück.
+     *
+     * @return Die minimale Anzahl an Positions-Iterationen.
+     */
+    @API
+    public int getMinPositionIterations()
+    {
+        return minPositionIterations;
+    }
+
+    /**
+     * Gibt die minimale Anzahl an Physik-Schritten pro Sekunde zurück.
+     *
+     * @return Die minimale Schrittrate.
+     */
+    @API
+    public double getMinStepRate()
+    {
+        return minStepRate;
+    }
+
+    /**
+     * Legt fest, wann die Genauigkeit wieder erhöht wird.
+     *
+     * @param headroom Der Anteil am Zeitbudget (zwischen 0 und 1), der
+     *     unterschritten werden muss.
+     * @param raiseAfterFrames Die Anzahl an aufeinanderfolgenden Einzelbildern,
+     *     in denen der Anteil unterschritten werden muss.
+     *
+     * @return Eine Instanz dieses Objekts, damit das Objekt über verkettete
+     *     Setter konfiguriert werden kann.
+     */
+    @API
+    public SolverAutoTuner setHeadroom(double headroom, int raiseAfterFrames)
+    {
+        if (headroom <= 0 || headroom >= 1)
+        {
+            throw new IllegalArgumentException(
+                    "Die Reserve muss zwischen 0 und 1 liegen, war "
+                            + headroom);
+        }
+        this.headroom = headroom;
+        this.raiseAfterFrames = Math.max(1, raiseAfterFrames);
+        return this;
+    }
+
+    /**
+     * Setzt alle Anpassungen zurück, sodass wieder die an der Ebene
+     * eingestellten Werte gelten.
+     */
+    @API
+    public void reset()
+    {
+        velocityIterationsCap = Integer.MAX_VALUE;
+        positionIterationsCap = Integer.MAX_VALUE;
+        stepRateCap = Double.MAX_VALUE;
+        framesWithHeadroom = 0;
+    }
+
+    @Internal
+    int limitVelocityIterations(int velocityIterations)
+    {
+        return Math.min(velocityIterations, velocityIterationsCap);
+    }
+
+    @Internal
+    int limitPositionIterations(int positionIterations)
+    {
+        return Math.min(positionIterations, positionIterationsCap);
+    }
+
+    @Internal
+    double limitStepRate(double stepRate)
+    {
+        return Math.min(stepRate, stepRateCap);
+    }
+
+    /**
+     * Wertet die Dauer des letzten World-Steps aus und passt die Genauigkeit um
+     * höchstens eine Stufe an.
+     *
+     * @param worldHandler Der World-Handler, dessen eingestellte Werte die
+     *     Obergrenzen bilden.
+     * @param duration Die Dauer des letzten World-Steps in Sekunden.
+     */
+    @Internal
+    void update(WorldHandler worldHandler, double duration)
+    {
+        int velocityIterations = limitVelocityIterations(
+                worldHandler.getVelocityIterations());
+        int positionIterations = limitPositionIterations(
+                worldHandler.getPositionIterations());
+        double stepRate = limitStepRate(worldHandler.getStepRate());
+        if (duration > frameBudget)
+        {
+            framesWithHeadroom = 0;
+            if (velocityIterations > minVelocityIterations)
+            {
+                velocityIterationsCap = velocityIterations - 1;
+            }
+            else if (positionIterations > minPositionIterations)
+            {
+                positionIterationsCap = positionIterations - 1;
+            }
+            else if (stepRate > minStepRate)
+            {
+                stepRateCap = Math.max(minStepRate,
+                        stepRate * STEP_RATE_FACTOR);
+            }
+            return;
+        }
+        if (duration > frameBudget * headroom)
+        {
+            framesWithHeadroom = 0;
+            return;
+        }
+        framesWithHeadroom++;
+        if (framesWithHeadroom < raiseAfterFrames)
+        {
+            return;
+        }
+        framesWithHeadroom = 0;
+        if (stepRate < worldHandler.getStepRate())
+        {
+            stepRateCap = stepRate / STEP_RATE_FACTOR;
+        }
+        else if (positionIterations < worldHandler.getPositionIterations())
+        {
+            positionIterationsCap = positionIterations + 1;
+        }
+        else if (velocityIterations < worldHandler.getVelocityIterations())
+        {
+            velocityIterationsCap = velocityIterations + 1;
+        }
+    }
+}
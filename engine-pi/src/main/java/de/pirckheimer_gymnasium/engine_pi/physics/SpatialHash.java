@@ -0,0 +1,256 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import java.util.Arrays;
+
+import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+
+/**
+ * Ein <b>räumliches Hashgitter</b> (spatial hash) als Broadphase der
+ * {@link ArcadeWorld}.
+ *
+ * <p>
+ * Die Ebene wird in quadratische Zellen eingeteilt. Jeder Körper wird in alle
+ * Zellen eingetragen, die sein achsenparalleles Begrenzungsrechteck berührt.
+ * Nur Körper, die sich eine Zelle teilen, werden als mögliches Paar gemeldet.
+ * Die Zellen liegen in einer Hashtabelle mit offener Adressierung über
+ * primitiven Arrays, sodass pro Schritt keine Objekte erzeugt werden.
+ * </p>
+ *
+ * @author Josef Friedrich
+ */
+@Internal
+final class SpatialHash
+{
+    /**
+     * Empfängt ein mögliches Paar von Körpern.
+     */
+    interface PairVisitor
+    {
+        void visit(int a, int b);
+    }
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private double inverseCellSize;
+
+    private long[] keys = new long[64];
+
+    private int[] heads = new int[64];
+
+    private int[] usedSlots = new int[32];
+
+    private int usedCount;
+
+    private int[] entryBody = new int[128];
+
+    private int[] entryNext = new int[128];
+
+    private int entryCount;
+
+    /**
+     * Die linke untere Zelle jedes eingetragenen Körpers, um Paare, die sich
+     * mehrere Zellen teilen, nur einmal zu melden.
+     */
+    private int[] minCellX = new int[64];
+
+    private int[] minCellY = new int[64];
+
+    SpatialHash(double cellSize)
+    {
+        setCellSize(cellSize);
+        Arrays.fill(keys, EMPTY);
+    }
+
+    void setCellSize(double cellSize)
+    {
+        if (cellSize <= 0)
+        {
+            throw new IllegalArgumentException(
+                    "Die Zellgröße muss größer als 0 sein, war " + cellSize);
+        }
+        inverseCellSize = 1 / cellSize;
+    }
+
+    double getCellSize()
+    {
+        return 1 / inverseCellSize;
+    }
+
+    /**
+     * Entfernt alle Einträge. Der Speicher wird weiterverwendet.
+     */
+    void clear()
+    {
+        for (int i = 0; i < usedCount; i++)
+        {
+            keys[usedSlots[i]] = EMPTY;
+        }
+        usedCount = 0;
+        entryCount = 0;
+    }
+
+    /**
+     * Trägt einen Körper mit seinem Begrenzungsrechteck ein.
+     *
+     * @param body Die Nummer des Körpers (ab 0).
+     */
+    void insert(int body, double minX, double minY, double maxX, double maxY)
+    {
+        int x0 = cell(minX);
+        int y0 = cell(minY);
+        int x1 = cell(maxX);
+        int y1 = cell(maxY);
+        if (body >= minCellX.length)
+        {
+            int length = Math.max(body + 1, minCellX.length * 2);
+            minCellX = Arrays.copyOf(minCellX, length);
+            minCellY = Arrays.copyOf(minCellY, length);
+        }
+        minCellX[body] = x0;
+        minCellY[body] = y0;
+        for (int cy = y0; cy <= y1; cy++)
+        {
+            for (int cx = x0; cx <= x1; cx++)
+            {
+                addEntry(slot(cx, cy), body);
+            }
+        }
+    }
+
+    /**
+     * Meldet jedes Paar von Körpern, die sich mindestens eine Zelle teilen,
+     * genau einmal. Der Körper mit der kleineren Nummer wird zuerst übergeben.
+     */
+    void forEachPair(PairVisitor visitor)
+    {
+        for (int i = 0; i < usedCount; i++)
+        {
+            int slot = usedSlots[i];
+            int cx = (int) (keys[slot] >> 32);
+            int cy = (int) keys[slot];
+            for (int e = heads[slot]; e != -1; e = entryNext[e])
+            {
+                int a = entryBody[e];
+                for (int f = entryNext[e]; f != -1; f = entryNext[f])
+                {
+                    int b = entryBody[f];
+                    // Nur in der ersten gemeinsamen Zelle melden.
+                    if (cx != Math.max(minCellX[a], minCellX[b])
+                            || cy != Math.max(minCellY[a], minCellY[b]))
+                    {
+                        continue;
+                    }
+                    if (a < b)
+                    {
+                        visitor.visit(a, b);
+                    }
+                    else
+                    {
+                        visitor.visit(b, a);
+                    }
+                }
+            }
+        }
+    }
+
+    private int cell(double coordinate)
+    {
+        return (int) Math.floor(coordinate * inverseCellSize);
+    }
+
+    private static long key(int cx, int cy)
+    {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key, int mask)
+    {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * Sucht den Platz einer Zelle in der Hashtabelle und legt ihn bei Bedarf
+     * an.
+     */
+    private int slot(int cx, int cy)
+    {
+        if ((usedCount + 1) * 2 > keys.length)
+        {
+            grow();
+        }
+        long key = key(cx, cy);
+        int mask = keys.length - 1;
+        int slot = hash(key, mask);
+        while (keys[slot] != EMPTY)
+        {
+            if (keys[slot] == key)
+            {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        heads[slot] = -1;
+        if (usedCount == usedSlots.length)
+        {
+            usedSlots = Arrays.copyOf(usedSlots, usedCount * 2);
+        }
+        usedSlots[usedCount++] = slot;
+        return slot;
+    }
+
+    private void addEntry(int slot, int body)
+    {
+        if (entryCount == entryBody.length)
+        {
+            entryBody = Arrays.copyOf(entryBody, entryCount * 2);
+            entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+        }
+        entryBody[entryCount] = body;
+        entryNext[entryCount] = heads[slot];
+        heads[slot] = entryCount;
+        entryCount++;
+    }
+
+    private void grow()
+    {
+        long[] oldKeys = keys;
+        int[] oldHeads = heads;
+        int[] oldUsed = Arrays.copyOf(usedSlots, usedCount);
+        keys = new long[oldKeys.length * 2];
+        heads = new int[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldUsed.length; i++)
+        {
+            long key = oldKeys[oldUsed[i]];
+            int slot = hash(key, mask);
+            while (keys[slot] != EMPTY)
+            {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            heads[slot] = oldHeads[oldUsed[i]];
+            usedSlots[i] = slot;
+        }
+    }
+}
@@ -0,0 +1,489 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import de.pirckheimer_gymnasium.jbox2d.collision.shapes.EdgeShape;
+import de.pirckheimer_gymnasium.jbox2d.common.Vec2;
+
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
+
+/**
+ * Fasst die <b>festen Kacheln</b> eines Kachelgitters zu möglichst wenigen
+ * Halterungen (Fixtures) zusammen.
+ *
+ * <p>
+ * Statt einer Halterung pro Kachel werden benachbarte feste Kacheln entweder zu
+ * größtmöglichen Rechtecken ({@link Mode#RECTANGLES}) oder zu Umrisslinien
+ * ({@link Mode#OUTLINES}) verschmolzen. Ein Level mit 500×200 Kacheln kommt so
+ * mit einigen hundert statt zehntausenden Halterungen aus.
+ * </p>
+ *
+ * <p>
+ * Das Gitter ist in quadratische Blöcke mit {@link #CHUNK_SIZE} Kacheln
+ * Kantenlänge eingeteilt. Ändert sich eine Kachel, werden beim nächsten Aufruf
+ * von {@link #build()} nur die betroffenen Blöcke neu zusammengefasst.
+ * </p>
+ *
+ * <p>
+ * Die Koordinaten der Kacheln entsprechen denen von
+ * {@link de.pirckheimer_gymnasium.engine_pi.actor.TileRegistration}: Die Kachel
+ * (0|0) liegt links oben, die Halterungen beziehen sich auf die linke untere
+ * Ecke des Gitters.
+ * </p>
+ *
+ * @author Josef Friedrich
+ *
+ * @see de.pirckheimer_gymnasium.engine_pi.actor.TileRegistration#setSolid(int,
+ *     int, boolean)
+ */
+public final class TileColliderBuilder
+{
+    /**
+     * Die Art, wie feste Kacheln zu Halterungen zusammengefasst werden.
+     */
+    public enum Mode
+    {
+        /**
+         * Benachbarte feste Kacheln werden zu größtmöglichen Rechtecken
+         * zusammengefasst. Geeignet für alle Arten von Körpern.
+         */
+        RECTANGLES,
+
+        /**
+         * Nur die Kanten zwischen festen und freien Kacheln werden als
+         * Linien-Halterungen erzeugt. Benötigt meist noch weniger Halterungen,
+         * eignet sich aber nur für statische Körper, da Linien keine Fläche und
+         * damit keine Masse haben.
+         */
+        OUTLINES
+    }
+
+    /**
+     * Die Kantenlänge eines Blocks in Kacheln, der bei Änderungen als Ganzes
+     * neu zusammengefasst wird.
+     */
+    public static final int CHUNK_SIZE = 32;
+
+    private final int width;
+
+    private final int height;
+
+    private final double tileWidth;
+
+    private final double tileHeight;
+
+    /**
+     * Die festen Kacheln, indiziert mit <code>[x][y]</code>.
+     */
+    private final boolean[][] solid;
+
+    private final int chunkCountX;
+
+    private final int chunkCountY;
+
+    /**
+     * Die zwischengespeicherten Halterungen jedes Blocks.
+     */
+    private final List<List<FixtureData>> chunks;
+
+    private final boolean[] dirtyChunks;
+
+    private boolean dirty = true;
+
+    private Mode mode = Mode.RECTANGLES;
+
+    /**
+     * Wiederverwendeter Speicher für bereits abgedeckte Kacheln eines Blocks.
+     */
+    private final boolean[][] covered = new boolean[CHUNK_SIZE][CHUNK_SIZE];
+
+    /**
+     * Erzeugt einen neuen Builder für ein Kachelgitter ohne feste Kacheln.
+     *
+     * @param width Die Anzahl an Kacheln in x-Richtung.
+     * @param height Die Anzahl an Kacheln in y-Richtung.
+     * @param tileWidth Die Breite einer Kachel in Meter.
+     * @param tileHeight Die Höhe einer Kachel in Meter.
+     */
+    @API
+    public TileColliderBuilder(int width, int height, double tileWidth,
+            double tileHeight)
+    {
+        if (width <= 0 || height <= 0)
+        {
+            throw new IllegalArgumentException(
+                    "width und height müssen jeweils > 0 sein.");
+        }
+        if (tileWidth <= 0 || tileHeight <= 0)
+        {
+            throw new IllegalArgumentException(
+                    "Breite und Höhe der Kacheln müssen jeweils > 0 sein.");
+        }
+        this.width = width;
+        this.height = height;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        solid = new boolean[width][height];
+        chunkCountX = (width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        chunkCountY = (height + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        chunks = new ArrayList<>(chunkCountX * chunkCountY);
+        for (int i = 0; i < chunkCountX * chunkCountY; i++)
+        {
+            chunks.add(new ArrayList<>());
+        }
+        dirtyChunks = new boolean[chunkCountX * chunkCountY];
+    }
+
+    @API
+    public int getWidth()
+    {
+        return width;
+    }
+
+    @API
+    public int getHeight()
+    {
+        return height;
+    }
+
+    /**
+     * Legt fest, ob eine Kachel fest ist, also an der Kollision teilnimmt.
+     *
+     * @param x Die x-Position im Kachelgitter. 0 adressiert die erste, (ganz am
+     *     linken Rand gelegene) Spalte.
+     * @param y Die y-Position im Kachelgitter. 0 adressiert die erste,
+     *     (oberste) Zeile.
+     * @param solid Ob die Kachel fest ist.
+     *
+     * @return Eine Instanz dieses Objekts, damit das Objekt über verkettete
+     *     Setter konfiguriert werden kann.
+     */
+    @API
+    public TileColliderBuilder setSolid(int x, int y, boolean solid)
+    {
+        if (this.solid[x][y] == solid)
+        {
+            return this;
+        }
+        this.solid[x][y] = solid;
+        markDirty(x, y);
+        // Die Umrisslinien an den Blockgrenzen gehören zum Nachbarblock.
+        markDirty(x + 1, y);
+        markDirty(x, y + 1);
+        return this;
+    }
+
+    @API
+    public boolean isSolid(int x, int y)
+    {
+        return solid[x][y];
+    }
+
+    /**
+     * Legt fest, wie die festen Kacheln zusammengefasst werden.
+     *
+     * @return Eine Instanz dieses Objekts, damit das Objekt über verkettete
+     *     Setter konfiguriert werden kann.
+     */
+    @API
+    public TileColliderBuilder setMode(Mode mode)
+    {
+        if (this.mode != mode)
+        {
+            this.mode = mode;
+            markAllDirty();
+        }
+        return this;
+    }
+
+    @API
+    public Mode getMode()
+    {
+        return mode;
+    }
+
+    /**
+     * Gibt an, ob sich seit dem letzten Aufruf von {@link #build()} eine Kachel
+     * geändert hat.
+     */
+    @API
+    public boolean isDirty()
+    {
+        return dirty;
+    }
+
+    private void markDirty(int x, int y)
+    {
+        if (x >= width || y >= height)
+        {
+            return;
+        }
+        dirtyChunks[(y / CHUNK_SIZE) * chunkCountX + x / CHUNK_SIZE] = true;
+        dirty = true;
+    }
+
+    private void markAllDirty()
+    {
+        for (int i = 0; i < dirtyChunks.length; i++)
+        {
+            dirtyChunks[i] = true;
+        }
+        dirty = true;
+    }
+
+    /**
+     * Fasst alle geänderten Blöcke neu zusammen und gibt die Halterungen aller
+     * festen Kacheln zurück.
+     *
+     * @return Eine neue Liste mit allen Halterungen, z. B. für
+     *     {@link de.pirckheimer_gymnasium.engine_pi.actor.Actor#setFixtures(java.util.function.Supplier)}.
+     */
+    @API
+    public List<FixtureData> build()
+    {
+        return build(null, null);
+    }
+
+    /**
+     * Fasst alle geänderten Blöcke neu zusammen, meldet deren alte und neue
+     * Halterungen und gibt die Halterungen aller festen Kacheln zurück.
+     *
+     * <p>
+     * Damit lassen sich am Körper nur die Halterungen der geänderten Blöcke
+     * austauschen, statt alle Halterungen neu zu erzeugen.
+     * </p>
+     *
+     * @param removed Eine Liste, in die die bisherigen Halterungen der
+     *     geänderten Blöcke eingetragen werden, oder <code>null</code>.
+     * @param added Eine Liste, in die die neuen Halterungen der geänderten
+     *     Blöcke eingetragen werden, oder <code>null</code>.
+     *
+     * @return Eine neue Liste mit allen Halterungen.
+     */
+    @API
+    public List<FixtureData> build(List<FixtureData> removed,
+            List<FixtureData> added)
+    {
+        int count = 0;
+        for (int chunkY = 0; chunkY < chunkCountY; chunkY++)
+        {
+            for (int chunkX = 0; chunkX < chunkCountX; chunkX++)
+            {
+                int index = chunkY * chunkCountX + chunkX;
+                if (dirtyChunks[index])
+                {
+                    List<FixtureData> fixtures = chunks.get(index);
+                    if (removed != null)
+                    {
+                        removed.addAll(fixtures);
+                    }
+                    fixtures.clear();
+                    if (mode == Mode.RECTANGLES)
+                    {
+                        mergeRectangles(chunkX, chunkY, fixtures);
+                    }
+                    else
+                    {
+                        traceOutlines(chunkX, chunkY, fixtures);
+                    }
+                    if (added != null)
+                    {
+                        added.addAll(fixtures);
+                    }
+                    dirtyChunks[index] = false;
+                }
+                count += chunks.get(index).size();
+            }
+        }
+        dirty = false;
+        List<FixtureData> result = new ArrayList<>(count);
+        for (List<FixtureData> fixtures : chunks)
+        {
+            result.addAll(fixtures);
+        }
+        return result;
+    }
+
+    /**
+     * Überdeckt die festen Kacheln eines Blocks gierig mit Rechtecken: Von
+     * jeder noch nicht abgedeckten Kachel aus wird zuerst so weit wie möglich
+     * nach rechts und dann so weit wie möglich nach unten erweitert.
+     */
+    private void mergeRectangles(int chunkX, int chunkY,
+            List<FixtureData> fixtures)
+    {
+        int x0 = chunkX * CHUNK_SIZE;
+        int y0 = chunkY * CHUNK_SIZE;
+        int x1 = Math.min(x0 + CHUNK_SIZE, width);
+        int y1 = Math.min(y0 + CHUNK_SIZE, height);
+        for (boolean[] column : covered)
+        {
+            Arrays.fill(column, false);
+        }
+        for (int y = y0; y < y1; y++)
+        {
+            for (int x = x0; x < x1; x++)
+            {
+                if (!solid[x][y] || covered[x - x0][y - y0])
+                {
+                    continue;
+                }
+                int right = x + 1;
+                while (right < x1 && solid[right][y]
+                        && !covered[right - x0][y - y0])
+                {
+                    right++;
+                }
+                int bottom = y + 1;
+                while (bottom < y1 && isRowFree(x, right, bottom, x0, y0))
+                {
+                    bottom++;
+                }
+                for (int cy = y; cy < bottom; cy++)
+                {
+                    for (int cx = x; cx < right; cx++)
+                    {
+                        covered[cx - x0][cy - y0] = true;
+                    }
+                }
+                fixtures.add(
+                        new FixtureData(FixtureBuilder.axisParallelRectangular(
+                                x * tileWidth, (height - bottom) * tileHeight,
+                                (right - x) * tileWidth,
+                                (bottom - y) * tileHeight)));
+            }
+        }
+    }
+
+    private boolean isRowFree(int left, int right, int y, int x0, int y0)
+    {
+        for (int x = left; x < right; x++)
+        {
+            if (!solid[x][y] || covered[x - x0][y - y0])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Erzeugt Linien an allen Kanten zwischen festen und freien Kacheln eines
+     * Blocks. Gleich ausgerichtete Kanten, die aneinander anschließen, werden
+     * zu einer Linie zusammengefasst.
+     *
+     * <p>
+     * Ein Block ist für die Kanten an seinem linken und oberen Rand zuständig,
+     * die Blöcke am rechten und unteren Rand des Gitters zusätzlich für den
+     * Gitterrand.
+     * </p>
+     */
+    private void traceOutlines(int chunkX, int chunkY,
+            List<FixtureData> fixtures)
+    {
+        int x0 = chunkX * CHUNK_SIZE;
+        int y0 = chunkY * CHUNK_SIZE;
+        int x1 = Math.min(x0 + CHUNK_SIZE, width);
+        int y1 = Math.min(y0 + CHUNK_SIZE, height);
+        int lastLineY = y1 == height ? height : y1 - 1;
+        int lastLineX = x1 == width ? width : x1 - 1;
+        // Waagrechte Kanten: Linie y liegt über der Zeile y.
+        for (int y = y0; y <= lastLineY; y++)
+        {
+            int start = -1;
+            int side = 0;
+            for (int x = x0; x <= x1; x++)
+            {
+                int current = x < x1 ? edgeSide(x, y - 1, x, y) : 0;
+                if (current != side)
+                {
+                    if (side != 0)
+                    {
+                        addEdge(start, y, x, y, fixtures);
+                    }
+                    start = x;
+                    side = current;
+                }
+            }
+        }
+        // Senkrechte Kanten: Linie x liegt links der Spalte x.
+        for (int x = x0; x <= lastLineX; x++)
+        {
+            int start = -1;
+            int side = 0;
+            for (int y = y0; y <= y1; y++)
+            {
+                int current = y < y1 ? edgeSide(x - 1, y, x, y) : 0;
+                if (current != side)
+                {
+                    if (side != 0)
+                    {
+                        addEdge(x, start, x, y, fixtures);
+                    }
+                    start = y;
+                    side = current;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return 1, wenn nur die erste Kachel fest ist, -1, wenn nur die zweite
+     *     Kachel fest ist, sonst 0.
+     */
+    private int edgeSide(int ax, int ay, int bx, int by)
+    {
+        boolean a = isSolidOrOutside(ax, ay);
+        boolean b = isSolidOrOutside(bx, by);
+        if (a == b)
+        {
+            return 0;
+        }
+        return a ? 1 : -1;
+    }
+
+    private boolean isSolidOrOutside(int x, int y)
+    {
+        if (x < 0 || y < 0 || x >= width || y >= height)
+        {
+            return false;
+        }
+        return solid[x][y];
+    }
+
+    /**
+     * Fügt eine Linie zwischen zwei Gitterpunkten hinzu. Der Gitterpunkt (0|0)
+     * ist die linke obere Ecke der Kachel (0|0).
+     */
+    private void addEdge(int fromX, int fromY, int toX, int toY,
+            List<FixtureData> fixtures)
+    {
+        EdgeShape shape = new EdgeShape();
+        shape.set(
+                new Vec2((float) (fromX * tileWidth),
+                        (float) ((height - fromY) * tileHeight)),
+                new Vec2((float) (toX * tileWidth),
+                        (float) ((height - toY) * tileHeight)));
+        fixtures.add(new FixtureData(shape));
+    }
+}
@@ -20,35 +20,49 @@
  */
 package de.pirckheimer_gymnasium.engine_pi.physics;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.StampedLock;
 import java.util.function.Consumer;
 
 import de.pirckheimer_gymnasium.jbox2d.callbacks.ContactImpulse;
 import de.pirckheimer_gymnasium.jbox2d.callbacks.ContactListener;
 import de.pirckheimer_gymnasium.jbox2d.callbacks.QueryCallback;
+import de.pirckheimer_gymnasium.jbox2d.callbacks.RayCastCallback;
 import de.pirckheimer_gymnasium.jbox2d.collision.AABB;
+import de.pirckheimer_gymnasium.jbox2d.collision.Collision;
 import de.pirckheimer_gymnasium.jbox2d.collision.Manifold;
+import de.pirckheimer_gymnasium.jbox2d.collision.shapes.Shape;
+import de.pirckheimer_gymnasium.jbox2d.common.Transform;
 import de.pirckheimer_gymnasium.jbox2d.common.Vec2;
 import de.pirckheimer_gymnasium.jbox2d.dynamics.Body;
 import de.pirckheimer_gymnasium.jbox2d.dynamics.BodyDef;
 import de.pirckheimer_gymnasium.jbox2d.dynamics.Fixture;
+import de.pirckheimer_gymnasium.jbox2d.dynamics.Profile;
 import de.pirckheimer_gymnasium.jbox2d.dynamics.World;
 import de.pirckheimer_gymnasium.jbox2d.dynamics.contacts.Contact;
 import de.pirckheimer_gymnasium.jbox2d.dynamics.contacts.ContactEdge;
 
+import de.pirckheimer_gymnasium.engine_pi.Bounds;
 import de.pirckheimer_gymnasium.engine_pi.Layer;
 import de.pirckheimer_gymnasium.engine_pi.actor.Actor;
 import de.pirckheimer_gymnasium.engine_pi.actor.Joint;
+import de.pirckheimer_gymnasium.engine_pi.annotations.API;
 import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
 import de.pirckheimer_gymnasium.engine_pi.event.CollisionEvent;
 import de.pirckheimer_gymnasium.engine_pi.event.CollisionListener;
+import de.pirckheimer_gymnasium.engine_pi.event.ListenerProfiler;
 import de.pirckheimer_gymnasium.engine_pi.util.Logger;
 
 /**
@@ -72,8 +86,23 @@ public class WorldHandler implements ContactListener
 
     public static final int CATEGORY_PARTICLE = 16;
 
+    /**
+     * Eine Kategorienmaske, die bei Abfragen alle Kategorien berücksichtigt.
+     */
+    public static final int CATEGORY_ALL = 0xFFFF;
+
     public static final double STEP_TIME = 8f / 1000;
 
+    /**
+     * Die Standardanzahl an Geschwindigkeits-Iterationen pro Physik-Schritt.
+     */
+    public static final int DEFAULT_VELOCITY_ITERATIONS = 6;
+
+    /**
+     * Die Standardanzahl an Positions-Iterationen pro Physik-Schritt.
+     */
+    public static final int DEFAULT_POSITION_ITERATIONS = 3;
+
     /**
      * Die Ebene, zu dem der {@link WorldHandler} gehört.
      */
@@ -92,7 +121,8 @@ public class WorldHandler implements ContactListener
 
     /**
      * Hashmap, die alle spezifisch angegebenen Actor-Actor
-     * Kollisionsüberwachungen innehat.
+     * Kollisionsüberwachungen innehat. Schlüssel ist der Körper der Figur, an
+     * der der Beobachter angemeldet wurde.
      */
     private final Map<Body, List<Checkup<? extends Actor>>> specificCollisionListeners = new ConcurrentHashMap<>();
 
@@ -109,6 +139,87 @@ public class WorldHandler implements ContactListener
 
     private double simulationAccumulator = 0;
 
+    /*
+     * Die Einstellungen des Lösers werden nur unter der Sperre dieses Objekts
+     * geschrieben, damit sie sich nicht während eines World-Steps ändern, in
+     * dem der Regler sie auswertet. Gelesen werden sie auch ohne Sperre.
+     */
+
+    /**
+     * Die Dauer eines Physik-Schritts in Sekunden.
+     */
+    private volatile double stepTime = STEP_TIME;
+
+    private volatile int velocityIterations = DEFAULT_VELOCITY_ITERATIONS;
+
+    private volatile int positionIterations = DEFAULT_POSITION_ITERATIONS;
+
+    /**
+     * Der optionale Regler, der die Genauigkeit an die verfügbare Rechenzeit
+     * anpasst, oder {@code null}.
+     */
+    private volatile SolverAutoTuner solverAutoTuner;
+
+    private final WorldSnapshot snapshot = new WorldSnapshot();
+
+    /**
+     * Die Kennungen der Körper dieser Welt, die in der Reihenfolge ihrer
+     * Erzeugung vergeben und nie wiederverwendet werden. Über sie ordnet ein
+     * Schnappschuss seine Einträge den Körpern zu. Wird nur unter der Sperre
+     * der World gelesen oder verändert.
+     */
+    private final Map<Body, Integer> bodyIds = new IdentityHashMap<>();
+
+    private int nextBodyId = 1;
+
+    /**
+     * Die Arcade-Physik, falls die Ebene das {@link PhysicsBackend#ARCADE
+     * Arcade-Backend} verwendet, sonst {@code null}.
+     */
+    private ArcadeWorld arcadeWorld;
+
+    /**
+     * Änderungen an Körpern dieser Welt. Beliebige Threads reihen sie ohne
+     * Sperre ein. Übernommen werden sie an den Grenzen zwischen zwei
+     * Teilschritten oder vor einem Lesezugriff außerhalb eines World-Steps.
+     */
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Schützt den Bewegungszustand der Körper. Ein World-Step und das
+     * Übernehmen eingereihter Änderungen halten die Schreibsperre. Getter lesen
+     * optimistisch ohne Sperre und greifen auf den veröffentlichten
+     * {@link BodyState} zurück, falls währenddessen geschrieben wurde.
+     *
+     * <p>
+     * Die Schreibsperre wird immer vor der Sperre dieses Objekts und der Sperre
+     * der World angefordert.
+     * </p>
+     */
+    private final StampedLock bodyStates = new StampedLock();
+
+    /**
+     * Der Thread, der gerade die Schreibsperre hält. Er darf den Zustand direkt
+     * lesen, z. B. in einem Kollisionsbeobachter. Wird nur von diesem Thread
+     * mit sich selbst verglichen und muss deshalb nicht volatile sein.
+     */
+    private Thread writer;
+
+    /*
+     * Die Messwerte des zuletzt simulierten Einzelbilds, siehe getStatistics().
+     */
+    private int lastSubsteps;
+
+    private long lastStepNanos;
+
+    private long lastBroadphaseNanos;
+
+    private long lastNarrowphaseNanos;
+
+    private long lastSolverNanos;
+
+    private long lastToiNanos;
+
     /**
      * Erstellt eine neue standardisierte Physik ohne Schwerkraft.
      */
@@ -162,246 +273,1526 @@ public class WorldHandler implements ContactListener
         }
     }
 
-    public void step(double pastTime)
+    public void step(double pastTime)
+    {
+        if (worldPaused)
+        {
+            // Eingereihte Änderungen werden auch in einer angehaltenen Welt
+            // übernommen.
+            flushCommands();
+            return;
+        }
+        long stamp = bodyStates.writeLock();
+        writer = Thread.currentThread();
+        try
+        {
+            synchronized (this)
+            {
+                synchronized (this.world)
+                {
+                    applyCommands();
+                    // Andere Threads lesen während des World-Steps den
+                    // Zustand vor dem ersten Teilschritt.
+                    publishBodyStates();
+                    stepSubsteps(pastTime);
+                    // Änderungen aus den Beobachtern des letzten Teilschritts
+                    applyCommands();
+                }
+            }
+        }
+        finally
+        {
+            writer = null;
+            bodyStates.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Veröffentlicht den Bewegungszustand aller Körper dieser Welt. Muss mit
+     * der Schreibsperre aufgerufen werden.
+     */
+    private void publishBodyStates()
+    {
+        if (arcadeWorld != null)
+        {
+            arcadeWorld.publishStates();
+            return;
+        }
+        for (Body body = world.getBodyList(); body != null; body = body
+                .getNext())
+        {
+            // Geister einer WorldPartition verweisen auf die Figur, gehören
+            // aber nicht zu ihrem BodyHandler.
+            if (body.getUserData() instanceof Actor actor
+                    && actor.getPhysicsHandler() instanceof BodyHandler handler
+                    && handler.getBody() == body)
+            {
+                handler.publishState();
+            }
+        }
+    }
+
+    private void stepSubsteps(double pastTime)
+    {
+        // We use constant time frames for consistency
+        // https://gamedev.stackexchange.com/q/86609/38865
+        SolverAutoTuner tuner = solverAutoTuner;
+        double effectiveStepTime = stepTime;
+        int effectiveVelocityIterations = velocityIterations;
+        int effectivePositionIterations = positionIterations;
+        if (tuner != null)
+        {
+            effectiveStepTime = 1 / tuner.limitStepRate(getStepRate());
+            effectiveVelocityIterations = tuner
+                    .limitVelocityIterations(velocityIterations);
+            effectivePositionIterations = tuner
+                    .limitPositionIterations(positionIterations);
+        }
+        long start = System.nanoTime();
+        simulationAccumulator += pastTime;
+        ArcadeWorld arcadeWorld = this.arcadeWorld;
+        Vec2 gravity = arcadeWorld != null ? world.getGravity() : null;
+        if (arcadeWorld != null)
+        {
+            arcadeWorld.resetTimings();
+        }
+        int substeps = 0;
+        long stepNanos = 0;
+        // Die Messwerte des JBox2D-Profils in Millisekunden, summiert über
+        // alle Teilschritte
+        double broadphase = 0;
+        double narrowphase = 0;
+        double solver = 0;
+        double toi = 0;
+        while (simulationAccumulator >= effectiveStepTime)
+        {
+            simulationAccumulator -= effectiveStepTime;
+            applyCommands();
+            long substepStart = System.nanoTime();
+            if (arcadeWorld != null)
+            {
+                arcadeWorld.step(effectiveStepTime, gravity.x, gravity.y);
+            }
+            else
+            {
+                this.world.step((float) effectiveStepTime,
+                        effectiveVelocityIterations,
+                        effectivePositionIterations);
+                Profile profile = world.getProfile();
+                // JBox2D misst die Broadphase innerhalb des Lösers.
+                broadphase += profile.broadphase;
+                narrowphase += profile.collide;
+                solver += Math.max(0, profile.solve - profile.broadphase);
+                toi += profile.solveTOI;
+            }
+            stepNanos += System.nanoTime() - substepStart;
+            substeps++;
+        }
+        lastSubsteps = substeps;
+        lastStepNanos = stepNanos;
+        if (arcadeWorld != null)
+        {
+            lastBroadphaseNanos = arcadeWorld.broadphaseNanos;
+            lastNarrowphaseNanos = arcadeWorld.narrowphaseNanos;
+            lastSolverNanos = arcadeWorld.solverNanos;
+            lastToiNanos = 0;
+        }
+        else
+        {
+            lastBroadphaseNanos = (long) (broadphase * 1e6);
+            lastNarrowphaseNanos = (long) (narrowphase * 1e6);
+            lastSolverNanos = (long) (solver * 1e6);
+            lastToiNanos = (long) (toi * 1e6);
+        }
+        if (tuner != null)
+        {
+            tuner.update(this, (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    /**
+     * Gibt die <b>Kennzahlen</b> dieser Physik-Welt zurück, z. B. um
+     * festzustellen, ob die Physik oder das Zeichnen die meiste Zeit
+     * verbraucht.
+     *
+     * <p>
+     * Die Anzahlen werden beim Aufruf ermittelt, die Zeiten beziehen sich auf
+     * das zuletzt simulierte Einzelbild. Bei JBox2D werden die Phasen aus dem
+     * {@link Profile} der World nach jedem Teilschritt aufsummiert. Die
+     * Broadphase misst JBox2D innerhalb des Lösers, sie ist deshalb von der
+     * Zeit des Lösers abgezogen. Das Arcade-Backend misst Broadphase,
+     * Narrowphase und Löser selbst und kennt keine kontinuierliche
+     * Kollisionserkennung, seine TOI-Zeit ist deshalb 0.
+     * </p>
+     *
+     * @return Eine Momentaufnahme der Kennzahlen.
+     */
+    @API
+    public PhysicsStatistics getStatistics()
+    {
+        synchronized (this)
+        {
+            int bodyCount;
+            int awakeBodyCount;
+            int contactCount;
+            int touchingContactCount;
+            int jointCount;
+            if (arcadeWorld != null)
+            {
+                // Arcade-Körper schlafen nie und Kontakte entstehen erst bei
+                // einer Überlappung.
+                bodyCount = arcadeWorld.getBodyCount();
+                awakeBodyCount = bodyCount;
+                contactCount = arcadeWorld.getContactCount();
+                touchingContactCount = contactCount;
+                jointCount = 0;
+            }
+            else
+            {
+                bodyCount = world.getBodyCount();
+                awakeBodyCount = 0;
+                for (Body body = world.getBodyList(); body != null; body = body
+                        .getNext())
+                {
+                    if (body.isAwake())
+                    {
+                        awakeBodyCount++;
+                    }
+                }
+                contactCount = world.getContactCount();
+                touchingContactCount = 0;
+                for (Contact contact = world
+                        .getContactList(); contact != null; contact = contact
+                                .getNext())
+                {
+                    if (contact.isTouching())
+                    {
+                        touchingContactCount++;
+                    }
+                }
+                jointCount = world.getJointCount();
+            }
+            return new PhysicsStatistics(bodyCount, awakeBodyCount,
+                    contactCount, touchingContactCount, jointCount,
+                    lastSubsteps, lastStepNanos / 1e9,
+                    lastBroadphaseNanos / 1e9, lastNarrowphaseNanos / 1e9,
+                    lastSolverNanos / 1e9, lastToiNanos / 1e9);
+        }
+    }
+
+    /**
+     * Reiht eine Änderung an einem Körper dieser Welt ein, ohne zu warten oder
+     * eine Sperre anzufordern.
+     *
+     * <p>
+     * Die Änderung wird an der nächsten Grenze zwischen zwei Teilschritten
+     * übernommen, spätestens am Ende des World-Steps. Außerhalb eines
+     * World-Steps übernimmt der nächste Getter eines Körpers dieser Welt alle
+     * eingereihten Änderungen, bevor er liest. Ein Getter nach einem Setter
+     * liefert deshalb den neuen Wert, außer in einem Kollisionsbeobachter
+     * während des World-Steps. Änderungen desselben Threads werden in der
+     * Reihenfolge ihres Aufrufs übernommen.
+     * </p>
+     *
+     * @param command Die Änderung.
+     */
+    @Internal
+    public void execute(Runnable command)
+    {
+        commands.offer(command);
+    }
+
+    /**
+     * Übernimmt alle eingereihten Änderungen, falls gerade kein anderer Thread
+     * die Welt simuliert oder Änderungen übernimmt. Wird von den Gettern vor
+     * jedem Lesezugriff aufgerufen und wartet nie.
+     */
+    void applyPendingCommands()
+    {
+        if (commands.isEmpty())
+        {
+            return;
+        }
+        long stamp = bodyStates.tryWriteLock();
+        if (stamp == 0)
+        {
+            // Der World-Step übernimmt die Änderungen selbst.
+            return;
+        }
+        try
+        {
+            synchronized (this)
+            {
+                synchronized (world)
+                {
+                    applyCommands();
+                }
+            }
+        }
+        finally
+        {
+            bodyStates.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Übernimmt alle eingereihten Änderungen sofort und wartet dafür
+     * gegebenenfalls das Ende eines World-Steps ab.
+     */
+    void flushCommands()
+    {
+        runExclusive(() -> {
+        });
+    }
+
+    /**
+     * Übernimmt alle eingereihten Änderungen und führt danach eine Aktion aus,
+     * ohne dass ein World-Step oder andere Änderungen dazwischenkommen können.
+     */
+    @Internal
+    public void runExclusive(Runnable action)
+    {
+        if (writer == Thread.currentThread())
+        {
+            // Verschachtelter Aufruf, z. B. beim Entfernen mehrerer Figuren
+            synchronized (this)
+            {
+                synchronized (world)
+                {
+                    applyCommands();
+                    action.run();
+                }
+            }
+            return;
+        }
+        long stamp = bodyStates.writeLock();
+        writer = Thread.currentThread();
+        try
+        {
+            synchronized (this)
+            {
+                synchronized (world)
+                {
+                    applyCommands();
+                    action.run();
+                }
+            }
+        }
+        finally
+        {
+            writer = null;
+            bodyStates.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Beginnt einen Lesezugriff auf den Bewegungszustand eines Körpers. Vorher
+     * werden eingereihte Änderungen übernommen.
+     *
+     * @return Ein Stempel für {@link #validateRead(long)}.
+     */
+    long beginRead()
+    {
+        if (writer == Thread.currentThread())
+        {
+            return 0;
+        }
+        applyPendingCommands();
+        return bodyStates.tryOptimisticRead();
+    }
+
+    /**
+     * Prüft, ob die seit {@link #beginRead()} gelesenen Werte gültig sind.
+     * Andernfalls muss der veröffentlichte {@link BodyState} verwendet werden.
+     */
+    boolean validateRead(long stamp)
+    {
+        return writer == Thread.currentThread() || bodyStates.validate(stamp);
+    }
+
+    /**
+     * Gibt an, ob eingereihte Änderungen auf ihre Übernahme warten.
+     */
+    boolean hasPendingCommands()
+    {
+        return !commands.isEmpty();
+    }
+
+    /**
+     * Übernimmt alle eingereihten Änderungen. Muss mit der Schreibsperre und
+     * außerhalb von {@link World#step(float, int, int)} aufgerufen werden.
+     */
+    private void applyCommands()
+    {
+        Runnable command;
+        while ((command = commands.poll()) != null)
+        {
+            command.run();
+        }
+    }
+
+    /**
+     * Setzt die Anzahl der Physik-Schritte pro Sekunde.
+     *
+     * @param stepRate Die Anzahl der Physik-Schritte pro Sekunde. Muss größer
+     *     als 0 sein.
+     */
+    public void setStepRate(double stepRate)
+    {
+        if (stepRate <= 0)
+        {
+            throw new IllegalArgumentException(
+                    "Die Schrittrate muss größer als 0 sein, war " + stepRate);
+        }
+        synchronized (this)
+        {
+            stepTime = 1 / stepRate;
+        }
+    }
+
+    /**
+     * Gibt die Anzahl der Physik-Schritte pro Sekunde zurück.
+     *
+     * @return Die Anzahl der Physik-Schritte pro Sekunde.
+     */
+    public double getStepRate()
+    {
+        return 1 / stepTime;
+    }
+
+    /**
+     * Setzt die Anzahl der Geschwindigkeits-Iterationen pro Physik-Schritt.
+     *
+     * @param velocityIterations Die Anzahl der Geschwindigkeits-Iterationen.
+     *     Muss mindestens 1 sein.
+     */
+    public void setVelocityIterations(int velocityIterations)
+    {
+        if (velocityIterations < 1)
+        {
+            throw new IllegalArgumentException(
+                    "Die Anzahl an Iterationen muss mindestens 1 sein, war "
+                            + velocityIterations);
+        }
+        synchronized (this)
+        {
+            this.velocityIterations = velocityIterations;
+        }
+    }
+
+    /**
+     * Gibt die Anzahl der Geschwindigkeits-Iterationen pro Physik-Schritt
+     * zurück.
+     *
+     * @return Die Anzahl der Geschwindigkeits-Iterationen.
+     */
+    public int getVelocityIterations()
+    {
+        return velocityIterations;
+    }
+
+    /**
+     * Setzt die Anzahl der Positions-Iterationen pro Physik-Schritt.
+     *
+     * @param positionIterations Die Anzahl der Positions-Iterationen. Muss
+     *     mindestens 1 sein.
+     */
+    public void setPositionIterations(int positionIterations)
+    {
+        if (positionIterations < 1)
+        {
+            throw new IllegalArgumentException(
+                    "Die Anzahl an Iterationen muss mindestens 1 sein, war "
+                            + positionIterations);
+        }
+        synchronized (this)
+        {
+            this.positionIterations = positionIterations;
+        }
+    }
+
+    /**
+     * Gibt die Anzahl der Positions-Iterationen pro Physik-Schritt zurück.
+     *
+     * @return Die Anzahl der Positions-Iterationen.
+     */
+    public int getPositionIterations()
+    {
+        return positionIterations;
+    }
+
+    /**
+     * Setzt den Regler, der die Genauigkeit des Physik-Lösers an die verfügbare
+     * Rechenzeit anpasst.
+     *
+     * @param solverAutoTuner Der Regler oder {@code null}, um die automatische
+     *     Anpassung abzuschalten.
+     */
+    public void setSolverAutoTuner(SolverAutoTuner solverAutoTuner)
+    {
+        synchronized (this)
+        {
+            // Unter der Sperre, damit das Zurücksetzen nicht mit der
+            // Auswertung im World-Step zusammenfällt.
+            if (solverAutoTuner != null)
+            {
+                solverAutoTuner.reset();
+            }
+            this.solverAutoTuner = solverAutoTuner;
+        }
+    }
+
+    public SolverAutoTuner getSolverAutoTuner()
+    {
+        return solverAutoTuner;
+    }
+
+    /**
+     * Legt die Physik-Engine fest, mit der neu angemeldete Figuren simuliert
+     * werden.
+     *
+     * @param backend Die Physik-Engine.
+     */
+    @Internal
+    public void setPhysicsBackend(PhysicsBackend backend)
+    {
+        synchronized (this)
+        {
+            if (backend == PhysicsBackend.ARCADE)
+            {
+                if (arcadeWorld == null)
+                {
+                    arcadeWorld = new ArcadeWorld();
+                }
+            }
+            else
+            {
+                arcadeWorld = null;
+            }
+        }
+    }
+
+    public PhysicsBackend getPhysicsBackend()
+    {
+        return arcadeWorld != null ? PhysicsBackend.ARCADE
+                : PhysicsBackend.JBOX2D;
+    }
+
+    /**
+     * Setzt die Kantenlänge einer Zelle des Hashgitters, über das die
+     * Arcade-Physik mögliche Kollisionspaare findet. Sie sollte etwa der
+     * doppelten Größe einer typischen Figur entsprechen.
+     *
+     * @param cellSize Die Kantenlänge in Meter.
+     *
+     * @throws IllegalStateException Falls die Ebene nicht das Arcade-Backend
+     *     verwendet.
+     */
+    public void setArcadeCellSize(double cellSize)
+    {
+        assertArcade().setCellSize(cellSize);
+    }
+
+    public double getArcadeCellSize()
+    {
+        return assertArcade().getCellSize();
+    }
+
+    private ArcadeWorld assertArcade()
+    {
+        ArcadeWorld arcadeWorld = this.arcadeWorld;
+        if (arcadeWorld == null)
+        {
+            throw new IllegalStateException(
+                    "Die Ebene verwendet nicht das Arcade-Backend.");
+        }
+        return arcadeWorld;
+    }
+
+    ArcadeWorld getArcadeWorld()
+    {
+        return arcadeWorld;
+    }
+
+    /**
+     * Gibt die maximale Größe eines Schnappschusses dieser Welt in Bytes
+     * zurück.
+     *
+     * @return Die maximale Größe eines Schnappschusses in Bytes.
+     */
+    public int getSnapshotSize()
+    {
+        assertJBox2DBackend("Schnappschüsse");
+        synchronized (world)
+        {
+            return WorldSnapshot.getMaxSize(world);
+        }
+    }
+
+    /**
+     * Schreibt den Zustand aller Körper und Gelenke ab der aktuellen Position
+     * in den Puffer.
+     *
+     * @param buffer Der Puffer mit mindestens {@link #getSnapshotSize()} freien
+     *     Bytes.
+     */
+    public void snapshot(ByteBuffer buffer)
+    {
+        assertJBox2DBackend("Schnappschüsse");
+        runExclusive(() -> {
+            assertNoWorldStep();
+            snapshot.write(world, this::getBodyId, simulationAccumulator,
+                    buffer);
+        });
+    }
+
+    /**
+     * Prüft, ob ein Schnappschuss zu den Körpern und Gelenken dieser Welt
+     * passt, ohne etwas zu verändern. Danach steht der Puffer hinter dem
+     * Schnappschuss.
+     *
+     * @param buffer Der Puffer, der ab der aktuellen Position einen mit
+     *     {@link #snapshot(ByteBuffer)} geschriebenen Schnappschuss enthält.
+     *
+     * @throws IllegalStateException Falls seit dem Schnappschuss Körper oder
+     *     Gelenke hinzugefügt, entfernt oder ersetzt wurden.
+     */
+    public void validateSnapshot(ByteBuffer buffer)
+    {
+        assertJBox2DBackend("Schnappschüsse");
+        synchronized (world)
+        {
+            snapshot.validate(world, this::getBodyId, buffer);
+        }
+    }
+
+    /**
+     * Stellt den Zustand aller Körper und Gelenke aus dem Puffer wieder her,
+     * ohne Körper neu zu erzeugen.
+     *
+     * @param buffer Der Puffer, der ab der aktuellen Position einen mit
+     *     {@link #snapshot(ByteBuffer)} geschriebenen Schnappschuss enthält.
+     */
+    public void restore(ByteBuffer buffer)
+    {
+        assertJBox2DBackend("Schnappschüsse");
+        // Vorher eingereihte Änderungen dürfen den wiederhergestellten Zustand
+        // nicht nachträglich verändern.
+        runExclusive(() -> {
+            assertNoWorldStep();
+            simulationAccumulator = snapshot.read(world, this::getBodyId,
+                    buffer);
+        });
+    }
+
+    /**
+     * Stellt sicher, dass die Ebene JBox2D verwendet. Die Arcade-Welt kennt
+     * keine Schnappschüsse und keine Abfragen.
+     *
+     * @param feature Die Funktion im Plural für die Fehlermeldung.
+     */
+    private void assertJBox2DBackend(String feature)
+    {
+        if (arcadeWorld != null)
+        {
+            throw new IllegalStateException(feature
+                    + " werden für Ebenen mit dem Arcade-Backend nicht unterstützt.");
+        }
+    }
+
+    /**
+     * Gibt die Kennung zurück, die ein Körper beim Erzeugen in dieser Welt
+     * erhalten hat, oder 0 für unbekannte Körper.
+     */
+    int getBodyId(Body body)
+    {
+        Integer id = bodyIds.get(body);
+        return id == null ? 0 : id;
+    }
+
+    /**
+     * Erstellt einen {@link Body} und mappt ihn intern zum analogen
+     * {@link Actor}-Objekt.
+     *
+     * @param bd Exakte Beschreibung des Bodies.
+     * @param actor {@link Actor}-Objekt, das ab sofort zu dem Body gehört.
+     *
+     * @return Der {@link Body}, der aus der {@link BodyDef} generiert wurde. Er
+     *     liegt in der Game-World dieses Handlers.
+     */
+    public Body createBody(BodyDef bd, Actor actor)
+    {
+        Body body;
+        synchronized (world)
+        {
+            body = world.createBody(bd);
+            body.setUserData(actor);
+            bodyIds.put(body, nextBodyId++);
+        }
+        return body;
+    }
+
+    /**
+     * Entfernt alle internen Referenzen auf einen {@link Body Körper} und
+     * zerstört ihn.
+     *
+     * @param body Der Körper, der zerstört werden soll.
+     */
+    @Internal
+    public void destroyBody(Body body)
+    {
+        removeAllInternalReferences(body);
+        // Eingereihte Änderungen an dem Körper werden vorher übernommen.
+        // Danach verwerfen die Änderungen, die neue Umrisse erzeugen würden,
+        // sich selbst, siehe containsBody(Body).
+        runExclusive(() -> {
+            bodyIds.remove(body);
+            world.destroyBody(body);
+        });
+    }
+
+    /**
+     * Gibt an, ob ein Körper noch zu dieser Welt gehört. Muss unter der Sperre
+     * der World aufgerufen werden, also z. B. in einer eingereihten Änderung.
+     */
+    boolean containsBody(Body body)
+    {
+        return bodyIds.containsKey(body);
+    }
+
+    /**
+     * Entfernt alle internen Referenzen auf einen {@link Body Körper} und das
+     * zugehörige {@link Actor}-Objekt.
+     *
+     * @param body Der zu entfernende {@link Body Körper}.
+     */
+    @Internal
+    public void removeAllInternalReferences(Body body)
+    {
+        specificCollisionListeners.remove(body);
+        generalCollisonListeners.remove(body);
+    }
+
+    /**
+     * Überträgt die Kollisionsbeobachter eines Körpers auf einen Körper in
+     * einer anderen Welt, z. B. wenn eine Figur in eine andere Region einer
+     * {@link WorldPartition} wechselt. Beobachter für bestimmte Figurenpaare
+     * erkennen den Partner an seiner Figur und gelten deshalb weiter.
+     *
+     * @param from Der bisherige Körper in dieser Welt.
+     * @param target Die Welt des neuen Körpers.
+     * @param to Der neue Körper.
+     */
+    @Internal
+    public void transferInternalReferences(Body from, WorldHandler target,
+            Body to)
+    {
+        List<Checkup<? extends Actor>> checkups = specificCollisionListeners
+                .remove(from);
+        if (checkups != null)
+        {
+            target.specificCollisionListeners.put(to, checkups);
+        }
+        List<CollisionListener<Actor>> listeners = generalCollisonListeners
+                .remove(from);
+        if (listeners != null)
+        {
+            target.generalCollisonListeners.put(to, listeners);
+        }
+    }
+
+    /**
+     * Übernimmt die Schwerkraft, die Schrittrate und die Iterationen einer
+     * anderen Welt.
+     */
+    @Internal
+    public void copySettingsFrom(WorldHandler other)
+    {
+        world.setGravity(other.world.getGravity());
+        synchronized (this)
+        {
+            stepTime = other.stepTime;
+            velocityIterations = other.velocityIterations;
+            positionIterations = other.positionIterations;
+        }
+    }
+
+    /**
+     * Fügt einen {@link Contact Kontakt} der Blacklist hinzu. {@link Contact
+     * Kontakt}e in der Blacklist werden bis zur Trennung nicht aufgelöst. Der
+     * Kontakt wird nach endContact wieder entfernt.
+     */
+    @Internal
+    public void addContactToBlacklist(Contact contact)
+    {
+        contactsToIgnore
+                .add(new FixturePair(contact.fixtureA, contact.fixtureB));
+    }
+    /* ____________ CONTACT LISTENER INTERFACE ____________ */
+
+    @Override
+    public void beginContact(Contact contact)
+    {
+        processContact(contact, true);
+    }
+
+    @Override
+    public void endContact(Contact contact)
+    {
+        processContact(contact, false);
+    }
+
+    /**
+     * Verarbeitet einen Kontakt in der Physics-Engine.
+     *
+     * @param contact JBox2D Contact Objekt, das den Contact beschreibt.
+     * @param isBegin true = Begin-Kontakt | false = End-Kontakt
+     */
+    @Internal
+    private void processContact(final Contact contact, boolean isBegin)
+    {
+        final Body b1 = contact.getFixtureA().getBody();
+        final Body b2 = contact.getFixtureB().getBody();
+        if (b1 == b2)
+        {
+            // Gleicher Body, don't care
+            Logger.error("Collision", "Inter-Body Collision!");
+            return;
+        }
+        /*
+         * ~~~~~~~~~~~~~~~~~~~~~~~ TEIL I : Spezifische Checkups
+         * ~~~~~~~~~~~~~~~~~~~~~~~
+         */
+        specificCheckup(b1, b2, contact, isBegin);
+        specificCheckup(b2, b1, contact, isBegin);
+        /*
+         * ~~~~~~~~~~~~~~~~~~~~~~~ TEIL II : Allgemeine Checkups
+         * ~~~~~~~~~~~~~~~~~~~~~~~
+         */
+        generalCheckup(b1, b2, contact, isBegin);
+        generalCheckup(b2, b1, contact, isBegin);
+        if (!isBegin)
+        {
+            // Contact ist beendet -> Set Enabled and remove from blacklist
+            contact.setEnabled(true);
+            // System.out.println("REMOVE");
+            removeFromBlacklist(contact);
+        }
+    }
+
+    private void removeFromBlacklist(Contact contact)
+    {
+        FixturePair fixturePair = null;
+        for (FixturePair ignoredPair : contactsToIgnore)
+        {
+            if (ignoredPair.matches(contact.fixtureA, contact.fixtureB))
+            {
+                fixturePair = ignoredPair;
+                break;
+            }
+        }
+        if (fixturePair != null)
+        {
+            contactsToIgnore.remove(fixturePair);
+        }
+    }
+
+    private void specificCheckup(Body act, Body col, Contact contact,
+            boolean isBegin)
+    {
+        List<Checkup<? extends Actor>> list = specificCollisionListeners
+                .get(act);
+        if (list == null)
+        {
+            return;
+        }
+        Actor other = getActor(col);
+        if (other == null)
+        {
+            return;
+        }
+        for (Checkup<? extends Actor> checkup : list)
+        {
+            checkup.checkCollision(other, contact, isBegin);
+        }
+    }
+
+    @Internal
+    private void generalCheckup(Body act, Body col, Contact contact,
+            final boolean isBegin)
+    {
+        List<CollisionListener<Actor>> list = generalCollisonListeners.get(act);
+        if (list != null)
+        {
+            Actor other = getActor(col);
+            if (other == null)
+            {
+                return; // Is null on async removals
+            }
+            CollisionEvent<Actor> collisionEvent = new CollisionEvent<>(contact,
+                    other);
+            for (CollisionListener<Actor> listener : list)
+            {
+                long start = ListenerProfiler.start();
+                if (isBegin)
+                {
+                    listener.onCollision(collisionEvent);
+                }
+                else
+                {
+                    listener.onCollisionEnd(collisionEvent);
+                }
+                ListenerProfiler.stop(listener, start);
+            }
+        }
+    }
+
+    @Override
+    public void preSolve(Contact contact, Manifold manifold)
+    {
+        for (FixturePair ignoredPair : contactsToIgnore)
+        {
+            if (ignoredPair.matches(contact.fixtureA, contact.fixtureB))
+            {
+                contact.setEnabled(false);
+            }
+        }
+    }
+
+    @Override
+    public void postSolve(Contact contact, ContactImpulse contactImpulse)
+    {
+        // Ignore that shit.
+    }
+
+    public Layer getLayer()
+    {
+        return layer;
+    }
+    /* ____________ On-Request Collision Checkups ____________ */
+
+    @Internal
+    public Fixture[] queryAABB(AABB aabb)
+    {
+        ArrayList<Fixture> fixtures = new ArrayList<>();
+        world.queryAABB((QueryCallback) fixtures::add, aabb);
+        return fixtures.toArray(new Fixture[0]);
+    }
+
+    /**
+     * Wiederverwendbare Sammler für die Abfragen, damit pro Abfrage keine neuen
+     * Objekte erzeugt werden müssen. Alle Abfragen synchronisieren deshalb auf
+     * die World. Startet ein Besucher eine weitere Abfrage, erhält sie den
+     * Sammler der nächsten Schachtelungstiefe.
+     */
+    private RaycastCollector[] raycastCollectors = new RaycastCollector[2];
+
+    private int raycastDepth;
+
+    private QueryCollector[] queryCollectors = new QueryCollector[2];
+
+    private int queryDepth;
+
+    private RaycastCollector acquireRaycastCollector(int categoryMask)
+    {
+        if (raycastDepth == raycastCollectors.length)
+        {
+            raycastCollectors = Arrays.copyOf(raycastCollectors,
+                    raycastDepth * 2);
+        }
+        RaycastCollector collector = raycastCollectors[raycastDepth];
+        if (collector == null)
+        {
+            collector = new RaycastCollector();
+            raycastCollectors[raycastDepth] = collector;
+        }
+        raycastDepth++;
+        collector.prepare(categoryMask);
+        return collector;
+    }
+
+    private void releaseRaycastCollector(RaycastCollector collector)
+    {
+        collector.clear();
+        raycastDepth--;
+    }
+
+    private QueryCollector acquireQueryCollector(int categoryMask)
+    {
+        if (queryDepth == queryCollectors.length)
+        {
+            queryCollectors = Arrays.copyOf(queryCollectors, queryDepth * 2);
+        }
+        QueryCollector collector = queryCollectors[queryDepth];
+        if (collector == null)
+        {
+            collector = new QueryCollector();
+            queryCollectors[queryDepth] = collector;
+        }
+        queryDepth++;
+        collector.prepare(categoryMask);
+        return collector;
+    }
+
+    private void releaseQueryCollector(QueryCollector collector)
+    {
+        collector.clear();
+        queryDepth--;
+    }
+
+    /**
+     * Sucht die erste Figur, die ein Strahl vom Start- zum Endpunkt trifft.
+     *
+     * @param hit Der Treffer, in den das Ergebnis geschrieben wird.
+     *
+     * @return <code>true</code>, falls eine Figur getroffen wurde.
+     */
+    public boolean raycast(double fromX, double fromY, double toX, double toY,
+            int categoryMask, RaycastHit hit)
+    {
+        assertJBox2DBackend("Strahlabfragen");
+        applyPendingCommands();
+        hit.clear();
+        synchronized (world)
+        {
+            RaycastCollector collector = acquireRaycastCollector(categoryMask);
+            try
+            {
+                collector.closest = hit;
+                performRaycast(collector, fromX, fromY, toX, toY);
+            }
+            finally
+            {
+                releaseRaycastCollector(collector);
+            }
+        }
+        return hit.isHit();
+    }
+
+    /**
+     * Schreibt die Figuren, die ein Strahl trifft, nach Entfernung sortiert in
+     * das übergebene Feld. Jede Figur wird höchstens einmal mit ihrem
+     * nächstgelegenen Treffer eingetragen. Passen nicht alle Treffer in das
+     * Feld, werden die nächstgelegenen behalten.
+     *
+     * @param hits Das Feld für die Treffer. Leere Einträge werden beim ersten
+     *     Gebrauch gefüllt und danach wiederverwendet.
+     *
+     * @return Die Anzahl der Treffer im Feld.
+     */
+    public int raycastAll(double fromX, double fromY, double toX, double toY,
+            int categoryMask, RaycastHit[] hits)
+    {
+        assertJBox2DBackend("Strahlabfragen");
+        applyPendingCommands();
+        if (hits.length == 0)
+        {
+            return 0;
+        }
+        synchronized (world)
+        {
+            RaycastCollector collector = acquireRaycastCollector(categoryMask);
+            try
+            {
+                collector.hits = hits;
+                performRaycast(collector, fromX, fromY, toX, toY);
+                return collector.count;
+            }
+            finally
+            {
+                releaseRaycastCollector(collector);
+            }
+        }
+    }
+
+    /**
+     * Meldet alle Figuren, die ein Strahl trifft, an den Besucher.
+     *
+     * <p>
+     * Der Besucher wird erst aufgerufen, nachdem JBox2D die Welt durchsucht
+     * hat. Er darf deshalb selbst weitere Abfragen an diese Welt stellen.
+     * </p>
+     */
+    public void raycastAll(double fromX, double fromY, double toX, double toY,
+            int categoryMask, RaycastVisitor visitor)
+    {
+        assertJBox2DBackend("Strahlabfragen");
+        applyPendingCommands();
+        synchronized (world)
+        {
+            RaycastCollector collector = acquireRaycastCollector(categoryMask);
+            try
+            {
+                collector.collect = true;
+                performRaycast(collector, fromX, fromY, toX, toY);
+                for (int i = 0; i < collector.count; i++)
+                {
+                    if (!visitor.visit(collector.collected[i]))
+                    {
+                        break;
+                    }
+                }
+            }
+            finally
+            {
+                releaseRaycastCollector(collector);
+            }
+        }
+    }
+
+    private void performRaycast(RaycastCollector collector, double fromX,
+            double fromY, double toX, double toY)
+    {
+        if (fromX == toX && fromY == toY)
+        {
+            // Box2D kann keine Strahlen der Länge 0 verarbeiten.
+            return;
+        }
+        collector.from.set((float) fromX, (float) fromY);
+        collector.to.set((float) toX, (float) toY);
+        world.raycast(collector, collector.from, collector.to);
+    }
+
+    /**
+     * Schreibt alle Figuren, deren Umrisse das Rechteck berühren, in das
+     * übergebene Feld. Jede Figur wird höchstens einmal eingetragen.
+     *
+     * @return Die Anzahl der Figuren im Feld.
+     */
+    public int queryAABB(Bounds bounds, int categoryMask, Actor[] actors)
     {
-        if (worldPaused)
+        assertJBox2DBackend("Bereichsabfragen");
+        applyPendingCommands();
+        if (actors.length == 0)
         {
-            return;
+            return 0;
         }
-        synchronized (this)
+        synchronized (world)
         {
-            synchronized (this.world)
+            QueryCollector collector = acquireQueryCollector(categoryMask);
+            try
             {
-                // We use constant time frames for consistency
-                // https://gamedev.stackexchange.com/q/86609/38865
-                simulationAccumulator += pastTime;
-                while (simulationAccumulator >= STEP_TIME)
-                {
-                    simulationAccumulator -= STEP_TIME;
-                    this.world.step((float) STEP_TIME, 6, 3);
-                }
+                collector.actors = actors;
+                performQuery(collector, bounds);
+                return collector.count;
+            }
+            finally
+            {
+                releaseQueryCollector(collector);
             }
         }
     }
 
     /**
-     * Erstellt einen {@link Body} und mappt ihn intern zum analogen
-     * {@link Actor}-Objekt.
-     *
-     * @param bd Exakte Beschreibung des Bodies.
-     * @param actor {@link Actor}-Objekt, das ab sofort zu dem Body gehört.
+     * Meldet alle Figuren, deren Umrisse das Rechteck berühren, an den
+     * Besucher.
      *
-     * @return Der {@link Body}, der aus der {@link BodyDef} generiert wurde. Er
-     *     liegt in der Game-World dieses Handlers.
+     * <p>
+     * Der Besucher wird erst aufgerufen, nachdem JBox2D die Welt durchsucht
+     * hat. Er darf deshalb selbst weitere Abfragen an diese Welt stellen.
+     * </p>
      */
-    public Body createBody(BodyDef bd, Actor actor)
+    public void queryAABB(Bounds bounds, int categoryMask, QueryVisitor visitor)
     {
-        Body body;
+        assertJBox2DBackend("Bereichsabfragen");
+        applyPendingCommands();
         synchronized (world)
         {
-            body = world.createBody(bd);
-            body.setUserData(actor);
+            QueryCollector collector = acquireQueryCollector(categoryMask);
+            try
+            {
+                collector.collect = true;
+                performQuery(collector, bounds);
+                collector.visitCollected(visitor);
+            }
+            finally
+            {
+                releaseQueryCollector(collector);
+            }
         }
-        return body;
     }
 
-    /**
-     * Entfernt alle internen Referenzen auf einen {@link Body Körper} und das
-     * zugehörige {@link Actor}-Objekt.
-     *
-     * @param body Der zu entfernende {@link Body Körper}.
-     */
-    @Internal
-    public void removeAllInternalReferences(Body body)
+    private void performQuery(QueryCollector collector, Bounds bounds)
     {
-        specificCollisionListeners.remove(body);
-        generalCollisonListeners.remove(body);
+        collector.bounds.lowerBound.set((float) bounds.x(), (float) bounds.y());
+        collector.bounds.upperBound.set((float) (bounds.x() + bounds.width()),
+                (float) (bounds.y() + bounds.height()));
+        world.queryAABB(collector, collector.bounds);
     }
 
     /**
-     * Fügt einen {@link Contact Kontakt} der Blacklist hinzu. {@link Contact
-     * Kontakt}e in der Blacklist werden bis zur Trennung nicht aufgelöst. Der
-     * Kontakt wird nach endContact wieder entfernt.
+     * Schreibt alle Figuren, die sich mit dem Umriss an der angegebenen
+     * Position überschneiden, in das übergebene Feld. Jede Figur wird höchstens
+     * einmal eingetragen.
+     *
+     * @param rotation Die Drehung des Umrisses in Grad.
+     *
+     * @return Die Anzahl der Figuren im Feld.
      */
-    @Internal
-    public void addContactToBlacklist(Contact contact)
+    public int queryShape(FixtureData shape, double x, double y,
+            double rotation, int categoryMask, Actor[] actors)
     {
-        contactsToIgnore
-                .add(new FixturePair(contact.fixtureA, contact.fixtureB));
+        assertJBox2DBackend("Umrissabfragen");
+        applyPendingCommands();
+        if (actors.length == 0)
+        {
+            return 0;
+        }
+        synchronized (world)
+        {
+            QueryCollector collector = acquireQueryCollector(categoryMask);
+            try
+            {
+                collector.actors = actors;
+                performShapeQuery(collector, shape.getShape(), x, y, rotation);
+                return collector.count;
+            }
+            finally
+            {
+                releaseQueryCollector(collector);
+            }
+        }
     }
-    /* ____________ CONTACT LISTENER INTERFACE ____________ */
 
-    @Override
-    public void beginContact(Contact contact)
+    /**
+     * Meldet alle Figuren, die sich mit dem Umriss an der angegebenen Position
+     * überschneiden, an den Besucher.
+     *
+     * <p>
+     * Der Besucher wird erst aufgerufen, nachdem JBox2D die Welt durchsucht
+     * hat. Er darf deshalb selbst weitere Abfragen an diese Welt stellen.
+     * </p>
+     *
+     * @param rotation Die Drehung des Umrisses in Grad.
+     */
+    public void queryShape(FixtureData shape, double x, double y,
+            double rotation, int categoryMask, QueryVisitor visitor)
     {
-        processContact(contact, true);
+        assertJBox2DBackend("Umrissabfragen");
+        applyPendingCommands();
+        synchronized (world)
+        {
+            QueryCollector collector = acquireQueryCollector(categoryMask);
+            try
+            {
+                collector.collect = true;
+                performShapeQuery(collector, shape.getShape(), x, y, rotation);
+                collector.visitCollected(visitor);
+            }
+            finally
+            {
+                releaseQueryCollector(collector);
+            }
+        }
     }
 
-    @Override
-    public void endContact(Contact contact)
+    private void performShapeQuery(QueryCollector collector, Shape shape,
+            double x, double y, double rotation)
     {
-        processContact(contact, false);
+        collector.position.set((float) x, (float) y);
+        collector.transform.set(collector.position,
+                (float) Math.toRadians(rotation));
+        shape.computeAABB(collector.bounds, collector.transform, 0);
+        for (int i = 1; i < shape.getChildCount(); i++)
+        {
+            shape.computeAABB(collector.childBounds, collector.transform, i);
+            collector.bounds.combine(collector.childBounds);
+        }
+        collector.shape = shape;
+        world.queryAABB(collector, collector.bounds);
     }
 
     /**
-     * Verarbeitet einen Kontakt in der Physics-Engine.
+     * Sammelt die Treffer einer Strahlabfrage. Je nachdem, welches Feld gesetzt
+     * ist, wird nur der nächste Treffer gesucht, werden die Treffer sortiert in
+     * ein Feld geschrieben oder für einen Besucher gesammelt.
      *
-     * @param contact JBox2D Contact Objekt, das den Contact beschreibt.
-     * @param isBegin true = Begin-Kontakt | false = End-Kontakt
+     * <p>
+     * JBox2D verwendet beim Durchsuchen der Welt eigene, gemeinsam genutzte
+     * Hilfsobjekte. Während des Durchsuchens darf deshalb keine weitere Abfrage
+     * starten und Besucher werden erst danach aufgerufen.
+     * </p>
      */
-    @Internal
-    private void processContact(final Contact contact, boolean isBegin)
+    private static class RaycastCollector implements RayCastCallback
     {
-        final Body b1 = contact.getFixtureA().getBody();
-        final Body b2 = contact.getFixtureB().getBody();
-        if (b1 == b2)
+        private final Vec2 from = new Vec2();
+
+        private final Vec2 to = new Vec2();
+
+        private int categoryMask;
+
+        private RaycastHit closest;
+
+        private RaycastHit[] hits;
+
+        /**
+         * Ob alle Treffer für einen Besucher gesammelt werden.
+         */
+        private boolean collect;
+
+        /**
+         * Die gesammelten Treffer für einen Besucher. Die Einträge werden
+         * wiederverwendet.
+         */
+        private RaycastHit[] collected = new RaycastHit[8];
+
+        private int count;
+
+        private void prepare(int categoryMask)
         {
-            // Gleicher Body, don't care
-            Logger.error("Collision", "Inter-Body Collision!");
-            return;
+            this.categoryMask = categoryMask;
+            count = 0;
         }
-        /*
-         * ~~~~~~~~~~~~~~~~~~~~~~~ TEIL I : Spezifische Checkups
-         * ~~~~~~~~~~~~~~~~~~~~~~~
-         */
-        // Sortieren der Bodies.
-        Body lower, higher;
-        if (b1.hashCode() == b2.hashCode())
+
+        private void clear()
         {
-            // Hashes sind gleich (blöde Sache!) -> beide Varianten probieren.
-            List<Checkup<? extends Actor>> result1 = specificCollisionListeners
-                    .get(b1);
-            if (result1 != null)
+            closest = null;
+            hits = null;
+            collect = false;
+            for (int i = 0; i < count && i < collected.length; i++)
             {
-                for (Checkup<? extends Actor> c : result1)
+                if (collected[i] != null)
                 {
-                    c.checkCollision(b2, contact, isBegin);
+                    collected[i].clear();
                 }
             }
-            List<Checkup<? extends Actor>> result2 = specificCollisionListeners
-                    .get(b2);
-            if (result2 != null)
+            count = 0;
+        }
+
+        @Override
+        public float reportFixture(Fixture fixture, Vec2 point, Vec2 normal,
+                float fraction)
+        {
+            if ((fixture.filter.categoryBits & categoryMask) == 0
+                    || !(fixture.getBody().getUserData() instanceof Actor))
             {
-                for (Checkup<? extends Actor> c : result2)
-                {
-                    c.checkCollision(b1, contact, isBegin);
-                }
+                // Umriss ignorieren und weitersuchen
+                return -1;
             }
+            Actor actor = (Actor) fixture.getBody().getUserData();
+            if (closest != null)
+            {
+                closest.set(actor, point.x, point.y, normal.x, normal.y,
+                        fraction);
+                // Den Strahl bis zu diesem Treffer kürzen
+                return fraction;
+            }
+            if (hits != null)
+            {
+                return insertSorted(actor, point, normal, fraction);
+            }
+            if (count == collected.length)
+            {
+                collected = Arrays.copyOf(collected, count * 2);
+            }
+            if (collected[count] == null)
+            {
+                collected[count] = new RaycastHit();
+            }
+            collected[count++].set(actor, point.x, point.y, normal.x, normal.y,
+                    fraction);
+            return 1;
         }
-        else
+
+        private float insertSorted(Actor actor, Vec2 point, Vec2 normal,
+                float fraction)
         {
-            if (b1.hashCode() < b2.hashCode())
+            for (int i = 0; i < count; i++)
+            {
+                if (hits[i].getActor() != actor)
+                {
+                    continue;
+                }
+                if (hits[i].getFraction() <= fraction)
+                {
+                    // Ein anderer Umriss der Figur liegt näher.
+                    return clipFraction();
+                }
+                // Der weiter entfernte Treffer der Figur wird entfernt und
+                // der nähere unten neu einsortiert.
+                for (int j = i; j < count - 1; j++)
+                {
+                    hits[j].set(hits[j + 1]);
+                }
+                count--;
+                break;
+            }
+            int index;
+            if (count < hits.length)
             {
-                // f1 < f2
-                lower = b1;
-                higher = b2;
+                index = count++;
             }
             else
             {
-                // f1 > f2
-                lower = b2;
-                higher = b1;
+                // Das Feld ist voll: Der fernste Treffer wird verdrängt.
+                index = count - 1;
             }
-            List<Checkup<? extends Actor>> result = specificCollisionListeners
-                    .get(lower);
-            if (result != null)
+            while (index > 0 && hits[index - 1].getFraction() > fraction)
             {
-                for (Checkup<? extends Actor> c : result)
-                {
-                    c.checkCollision(higher, contact, isBegin);
-                }
+                ensureHit(index);
+                hits[index].set(hits[index - 1]);
+                index--;
             }
+            ensureHit(index);
+            hits[index].set(actor, point.x, point.y, normal.x, normal.y,
+                    fraction);
+            return clipFraction();
         }
-        /*
-         * ~~~~~~~~~~~~~~~~~~~~~~~ TEIL II : Allgemeine Checkups
-         * ~~~~~~~~~~~~~~~~~~~~~~~
-         */
-        generalCheckup(b1, b2, contact, isBegin);
-        generalCheckup(b2, b1, contact, isBegin);
-        if (!isBegin)
+
+        private float clipFraction()
         {
-            // Contact ist beendet -> Set Enabled and remove from blacklist
-            contact.setEnabled(true);
-            // System.out.println("REMOVE");
-            removeFromBlacklist(contact);
+            if (count == hits.length)
+            {
+                // Weiter entfernte Treffer passen nicht mehr in das Feld.
+                return (float) hits[count - 1].getFraction();
+            }
+            return 1;
+        }
+
+        private void ensureHit(int index)
+        {
+            if (hits[index] == null)
+            {
+                hits[index] = new RaycastHit();
+            }
         }
     }
 
-    private void removeFromBlacklist(Contact contact)
+    /**
+     * Sammelt die Figuren einer Bereichs- oder Umrissabfrage.
+     */
+    private class QueryCollector implements QueryCallback
     {
-        FixturePair fixturePair = null;
-        for (FixturePair ignoredPair : contactsToIgnore)
+        private final AABB bounds = new AABB();
+
+        private final AABB childBounds = new AABB();
+
+        private final Vec2 position = new Vec2();
+
+        private final Transform transform = new Transform();
+
+        private int categoryMask;
+
+        private Actor[] actors;
+
+        /**
+         * Ob alle Figuren für einen Besucher gesammelt werden.
+         */
+        private boolean collect;
+
+        /**
+         * Die gesammelten Figuren für einen Besucher.
+         */
+        private Actor[] collected = new Actor[8];
+
+        private Shape shape;
+
+        private int count;
+
+        private void prepare(int categoryMask)
         {
-            if (ignoredPair.matches(contact.fixtureA, contact.fixtureB))
+            this.categoryMask = categoryMask;
+            count = 0;
+        }
+
+        private void clear()
+        {
+            actors = null;
+            shape = null;
+            if (collect)
             {
-                fixturePair = ignoredPair;
-                break;
+                // Keine Figuren über die Abfrage hinaus festhalten.
+                Arrays.fill(collected, 0, count, null);
             }
+            collect = false;
+            count = 0;
         }
-        if (fixturePair != null)
+
+        private void visitCollected(QueryVisitor visitor)
         {
-            contactsToIgnore.remove(fixturePair);
+            for (int i = 0; i < count; i++)
+            {
+                if (!visitor.visit(collected[i]))
+                {
+                    return;
+                }
+            }
         }
-    }
 
-    @Internal
-    private void generalCheckup(Body act, Body col, Contact contact,
-            final boolean isBegin)
-    {
-        List<CollisionListener<Actor>> list = generalCollisonListeners.get(act);
-        if (list != null)
+        @Override
+        public boolean reportFixture(Fixture fixture)
         {
-            Actor other = (Actor) col.getUserData();
-            if (other == null)
+            if ((fixture.filter.categoryBits & categoryMask) == 0
+                    || !(fixture.getBody().getUserData() instanceof Actor))
             {
-                return; // Is null on async removals
+                return true;
             }
-            CollisionEvent<Actor> collisionEvent = new CollisionEvent<>(contact,
-                    other);
-            for (CollisionListener<Actor> listener : list)
+            if (shape != null && !overlaps(fixture))
             {
-                if (isBegin)
+                return true;
+            }
+            Actor actor = (Actor) fixture.getBody().getUserData();
+            if (collect)
+            {
+                if (count == collected.length)
                 {
-                    listener.onCollision(collisionEvent);
+                    collected = Arrays.copyOf(collected, count * 2);
                 }
-                else
+                collected[count++] = actor;
+                return true;
+            }
+            for (int i = 0; i < count; i++)
+            {
+                if (actors[i] == actor)
                 {
-                    listener.onCollisionEnd(collisionEvent);
+                    return true;
                 }
             }
+            actors[count++] = actor;
+            // Abbrechen, sobald das Feld voll ist.
+            return count < actors.length;
         }
-    }
 
-    @Override
-    public void preSolve(Contact contact, Manifold manifold)
-    {
-        for (FixturePair ignoredPair : contactsToIgnore)
+        private boolean overlaps(Fixture fixture)
         {
-            if (ignoredPair.matches(contact.fixtureA, contact.fixtureB))
+            Collision collision = world.getPool().getCollision();
+            Shape other = fixture.getShape();
+            Transform otherTransform = fixture.getBody().getTransform();
+            for (int i = 0; i < shape.getChildCount(); i++)
             {
-                contact.setEnabled(false);
+                for (int j = 0; j < other.getChildCount(); j++)
+                {
+                    if (collision.testOverlap(shape, i, other, j, transform,
+                            otherTransform))
+                    {
+                        return true;
+                    }
+                }
             }
+            return false;
         }
     }
 
-    @Override
-    public void postSolve(Contact contact, ContactImpulse contactImpulse)
-    {
-        // Ignore that shit.
-    }
-
-    public Layer getLayer()
-    {
-        return layer;
-    }
-    /* ____________ On-Request Collision Checkups ____________ */
-
+    /**
+     * Gibt die Figur zurück, zu der ein Körper gehört. Für die Geisterkopie
+     * einer {@link WorldPartition} ist das die Figur des Originals.
+     *
+     * @return Die Figur oder <code>null</code>, falls der Körper keiner Figur
+     *     gehört.
+     */
     @Internal
-    public Fixture[] queryAABB(AABB aabb)
+    public static Actor getActor(Body body)
     {
-        ArrayList<Fixture> fixtures = new ArrayList<>();
-        world.queryAABB((QueryCallback) fixtures::add, aabb);
-        return fixtures.toArray(new Fixture[0]);
+        Object userData = body.getUserData();
+        if (userData instanceof Actor actor)
+        {
+            return actor;
+        }
+        if (userData instanceof WorldPartition.Ghost ghost)
+        {
+            return ghost.actor();
+        }
+        return null;
     }
 
     @Internal
@@ -435,12 +1826,10 @@ public class WorldHandler implements ContactListener
         private final CollisionListener<E> listener;
 
         /**
-         * Der zweite Body (erster Body ist Hashmap-Schlüssel)
-         */
-        private final Body body;
-
-        /**
-         * Das {@link Actor}-Objekt, das neben dem Actor angemeldet wurde
+         * Das {@link Actor}-Objekt, das neben dem Actor angemeldet wurde. Es
+         * wird an seiner Figur statt an seinem Körper erkannt, damit der
+         * Beobachter auch für die Geisterkopien einer {@link WorldPartition}
+         * und nach der Übergabe an eine andere Region gilt.
          */
         private final E collidingActor;
 
@@ -448,23 +1837,22 @@ public class WorldHandler implements ContactListener
          * Erstellt das Checkup-Objekt
          *
          * @param listener Das aufzurufende KR
-         * @param body Der zweite Body für den Checkup
          * @param collidingActor Der zugehörige Collider für diesen Checkup
          */
-        private Checkup(CollisionListener<E> listener, Body body,
-                E collidingActor)
+        private Checkup(CollisionListener<E> listener, E collidingActor)
         {
             this.listener = listener;
-            this.body = body;
             this.collidingActor = collidingActor;
         }
 
-        public void checkCollision(Body body, Contact contact, boolean isBegin)
+        public void checkCollision(Actor other, Contact contact,
+                boolean isBegin)
         {
-            if (this.body == body)
+            if (collidingActor == other)
             {
                 CollisionEvent<E> collisionEvent = new CollisionEvent<>(contact,
                         collidingActor);
+                long start = ListenerProfiler.start();
                 if (isBegin)
                 {
                     listener.onCollision(collisionEvent);
@@ -473,6 +1861,7 @@ public class WorldHandler implements ContactListener
                 {
                     listener.onCollisionEnd(collisionEvent);
                 }
+                ListenerProfiler.stop(listener, start);
             }
         }
     }
@@ -489,6 +1878,11 @@ public class WorldHandler implements ContactListener
             CollisionListener<Actor> listener, Actor actor)
     {
         actor.addMountListener(() -> {
+            if (actor.getPhysicsHandler() instanceof ArcadeHandler arcade)
+            {
+                arcade.addCollisionListener(listener);
+                return;
+            }
             Body body = actor.getPhysicsHandler().getBody();
             if (body == null)
             {
@@ -514,30 +1908,25 @@ public class WorldHandler implements ContactListener
     public static <E extends Actor> void addSpecificCollisionListener(
             Actor actor, E collider, CollisionListener<E> listener)
     {
-        addMountListener(actor, collider, (worldHandler) -> {
-            Body b1 = actor.getPhysicsHandler().getBody();
-            Body b2 = collider.getPhysicsHandler().getBody();
-            if (b1 == null || b2 == null)
+        // Der Partner muss nicht in derselben Welt angemeldet sein, z. B. in
+        // einer anderen Region einer WorldPartition.
+        actor.addMountListener(() -> {
+            if (actor.getPhysicsHandler() instanceof ArcadeHandler arcade)
             {
-                Logger.error("Kollision",
-                        "Ein {@link Actor}-Objekt ohne physikalischen Body wurde zur Kollisionsüberwachung angemeldet.");
+                arcade.addCollisionListener(collider, listener);
                 return;
             }
-            Body lower, higher;
-            if (b1.hashCode() < b2.hashCode())
-            {
-                lower = b1;
-                higher = b2;
-            }
-            else
+            Body body = actor.getPhysicsHandler().getBody();
+            if (body == null)
             {
-                lower = b2;
-                higher = b1;
+                Logger.error("Kollision",
+                        "Ein {@link Actor}-Objekt ohne physikalischen Body wurde zur Kollisionsüberwachung angemeldet.");
+                return;
             }
-            Checkup<E> checkup = new Checkup<>(listener, higher, collider);
-            worldHandler.specificCollisionListeners
-                    .computeIfAbsent(lower, key -> new CopyOnWriteArrayList<>())
-                    .add(checkup);
+            actor.getPhysicsHandler()
+                    .getWorldHandler().specificCollisionListeners
+                    .computeIfAbsent(body, key -> new CopyOnWriteArrayList<>())
+                    .add(new Checkup<>(listener, collider));
         });
     }
 
@@ -547,11 +1936,19 @@ public class WorldHandler implements ContactListener
             Wrapper wrapper)
     {
         List<Runnable> releaseCallbacks = addMountListener(a, b,
-                worldHandler -> wrapper.setJoint(
-                        jointBuilder.createJoint(worldHandler.getWorld(),
-                                a.getPhysicsHandler().getBody(),
-                                b.getPhysicsHandler().getBody()),
-                        worldHandler));
+                worldHandler -> {
+                    if (worldHandler.arcadeWorld != null)
+                    {
+                        Logger.error("Gelenk",
+                                "Gelenke werden vom Arcade-Backend nicht unterstützt.");
+                        return;
+                    }
+                    wrapper.setJoint(
+                            jointBuilder.createJoint(worldHandler.getWorld(),
+                                    a.getPhysicsHandler().getBody(),
+                                    b.getPhysicsHandler().getBody()),
+                            worldHandler);
+                });
         releaseCallbacks.forEach(wrapper::addReleaseListener);
         return wrapper;
     }
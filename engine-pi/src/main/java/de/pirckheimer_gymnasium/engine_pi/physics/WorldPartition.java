@@ -0,0 +1,710 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.pirckheimer_gymnasium.jbox2d.collision.AABB;
+import de.pirckheimer_gymnasium.jbox2d.dynamics.Body;
+import de.pirckheimer_gymnasium.jbox2d.dynamics.BodyDef;
+import de.pirckheimer_gymnasium.jbox2d.dynamics.BodyType;
+import de.pirckheimer_gymnasium.jbox2d.dynamics.Fixture;
+import de.pirckheimer_gymnasium.jbox2d.dynamics.FixtureDef;
+
+import de.pirckheimer_gymnasium.engine_pi.Bounds;
+import de.pirckheimer_gymnasium.engine_pi.Layer;
+import de.pirckheimer_gymnasium.engine_pi.actor.Actor;
+import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+
+/**
+ * Teilt die Physik einer Ebene in ein Gitter aus <b>Regionen</b> auf, die
+ * jeweils eine eigene Physik-Welt besitzen und parallel berechnet werden.
+ *
+ * <p>
+ * Eine Figur wird in der Region simuliert, in der ihr Körperursprung liegt.
+ * Überquert sie eine Regionsgrenze, wird ihr Körper nach dem World-Step mit
+ * allen Eigenschaften in die Welt der neuen Region übergeben. Ragt das
+ * Hüllrechteck einer Figur (vergrößert um den {@link #setGhostMargin(double)
+ * Geisterrand}) in eine Nachbarregion, erhält diese eine <b>Geisterkopie</b>
+ * des Körpers. Geister statischer Körper sind statisch, alle anderen sind
+ * kinematisch und folgen dem Original in jedem Einzelbild. Sie schieben Körper
+ * der Nachbarregion an, werden selbst aber nicht bewegt. Berühren sich zwei
+ * Figuren an einer Grenze, wirkt die Kollision daher über die jeweiligen
+ * Geister in beide Richtungen, ohne den Impuls exakt zu erhalten.
+ * </p>
+ *
+ * <p>
+ * Geister tragen als Nutzerdaten einen {@link Ghost} statt der Figur. Sie
+ * werden deshalb bei Abfragen übersprungen und erhalten weder
+ * Kollisionsbeobachter noch veröffentlichte Zustände. In Kollisionen und
+ * Berührungen anderer Körper stehen sie über
+ * {@link WorldHandler#getActor(Body)} für ihre Figur. Die Kollisionsbeobachter
+ * einer Figur, auch die für bestimmte Figurenpaare, werden bei der Übergabe an
+ * den neuen Körper weitergereicht.
+ * </p>
+ *
+ * <p>
+ * Figuren mit Gelenken werden nie übergeben. Sie bleiben in der Region, in der
+ * sie angemeldet wurden, auch wenn sie diese längst verlassen haben.
+ * </p>
+ *
+ * @author Josef Friedrich
+ *
+ * @see de.pirckheimer_gymnasium.engine_pi.PartitionedLayer
+ */
+@Internal
+public final class WorldPartition
+{
+    /**
+     * Eine Zelle des Gitters mit ihrer eigenen Physik-Welt.
+     */
+    private record Region(WorldHandler worldHandler, int column, int row)
+    {
+    }
+
+    /**
+     * Die Nutzerdaten einer Geisterkopie.
+     *
+     * @param actor Die Figur, deren Körper der Geist kopiert.
+     */
+    record Ghost(Actor actor)
+    {
+    }
+
+    private final Layer layer;
+
+    /**
+     * Die Welt, deren Einstellungen (Schwerkraft, Schrittrate, Iterationen)
+     * neue Regionen übernehmen.
+     */
+    private final WorldHandler template;
+
+    private final double regionWidth;
+
+    private final double regionHeight;
+
+    private double ghostMargin = 0.5;
+
+    /**
+     * Die Regionen in der Reihenfolge ihrer Erzeugung, damit sie z. B. beim
+     * Abspielen einer Aufzeichnung immer in derselben Reihenfolge berechnet
+     * werden.
+     */
+    private final Map<Long, Region> regions = new LinkedHashMap<>();
+
+    private final Map<WorldHandler, Region> regionsByWorld = new IdentityHashMap<>();
+
+    /**
+     * Die Geisterkopien jeder Figur, nach dem Schlüssel ihrer Region. Figuren
+     * überschreiben {@link Object#equals(Object)} nicht, die Reihenfolge ist
+     * wie bei den Regionen die der Erzeugung.
+     */
+    private final Map<Actor, Map<Long, Body>> ghosts = new LinkedHashMap<>();
+
+    /**
+     * Wiederverwendbare Felder, in die die Abfragen einer einzelnen Region
+     * schreiben, bevor die Ergebnisse zusammengeführt werden.
+     */
+    private RaycastHit[] regionHits = new RaycastHit[0];
+
+    private Actor[] regionActors = new Actor[0];
+
+    private final RaycastHit regionHit = new RaycastHit();
+
+    /**
+     * @param layer Die Ebene, zu der alle Regionen gehören.
+     * @param template Die Welt, deren Einstellungen neue Regionen übernehmen.
+     * @param regionWidth Die Breite einer Region in Meter.
+     * @param regionHeight Die Höhe einer Region in Meter.
+     */
+    public WorldPartition(Layer layer, WorldHandler template,
+            double regionWidth, double regionHeight)
+    {
+        if (regionWidth <= 0 || regionHeight <= 0)
+        {
+            throw new IllegalArgumentException(
+                    "Die Größe einer Region muss größer als 0 sein, war "
+                            + regionWidth + " x " + regionHeight);
+        }
+        this.layer = layer;
+        this.template = template;
+        this.regionWidth = regionWidth;
+        this.regionHeight = regionHeight;
+    }
+
+    private static long key(int column, int row)
+    {
+        return ((long) column << 32) | (row & 0xFFFFFFFFL);
+    }
+
+    private int column(double x)
+    {
+        return (int) Math.floor(x / regionWidth);
+    }
+
+    private int row(double y)
+    {
+        return (int) Math.floor(y / regionHeight);
+    }
+
+    /**
+     * Setzt den Abstand zu einer Regionsgrenze, ab dem eine Figur eine
+     * Geisterkopie in der Nachbarregion erhält. Er sollte mindestens der
+     * Strecke entsprechen, die eine Figur in einem Einzelbild zurücklegt.
+     *
+     * @param ghostMargin Der Abstand in Meter.
+     */
+    public void setGhostMargin(double ghostMargin)
+    {
+        if (ghostMargin < 0)
+        {
+            throw new IllegalArgumentException(
+                    "Der Geisterrand darf nicht negativ sein, war "
+                            + ghostMargin);
+        }
+        this.ghostMargin = ghostMargin;
+    }
+
+    public double getGhostMargin()
+    {
+        return ghostMargin;
+    }
+
+    public int getRegionCount()
+    {
+        synchronized (regions)
+        {
+            return regions.size();
+        }
+    }
+
+    private Region getRegion(int column, int row)
+    {
+        synchronized (regions)
+        {
+            return regions.computeIfAbsent(key(column, row), key -> {
+                WorldHandler worldHandler = new WorldHandler(layer);
+                worldHandler.copySettingsFrom(template);
+                Region region = new Region(worldHandler, column, row);
+                regionsByWorld.put(worldHandler, region);
+                return region;
+            });
+        }
+    }
+
+    /**
+     * Gibt die Physik-Welt der Region zurück, die einen Punkt enthält. Die
+     * Region wird bei Bedarf erzeugt.
+     */
+    public WorldHandler getWorldHandler(double x, double y)
+    {
+        return getRegion(column(x), row(y)).worldHandler;
+    }
+
+    /**
+     * Gibt die Physik-Welten aller Regionen zurück.
+     */
+    public List<WorldHandler> getWorldHandlers()
+    {
+        synchronized (regions)
+        {
+            List<WorldHandler> worldHandlers = new ArrayList<>(regions.size());
+            for (Region region : regions.values())
+            {
+                worldHandlers.add(region.worldHandler);
+            }
+            return worldHandlers;
+        }
+    }
+
+    /**
+     * Übernimmt die Einstellungen der Vorlage in alle Regionen.
+     */
+    public void copySettings()
+    {
+        for (WorldHandler worldHandler : getWorldHandlers())
+        {
+            worldHandler.copySettingsFrom(template);
+        }
+    }
+
+    /**
+     * Fügt für jede Region eine Aufgabe hinzu, die ihren World-Step ausführt.
+     *
+     * @param pastTime Die Simulationszeit, die seit dem letzten World-Step
+     *     vergangen ist.
+     * @param tasks Die Sammlung, in die die Aufgaben eingefügt werden.
+     */
+    public void addStepTasks(double pastTime, Collection<Runnable> tasks)
+    {
+        if (template.isWorldPaused())
+        {
+            return;
+        }
+        for (WorldHandler worldHandler : getWorldHandlers())
+        {
+            tasks.add(() -> worldHandler.step(pastTime));
+        }
+    }
+
+    /**
+     * Übergibt Figuren, die eine Regionsgrenze überquert haben, an ihre neue
+     * Region und gleicht die Geisterkopien ab. Darf nur aufgerufen werden,
+     * während keine Region einen World-Step ausführt.
+     *
+     * @param actors Die Figuren der Ebene.
+     */
+    public void update(List<Actor> actors)
+    {
+        removeStaleGhosts();
+        for (int i = 0; i < actors.size(); i++)
+        {
+            Actor actor = actors.get(i);
+            PhysicsHandler handler = actor.getPhysicsHandler();
+            if (!(handler instanceof BodyHandler))
+            {
+                continue;
+            }
+            Region home = regionsByWorld.get(handler.getWorldHandler());
+            if (home == null)
+            {
+                continue;
+            }
+            Body body = handler.getBody();
+            Region target = getRegion(column(body.getPosition().x),
+                    row(body.getPosition().y));
+            if (target != home && body.getJointList() == null)
+            {
+                body = handOver(actor, handler, home, target);
+                home = target;
+            }
+            updateGhosts(actor, body, home);
+        }
+        removeEmptyRegions();
+    }
+
+    private Body handOver(Actor actor, PhysicsHandler handler, Region from,
+            Region to)
+    {
+        // Eingereihte Änderungen verwenden noch den alten Körper. Sie werden
+        // vor dem Kopieren der Eigenschaften übernommen, damit sie weder
+        // verloren gehen noch später einen zerstörten Körper verändern.
+        from.worldHandler.flushCommands();
+        Body body = handler.getBody();
+        BodyHandler moved = new BodyHandler(actor, handler.getPhysicsData(),
+                to.worldHandler);
+        Body movedBody = moved.getBody();
+        from.worldHandler.runExclusive(() -> {
+            from.worldHandler.transferInternalReferences(body, to.worldHandler,
+                    movedBody);
+            from.worldHandler.destroyBody(body);
+        });
+        actor.setPhysicsHandler(moved);
+        // Der Geist in der neuen Region wird durch das Original ersetzt.
+        Map<Long, Body> actorGhosts = ghosts.get(actor);
+        if (actorGhosts != null)
+        {
+            Body ghost = actorGhosts.remove(key(to.column, to.row));
+            if (ghost != null)
+            {
+                destroyGhost(to, ghost);
+            }
+        }
+        return movedBody;
+    }
+
+    private void updateGhosts(Actor actor, Body body, Region home)
+    {
+        float minX = Float.MAX_VALUE;
+        float minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE;
+        float maxY = -Float.MAX_VALUE;
+        for (Fixture fixture = body.fixtureList; fixture != null; fixture = fixture.next)
+        {
+            AABB aabb = fixture.getAABB(0);
+            minX = Math.min(minX, aabb.lowerBound.x);
+            minY = Math.min(minY, aabb.lowerBound.y);
+            maxX = Math.max(maxX, aabb.upperBound.x);
+            maxY = Math.max(maxY, aabb.upperBound.y);
+        }
+        int fromColumn = column(minX - ghostMargin);
+        int toColumn = column(maxX + ghostMargin);
+        int fromRow = row(minY - ghostMargin);
+        int toRow = row(maxY + ghostMargin);
+        Map<Long, Body> actorGhosts = ghosts.get(actor);
+        if (actorGhosts != null)
+        {
+            Iterator<Map.Entry<Long, Body>> iterator = actorGhosts.entrySet()
+                    .iterator();
+            while (iterator.hasNext())
+            {
+                Map.Entry<Long, Body> entry = iterator.next();
+                int column = (int) (entry.getKey() >> 32);
+                int row = (int) (long) entry.getKey();
+                if (column < fromColumn || column > toColumn || row < fromRow
+                        || row > toRow
+                        || (column == home.column && row == home.row))
+                {
+                    destroyGhost(getRegion(column, row), entry.getValue());
+                    iterator.remove();
+                }
+            }
+        }
+        if (fromColumn == toColumn && fromRow == toRow)
+        {
+            if (actorGhosts != null && actorGhosts.isEmpty())
+            {
+                ghosts.remove(actor);
+            }
+            return;
+        }
+        if (actorGhosts == null)
+        {
+            actorGhosts = new HashMap<>();
+            ghosts.put(actor, actorGhosts);
+        }
+        for (int column = fromColumn; column <= toColumn; column++)
+        {
+            for (int row = fromRow; row <= toRow; row++)
+            {
+                if (column == home.column && row == home.row)
+                {
+                    continue;
+                }
+                long key = key(column, row);
+                Body ghost = actorGhosts.get(key);
+                if (ghost == null)
+                {
+                    actorGhosts.put(key,
+                            createGhost(getRegion(column, row), actor, body));
+                }
+                else if (body.getType() != BodyType.STATIC)
+                {
+                    ghost.setTransform(body.getPosition(), body.getAngle());
+                    ghost.setLinearVelocity(body.getLinearVelocity());
+                    ghost.setAngularVelocity(body.getAngularVelocity());
+                }
+            }
+        }
+    }
+
+    private static Body createGhost(Region region, Actor actor, Body body)
+    {
+        BodyDef bodyDef = new BodyDef();
+        bodyDef.type = body.getType() == BodyType.STATIC ? BodyType.STATIC
+                : BodyType.KINEMATIC;
+        bodyDef.position.set(body.getPosition());
+        bodyDef.angle = body.getAngle();
+        bodyDef.linearVelocity.set(body.getLinearVelocity());
+        bodyDef.angularVelocity = body.getAngularVelocity();
+        synchronized (region.worldHandler)
+        {
+            Body ghost = region.worldHandler.createBody(bodyDef, actor);
+            ghost.setUserData(new Ghost(actor));
+            for (Fixture fixture = body.fixtureList; fixture != null; fixture = fixture.next)
+            {
+                FixtureDef fixtureDef = new FixtureDef();
+                fixtureDef.shape = fixture.getShape();
+                fixtureDef.density = fixture.getDensity();
+                fixtureDef.friction = fixture.getFriction();
+                fixtureDef.restitution = fixture.getRestitution();
+                fixtureDef.isSensor = fixture.isSensor();
+                fixtureDef.filter.set(fixture.getFilterData());
+                ghost.createFixture(fixtureDef);
+            }
+            return ghost;
+        }
+    }
+
+    private static void destroyGhost(Region region, Body ghost)
+    {
+        region.worldHandler.destroyBody(ghost);
+    }
+
+    /* ____________ Abfragen ____________ */
+
+    /**
+     * Sucht die erste Figur, die ein Strahl in einer der Regionen trifft.
+     *
+     * @see WorldHandler#raycast(double, double, double, double, int,
+     *     RaycastHit)
+     */
+    public synchronized boolean raycast(double fromX, double fromY, double toX,
+            double toY, int categoryMask, RaycastHit hit)
+    {
+        hit.clear();
+        for (WorldHandler worldHandler : getWorldHandlers())
+        {
+            if (worldHandler.raycast(fromX, fromY, toX, toY, categoryMask,
+                    regionHit)
+                    && (!hit.isHit()
+                            || regionHit.getFraction() < hit.getFraction()))
+            {
+                hit.set(regionHit);
+            }
+        }
+        regionHit.clear();
+        return hit.isHit();
+    }
+
+    /**
+     * Schreibt alle Figuren, die ein Strahl in einer der Regionen trifft, nach
+     * Entfernung sortiert in das Feld. Da Geister übersprungen werden, liegt
+     * jede Figur nur in einer Region.
+     *
+     * @see WorldHandler#raycastAll(double, double, double, double, int,
+     *     RaycastHit[])
+     */
+    public synchronized int raycastAll(double fromX, double fromY, double toX,
+            double toY, int categoryMask, RaycastHit[] hits)
+    {
+        if (regionHits.length != hits.length)
+        {
+            regionHits = new RaycastHit[hits.length];
+        }
+        RaycastHit[] buffer = regionHits;
+        int count = 0;
+        for (WorldHandler worldHandler : getWorldHandlers())
+        {
+            int found = worldHandler.raycastAll(fromX, fromY, toX, toY,
+                    categoryMask, buffer);
+            for (int i = 0; i < found; i++)
+            {
+                if (count == hits.length && hits[count - 1]
+                        .getFraction() <= buffer[i].getFraction())
+                {
+                    // Die übrigen Treffer der Region liegen noch weiter weg.
+                    break;
+                }
+                count = insertSorted(hits, count, buffer[i]);
+            }
+        }
+        // Der Puffer soll die getroffenen Figuren nicht länger festhalten.
+        for (RaycastHit hit : buffer)
+        {
+            if (hit != null)
+            {
+                hit.clear();
+            }
+        }
+        return count;
+    }
+
+    private static int insertSorted(RaycastHit[] hits, int count,
+            RaycastHit hit)
+    {
+        int index = count < hits.length ? count++ : count - 1;
+        while (index > 0 && hits[index - 1].getFraction() > hit.getFraction())
+        {
+            if (hits[index] == null)
+            {
+                hits[index] = new RaycastHit();
+            }
+            hits[index].set(hits[index - 1]);
+            index--;
+        }
+        if (hits[index] == null)
+        {
+            hits[index] = new RaycastHit();
+        }
+        hits[index].set(hit);
+        return count;
+    }
+
+    /**
+     * Meldet alle Figuren, die ein Strahl in einer der Regionen trifft, an den
+     * Besucher. Die Treffer sind nur innerhalb einer Region sortiert.
+     */
+    public void raycastAll(double fromX, double fromY, double toX, double toY,
+            int categoryMask, RaycastVisitor visitor)
+    {
+        boolean[] stopped = { false };
+        for (WorldHandler worldHandler : getWorldHandlers())
+        {
+            worldHandler.raycastAll(fromX, fromY, toX, toY, categoryMask,
+                    hit -> {
+                        stopped[0] = !visitor.visit(hit);
+                        return !stopped[0];
+                    });
+            if (stopped[0])
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Schreibt alle Figuren aller Regionen, deren Umrisse das Rechteck
+     * berühren, in das Feld.
+     */
+    public synchronized int queryAABB(Bounds bounds, int categoryMask,
+            Actor[] actors)
+    {
+        int count = 0;
+        for (WorldHandler worldHandler : getWorldHandlers())
+        {
+            if (count == actors.length)
+            {
+                break;
+            }
+            Actor[] buffer = regionActors(actors.length);
+            int found = worldHandler.queryAABB(bounds, categoryMask, buffer);
+            count = append(buffer, found, actors, count);
+        }
+        return count;
+    }
+
+    /**
+     * Meldet alle Figuren aller Regionen, deren Umrisse das Rechteck berühren,
+     * an den Besucher.
+     */
+    public void queryAABB(Bounds bounds, int categoryMask, QueryVisitor visitor)
+    {
+        boolean[] stopped = { false };
+        for (WorldHandler worldHandler : getWorldHandlers())
+        {
+            worldHandler.queryAABB(bounds, categoryMask, actor -> {
+                stopped[0] = !visitor.visit(actor);
+                return !stopped[0];
+            });
+            if (stopped[0])
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Schreibt alle Figuren aller Regionen, die sich mit dem Umriss
+     * überschneiden, in das Feld.
+     */
+    public synchronized int queryShape(FixtureData shape, double x, double y,
+            double rotation, int categoryMask, Actor[] actors)
+    {
+        int count = 0;
+        for (WorldHandler worldHandler : getWorldHandlers())
+        {
+            if (count == actors.length)
+            {
+                break;
+            }
+            Actor[] buffer = regionActors(actors.length);
+            int found = worldHandler.queryShape(shape, x, y, rotation,
+                    categoryMask, buffer);
+            count = append(buffer, found, actors, count);
+        }
+        return count;
+    }
+
+    /**
+     * Meldet alle Figuren aller Regionen, die sich mit dem Umriss
+     * überschneiden, an den Besucher.
+     */
+    public void queryShape(FixtureData shape, double x, double y,
+            double rotation, int categoryMask, QueryVisitor visitor)
+    {
+        boolean[] stopped = { false };
+        for (WorldHandler worldHandler : getWorldHandlers())
+        {
+            worldHandler.queryShape(shape, x, y, rotation, categoryMask,
+                    actor -> {
+                        stopped[0] = !visitor.visit(actor);
+                        return !stopped[0];
+                    });
+            if (stopped[0])
+            {
+                return;
+            }
+        }
+    }
+
+    private Actor[] regionActors(int length)
+    {
+        if (regionActors.length != length)
+        {
+            regionActors = new Actor[length];
+        }
+        return regionActors;
+    }
+
+    private static int append(Actor[] buffer, int found, Actor[] actors,
+            int count)
+    {
+        int copied = Math.min(found, actors.length - count);
+        System.arraycopy(buffer, 0, actors, count, copied);
+        // Der Puffer soll die Figuren nicht länger festhalten.
+        Arrays.fill(buffer, 0, found, null);
+        return count + copied;
+    }
+
+    /**
+     * Entfernt die Geister von Figuren, die nicht mehr an der Ebene angemeldet
+     * sind.
+     */
+    private void removeStaleGhosts()
+    {
+        Iterator<Map.Entry<Actor, Map<Long, Body>>> iterator = ghosts.entrySet()
+                .iterator();
+        while (iterator.hasNext())
+        {
+            Map.Entry<Actor, Map<Long, Body>> entry = iterator.next();
+            Actor actor = entry.getKey();
+            if (actor.getLayer() == layer
+                    && actor.getPhysicsHandler() instanceof BodyHandler)
+            {
+                continue;
+            }
+            for (Map.Entry<Long, Body> ghost : entry.getValue().entrySet())
+            {
+                long key = ghost.getKey();
+                destroyGhost(getRegion((int) (key >> 32), (int) key),
+                        ghost.getValue());
+            }
+            iterator.remove();
+        }
+    }
+
+    private void removeEmptyRegions()
+    {
+        synchronized (regions)
+        {
+            Iterator<Region> iterator = regions.values().iterator();
+            while (iterator.hasNext())
+            {
+                Region region = iterator.next();
+                // Eingereihte Änderungen werden erst im nächsten World-Step
+                // der Region übernommen.
+                if (region.worldHandler.getWorld().getBodyCount() == 0
+                        && !region.worldHandler.hasPendingCommands())
+                {
+                    regionsByWorld.remove(region.worldHandler);
+                    iterator.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,425 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.function.ToIntFunction;
+
+import de.pirckheimer_gymnasium.jbox2d.common.Vec2;
+import de.pirckheimer_gymnasium.jbox2d.dynamics.Body;
+import de.pirckheimer_gymnasium.jbox2d.dynamics.World;
+import de.pirckheimer_gymnasium.jbox2d.dynamics.joints.DistanceJoint;
+import de.pirckheimer_gymnasium.jbox2d.dynamics.joints.Joint;
+import de.pirckheimer_gymnasium.jbox2d.dynamics.joints.PrismaticJoint;
+import de.pirckheimer_gymnasium.jbox2d.dynamics.joints.RevoluteJoint;
+import de.pirckheimer_gymnasium.jbox2d.dynamics.joints.RopeJoint;
+import de.pirckheimer_gymnasium.jbox2d.dynamics.joints.WeldJoint;
+
+import de.pirckheimer_gymnasium.engine_pi.annotations.Internal;
+
+/**
+ * Schreibt den Zustand einer Physik-Welt in einen kompakten {@link ByteBuffer}
+ * und stellt ihn wieder her, ohne Körper neu zu erzeugen.
+ *
+ * <p>
+ * Gespeichert werden pro Körper die Position, die Drehung, die Geschwindigkeit,
+ * die Drehgeschwindigkeit sowie der Schlaf- und Aktivzustand und pro Gelenk die
+ * einstellbaren Werte (Motor, Grenzen, Länge, Federung). Jeder Eintrag enthält
+ * die Kennung, die der {@link WorldHandler} dem Körper beim Erzeugen gegeben
+ * hat, und jedes Gelenk die Kennungen seiner beiden Körper. Vor dem
+ * Wiederherstellen wird der gesamte Schnappschuss mit der Welt verglichen.
+ * Wurden seit dem Schnappschuss Körper oder Gelenke hinzugefügt, entfernt oder
+ * ersetzt, wird nichts verändert und eine {@link IllegalStateException}
+ * geworfen.
+ * </p>
+ *
+ * <p>
+ * Die intern zwischengespeicherten Impulse der Kontakte und Gelenke sind in
+ * JBox2D nicht zugänglich und werden daher nicht gesichert.
+ * </p>
+ *
+ * @author Josef Friedrich
+ */
+@Internal
+final class WorldSnapshot
+{
+    /**
+     * Die Kennung am Anfang jedes Schnappschusses ("EPWS").
+     */
+    private static final int MAGIC = 0x45505753;
+
+    private static final byte VERSION = 2;
+
+    private static final int HEADER_BYTES = 4 + 1 + 4 + 4 + 8;
+
+    private static final int BODY_STATE_BYTES = 6 * 4 + 1;
+
+    private static final int BODY_BYTES = 4 + BODY_STATE_BYTES;
+
+    private static final int MAX_JOINT_BYTES = 1 + 2 * 4 + 1 + 4 * 4;
+
+    private static final byte FLAG_AWAKE = 1;
+
+    private static final byte FLAG_ACTIVE = 2;
+
+    private static final byte JOINT_OTHER = 0;
+
+    private static final byte JOINT_REVOLUTE = 1;
+
+    private static final byte JOINT_PRISMATIC = 2;
+
+    private static final byte JOINT_DISTANCE = 3;
+
+    private static final byte JOINT_ROPE = 4;
+
+    private static final byte JOINT_WELD = 5;
+
+    private static final byte FLAG_MOTOR = 1;
+
+    private static final byte FLAG_LIMIT = 2;
+
+    private final Vec2 position = new Vec2();
+
+    private final Vec2 velocity = new Vec2();
+
+    /**
+     * Gibt die maximale Größe eines Schnappschusses der Welt in Bytes zurück.
+     */
+    static int getMaxSize(World world)
+    {
+        return HEADER_BYTES + world.getBodyCount() * BODY_BYTES
+                + world.getJointCount() * MAX_JOINT_BYTES;
+    }
+
+    /**
+     * Schreibt den Zustand der Welt in den Puffer.
+     *
+     * @param bodyIds Gibt die Kennung eines Körpers zurück.
+     */
+    void write(World world, ToIntFunction<Body> bodyIds,
+            double simulationAccumulator, ByteBuffer buffer)
+    {
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+        buffer.putInt(world.getBodyCount());
+        buffer.putInt(world.getJointCount());
+        buffer.putDouble(simulationAccumulator);
+        for (Body body = world.getBodyList(); body != null; body = body
+                .getNext())
+        {
+            Vec2 p = body.getPosition();
+            Vec2 v = body.getLinearVelocity();
+            buffer.putInt(bodyIds.applyAsInt(body));
+            buffer.putFloat(p.x);
+            buffer.putFloat(p.y);
+            buffer.putFloat(body.getAngle());
+            buffer.putFloat(v.x);
+            buffer.putFloat(v.y);
+            buffer.putFloat(body.getAngularVelocity());
+            buffer.put((byte) ((body.isAwake() ? FLAG_AWAKE : 0)
+                    | (body.isActive() ? FLAG_ACTIVE : 0)));
+        }
+        for (Joint joint = world.getJointList(); joint != null; joint = joint
+                .getNext())
+        {
+            buffer.put(getJointType(joint));
+            buffer.putInt(bodyIds.applyAsInt(joint.getBodyA()));
+            buffer.putInt(bodyIds.applyAsInt(joint.getBodyB()));
+            writeJoint(joint, buffer);
+        }
+    }
+
+    private static byte getJointType(Joint joint)
+    {
+        if (joint instanceof RevoluteJoint)
+        {
+            return JOINT_REVOLUTE;
+        }
+        if (joint instanceof PrismaticJoint)
+        {
+            return JOINT_PRISMATIC;
+        }
+        if (joint instanceof DistanceJoint)
+        {
+            return JOINT_DISTANCE;
+        }
+        if (joint instanceof RopeJoint)
+        {
+            return JOINT_ROPE;
+        }
+        if (joint instanceof WeldJoint)
+        {
+            return JOINT_WELD;
+        }
+        return JOINT_OTHER;
+    }
+
+    /**
+     * Gibt an, wie viele Bytes die einstellbaren Werte eines Gelenktyps
+     * belegen.
+     */
+    private static int getJointStateBytes(byte type)
+    {
+        return switch (type)
+        {
+        case JOINT_REVOLUTE, JOINT_PRISMATIC -> 1 + 4 * 4;
+        case JOINT_DISTANCE -> 3 * 4;
+        case JOINT_ROPE -> 4;
+        case JOINT_WELD -> 2 * 4;
+        case JOINT_OTHER -> 0;
+        default -> throw new IllegalArgumentException(
+                "Unbekannter Gelenktyp im Schnappschuss: " + type);
+        };
+    }
+
+    private static void writeJoint(Joint joint, ByteBuffer buffer)
+    {
+        if (joint instanceof RevoluteJoint revolute)
+        {
+            buffer.put(flags(revolute.isMotorEnabled(),
+                    revolute.isLimitEnabled()));
+            buffer.putFloat(revolute.getMotorSpeed());
+            buffer.putFloat(revolute.getMaxMotorTorque());
+            buffer.putFloat(revolute.getLowerLimit());
+            buffer.putFloat(revolute.getUpperLimit());
+        }
+        else if (joint instanceof PrismaticJoint prismatic)
+        {
+            buffer.put(flags(prismatic.isMotorEnabled(),
+                    prismatic.isLimitEnabled()));
+            buffer.putFloat(prismatic.getMotorSpeed());
+            buffer.putFloat(prismatic.getMaxMotorForce());
+            buffer.putFloat(prismatic.getLowerTranslation());
+            buffer.putFloat(prismatic.getUpperTranslation());
+        }
+        else if (joint instanceof DistanceJoint distance)
+        {
+            buffer.putFloat(distance.getLength());
+            buffer.putFloat(distance.getFrequency());
+            buffer.putFloat(distance.getDampingRatio());
+        }
+        else if (joint instanceof RopeJoint rope)
+        {
+            buffer.putFloat(rope.getMaxLength());
+        }
+        else if (joint instanceof WeldJoint weld)
+        {
+            buffer.putFloat(weld.getFrequency());
+            buffer.putFloat(weld.getDampingRatio());
+        }
+    }
+
+    private static byte flags(boolean motor, boolean limit)
+    {
+        return (byte) ((motor ? FLAG_MOTOR : 0) | (limit ? FLAG_LIMIT : 0));
+    }
+
+    /**
+     * Stellt den Zustand aus einem Schnappschuss wieder her. Der Schnappschuss
+     * wird zuerst vollständig {@link #validate geprüft}, damit die Welt bei
+     * einem Fehler unverändert bleibt.
+     *
+     * @param bodyIds Gibt die Kennung eines Körpers zurück.
+     *
+     * @return Der gespeicherte Zeitrest des Simulationsakkumulators.
+     */
+    double read(World world, ToIntFunction<Body> bodyIds, ByteBuffer buffer)
+    {
+        int start = buffer.position();
+        validate(world, bodyIds, buffer);
+        buffer.position(start + HEADER_BYTES - 8);
+        double simulationAccumulator = buffer.getDouble();
+        for (Body body = world.getBodyList(); body != null; body = body
+                .getNext())
+        {
+            buffer.getInt();
+            readBody(body, buffer);
+        }
+        for (Joint joint = world.getJointList(); joint != null; joint = joint
+                .getNext())
+        {
+            byte type = buffer.get();
+            buffer.getInt();
+            buffer.getInt();
+            readJoint(joint, type, buffer);
+        }
+        return simulationAccumulator;
+    }
+
+    /**
+     * Liest den gesamten Schnappschuss, ohne die Welt zu verändern, und prüft,
+     * ob jeder Eintrag zum Körper bzw. Gelenk an derselben Stelle der Welt
+     * gehört. Danach steht der Puffer hinter dem Schnappschuss, bei einem
+     * Fehler wieder an seinem Anfang.
+     *
+     * @param bodyIds Gibt die Kennung eines Körpers zurück.
+     *
+     * @throws IllegalArgumentException Falls der Puffer keinen gültigen oder
+     *     einen unvollständigen Schnappschuss enthält.
+     * @throws IllegalStateException Falls der Schnappschuss nicht zu den
+     *     Körpern und Gelenken der Welt passt.
+     */
+    void validate(World world, ToIntFunction<Body> bodyIds, ByteBuffer buffer)
+    {
+        int start = buffer.position();
+        try
+        {
+            validateEntries(world, bodyIds, buffer);
+        }
+        catch (BufferUnderflowException e)
+        {
+            buffer.position(start);
+            throw new IllegalArgumentException(
+                    "Der Schnappschuss ist unvollständig.", e);
+        }
+        catch (RuntimeException e)
+        {
+            buffer.position(start);
+            throw e;
+        }
+    }
+
+    private static void validateEntries(World world,
+            ToIntFunction<Body> bodyIds, ByteBuffer buffer)
+    {
+        if (buffer.getInt() != MAGIC || buffer.get() != VERSION)
+        {
+            throw new IllegalArgumentException(
+                    "Der Puffer enthält keinen gültigen Schnappschuss.");
+        }
+        int bodyCount = buffer.getInt();
+        int jointCount = buffer.getInt();
+        if (bodyCount != world.getBodyCount()
+                || jointCount != world.getJointCount())
+        {
+            throw new IllegalStateException(
+                    "Der Schnappschuss passt nicht zur Welt: Er enthält "
+                            + bodyCount + " Körper und " + jointCount
+                            + " Gelenke, die Welt aber " + world.getBodyCount()
+                            + " Körper und " + world.getJointCount()
+                            + " Gelenke.");
+        }
+        buffer.getDouble();
+        int index = 0;
+        for (Body body = world.getBodyList(); body != null; body = body
+                .getNext())
+        {
+            if (buffer.getInt() != bodyIds.applyAsInt(body))
+            {
+                throw new IllegalStateException(
+                        "Der Schnappschuss passt nicht zur Welt: Der Körper Nr. "
+                                + index
+                                + " wurde seit dem Schnappschuss hinzugefügt, entfernt oder ersetzt.");
+            }
+            skip(buffer, BODY_STATE_BYTES);
+            index++;
+        }
+        index = 0;
+        for (Joint joint = world.getJointList(); joint != null; joint = joint
+                .getNext())
+        {
+            byte type = buffer.get();
+            if (type != getJointType(joint)
+                    || buffer.getInt() != bodyIds.applyAsInt(joint.getBodyA())
+                    || buffer.getInt() != bodyIds.applyAsInt(joint.getBodyB()))
+            {
+                throw new IllegalStateException(
+                        "Der Schnappschuss passt nicht zur Welt: Das Gelenk Nr. "
+                                + index
+                                + " wurde seit dem Schnappschuss hinzugefügt, entfernt oder ersetzt.");
+            }
+            skip(buffer, getJointStateBytes(type));
+            index++;
+        }
+    }
+
+    private static void skip(ByteBuffer buffer, int bytes)
+    {
+        if (buffer.remaining() < bytes)
+        {
+            throw new BufferUnderflowException();
+        }
+        buffer.position(buffer.position() + bytes);
+    }
+
+    private void readBody(Body body, ByteBuffer buffer)
+    {
+        position.set(buffer.getFloat(), buffer.getFloat());
+        float angle = buffer.getFloat();
+        velocity.set(buffer.getFloat(), buffer.getFloat());
+        float angularVelocity = buffer.getFloat();
+        byte flags = buffer.get();
+        boolean active = (flags & FLAG_ACTIVE) != 0;
+        if (body.isActive() != active)
+        {
+            body.setActive(active);
+        }
+        body.setTransform(position, angle);
+        // Das Setzen der Geschwindigkeit weckt den Körper auf. Der
+        // Schlafzustand wird deshalb zuletzt gesetzt.
+        body.setLinearVelocity(velocity);
+        body.setAngularVelocity(angularVelocity);
+        body.setAwake((flags & FLAG_AWAKE) != 0);
+    }
+
+    /**
+     * Liest die einstellbaren Werte eines Gelenks. Der Typ wurde bereits beim
+     * Prüfen mit dem Gelenk verglichen.
+     */
+    private static void readJoint(Joint joint, byte type, ByteBuffer buffer)
+    {
+        switch (type)
+        {
+        case JOINT_REVOLUTE -> {
+            RevoluteJoint revolute = (RevoluteJoint) joint;
+            byte flags = buffer.get();
+            revolute.enableMotor((flags & FLAG_MOTOR) != 0);
+            revolute.enableLimit((flags & FLAG_LIMIT) != 0);
+            revolute.setMotorSpeed(buffer.getFloat());
+            revolute.setMaxMotorTorque(buffer.getFloat());
+            revolute.setLimits(buffer.getFloat(), buffer.getFloat());
+        }
+        case JOINT_PRISMATIC -> {
+            PrismaticJoint prismatic = (PrismaticJoint) joint;
+            byte flags = buffer.get();
+            prismatic.enableMotor((flags & FLAG_MOTOR) != 0);
+            prismatic.enableLimit((flags & FLAG_LIMIT) != 0);
+            prismatic.setMotorSpeed(buffer.getFloat());
+            prismatic.setMaxMotorForce(buffer.getFloat());
+            prismatic.setLimits(buffer.getFloat(), buffer.getFloat());
+        }
+        case JOINT_DISTANCE -> {
+            DistanceJoint distance = (DistanceJoint) joint;
+            distance.setLength(buffer.getFloat());
+            distance.setFrequency(buffer.getFloat());
+            distance.setDampingRatio(buffer.getFloat());
+        }
+        case JOINT_ROPE -> ((RopeJoint) joint).setMaxLength(buffer.getFloat());
+        case JOINT_WELD -> {
+            WeldJoint weld = (WeldJoint) joint;
+            weld.setFrequency(buffer.getFloat());
+            weld.setDampingRatio(buffer.getFloat());
+        }
+        default -> {
+            // Gelenke ohne einstellbare Werte
+        }
+        }
+    }
+}
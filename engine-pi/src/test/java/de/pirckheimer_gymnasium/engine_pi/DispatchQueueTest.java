@@ -0,0 +1,171 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import de.pirckheimer_gymnasium.engine_pi.DispatchQueue.Priority;
+
+public class DispatchQueueTest
+{
+    @Test
+    public void testPriorityOrder() throws InterruptedException
+    {
+        // Ein großzügiges Zeitbudget, damit auch auf einer langsamen Maschine
+        // alle Aufgaben in einem Durchlauf ausgeführt werden.
+        DispatchQueue queue = new DispatchQueue().setFrameBudget(60);
+        List<String> calls = new ArrayList<>();
+        queue.enqueue(Priority.BACKGROUND, () -> calls.add("background"));
+        queue.enqueue(Priority.NORMAL, () -> calls.add("normal"));
+        queue.enqueue(Priority.INPUT, () -> calls.add("input"));
+        assertEquals(3, queue.getDepth());
+        queue.run();
+        assertEquals(List.of("input", "normal", "background"), calls);
+        assertEquals(0, queue.getDepth());
+        assertEquals(3, queue.getExecutedCount());
+    }
+
+    @Test
+    public void testFrameBudget() throws InterruptedException
+    {
+        DispatchQueue queue = new DispatchQueue().setFrameBudget(1e-9);
+        List<String> calls = new ArrayList<>();
+        for (int i = 0; i < 3; i++)
+        {
+            queue.enqueue(() -> calls.add("normal"));
+            queue.enqueue(Priority.INPUT, () -> calls.add("input"));
+        }
+        queue.run();
+        // Eingaben werden vollständig, andere Aufgaben mindestens einmal
+        // ausgeführt.
+        assertEquals(List.of("input", "input", "input", "normal"), calls);
+        assertEquals(2, queue.getDepth());
+        queue.run();
+        queue.run();
+        assertEquals(6, calls.size());
+        assertEquals(0, queue.getDepth());
+    }
+
+    @Test
+    public void testWithoutFrameBudget() throws InterruptedException
+    {
+        DispatchQueue queue = new DispatchQueue().setFrameBudget(1e-9);
+        List<String> calls = new ArrayList<>();
+        queue.enqueue(Priority.BACKGROUND, () -> calls.add("background"));
+        for (int i = 0; i < 3; i++)
+        {
+            queue.enqueue(() -> calls.add("normal"));
+        }
+        queue.run(false);
+        assertEquals(List.of("normal", "normal", "normal", "background"),
+                calls);
+        assertEquals(0, queue.getDepth());
+    }
+
+    @Test
+    public void testReplacingPendingTask() throws InterruptedException
+    {
+        DispatchQueue queue = new DispatchQueue();
+        List<String> calls = new ArrayList<>();
+        queue.enqueueReplacing(Priority.NORMAL, "score",
+                () -> calls.add("first"));
+        assertTrue(queue.offerReplacing(Priority.NORMAL, "score",
+                () -> calls.add("second")));
+        queue.enqueue(() -> calls.add("unkeyed"));
+        queue.enqueue(() -> calls.add("unkeyed"));
+        assertEquals(3, queue.getDepth());
+        queue.run();
+        // Die ersetzte Aufgabe wird nie ausgeführt, Aufgaben ohne Schlüssel
+        // alle.
+        assertEquals(List.of("second", "unkeyed", "unkeyed"), calls);
+        queue.enqueueReplacing(Priority.NORMAL, "score",
+                () -> calls.add("third"));
+        queue.run();
+        assertEquals(List.of("second", "unkeyed", "unkeyed", "third"), calls);
+    }
+
+    @Test
+    public void testInterruptedWhileWaiting() throws InterruptedException
+    {
+        DispatchQueue queue = new DispatchQueue().setCapacity(1);
+        queue.enqueue(() -> {
+        });
+        Thread.currentThread().interrupt();
+        assertThrows(InterruptedException.class, () -> queue.enqueue(() -> {
+        }));
+        assertFalse(Thread.currentThread().isInterrupted());
+        assertEquals(1, queue.getDepth());
+    }
+
+    @Test
+    public void testCapacity()
+    {
+        DispatchQueue queue = new DispatchQueue().setCapacity(2);
+        assertTrue(queue.offer(Priority.NORMAL, () -> {
+        }));
+        assertTrue(queue.offer(Priority.BACKGROUND, () -> {
+        }));
+        assertFalse(queue.offer(Priority.NORMAL, () -> {
+        }));
+        assertEquals(1, queue.getRejectedCount());
+        // Eingaben werden nie abgewiesen.
+        assertTrue(queue.offer(Priority.INPUT, () -> {
+        }));
+        queue.run();
+        assertTrue(queue.offer(Priority.NORMAL, () -> {
+        }));
+    }
+
+    @Test
+    public void testBackPressure() throws InterruptedException
+    {
+        // Das kleine Zeitbudget verhindert, dass dieselbe Ausführung auch die
+        // Aufgabe des Produzenten abarbeitet, sobald ihr Platz frei wird.
+        DispatchQueue queue = new DispatchQueue().setCapacity(1)
+                .setFrameBudget(1e-9);
+        queue.enqueue(() -> {
+        });
+        Thread producer = new Thread(() -> {
+            try
+            {
+                queue.enqueue(() -> {
+                });
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        producer.join(100);
+        assertTrue(producer.isAlive());
+        queue.run();
+        producer.join(5000);
+        assertFalse(producer.isAlive());
+        assertEquals(1, queue.getDepth());
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import de.pirckheimer_gymnasium.engine_pi.event.FramePhase;
+
+public class GameLoopTest
+{
+    @Test
+    public void testPhaseOrder() throws InterruptedException
+    {
+        Scene scene = new Scene();
+        List<String> calls = new ArrayList<>();
+        for (FramePhase phase : FramePhase.values())
+        {
+            scene.addFrameUpdateListener(phase,
+                    pastTime -> calls.add(phase.name()));
+        }
+        GameLoop loop = new GameLoop(source -> calls.add("render"), () -> scene,
+                () -> false);
+        try
+        {
+            loop.runFrame(0.016);
+        }
+        finally
+        {
+            loop.shutdown();
+        }
+        assertEquals(List.of("PRE_PHYSICS", "POST_PHYSICS", "UPDATE",
+                "PRE_RENDER", "render", "POST_RENDER"), calls);
+        assertEquals(1, loop.getFrameCount());
+    }
+
+    @Test
+    public void testPhaseTime() throws InterruptedException
+    {
+        Scene scene = new Scene();
+        scene.addFrameUpdateListener(FramePhase.PRE_RENDER, pastTime -> {
+            try
+            {
+                Thread.sleep(20);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+        GameLoop loop = new GameLoop(source -> {
+        }, () -> scene, () -> false);
+        try
+        {
+            loop.runFrame(0.016);
+        }
+        finally
+        {
+            loop.shutdown();
+        }
+        assertTrue(loop.getPhaseTime(FramePhase.PRE_RENDER) >= 0.02);
+        assertTrue(loop.getPhaseTime(FramePhase.POST_RENDER) < 0.02);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.Canvas;
+import java.awt.event.KeyEvent;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import de.pirckheimer_gymnasium.engine_pi.event.InputQueue;
+
+public class InputRecorderTest
+{
+    private byte[] record() throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        InputRecorder recorder = new InputRecorder(out, 42,
+                () -> new Vector(800, 600));
+        KeyEvent key = new KeyEvent(new Canvas(), KeyEvent.KEY_PRESSED, 0, 0,
+                KeyEvent.VK_A, 'a');
+        recorder.beginFrame(0.016);
+        recorder.record(InputQueue.KEY_DOWN, KeyEvent.VK_A, 0, 0, key);
+        recorder.record(InputQueue.MOUSE_MOVE, 0, 10, 20, null);
+        recorder.beginFrame(0.017);
+        recorder.beginFrame(0.015);
+        recorder.record(InputQueue.MOUSE_DOWN, 0, 10, 20, null);
+        recorder.record(InputQueue.MOUSE_SCROLL, 0, -1.5, 0, null);
+        recorder.record(InputQueue.MOUSE_UP, 0, 11, 21, null);
+        assertEquals(3, recorder.getFrameCount());
+        recorder.close();
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException
+    {
+        InputReplayer replayer = InputReplayer
+                .read(new ByteArrayInputStream(record()));
+        assertEquals(42, replayer.getSeed());
+        assertEquals(3, replayer.getFrameCount());
+        assertEquals(0.016, replayer.getPastTime(0));
+        assertEquals(0.017, replayer.getPastTime(1));
+        assertEquals(0.015, replayer.getPastTime(2));
+        assertEquals(2, replayer.getEventCount(0));
+        assertEquals(0, replayer.getEventCount(1));
+        assertEquals(3, replayer.getEventCount(2));
+    }
+
+    @Test
+    public void testEmptyRecording() throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new InputRecorder(out, 7, () -> new Vector(800, 600)).close();
+        InputReplayer replayer = InputReplayer
+                .read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(7, replayer.getSeed());
+        assertEquals(0, replayer.getFrameCount());
+    }
+
+    @Test
+    public void testTruncatedRecording() throws IOException
+    {
+        byte[] data = record();
+        byte[] truncated = Arrays.copyOf(data, data.length - 3);
+        assertThrows(IOException.class,
+                () -> InputReplayer.read(new ByteArrayInputStream(truncated)));
+    }
+
+    @Test
+    public void testInvalidFile()
+    {
+        assertThrows(IOException.class,
+                () -> InputReplayer.read(new ByteArrayInputStream(new byte[]
+                { 1, 2, 3, 4, 5 })));
+    }
+}
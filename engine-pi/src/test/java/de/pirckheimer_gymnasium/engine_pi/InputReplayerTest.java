@@ -0,0 +1,202 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.awt.Canvas;
+import java.awt.event.KeyEvent;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import de.pirckheimer_gymnasium.engine_pi.actor.Actor;
+import de.pirckheimer_gymnasium.engine_pi.actor.Rectangle;
+import de.pirckheimer_gymnasium.engine_pi.event.InputQueue;
+
+public class InputReplayerTest
+{
+    private static final int FRAMES = 60;
+
+    private static final int TRANSITION_FRAME = 30;
+
+    private byte[] record() throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        InputRecorder recorder = new InputRecorder(out, 42,
+                () -> new Vector(800, 600));
+        for (int frame = 0; frame < FRAMES; frame++)
+        {
+            recorder.beginFrame(1 / 60.0);
+            if (frame == 5 || frame == 40)
+            {
+                KeyEvent key = new KeyEvent(new Canvas(), KeyEvent.KEY_PRESSED,
+                        0, 0, KeyEvent.VK_A, 'a');
+                recorder.record(InputQueue.KEY_DOWN, KeyEvent.VK_A, 0, 0, key);
+            }
+        }
+        recorder.close();
+        return out.toByteArray();
+    }
+
+    /**
+     * Der Zustand, den ein Durchlauf hinterlässt.
+     */
+    private static final class State
+    {
+        private final List<Actor> actors = new ArrayList<>();
+
+        private final List<Double> randomNumbers = new ArrayList<>();
+
+        private Scene secondScene;
+
+        private int secondSceneFrames;
+
+        private Scene createScene()
+        {
+            Scene scene = new Scene();
+            Layer layer = new Layer();
+            scene.addLayer(layer);
+            fill(scene.getMainLayer());
+            fill(layer);
+            scene.addKeyStrokeListener(event -> {
+                for (Actor actor : actors)
+                {
+                    actor.applyImpulse(Random.range(-5.0, 5.0),
+                            Random.range(0.0, 5.0));
+                }
+            });
+            int[] frame = { 0 };
+            scene.addFrameUpdateListener(pastTime -> {
+                if (++frame[0] == TRANSITION_FRAME)
+                {
+                    secondScene = new Scene();
+                    fill(secondScene.getMainLayer());
+                    secondScene.addFrameUpdateListener(
+                            time -> secondSceneFrames++);
+                    Game.transitionToScene(secondScene);
+                }
+            });
+            return scene;
+        }
+
+        private void fill(Layer layer)
+        {
+            Rectangle ground = new Rectangle(20, 1);
+            ground.setPosition(-10, -1);
+            ground.makeStatic();
+            layer.add(ground);
+            for (int i = 0; i < 4; i++)
+            {
+                Rectangle box = new Rectangle(1, 1);
+                box.setPosition(Random.range(-8.0, 8.0),
+                        Random.range(0.0, 4.0));
+                box.makeDynamic();
+                box.addCollisionListener(
+                        event -> randomNumbers.add(Random.range()));
+                layer.add(box);
+                actors.add(box);
+            }
+        }
+
+        private List<Vector> positions()
+        {
+            List<Vector> positions = new ArrayList<>();
+            for (Actor actor : actors)
+            {
+                positions.add(actor.getPosition());
+            }
+            return positions;
+        }
+    }
+
+    private State replay(byte[] recording)
+            throws IOException, InterruptedException
+    {
+        State state = new State();
+        double[] durations = InputReplayer
+                .read(new ByteArrayInputStream(recording))
+                .replay(state::createScene);
+        assertEquals(FRAMES, durations.length);
+        return state;
+    }
+
+    @Test
+    public void testReplayIsDeterministic()
+            throws IOException, InterruptedException
+    {
+        byte[] recording = record();
+        State first = replay(recording);
+        State second = replay(recording);
+        assertFalse(first.randomNumbers.isEmpty());
+        assertEquals(first.positions(), second.positions());
+        assertEquals(first.randomNumbers, second.randomNumbers);
+    }
+
+    @Test
+    public void testTransitionToScene() throws IOException, InterruptedException
+    {
+        Scene previous = Game.getActiveScene();
+        State state = replay(record());
+        assertNotNull(state.secondScene);
+        // Der Szenenwechsel wird im selben Einzelbild ausgeführt.
+        assertEquals(FRAMES - TRANSITION_FRAME, state.secondSceneFrames);
+        assertEquals(previous, Game.getActiveScene());
+    }
+
+    @Test
+    public void testEnqueuedTasksIgnoreFrameBudget()
+            throws IOException, InterruptedException
+    {
+        DispatchQueue queue = Game.getDispatchQueue();
+        double budget = queue.getFrameBudget();
+        queue.setFrameBudget(1e-9);
+        try
+        {
+            List<Integer> frames = new ArrayList<>();
+            int[] frame = { 0 };
+            InputReplayer.read(new ByteArrayInputStream(record()))
+                    .replay(() -> {
+                        Scene scene = new Scene();
+                        scene.addFrameUpdateListener(pastTime -> {
+                            if (++frame[0] == 10)
+                            {
+                                for (int i = 0; i < 3; i++)
+                                {
+                                    Game.enqueue(() -> frames.add(frame[0]));
+                                }
+                            }
+                        });
+                        return scene;
+                    });
+            // Alle Aufgaben laufen trotz des Zeitbudgets im selben Einzelbild.
+            assertEquals(List.of(10, 10, 10), frames);
+        }
+        finally
+        {
+            queue.setFrameBudget(budget);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.pirckheimer_gymnasium.engine_pi.actor.Actor;
+import de.pirckheimer_gymnasium.engine_pi.actor.Rectangle;
+
+public class LayerTest
+{
+    private Layer layer;
+
+    private List<String> progress;
+
+    @BeforeEach
+    public void setUp()
+    {
+        layer = new Layer();
+        progress = new ArrayList<>();
+    }
+
+    private static List<Actor> createActors(int... layerPositions)
+    {
+        List<Actor> actors = new ArrayList<>();
+        for (int layerPosition : layerPositions)
+        {
+            actors.add(new Rectangle().setLayerPosition(layerPosition));
+        }
+        return actors;
+    }
+
+    private void nextFrame()
+    {
+        layer.invokeFrameUpdateListeners(0);
+    }
+
+    private void recordProgress(int done, int total)
+    {
+        progress.add(done + "/" + total);
+    }
+
+    @Test
+    public void testAddAllInChunks()
+    {
+        List<Actor> actors = createActors(0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+        layer.addAll(actors, 4, this::recordProgress);
+        assertEquals(0, layer.getActorList().size());
+        nextFrame();
+        assertEquals(4, layer.getActorList().size());
+        assertEquals(List.of("4/10"), progress);
+        nextFrame();
+        assertEquals(8, layer.getActorList().size());
+        nextFrame();
+        assertEquals(10, layer.getActorList().size());
+        assertEquals(List.of("4/10", "8/10", "10/10"), progress);
+        nextFrame();
+        assertEquals(3, progress.size());
+        for (Actor actor : actors)
+        {
+            assertTrue(actor.isMounted());
+            assertEquals(layer, actor.getLayer());
+        }
+    }
+
+    @Test
+    public void testAddAllMergesByLayerPosition()
+    {
+        List<Actor> existing = createActors(0, 5, 10);
+        layer.add(existing.toArray(new Actor[0]));
+        nextFrame();
+        List<Actor> added = createActors(7, -3, 5, 12);
+        layer.addAll(added);
+        nextFrame();
+        // Bei gleicher Ebenenposition bleibt die bereits vorhandene Figur
+        // vorne.
+        assertEquals(List.of(added.get(1), existing.get(0), existing.get(1),
+                added.get(2), added.get(0), existing.get(2), added.get(3)),
+                layer.getActorList());
+    }
+
+    @Test
+    public void testRemoveAllKeepsOrderOfRemainingActors()
+    {
+        List<Actor> actors = createActors(0, 1, 2, 3, 4, 5, 6);
+        layer.addAll(actors);
+        nextFrame();
+        List<Actor> removed = List.of(actors.get(5), actors.get(0),
+                actors.get(3));
+        layer.removeAll(removed, 2, this::recordProgress);
+        nextFrame();
+        assertEquals(List.of(actors.get(1), actors.get(2), actors.get(3),
+                actors.get(4), actors.get(6)), layer.getActorList());
+        nextFrame();
+        assertEquals(List.of(actors.get(1), actors.get(2), actors.get(4),
+                actors.get(6)), layer.getActorList());
+        assertEquals(List.of("2/3", "3/3"), progress);
+        for (Actor actor : removed)
+        {
+            assertFalse(actor.isMounted());
+        }
+        assertTrue(actors.get(1).isMounted());
+    }
+
+    @Test
+    public void testInvalidChunkSize()
+    {
+        List<Actor> actors = createActors(0);
+        assertThrows(IllegalArgumentException.class,
+                () -> layer.addAll(actors, 0, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> layer.removeAll(actors, -1, null));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.actor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.pirckheimer_gymnasium.engine_pi.Scene;
+import de.pirckheimer_gymnasium.engine_pi.Vector;
+
+public class ActorContactTest
+{
+    private Scene scene;
+
+    /**
+     * Statisch, von (0|0) bis (10|1).
+     */
+    private Actor ground;
+
+    /**
+     * Statisch, von (10|0) bis (11|5).
+     */
+    private Actor wall;
+
+    @BeforeEach
+    public void setUp()
+    {
+        scene = new Scene();
+        scene.setGravity(0, -10);
+        ground = new Rectangle(10, 1).makeStatic().setPosition(0, 0);
+        wall = new Rectangle(1, 5).makeStatic().setPosition(10, 0);
+        ground.setElasticity(0);
+        wall.setElasticity(0);
+        scene.add(ground, wall);
+        nextFrame();
+    }
+
+    private void nextFrame()
+    {
+        scene.invokeFrameUpdateListeners(0);
+    }
+
+    private void step(int steps) throws InterruptedException
+    {
+        for (int i = 0; i < steps; i++)
+        {
+            scene.step(1 / 60.0, task -> {
+                task.run();
+                return CompletableFuture.completedFuture(null);
+            });
+        }
+    }
+
+    private Actor addBox(double x, double y)
+    {
+        Actor box = new Rectangle(1, 1).makeDynamic().setPosition(x, y);
+        box.setElasticity(0);
+        scene.add(box);
+        nextFrame();
+        return box;
+    }
+
+    @Test
+    public void testGroundedOnStaticBody() throws InterruptedException
+    {
+        Actor box = addBox(2, 1.5);
+        assertFalse(box.isGrounded());
+        step(60);
+        assertTrue(box.isGrounded());
+    }
+
+    @Test
+    public void testNotGroundedWhenTouchingSideways()
+            throws InterruptedException
+    {
+        scene.setGravity(0, 0);
+        Actor box = addBox(8.5, 3);
+        box.setVelocity(new Vector(2, 0));
+        step(60);
+        assertEquals(1, box.countContacts(other -> other == wall));
+        assertFalse(box.isGrounded());
+    }
+
+    @Test
+    public void testForEachContactNormal() throws InterruptedException
+    {
+        Actor box = addBox(2, 1.5);
+        step(60);
+        List<Actor> others = new ArrayList<>();
+        List<Vector> normals = new ArrayList<>();
+        assertTrue(box.forEachContact((other, normalX, normalY) -> {
+            others.add(other);
+            normals.add(new Vector(normalX, normalY));
+            return true;
+        }));
+        assertEquals(List.of(ground), others);
+        // Die Normale zeigt von der Figur zum Boden.
+        assertEquals(0, normals.get(0).getX(), 0.001);
+        assertEquals(-1, normals.get(0).getY(), 0.001);
+    }
+
+    @Test
+    public void testForEachContactStopsWhenVisitorReturnsFalse()
+            throws InterruptedException
+    {
+        Actor box = addBox(9, 1.5);
+        step(60);
+        assertEquals(2, box.countContacts(other -> true));
+        List<Actor> others = new ArrayList<>();
+        assertFalse(box.forEachContact((other, normalX, normalY) -> {
+            others.add(other);
+            return false;
+        }));
+        assertEquals(1, others.size());
+    }
+
+    @Test
+    public void testCountContacts() throws InterruptedException
+    {
+        Actor left = addBox(2, 1);
+        Actor right = addBox(3, 1);
+        step(30);
+        assertEquals(2, left.countContacts(other -> true));
+        assertEquals(1, left.countContacts(
+                other -> other.getBodyType() == BodyType.STATIC));
+        assertEquals(1, left.countContacts(other -> other == right));
+        assertEquals(0, ground.countContacts(other -> other == wall));
+        assertSame(BodyType.DYNAMIC, right.getBodyType());
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.actor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.pirckheimer_gymnasium.engine_pi.Scene;
+import de.pirckheimer_gymnasium.engine_pi.Vector;
+
+public class ActorPoolTest
+{
+    private Scene scene;
+
+    private ActorPool<Rectangle> pool;
+
+    @BeforeEach
+    public void setUp()
+    {
+        scene = new Scene();
+        scene.setGravity(0, -10);
+        pool = new ActorPool<>(scene, () -> new Rectangle(1, 1), 2);
+    }
+
+    private void nextFrame()
+    {
+        scene.invokeFrameUpdateListeners(0);
+    }
+
+    private void step() throws InterruptedException
+    {
+        scene.step(1 / 60.0, task -> {
+            task.run();
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    @Test
+    public void testPrefillParksInactiveActors()
+    {
+        pool.prefill(5);
+        assertEquals(2, pool.getParkedCount());
+        nextFrame();
+        Rectangle actor = pool.acquire(new Vector(3, 4), new Vector(1, 2),
+                BodyType.DYNAMIC);
+        assertTrue(actor.isMounted());
+        assertEquals(1, pool.getParkedCount());
+        assertFalse(pool.isParked(actor));
+        assertTrue(actor.isVisible());
+        assertTrue(actor.getPhysicsHandler().isActive());
+        assertEquals(BodyType.DYNAMIC, actor.getBodyType());
+        assertEquals(new Vector(3, 4), actor.getPosition());
+        assertEquals(new Vector(1, 2), actor.getVelocity());
+    }
+
+    @Test
+    public void testReleaseAndReacquire()
+    {
+        Rectangle actor = pool.acquire(new Vector(0, 0), new Vector(5, 0),
+                BodyType.DYNAMIC);
+        nextFrame();
+        assertTrue(actor.isMounted());
+        pool.release(actor);
+        pool.release(actor);
+        assertEquals(1, pool.getParkedCount());
+        assertTrue(pool.isParked(actor));
+        assertFalse(actor.isVisible());
+        assertFalse(actor.getPhysicsHandler().isActive());
+        Rectangle reused = pool.acquire(new Vector(2, 2), Vector.NULL,
+                BodyType.KINEMATIC);
+        assertSame(actor, reused);
+        assertEquals(BodyType.KINEMATIC, reused.getBodyType());
+        assertEquals(new Vector(2, 2), reused.getPosition());
+        // Die Geschwindigkeit vor dem Parken wurde zurückgesetzt.
+        assertEquals(Vector.NULL, reused.getVelocity());
+        assertTrue(reused.getPhysicsHandler().isActive());
+    }
+
+    @Test
+    public void testReleaseBeyondCapacityRemovesActor()
+    {
+        Rectangle[] actors = new Rectangle[3];
+        for (int i = 0; i < actors.length; i++)
+        {
+            actors[i] = pool.acquire(new Vector(i * 2, 0), Vector.NULL,
+                    BodyType.STATIC);
+        }
+        nextFrame();
+        for (Rectangle actor : actors)
+        {
+            pool.release(actor);
+        }
+        nextFrame();
+        assertEquals(2, pool.getParkedCount());
+        assertTrue(actors[0].isMounted());
+        assertTrue(actors[1].isMounted());
+        assertFalse(actors[2].isMounted());
+    }
+
+    @Test
+    public void testReleaseDuringWorldStepIsDeferred()
+            throws InterruptedException
+    {
+        Rectangle ground = new Rectangle(10, 1);
+        ground.makeStatic().setPosition(-5, -1);
+        scene.add(ground);
+        Rectangle actor = pool.acquire(new Vector(0, 0.05), Vector.NULL,
+                BodyType.DYNAMIC);
+        nextFrame();
+        boolean[] released = { false };
+        actor.addCollisionListener(ground, event -> {
+            pool.release(actor);
+            released[0] = true;
+        });
+        for (int i = 0; i < 60 && !released[0]; i++)
+        {
+            step();
+        }
+        assertTrue(released[0]);
+        assertFalse(actor.isVisible());
+        assertFalse(pool.isParked(actor));
+        assertTrue(actor.getPhysicsHandler().isActive());
+        nextFrame();
+        assertTrue(pool.isParked(actor));
+        assertFalse(actor.getPhysicsHandler().isActive());
+    }
+
+    @Test
+    public void testRepeatedReleaseDuringWorldStepParksOnce()
+            throws InterruptedException
+    {
+        Rectangle ground = new Rectangle(10, 1);
+        ground.makeStatic().setPosition(-5, -1);
+        scene.add(ground);
+        Rectangle actor = pool.acquire(new Vector(0, 0.05), Vector.NULL,
+                BodyType.DYNAMIC);
+        nextFrame();
+        int[] releases = { 0 };
+        actor.addCollisionListener(ground, event -> {
+            pool.release(actor);
+            pool.release(actor);
+            releases[0]++;
+        });
+        for (int i = 0; i < 60 && releases[0] == 0; i++)
+        {
+            step();
+        }
+        nextFrame();
+        assertEquals(1, pool.getParkedCount());
+        assertTrue(pool.isParked(actor));
+    }
+
+    @Test
+    public void testDeferredReleasesRespectCapacity()
+            throws InterruptedException
+    {
+        Rectangle ground = new Rectangle(10, 1);
+        ground.makeStatic().setPosition(-5, -1);
+        scene.add(ground);
+        Rectangle[] actors = new Rectangle[3];
+        int[] releases = { 0 };
+        for (int i = 0; i < actors.length; i++)
+        {
+            Rectangle actor = pool.acquire(new Vector(i * 2 - 3, 0.05),
+                    Vector.NULL, BodyType.DYNAMIC);
+            actors[i] = actor;
+            actor.addCollisionListener(ground, event -> {
+                pool.release(actor);
+                releases[0]++;
+            });
+        }
+        nextFrame();
+        for (int i = 0; i < 60 && releases[0] < actors.length; i++)
+        {
+            step();
+        }
+        assertEquals(actors.length, releases[0]);
+        nextFrame();
+        nextFrame();
+        assertEquals(2, pool.getParkedCount());
+        int mounted = 0;
+        for (Rectangle actor : actors)
+        {
+            if (actor.isMounted())
+            {
+                mounted++;
+            }
+        }
+        assertEquals(2, mounted);
+    }
+
+    @Test
+    public void testActiveStateBeforeMountAppliedOnce()
+    {
+        Rectangle actor = new Rectangle(1, 1);
+        for (int i = 0; i < 5; i++)
+        {
+            actor.getPhysicsHandler().setActive(true);
+            actor.getPhysicsHandler().setActive(false);
+        }
+        scene.add(actor);
+        nextFrame();
+        assertFalse(actor.getPhysicsHandler().isActive());
+        Rectangle other = new Rectangle(1, 1);
+        other.getPhysicsHandler().setActive(false);
+        other.getPhysicsHandler().setActive(true);
+        scene.add(other);
+        nextFrame();
+        assertTrue(other.getPhysicsHandler().isActive());
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.actor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import de.pirckheimer_gymnasium.engine_pi.Scene;
+
+public class ParticleSystemTest
+{
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testEmitUpToCapacity()
+    {
+        ParticleSystem system = new ParticleSystem(2000);
+        for (int i = 0; i < 2000; i++)
+        {
+            assertTrue(system.emit(i, 0, 0, 0, 1, i));
+        }
+        assertFalse(system.emit(0, 0, 0, 0, 1, 0));
+        assertEquals(2000, system.getParticleCount());
+        // Die Felder wurden über die anfängliche Größe hinaus vergrößert.
+        assertEquals(1500, system.getParticleX(1500), DELTA);
+        assertEquals(1999, system.getParticleColor(1999));
+        system.clear();
+        assertEquals(0, system.getParticleCount());
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> system.getParticleX(0));
+    }
+
+    @Test
+    public void testExpiredParticlesAreSwappedOut()
+    {
+        ParticleSystem system = new ParticleSystem(10);
+        system.emit(0, 0, 0, 0, 1, 1);
+        system.emit(0, 0, 0, 0, 0.5, 2);
+        system.emit(0, 0, 0, 0, 1, 3);
+        system.emit(0, 0, 0, 0, 0.2, 4);
+        system.update(0.3);
+        // Das letzte Partikel (4) ist abgelaufen.
+        assertEquals(3, system.getParticleCount());
+        system.update(0.3);
+        // Das letzte Partikel (3) ersetzt das abgelaufene Partikel (2).
+        assertEquals(2, system.getParticleCount());
+        assertEquals(1, system.getParticleColor(0));
+        assertEquals(3, system.getParticleColor(1));
+        system.update(0.4);
+        assertEquals(0, system.getParticleCount());
+    }
+
+    @Test
+    public void testGravityAndDrag()
+    {
+        ParticleSystem system = new ParticleSystem(10);
+        system.setGravity(0, -10);
+        system.emit(0, 0, 1, 0, 10, 0);
+        system.update(0.1);
+        assertEquals(1, system.getParticleVelocityX(0), DELTA);
+        assertEquals(-1, system.getParticleVelocityY(0), DELTA);
+        assertEquals(0.1, system.getParticleX(0), DELTA);
+        assertEquals(-0.1, system.getParticleY(0), DELTA);
+        system.setGravity(0, 0).setDrag(5);
+        system.update(0.1);
+        assertEquals(0.5, system.getParticleVelocityX(0), DELTA);
+        assertEquals(-0.5, system.getParticleVelocityY(0), DELTA);
+        assertThrows(IllegalArgumentException.class, () -> system.setDrag(-1));
+    }
+
+    @Test
+    public void testBounceOffStaticActors()
+    {
+        Scene scene = new Scene();
+        Rectangle ground = new Rectangle(10, 1);
+        ground.makeStatic().setPosition(-5, -1);
+        Rectangle box = new Rectangle(1, 1);
+        box.makeDynamic().setPosition(2, 3);
+        ParticleSystem system = new ParticleSystem(10);
+        system.setCollideWithStatic(true, 0.5);
+        scene.add(ground, box, system);
+        // Die Figuren werden erst im nächsten Einzelbild angemeldet.
+        scene.invokeFrameUpdateListeners(0);
+        system.emit(0, 0.05, 0, -1, 10, 1);
+        system.emit(2.5, 3.55, 0, -1, 10, 2);
+        system.update(0.1);
+        // Das erste Partikel prallt am statischen Boden ab.
+        assertEquals(0.05, system.getParticleY(0), DELTA);
+        assertEquals(0.5, system.getParticleVelocityY(0), DELTA);
+        // Das zweite Partikel fliegt durch die dynamische Figur hindurch.
+        assertEquals(3.45, system.getParticleY(1), DELTA);
+        assertEquals(-1, system.getParticleVelocityY(1), DELTA);
+    }
+
+    @Test
+    public void testNoCollisionWithoutLayer()
+    {
+        ParticleSystem system = new ParticleSystem(10);
+        system.setCollideWithStatic(true, 0.5);
+        system.emit(0, 0, 0, -1, 10, 0);
+        system.update(0.5);
+        assertEquals(-0.5, system.getParticleY(0), DELTA);
+    }
+}
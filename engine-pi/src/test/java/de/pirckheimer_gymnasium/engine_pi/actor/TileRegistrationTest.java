@@ -0,0 +1,114 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.actor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.pirckheimer_gymnasium.jbox2d.dynamics.Fixture;
+
+import de.pirckheimer_gymnasium.engine_pi.Scene;
+
+public class TileRegistrationTest
+{
+    private Scene scene;
+
+    private TileRegistration tiles;
+
+    @BeforeEach
+    public void setUp()
+    {
+        scene = new Scene();
+        tiles = new TileRegistration(64, 64, 1);
+        tiles.makeStatic();
+        for (int x = 0; x < 64; x++)
+        {
+            for (int y = 0; y < 64; y++)
+            {
+                tiles.setSolid(x, y, true);
+            }
+        }
+        scene.add(tiles);
+        nextFrame();
+    }
+
+    private void nextFrame()
+    {
+        scene.invokeFrameUpdateListeners(0);
+    }
+
+    private Set<Fixture> getFixtures()
+    {
+        // Eingereihte Änderungen übernehmen, bevor der Körper direkt gelesen
+        // wird.
+        tiles.getPhysicsHandler().getWorldHandler().runExclusive(() -> {
+        });
+        Set<Fixture> fixtures = Collections
+                .newSetFromMap(new IdentityHashMap<>());
+        for (Fixture fixture = tiles.getPhysicsHandler()
+                .getBody().fixtureList; fixture != null; fixture = fixture.next)
+        {
+            fixtures.add(fixture);
+        }
+        return fixtures;
+    }
+
+    @Test
+    public void testOneRectanglePerChunk()
+    {
+        assertEquals(4, getFixtures().size());
+    }
+
+    @Test
+    public void testOnlyChangedChunkIsRebuilt()
+    {
+        Set<Fixture> before = getFixtures();
+        tiles.setSolid(0, 0, false);
+        nextFrame();
+        Set<Fixture> after = getFixtures();
+        assertEquals(5, after.size());
+        after.retainAll(before);
+        assertEquals(3, after.size());
+    }
+
+    @Test
+    public void testOnlyChangedChunkIsRebuiltAfterRemount()
+    {
+        scene.remove(tiles);
+        nextFrame();
+        scene.add(tiles);
+        nextFrame();
+        Set<Fixture> before = getFixtures();
+        assertEquals(4, before.size());
+        tiles.setSolid(63, 63, false);
+        nextFrame();
+        Set<Fixture> after = getFixtures();
+        assertEquals(5, after.size());
+        after.retainAll(before);
+        assertEquals(3, after.size());
+        assertTrue(tiles.isSolid(0, 0));
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.actor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import de.pirckheimer_gymnasium.engine_pi.Layer;
+import de.pirckheimer_gymnasium.engine_pi.Scene;
+import de.pirckheimer_gymnasium.engine_pi.event.FrameUpdateListener;
+
+public class UpdatePolicyTest
+{
+    @Test
+    public void testAlways()
+    {
+        assertTrue(UpdatePolicy.ALWAYS.isAlways());
+        assertTrue(UpdatePolicy.ALWAYS.isActive(null));
+        assertEquals(0, UpdatePolicy.ALWAYS.getInterval());
+        assertFalse(UpdatePolicy.VISIBLE.isAlways());
+    }
+
+    @Test
+    public void testThrottled()
+    {
+        UpdatePolicy policy = UpdatePolicy.throttled(10);
+        assertFalse(policy.isAlways());
+        assertTrue(policy.isActive(null));
+        assertEquals(0.1, policy.getInterval(), 1e-12);
+        assertEquals(0.5, UpdatePolicy.VISIBLE.throttle(2).getInterval());
+    }
+
+    @Test
+    public void testInvalidArguments()
+    {
+        assertThrows(IllegalArgumentException.class,
+                () -> UpdatePolicy.throttled(0));
+        assertThrows(IllegalArgumentException.class,
+                () -> UpdatePolicy.withinCameraRadius(-1));
+    }
+
+    /**
+     * Meldet eine Figur an der Hauptebene einer neuen Szene an und führt das
+     * verzögerte Hinzufügen aus.
+     */
+    private static Scene mount(Actor actor)
+    {
+        Scene scene = new Scene();
+        scene.add(actor);
+        scene.invokeFrameUpdateListeners(0);
+        return scene;
+    }
+
+    @Test
+    public void testGatedActorIsSkipped()
+    {
+        Rectangle actor = new Rectangle(1, 1);
+        List<Double> calls = new ArrayList<>();
+        actor.addFrameUpdateListener(calls::add);
+        actor.setUpdatePolicy(UpdatePolicy.VISIBLE);
+        Scene scene = mount(actor);
+        calls.clear();
+        scene.invokeFrameUpdateListeners(0.1);
+        assertEquals(List.of(0.1), calls);
+        actor.setVisible(false);
+        scene.invokeFrameUpdateListeners(0.1);
+        scene.invokeFrameUpdateListeners(0.1);
+        assertEquals(List.of(0.1), calls);
+        actor.setVisible(true);
+        scene.invokeFrameUpdateListeners(0.2);
+        // Die Zeit der übersprungenen Einzelbilder wird nicht nachgereicht.
+        assertEquals(List.of(0.1, 0.2), calls);
+    }
+
+    @Test
+    public void testThrottledListenerReceivesAccumulatedTime()
+    {
+        Rectangle actor = new Rectangle(1, 1);
+        List<Double> calls = new ArrayList<>();
+        actor.addFrameUpdateListener(calls::add);
+        actor.setUpdatePolicy(UpdatePolicy.throttled(10));
+        Scene scene = mount(actor);
+        calls.clear();
+        scene.invokeFrameUpdateListeners(0.04);
+        scene.invokeFrameUpdateListeners(0.04);
+        assertTrue(calls.isEmpty());
+        scene.invokeFrameUpdateListeners(0.04);
+        assertEquals(1, calls.size());
+        assertEquals(0.12, calls.get(0), 1e-9);
+        scene.invokeFrameUpdateListeners(0.04);
+        assertEquals(1, calls.size());
+    }
+
+    @Test
+    public void testSetUpdatePolicyWhileMounted()
+    {
+        Rectangle actor = new Rectangle(1, 1);
+        List<Double> calls = new ArrayList<>();
+        FrameUpdateListener first = calls::add;
+        FrameUpdateListener second = calls::add;
+        actor.addFrameUpdateListener(first);
+        actor.addFrameUpdateListener(second);
+        Scene scene = mount(actor);
+        Layer layer = scene.getMainLayer();
+        int size = layer.getFrameUpdateListeners().size();
+        assertTrue(layer.getFrameUpdateListeners().contains(first));
+        // Statt der beiden Beobachter ist nur der Stellvertreter angemeldet.
+        actor.setUpdatePolicy(UpdatePolicy.VISIBLE);
+        assertFalse(layer.getFrameUpdateListeners().contains(first));
+        assertFalse(layer.getFrameUpdateListeners().contains(second));
+        assertEquals(size - 1, layer.getFrameUpdateListeners().size());
+        calls.clear();
+        scene.invokeFrameUpdateListeners(0.1);
+        assertEquals(2, calls.size());
+        // Ein Wechsel zwischen zwei Richtlinien mit Stellvertreter ändert die
+        // Anmeldung nicht.
+        actor.setUpdatePolicy(UpdatePolicy.throttled(100));
+        assertEquals(size - 1, layer.getFrameUpdateListeners().size());
+        actor.setUpdatePolicy(UpdatePolicy.ALWAYS);
+        assertTrue(layer.getFrameUpdateListeners().contains(first));
+        assertTrue(layer.getFrameUpdateListeners().contains(second));
+        assertEquals(size, layer.getFrameUpdateListeners().size());
+        calls.clear();
+        scene.invokeFrameUpdateListeners(0.1);
+        assertEquals(2, calls.size());
+        actor.remove();
+        scene.invokeFrameUpdateListeners(0);
+        assertFalse(layer.getFrameUpdateListeners().contains(first));
+        assertEquals(size - 2, layer.getFrameUpdateListeners().size());
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Vergleicht {@link EventListeners} mit der früheren, vollständig
+ * synchronisierten Umsetzung über zwei {@link LinkedHashSet}-Mengen.
+ *
+ * <p>
+ * JMH steht im Build nicht zur Verfügung. Der Vergleich verwendet deshalb einen
+ * einfachen Messrahmen mit Aufwärmrunden: Jede Messung läuft
+ * {@link #ITERATIONS} Runden lang je {@link #ITERATION_MILLIS} Millisekunden,
+ * ausgegeben wird der Mittelwert in Nanosekunden pro Operation. Es handelt sich
+ * um keinen JUnit-Test. Aufruf nach <code>mvn test-compile</code>:
+ * </p>
+ *
+ * <pre>
+ * {@code
+ * java -cp target/classes:target/test-classes \
+ *     de.pirckheimer_gymnasium.engine_pi.event.EventListenersBenchmark
+ * }
+ * </pre>
+ *
+ * <p>
+ * Gemessen wird {@code invoke} (alle Beobachter einmal aufrufen) sowie
+ * {@code churn} (einen Beobachter an- und wieder abmelden und danach alle
+ * aufrufen). Ergebnisse mit OpenJDK 17 auf einem Kern, in ns/op:
+ * </p>
+ *
+ * <pre>
+ * Beobachter  invoke alt  invoke neu  churn alt  churn neu
+ *         10         113          64        155        206
+ *       1000        5217        2554       5255       8140
+ *     100000     2479515      555858    2456692    4773820
+ * </pre>
+ *
+ * <p>
+ * Das Aufrufen ist zwei- bis viermal so schnell. Wer in jedem Einzelbild
+ * Beobachter an- oder abmeldet, bezahlt dafür mit dem Neuaufbau des Feldes beim
+ * nächsten Aufruf.
+ * </p>
+ */
+public final class EventListenersBenchmark
+{
+    private static final int[] SIZES = { 10, 1_000, 100_000 };
+
+    private static final int WARMUP_ITERATIONS = 5;
+
+    private static final int ITERATIONS = 5;
+
+    private static final long ITERATION_MILLIS = 200;
+
+    /**
+     * Verhindert, dass der JIT-Compiler die Aufrufe wegoptimiert.
+     */
+    private static long sink;
+
+    private static final Consumer<Object> INVOKER = listener -> sink += listener
+            .hashCode();
+
+    private EventListenersBenchmark()
+    {
+    }
+
+    /**
+     * Die frühere Umsetzung als Vergleichsgrundlage.
+     */
+    private static final class SynchronizedListeners<T>
+    {
+        private final Collection<T> listeners = new LinkedHashSet<>();
+
+        private final Collection<T> listenerIterationCopy = new LinkedHashSet<>();
+
+        private final Collection<Runnable> pendingCopyModifications = new ArrayList<>();
+
+        private boolean iterating = false;
+
+        public synchronized void add(T listener)
+        {
+            listeners.add(listener);
+            if (iterating)
+            {
+                pendingCopyModifications
+                        .add(() -> listenerIterationCopy.add(listener));
+            }
+            else
+            {
+                listenerIterationCopy.add(listener);
+            }
+        }
+
+        public synchronized void remove(T listener)
+        {
+            listeners.remove(listener);
+            if (iterating)
+            {
+                pendingCopyModifications
+                        .add(() -> listenerIterationCopy.remove(listener));
+            }
+            else
+            {
+                listenerIterationCopy.remove(listener);
+            }
+        }
+
+        public synchronized void invoke(Consumer<T> invoker)
+        {
+            try
+            {
+                iterating = true;
+                for (T listener : listenerIterationCopy)
+                {
+                    invoker.accept(listener);
+                }
+            }
+            finally
+            {
+                iterating = false;
+                for (Runnable pendingModification : pendingCopyModifications)
+                {
+                    pendingModification.run();
+                }
+                pendingCopyModifications.clear();
+            }
+        }
+    }
+
+    /**
+     * Misst eine Operation und gibt die mittlere Dauer in Nanosekunden zurück.
+     */
+    private static double measure(Runnable operation)
+    {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++)
+        {
+            run(operation);
+        }
+        double total = 0;
+        for (int i = 0; i < ITERATIONS; i++)
+        {
+            total += run(operation);
+        }
+        return total / ITERATIONS;
+    }
+
+    private static double run(Runnable operation)
+    {
+        long start = System.nanoTime();
+        long deadline = start + ITERATION_MILLIS * 1_000_000;
+        long operations = 0;
+        long now;
+        do
+        {
+            operation.run();
+            operations++;
+            now = System.nanoTime();
+        }
+        while (now < deadline);
+        return (double) (now - start) / operations;
+    }
+
+    public static void main(String[] args)
+    {
+        System.out.println(
+                "Beobachter  invoke alt  invoke neu  churn alt  churn neu");
+        for (int size : SIZES)
+        {
+            SynchronizedListeners<Object> old = new SynchronizedListeners<>();
+            EventListeners<Object> current = new EventListeners<>();
+            for (int i = 0; i < size; i++)
+            {
+                Object listener = new Object();
+                old.add(listener);
+                current.add(listener);
+            }
+            Object extra = new Object();
+            double oldInvoke = measure(() -> old.invoke(INVOKER));
+            double currentInvoke = measure(() -> current.invoke(INVOKER));
+            double oldChurn = measure(() -> {
+                old.add(extra);
+                old.remove(extra);
+                old.invoke(INVOKER);
+            });
+            double currentChurn = measure(() -> {
+                current.add(extra);
+                current.remove(extra);
+                current.invoke(INVOKER);
+            });
+            System.out.println(String.format(Locale.ROOT,
+                    "%10d  %10.0f  %10.0f  %9.0f  %9.0f", size, oldInvoke,
+                    currentInvoke, oldChurn, currentChurn));
+        }
+        // Die Summe wird gelesen, damit sie nicht entfernt werden kann.
+        if (sink == 42)
+        {
+            System.out.println();
+        }
+    }
+}
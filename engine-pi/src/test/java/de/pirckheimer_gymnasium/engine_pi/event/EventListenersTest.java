@@ -0,0 +1,95 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class EventListenersTest
+{
+    private List<String> invoke(EventListeners<String> listeners)
+    {
+        List<String> invoked = new ArrayList<>();
+        listeners.invoke(invoked::add);
+        return invoked;
+    }
+
+    @Test
+    public void testOrderAndDuplicates()
+    {
+        EventListeners<String> listeners = new EventListeners<>();
+        listeners.add("a");
+        listeners.add("b");
+        listeners.add("a");
+        assertEquals(List.of("a", "b"), invoke(listeners));
+        assertEquals(2, listeners.size());
+        listeners.remove("a");
+        assertEquals(List.of("b"), invoke(listeners));
+        assertFalse(listeners.contains("a"));
+    }
+
+    @Test
+    public void testModificationDuringInvocation()
+    {
+        EventListeners<String> listeners = new EventListeners<>();
+        listeners.add("a");
+        listeners.add("b");
+        List<String> invoked = new ArrayList<>();
+        listeners.invoke(listener -> {
+            invoked.add(listener);
+            listeners.remove("b");
+            listeners.add("c");
+        });
+        assertEquals(List.of("a", "b"), invoked);
+        assertEquals(List.of("a", "c"), invoke(listeners));
+    }
+
+    @Test
+    public void testNestedInvocation()
+    {
+        EventListeners<String> listeners = new EventListeners<>();
+        listeners.add("a");
+        listeners.add("b");
+        List<String> invoked = new ArrayList<>();
+        listeners.invoke(
+                outer -> listeners.invoke(inner -> invoked.add(outer + inner)));
+        assertEquals(List.of("aa", "ab", "ba", "bb"), invoked);
+    }
+
+    @Test
+    public void testParentAndClear()
+    {
+        EventListeners<String> parent = new EventListeners<>();
+        EventListeners<String> listeners = new EventListeners<>(() -> parent);
+        listeners.add("a");
+        assertTrue(parent.contains("a"));
+        listeners.remove("a");
+        assertTrue(parent.isEmpty());
+        listeners.add("b");
+        listeners.clear();
+        assertTrue(listeners.isEmpty());
+        assertEquals(List.of(), invoke(listeners));
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class FrameUpdateInvokerTest
+{
+    @Test
+    public void testSequentialOrder()
+    {
+        EventListeners<FrameUpdateListener> listeners = new EventListeners<>();
+        List<Integer> calls = new ArrayList<>();
+        for (int i = 0; i < 5; i++)
+        {
+            int number = i;
+            listeners.add(pastTime -> calls.add(number));
+        }
+        new FrameUpdateInvoker(listeners).invoke(0.016);
+        assertEquals(List.of(0, 1, 2, 3, 4), calls);
+    }
+
+    @Test
+    public void testParallelAfterSequential()
+    {
+        EventListeners<FrameUpdateListener> listeners = new EventListeners<>();
+        AtomicInteger sequential = new AtomicInteger();
+        AtomicInteger parallel = new AtomicInteger();
+        AtomicInteger seenBefore = new AtomicInteger();
+        for (int i = 0; i < 64; i++)
+        {
+            ParallelFrameUpdateListener listener = pastTime -> {
+                seenBefore.addAndGet(sequential.get());
+                parallel.incrementAndGet();
+            };
+            listeners.add(listener);
+            listeners.add(pastTime -> sequential.incrementAndGet());
+        }
+        new FrameUpdateInvoker(listeners).invoke(0.016);
+        assertEquals(64, sequential.get());
+        assertEquals(64, parallel.get());
+        // Alle parallelen Beobachter sehen alle sequentiellen Aufrufe.
+        assertEquals(64 * 64, seenBefore.get());
+    }
+
+    @Test
+    public void testSequentialParallelListeners()
+    {
+        EventListeners<FrameUpdateListener> listeners = new EventListeners<>();
+        List<Integer> calls = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 64; i++)
+        {
+            int number = i;
+            ParallelFrameUpdateListener listener = pastTime -> {
+                calls.add(number);
+                threads.add(Thread.currentThread());
+            };
+            listeners.add(listener);
+        }
+        FrameUpdateInvoker.setSequential(true);
+        try
+        {
+            new FrameUpdateInvoker(listeners).invoke(0.016);
+        }
+        finally
+        {
+            FrameUpdateInvoker.setSequential(false);
+        }
+        assertEquals(64, calls.size());
+        for (int i = 0; i < 64; i++)
+        {
+            assertEquals(i, calls.get(i));
+            assertSame(Thread.currentThread(), threads.get(i));
+        }
+    }
+
+    @Test
+    public void testPastTime()
+    {
+        EventListeners<FrameUpdateListener> listeners = new EventListeners<>();
+        ConcurrentHashMap<Double, Boolean> times = new ConcurrentHashMap<>();
+        for (int i = 0; i < 8; i++)
+        {
+            ParallelFrameUpdateListener listener = pastTime -> times
+                    .put(pastTime, true);
+            listeners.add(listener);
+        }
+        FrameUpdateInvoker invoker = new FrameUpdateInvoker(listeners);
+        invoker.invoke(0.5);
+        invoker.invoke(0.25);
+        assertEquals(2, times.size());
+        assertTrue(times.containsKey(0.5));
+        assertTrue(times.containsKey(0.25));
+    }
+
+    @Test
+    public void testExceptionIsRethrown()
+    {
+        EventListeners<FrameUpdateListener> listeners = new EventListeners<>();
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 4; i++)
+        {
+            ParallelFrameUpdateListener listener = pastTime -> calls
+                    .incrementAndGet();
+            listeners.add(listener);
+        }
+        ParallelFrameUpdateListener failing = pastTime -> {
+            throw new IllegalStateException();
+        };
+        listeners.add(failing);
+        FrameUpdateInvoker invoker = new FrameUpdateInvoker(listeners);
+        assertThrows(IllegalStateException.class, () -> invoker.invoke(0.1));
+        listeners.remove(failing);
+        calls.set(0);
+        invoker.invoke(0.1);
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    public void testBatchSize()
+    {
+        assertEquals(1, FrameUpdateInvoker.batchSize(2, 8));
+        assertEquals(1, FrameUpdateInvoker.batchSize(32, 8));
+        assertEquals(31, FrameUpdateInvoker.batchSize(1000, 8));
+        assertEquals(125, FrameUpdateInvoker.batchSize(1000, 2));
+    }
+
+    @Test
+    public void testEveryListenerOnceInBatches()
+    {
+        EventListeners<FrameUpdateListener> listeners = new EventListeners<>();
+        int[] calls = new int[1001];
+        for (int i = 0; i < calls.length; i++)
+        {
+            int number = i;
+            ParallelFrameUpdateListener listener = pastTime -> calls[number]++;
+            listeners.add(listener);
+        }
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try
+        {
+            new FrameUpdateInvoker(listeners, pool).invoke(0.016);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+        for (int count : calls)
+        {
+            assertEquals(1, count);
+        }
+    }
+}
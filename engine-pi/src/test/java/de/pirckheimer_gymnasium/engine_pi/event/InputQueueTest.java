@@ -0,0 +1,100 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class InputQueueTest
+{
+    private List<String> drain(InputQueue queue, InputState state)
+    {
+        List<String> events = new ArrayList<>();
+        queue.drain(state, (type, code, x, y, source) -> events
+                .add(type + ":" + code + ":" + x + ":" + y));
+        return events;
+    }
+
+    @Test
+    public void testCoalescing()
+    {
+        InputQueue queue = new InputQueue(16);
+        queue.offer(InputQueue.MOUSE_MOVE, 0, 1, 1, null);
+        queue.offer(InputQueue.MOUSE_MOVE, 0, 2, 3, null);
+        queue.offer(InputQueue.MOUSE_SCROLL, 0, 0.5, 0, null);
+        queue.offer(InputQueue.MOUSE_SCROLL, 0, 1.5, 0, null);
+        queue.offer(InputQueue.KEY_DOWN, KeyEvent.VK_A, 0, 0, null);
+        queue.offer(InputQueue.MOUSE_SCROLL, 0, 1, 0, null);
+        assertEquals(List.of("5:0:2.0:3.0", "6:0:2.0:0.0", "1:65:0.0:0.0",
+                "6:0:1.0:0.0"), drain(queue, null));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testStateIsUpdatedBeforeDispatch()
+    {
+        InputQueue queue = new InputQueue(16);
+        InputState state = new InputState();
+        queue.offer(InputQueue.KEY_DOWN, KeyEvent.VK_A, 0, 0, null);
+        queue.offer(InputQueue.MOUSE_DOWN, MouseButton.LEFT.ordinal(), 10, 20,
+                null);
+        queue.offer(InputQueue.KEY_DOWN, KeyEvent.VK_B, 0, 0, null);
+        queue.offer(InputQueue.MOUSE_SCROLL, 0, 2, 0, null);
+        List<Boolean> seen = new ArrayList<>();
+        queue.drain(state, (type, code, x, y, source) -> seen
+                .add(state.isKeyPressed(KeyEvent.VK_B)));
+        assertEquals(List.of(true, true, true, true), seen);
+        assertTrue(state.isKeyPressed(KeyEvent.VK_A));
+        assertTrue(state.isMouseButtonPressed(MouseButton.LEFT));
+        assertFalse(state.isMouseButtonPressed(MouseButton.RIGHT));
+        assertEquals(10, state.getMouseX());
+        assertEquals(20, state.getMouseY());
+        assertEquals(2, state.getScrollRotation());
+        queue.offer(InputQueue.KEY_UP, KeyEvent.VK_A, 0, 0, null);
+        drain(queue, state);
+        assertFalse(state.isKeyPressed(KeyEvent.VK_A));
+        assertEquals(0, state.getScrollRotation());
+        assertEquals(2, state.getFrame());
+    }
+
+    @Test
+    public void testFullQueueDropsAndWrapsAround()
+    {
+        InputQueue queue = new InputQueue(4);
+        for (int i = 0; i < 5; i++)
+        {
+            queue.offer(InputQueue.KEY_DOWN, i, 0, 0, null);
+        }
+        assertEquals(1, queue.getDroppedCount());
+        assertEquals(4, drain(queue, null).size());
+        for (int i = 0; i < 3; i++)
+        {
+            assertTrue(queue.offer(InputQueue.KEY_UP, i, 0, 0, null));
+        }
+        assertEquals(List.of("2:0:0.0:0.0", "2:1:0.0:0.0", "2:2:0.0:0.0"),
+                drain(queue, null));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Canvas;
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class KeyCodeListenersTest
+{
+    private KeyEvent event(int keyCode)
+    {
+        return new KeyEvent(new Canvas(), KeyEvent.KEY_PRESSED, 0, 0, keyCode,
+                KeyEvent.CHAR_UNDEFINED);
+    }
+
+    @Test
+    public void testOnlyMatchingKeyIsInvoked()
+    {
+        KeyCodeListeners listeners = new KeyCodeListeners();
+        List<String> invoked = new ArrayList<>();
+        listeners.add(KeyEvent.VK_SPACE, e -> invoked.add("space"));
+        listeners.add(KeyEvent.VK_A, e -> invoked.add("a"));
+        listeners.invokeKeyDown(event(KeyEvent.VK_SPACE));
+        listeners.invokeKeyDown(event(KeyEvent.VK_B));
+        assertEquals(List.of("space"), invoked);
+    }
+
+    @Test
+    public void testKeyUp()
+    {
+        KeyCodeListeners listeners = new KeyCodeListeners();
+        List<String> invoked = new ArrayList<>();
+        listeners.add(KeyEvent.VK_A, new KeyStrokeListener()
+        {
+            @Override
+            public void onKeyDown(KeyEvent event)
+            {
+                invoked.add("down");
+            }
+
+            @Override
+            public void onKeyUp(KeyEvent event)
+            {
+                invoked.add("up");
+            }
+        });
+        listeners.invokeKeyUp(event(KeyEvent.VK_A));
+        assertEquals(List.of("up"), invoked);
+    }
+
+    @Test
+    public void testParentAndRemove()
+    {
+        KeyCodeListeners parent = new KeyCodeListeners();
+        KeyCodeListeners listeners = new KeyCodeListeners(() -> parent);
+        KeyStrokeListener listener = e -> {
+        };
+        listeners.add(KeyEvent.VK_A, listener);
+        assertTrue(parent.contains(KeyEvent.VK_A, listener));
+        assertFalse(parent.contains(KeyEvent.VK_B, listener));
+        List<Integer> keyCodes = new ArrayList<>();
+        listeners.forEach((keyCode, l) -> keyCodes.add(keyCode));
+        assertEquals(List.of(KeyEvent.VK_A), keyCodes);
+        listeners.remove(KeyEvent.VK_A, listener);
+        assertTrue(listeners.isEmpty());
+        assertTrue(parent.isEmpty());
+    }
+}
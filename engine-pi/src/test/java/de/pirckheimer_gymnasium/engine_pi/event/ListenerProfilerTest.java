@@ -0,0 +1,219 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class ListenerProfilerTest
+{
+    private static void spin(long nanos)
+    {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end)
+        {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Ein Beobachter, der sich mit allen Beobachtern derselben Klasse für
+     * gleich hält.
+     */
+    private static final class EqualListener implements Runnable
+    {
+        @Override
+        public void run()
+        {
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            return other instanceof EqualListener;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 1;
+        }
+    }
+
+    @Test
+    public void testCountsCallsWhenEnabled()
+    {
+        ListenerProfiler.setEnabled(true);
+        try
+        {
+            ListenerProfiler.reset();
+            EventListeners<Runnable> listeners = new EventListeners<>();
+            Runnable listener = () -> {
+            };
+            listeners.add(listener);
+            for (int i = 0; i < 3; i++)
+            {
+                listeners.invoke(Runnable::run);
+            }
+            List<ListenerStatistics> top = ListenerProfiler.getTopOffenders(5);
+            assertEquals(1, top.size());
+            ListenerStatistics statistics = top.get(0);
+            assertEquals(3, statistics.calls());
+            assertNotNull(statistics.registrationSite());
+            assertTrue(statistics.maxTime() <= statistics.totalTime());
+        }
+        finally
+        {
+            ListenerProfiler.setEnabled(false);
+        }
+    }
+
+    @Test
+    public void testNoMeasurementWhenDisabled()
+    {
+        ListenerProfiler.setEnabled(false);
+        ListenerProfiler.reset();
+        EventListeners<Runnable> listeners = new EventListeners<>();
+        listeners.add(() -> {
+        });
+        listeners.invoke(Runnable::run);
+        assertTrue(ListenerProfiler.getTopOffenders(5).isEmpty());
+    }
+
+    @Test
+    public void testTopOffendersAreSorted()
+    {
+        ListenerProfiler.setEnabled(true);
+        try
+        {
+            ListenerProfiler.reset();
+            EventListeners<Runnable> listeners = new EventListeners<>();
+            listeners.add(() -> {
+            });
+            listeners.add(() -> {
+                long end = System.nanoTime() + 1_000_000;
+                while (System.nanoTime() < end)
+                {
+                    Thread.onSpinWait();
+                }
+            });
+            listeners.invoke(Runnable::run);
+            List<ListenerStatistics> top = ListenerProfiler.getTopOffenders(2);
+            assertEquals(2, top.size());
+            assertTrue(top.get(0).totalTime() >= top.get(1).totalTime());
+            assertTrue(top.get(0).totalTime() >= 1_000_000);
+        }
+        finally
+        {
+            ListenerProfiler.setEnabled(false);
+        }
+    }
+
+    @Test
+    public void testWrapperIsChargedSelfTimeOnly()
+    {
+        EventListeners<Runnable> inner = new EventListeners<>();
+        EventListeners<Runnable> outer = new EventListeners<>();
+        ListenerProfiler.setEnabled(true);
+        try
+        {
+            Runnable slow = () -> spin(20_000_000);
+            inner.add(slow);
+            Runnable wrapper = () -> inner.invoke(Runnable::run);
+            outer.add(wrapper);
+            ListenerProfiler.reset();
+            outer.invoke(Runnable::run);
+            List<ListenerStatistics> top = ListenerProfiler.getTopOffenders(2);
+            assertEquals(2, top.size());
+            assertTrue(top.get(0).totalTime() >= 20_000_000);
+            assertTrue(top.get(1).totalTime() < 10_000_000);
+            assertEquals(1, top.get(1).calls());
+        }
+        finally
+        {
+            ListenerProfiler.setEnabled(false);
+        }
+    }
+
+    @Test
+    public void testParallelListenersAreNotChargedToTheWrapper()
+    {
+        ListenerProfiler.setEnabled(true);
+        try
+        {
+            ListenerProfiler.reset();
+            EventListeners<FrameUpdateListener> inner = new EventListeners<>();
+            for (int i = 0; i < 4; i++)
+            {
+                long duration = 20_000_000 + i;
+                ParallelFrameUpdateListener listener = pastTime -> spin(
+                        duration);
+                inner.add(listener);
+            }
+            FrameUpdateInvoker invoker = new FrameUpdateInvoker(inner);
+            EventListeners<FrameUpdateListener> outer = new EventListeners<>();
+            FrameUpdateListener wrapper = invoker::invoke;
+            outer.add(wrapper);
+            outer.invoke(listener -> listener.onFrameUpdate(0.016));
+            List<ListenerStatistics> top = ListenerProfiler.getTopOffenders(5);
+            assertEquals(5, top.size());
+            for (int i = 0; i < 4; i++)
+            {
+                assertEquals(1, top.get(i).calls());
+                assertTrue(top.get(i).totalTime() >= 20_000_000);
+            }
+            assertTrue(top.get(4).totalTime() < 10_000_000);
+        }
+        finally
+        {
+            ListenerProfiler.setEnabled(false);
+        }
+    }
+
+    @Test
+    public void testListenersAreKeyedByIdentity()
+    {
+        ListenerProfiler.setEnabled(true);
+        try
+        {
+            ListenerProfiler.reset();
+            // Jeder Beobachter wird an einer eigenen Liste angemeldet, da eine
+            // Liste gleiche Beobachter nur einmal aufnimmt.
+            for (int i = 0; i < 2; i++)
+            {
+                EventListeners<Runnable> listeners = new EventListeners<>();
+                listeners.add(new EqualListener());
+                listeners.invoke(Runnable::run);
+            }
+            List<ListenerStatistics> top = ListenerProfiler.getTopOffenders(5);
+            assertEquals(2, top.size());
+            assertEquals(1, top.get(0).calls());
+            assertEquals(1, top.get(1).calls());
+        }
+        finally
+        {
+            ListenerProfiler.setEnabled(false);
+        }
+    }
+}
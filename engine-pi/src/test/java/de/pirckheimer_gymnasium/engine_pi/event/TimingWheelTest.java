@@ -0,0 +1,150 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class TimingWheelTest
+{
+    private static final double FRAME = 1 / 60.0;
+
+    private void run(TimingWheel wheel, double seconds)
+    {
+        for (double time = 0; time < seconds; time += FRAME)
+        {
+            wheel.advance(FRAME);
+        }
+    }
+
+    @Test
+    public void testDelay()
+    {
+        TimingWheel wheel = new TimingWheel();
+        List<Double> fired = new ArrayList<>();
+        wheel.schedule(
+                new SingleTask(0.5, () -> fired.add(wheel.getTime()), null),
+                0.5);
+        run(wheel, 0.45);
+        assertTrue(fired.isEmpty());
+        run(wheel, 0.1);
+        assertEquals(1, fired.size());
+        assertEquals(0.5, fired.get(0), FRAME);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testLongDelaysCascade()
+    {
+        TimingWheel wheel = new TimingWheel();
+        List<Integer> fired = new ArrayList<>();
+        double[] delays = { 0.01, 0.07, 5, 300, 70 };
+        for (int i = 0; i < delays.length; i++)
+        {
+            int index = i;
+            wheel.schedule(
+                    new SingleTask(delays[i], () -> fired.add(index), null),
+                    delays[i]);
+        }
+        wheel.advance(4.99);
+        assertEquals(List.of(0, 1), fired);
+        wheel.advance(0.02);
+        assertEquals(List.of(0, 1, 2), fired);
+        wheel.advance(64.98);
+        assertEquals(List.of(0, 1, 2), fired);
+        wheel.advance(0.02);
+        assertEquals(List.of(0, 1, 2, 4), fired);
+        wheel.advance(230);
+        assertEquals(List.of(0, 1, 2, 4, 3), fired);
+    }
+
+    @Test
+    public void testCancel()
+    {
+        TimingWheel wheel = new TimingWheel();
+        List<String> fired = new ArrayList<>();
+        SingleTask a = new SingleTask(1, () -> fired.add("a"), null);
+        SingleTask b = new SingleTask(1, () -> fired.add("b"), null);
+        wheel.schedule(a, 1);
+        wheel.schedule(b, 1);
+        a.cancel();
+        assertFalse(a.isScheduled());
+        assertEquals(1, wheel.size());
+        run(wheel, 2);
+        assertEquals(List.of("b"), fired);
+    }
+
+    @Test
+    public void testCancelFromOtherTaskInSameSlot()
+    {
+        TimingWheel wheel = new TimingWheel();
+        List<String> fired = new ArrayList<>();
+        SingleTask b = new SingleTask(1, () -> fired.add("b"), null);
+        SingleTask a = new SingleTask(1, () -> {
+            fired.add("a");
+            b.cancel();
+        }, null);
+        wheel.schedule(a, 1);
+        wheel.schedule(b, 1);
+        run(wheel, 2);
+        assertEquals(List.of("a"), fired);
+    }
+
+    @Test
+    public void testRepeatCatchUp()
+    {
+        TimingWheel wheel = new TimingWheel();
+        List<Integer> counters = new ArrayList<>();
+        PeriodicTaskExecutor executor = new PeriodicTaskExecutor(0.1,
+                counters::add);
+        wheel.schedule(executor, 0.1);
+        // Ein einzelnes, sehr langes Einzelbild
+        wheel.advance(0.55);
+        assertEquals(List.of(1, 2, 3, 4, 5), counters);
+        wheel.advance(0.05);
+        assertEquals(6, counters.size());
+        executor.pause();
+        wheel.advance(1);
+        assertEquals(6, counters.size());
+        executor.resume();
+        wheel.advance(0.1);
+        assertEquals(7, counters.size());
+    }
+
+    @Test
+    public void testDefer()
+    {
+        TimingWheel wheel = new TimingWheel();
+        List<String> fired = new ArrayList<>();
+        wheel.defer(() -> {
+            fired.add("first");
+            wheel.defer(() -> fired.add("second"));
+        });
+        wheel.advance(0);
+        assertEquals(List.of("first"), fired);
+        wheel.advance(0);
+        assertEquals(List.of("first", "second"), fired);
+    }
+}
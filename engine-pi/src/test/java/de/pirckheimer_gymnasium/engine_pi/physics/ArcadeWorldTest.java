@@ -0,0 +1,185 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.pirckheimer_gymnasium.engine_pi.Bounds;
+import de.pirckheimer_gymnasium.engine_pi.Layer;
+import de.pirckheimer_gymnasium.engine_pi.Scene;
+import de.pirckheimer_gymnasium.engine_pi.Vector;
+import de.pirckheimer_gymnasium.engine_pi.actor.Actor;
+import de.pirckheimer_gymnasium.engine_pi.actor.Rectangle;
+import de.pirckheimer_gymnasium.engine_pi.event.CollisionEvent;
+import de.pirckheimer_gymnasium.engine_pi.event.CollisionListener;
+
+public class ArcadeWorldTest
+{
+    private Scene scene;
+
+    private Layer layer;
+
+    /**
+     * Statisch, von (0|0) bis (10|1).
+     */
+    private Actor ground;
+
+    @BeforeEach
+    public void setUp()
+    {
+        scene = new Scene();
+        layer = scene.getMainLayer();
+        layer.setPhysicsBackend(PhysicsBackend.ARCADE);
+        layer.setGravity(0, -10);
+        ground = new Rectangle(10, 1).makeStatic().setPosition(0, 0);
+        // Die Rückprallzahl eines Kontakts ist das Maximum beider Figuren.
+        ground.setElasticity(0);
+        layer.add(ground);
+        nextFrame();
+    }
+
+    private void nextFrame()
+    {
+        scene.invokeFrameUpdateListeners(0);
+    }
+
+    private void step(int steps) throws InterruptedException
+    {
+        for (int i = 0; i < steps; i++)
+        {
+            scene.step(1 / 60.0, task -> {
+                task.run();
+                return CompletableFuture.completedFuture(null);
+            });
+        }
+    }
+
+    private Actor addBox(double x, double y)
+    {
+        Actor box = new Rectangle(1, 1).makeDynamic().setPosition(x, y);
+        box.setElasticity(0);
+        layer.add(box);
+        nextFrame();
+        return box;
+    }
+
+    @Test
+    public void testSetPhysicsBackend()
+    {
+        assertEquals(PhysicsBackend.ARCADE, layer.getPhysicsBackend());
+        assertInstanceOf(ArcadeHandler.class, ground.getPhysicsHandler());
+        assertThrows(IllegalStateException.class,
+                () -> layer.setPhysicsBackend(PhysicsBackend.JBOX2D));
+        Layer empty = new Layer();
+        assertEquals(PhysicsBackend.JBOX2D, empty.getPhysicsBackend());
+        empty.setPhysicsBackend(PhysicsBackend.ARCADE);
+        assertEquals(PhysicsBackend.ARCADE, empty.getPhysicsBackend());
+        empty.setPhysicsBackend(PhysicsBackend.JBOX2D);
+        assertEquals(PhysicsBackend.JBOX2D, empty.getPhysicsBackend());
+    }
+
+    @Test
+    public void testBoxComesToRestOnGround() throws InterruptedException
+    {
+        Actor box = addBox(2, 3);
+        step(120);
+        assertEquals(1, box.getY(), 0.01);
+        assertEquals(2, box.getX(), 0.01);
+        assertEquals(0, box.getVelocity().getY(), 0.01);
+        assertEquals(1, layer.getWorldHandler().getStatistics().contactCount());
+    }
+
+    @Test
+    public void testOverlapResolvedAlongShortestAxis()
+            throws InterruptedException
+    {
+        layer.setGravity(0, 0);
+        Actor left = addBox(2, 3);
+        Actor right = addBox(2.8, 3.1);
+        step(1);
+        // Die Überlappung von 0,2 m in x-Richtung ist kleiner als die
+        // Überlappung in y-Richtung, die Figuren werden waagrecht getrennt.
+        assertTrue(right.getX() - left.getX() >= 0.99);
+        assertEquals(3, left.getY(), 0.001);
+        assertEquals(3.1, right.getY(), 0.001);
+    }
+
+    @Test
+    public void testCollisionListener() throws InterruptedException
+    {
+        Actor box = addBox(2, 1.5);
+        List<String> calls = new ArrayList<>();
+        box.addCollisionListener(new CollisionListener<>()
+        {
+            @Override
+            public void onCollision(CollisionEvent<Actor> event)
+            {
+                assertSame(ground, event.getColliding());
+                calls.add("begin");
+            }
+
+            @Override
+            public void onCollisionEnd(CollisionEvent<Actor> event)
+            {
+                assertSame(ground, event.getColliding());
+                calls.add("end");
+            }
+        });
+        List<Actor> specific = new ArrayList<>();
+        box.addCollisionListener(ground,
+                event -> specific.add(event.getColliding()));
+        step(60);
+        assertEquals(List.of("begin"), calls);
+        assertEquals(List.of(ground), specific);
+        assertTrue(box.overlaps(ground));
+        box.setPosition(2, 5);
+        box.setVelocity(new Vector(0, 0));
+        step(1);
+        assertEquals(List.of("begin", "end"), calls);
+        assertFalse(box.overlaps(ground));
+    }
+
+    @Test
+    public void testQueriesAreRejected()
+    {
+        RaycastHit hit = new RaycastHit();
+        assertThrows(IllegalStateException.class, () -> layer.raycast(0, 5, 0,
+                -5, WorldHandler.CATEGORY_ALL, hit));
+        assertThrows(IllegalStateException.class, () -> layer.raycastAll(0, 5,
+                0, -5, WorldHandler.CATEGORY_ALL, new RaycastHit[1]));
+        assertThrows(IllegalStateException.class,
+                () -> layer.queryAABB(new Bounds(0, 0, 1, 1),
+                        WorldHandler.CATEGORY_ALL, new Actor[1]));
+        assertThrows(IllegalStateException.class,
+                () -> layer.queryShape(FixtureBuilder.circle(0, 0, 1), 0, 0, 0,
+                        WorldHandler.CATEGORY_ALL, actor -> true));
+    }
+}
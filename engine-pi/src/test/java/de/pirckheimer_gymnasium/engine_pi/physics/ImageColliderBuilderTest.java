@@ -0,0 +1,176 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+public class ImageColliderBuilderTest
+{
+    /**
+     * Erzeugt ein Bild aus Zeilen, in denen {@code #} ein deckendes Pixel ist.
+     */
+    private BufferedImage image(String... rows)
+    {
+        BufferedImage image = new BufferedImage(rows[0].length(), rows.length,
+                BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < rows.length; y++)
+        {
+            for (int x = 0; x < rows[y].length(); x++)
+            {
+                image.setRGB(x, y,
+                        rows[y].charAt(x) == '#' ? 0xFF000000 : 0x00000000);
+            }
+        }
+        return image;
+    }
+
+    private double totalArea(List<double[]> polygons)
+    {
+        double area = 0;
+        for (double[] polygon : polygons)
+        {
+            area += ImageColliderBuilder.signedArea(polygon);
+        }
+        return area;
+    }
+
+    private void assertConvex(double[] polygon)
+    {
+        int count = polygon.length / 2;
+        for (int i = 0; i < count; i++)
+        {
+            int j = (i + 1) % count;
+            int k = (i + 2) % count;
+            double cross = (polygon[2 * j] - polygon[2 * i])
+                    * (polygon[2 * k + 1] - polygon[2 * i + 1])
+                    - (polygon[2 * j + 1] - polygon[2 * i + 1])
+                            * (polygon[2 * k] - polygon[2 * i]);
+            assertTrue(cross >= 0);
+        }
+    }
+
+    @Test
+    public void testSquareContour()
+    {
+        boolean[] solid = { false, false, false, false, //
+                false, true, true, false, //
+                false, true, true, false, //
+                false, false, false, false };
+        List<int[]> contours = ImageColliderBuilder.traceContours(solid, 4, 4,
+                1);
+        assertEquals(1, contours.size());
+        assertArrayEquals(new int[] { 3, 1, 3, 3, 1, 3, 1, 1 },
+                contours.get(0));
+    }
+
+    @Test
+    public void testSeparateComponents()
+    {
+        boolean[] solid = { true, false, true, //
+                false, false, false, //
+                true, false, true };
+        assertEquals(4,
+                ImageColliderBuilder.traceContours(solid, 3, 3, 1).size());
+        assertEquals(0,
+                ImageColliderBuilder.traceContours(solid, 3, 3, 2).size());
+    }
+
+    @Test
+    public void testSimplifyRemovesCollinearPoints()
+    {
+        double[] polygon = { 0, 0, 2, 0, 4, 0, 4, 4, 0, 4 };
+        assertEquals(8, ImageColliderBuilder.simplify(polygon, 0.5).length);
+    }
+
+    @Test
+    public void testLShapeDecomposition()
+    {
+        BufferedImage image = image("########", //
+                "########", //
+                "##......", //
+                "##......", //
+                "##......", //
+                "##......");
+        List<double[]> polygons = new ImageColliderBuilder()
+                .setCacheDirectory(null).computePolygons(image);
+        assertTrue(polygons.size() >= 2);
+        assertEquals(24, totalArea(polygons), 1e-9);
+        for (double[] polygon : polygons)
+        {
+            assertConvex(polygon);
+            assertTrue(polygon.length / 2 <= 20);
+        }
+    }
+
+    @Test
+    public void testMaxVertices()
+    {
+        double[] octagon = { 0, 0, 4, 0, 6, 1, 7, 3, 7, 5, 6, 7, 4, 8, 0, 8 };
+        List<double[]> polygons = ImageColliderBuilder.decompose(octagon, 4);
+        assertEquals(ImageColliderBuilder.signedArea(octagon),
+                totalArea(polygons), 1e-9);
+        for (double[] polygon : polygons)
+        {
+            assertConvex(polygon);
+            assertTrue(polygon.length / 2 <= 4);
+        }
+    }
+
+    @Test
+    public void testBuildScalesToMeters()
+    {
+        List<FixtureData> fixtures = new ImageColliderBuilder()
+                .setCacheDirectory(null).build(image("####", "####"), 2, 1);
+        assertEquals(1, fixtures.size());
+    }
+
+    @Test
+    public void testCacheRoundTrip() throws IOException
+    {
+        Path directory = Files.createTempDirectory("colliders");
+        BufferedImage image = image("######", //
+                "######", //
+                "##....", //
+                "##....");
+        ImageColliderBuilder builder = new ImageColliderBuilder()
+                .setCacheDirectory(directory);
+        List<double[]> computed = builder.computePolygons(image);
+        try (Stream<Path> files = Files.list(directory))
+        {
+            assertEquals(1, files.count());
+        }
+        List<double[]> cached = builder.computePolygons(image);
+        assertEquals(computed.size(), cached.size());
+        for (int i = 0; i < computed.size(); i++)
+        {
+            assertArrayEquals(computed.get(i), cached.get(i));
+        }
+    }
+}
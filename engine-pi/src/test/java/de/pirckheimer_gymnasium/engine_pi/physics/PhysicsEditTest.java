@@ -0,0 +1,65 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import de.pirckheimer_gymnasium.engine_pi.actor.BodyType;
+
+public class PhysicsEditTest
+{
+    @Test
+    public void testApplyOnlySetValues()
+    {
+        PhysicsData data = new PhysicsData(ArrayList::new);
+        double friction = data.getGlobalFriction();
+        new PhysicsEdit().density(3).type(BodyType.DYNAMIC).gravityScale(0.5)
+                .applyTo(data);
+        assertEquals(3, data.getGlobalDensity());
+        assertEquals(BodyType.DYNAMIC, data.getType());
+        assertEquals(0.5, data.getGravityScale());
+        assertEquals(friction, data.getGlobalFriction());
+    }
+
+    @Test
+    public void testAffectsMass()
+    {
+        assertFalse(new PhysicsEdit().friction(0.2).affectsMass());
+        assertTrue(new PhysicsEdit().density(2).affectsMass());
+        assertTrue(new PhysicsEdit().rotationLocked(true).affectsMass());
+    }
+
+    @Test
+    public void testInvalidValues()
+    {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PhysicsEdit().density(0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PhysicsEdit().elasticity(Double.NaN));
+        assertThrows(NullPointerException.class,
+                () -> new PhysicsEdit().type(null));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.pirckheimer_gymnasium.engine_pi.Layer;
+import de.pirckheimer_gymnasium.engine_pi.Scene;
+import de.pirckheimer_gymnasium.engine_pi.actor.Actor;
+import de.pirckheimer_gymnasium.engine_pi.actor.Rectangle;
+
+public class PhysicsStatisticsTest
+{
+    private Scene scene;
+
+    private Layer layer;
+
+    @BeforeEach
+    public void setUp()
+    {
+        scene = new Scene();
+        scene.setGravity(0, 0);
+        layer = scene.getMainLayer();
+    }
+
+    private void nextFrame()
+    {
+        scene.invokeFrameUpdateListeners(0);
+    }
+
+    private void step() throws InterruptedException
+    {
+        scene.step(1 / 60.0, task -> {
+            task.run();
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    private PhysicsStatistics getStatistics()
+    {
+        return layer.getWorldHandler().getStatistics();
+    }
+
+    @Test
+    public void testEmptyWorld()
+    {
+        PhysicsStatistics statistics = getStatistics();
+        assertEquals(0, statistics.bodyCount());
+        assertEquals(0, statistics.awakeBodyCount());
+        assertEquals(0, statistics.contactCount());
+        assertEquals(0, statistics.touchingContactCount());
+        assertEquals(0, statistics.jointCount());
+    }
+
+    @Test
+    public void testCounts() throws InterruptedException
+    {
+        Actor ground = new Rectangle(10, 1).makeStatic().setPosition(0, 0);
+        // Liegt auf dem Boden: Die Umrisse berühren sich.
+        Actor touching = new Rectangle(1, 1).makeDynamic().setPosition(2, 1);
+        // Die Hüllrechtecke überlappen sich, die Umrisse aber nicht.
+        Actor near = new Rectangle(1, 1).makeDynamic().setPosition(5, 1.05);
+        Actor sleeping = new Rectangle(1, 1).makeDynamic().setPosition(8, 5);
+        layer.add(ground, touching, near, sleeping);
+        nextFrame();
+        sleeping.sleep();
+        step();
+        PhysicsStatistics statistics = getStatistics();
+        assertEquals(4, statistics.bodyCount());
+        // Statische Körper gelten in JBox2D als wach.
+        assertEquals(3, statistics.awakeBodyCount());
+        assertEquals(2, statistics.contactCount());
+        assertEquals(1, statistics.touchingContactCount());
+        assertEquals(0, statistics.jointCount());
+        // 1/60 s bei 8 ms pro Teilschritt
+        assertEquals(2, statistics.substeps());
+        assertTrue(statistics.stepTime() > 0);
+        // Die Phasen stammen aus dem Profil der JBox2D-World.
+        assertTrue(statistics.broadphaseTime() >= 0);
+        assertTrue(statistics.narrowphaseTime() > 0);
+        assertTrue(statistics.solverTime() > 0);
+        assertTrue(statistics.toiTime() >= 0);
+        assertTrue(statistics.narrowphaseTime() + statistics.solverTime()
+                + statistics.toiTime() <= statistics.stepTime() * 1.5);
+        sleeping.awake();
+        step();
+        assertEquals(4, getStatistics().awakeBodyCount());
+    }
+}
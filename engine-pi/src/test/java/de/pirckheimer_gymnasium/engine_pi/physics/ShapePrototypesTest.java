@@ -0,0 +1,62 @@
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+import de.pirckheimer_gymnasium.jbox2d.collision.shapes.Shape;
+import de.pirckheimer_gymnasium.jbox2d.common.Settings;
+
+import de.pirckheimer_gymnasium.engine_pi.Vector;
+
+public class ShapePrototypesTest
+{
+    @Test
+    public void testRectangleIsShared()
+    {
+        FixtureData a = FixtureBuilder.rectangle(2, 3);
+        FixtureData b = FixtureBuilder.rectangle(2, 3);
+        assertNotSame(a, b);
+        assertSame(a.getShape(), b.getShape());
+    }
+
+    @Test
+    public void testDifferentGeometry()
+    {
+        assertNotSame(FixtureBuilder.rectangle(2, 3).getShape(),
+                FixtureBuilder.rectangle(3, 2).getShape());
+        assertNotSame(FixtureBuilder.circle(0, 0, 1).getShape(),
+                FixtureBuilder.circle(0, 0, 2).getShape());
+    }
+
+    @Test
+    public void testPolygonIsShared()
+    {
+        Vector[] points = { new Vector(0, 0), new Vector(1, 0),
+                new Vector(0, 1) };
+        assertSame(FixtureBuilder.polygon(points).getShape(),
+                FixtureBuilder.polygon(points).getShape());
+    }
+
+    @Test
+    public void testPrototypeIsRecreatedAfterVertexLimitChange()
+    {
+        int limit = Settings.maxPolygonVertices;
+        Shape before;
+        try
+        {
+            Settings.maxPolygonVertices = limit - 1;
+            before = FixtureBuilder.rectangle(7, 5).getShape();
+        }
+        finally
+        {
+            Settings.maxPolygonVertices = limit;
+        }
+        Shape after = FixtureBuilder.rectangle(7, 5).getShape();
+        assertNotSame(before, after);
+        // JBox2D kopiert die Form beim Erzeugen einer Halterung.
+        after.clone();
+        assertSame(after, FixtureBuilder.rectangle(7, 5).getShape());
+    }
+}
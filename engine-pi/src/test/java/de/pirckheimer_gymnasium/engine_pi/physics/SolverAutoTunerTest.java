@@ -0,0 +1,128 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.pirckheimer_gymnasium.engine_pi.Layer;
+
+public class SolverAutoTunerTest
+{
+    private static final double SLOW = 0.01;
+
+    private static final double FAST = 0.001;
+
+    private WorldHandler worldHandler;
+
+    private SolverAutoTuner tuner;
+
+    @BeforeEach
+    public void setUp()
+    {
+        Layer layer = new Layer();
+        layer.setPhysicsStepRate(60);
+        layer.setSolverIterations(3, 2);
+        worldHandler = layer.getWorldHandler();
+        tuner = new SolverAutoTuner(0.004).setLimits(1, 1, 30).setHeadroom(0.5,
+                3);
+    }
+
+    private void assertLimits(int velocityIterations, int positionIterations,
+            double stepRate)
+    {
+        assertEquals(velocityIterations, tuner
+                .limitVelocityIterations(worldHandler.getVelocityIterations()));
+        assertEquals(positionIterations, tuner
+                .limitPositionIterations(worldHandler.getPositionIterations()));
+        assertEquals(stepRate, tuner.limitStepRate(worldHandler.getStepRate()),
+                1e-9);
+    }
+
+    private void update(double duration, int times)
+    {
+        for (int i = 0; i < times; i++)
+        {
+            tuner.update(worldHandler, duration);
+        }
+    }
+
+    @Test
+    public void testLowerSequence()
+    {
+        assertLimits(3, 2, 60);
+        update(SLOW, 1);
+        assertLimits(2, 2, 60);
+        update(SLOW, 1);
+        assertLimits(1, 2, 60);
+        update(SLOW, 1);
+        assertLimits(1, 1, 60);
+        update(SLOW, 1);
+        assertLimits(1, 1, 48);
+        update(SLOW, 3);
+        assertLimits(1, 1, 30);
+        update(SLOW, 5);
+        assertLimits(1, 1, 30);
+    }
+
+    @Test
+    public void testRaiseSequence()
+    {
+        update(SLOW, 20);
+        assertLimits(1, 1, 30);
+        update(FAST, 2);
+        assertLimits(1, 1, 30);
+        update(FAST, 1);
+        assertLimits(1, 1, 37.5);
+        update(FAST, 9);
+        assertLimits(1, 1, 60);
+        update(FAST, 3);
+        assertLimits(1, 2, 60);
+        update(FAST, 3);
+        assertLimits(2, 2, 60);
+        update(FAST, 3);
+        assertLimits(3, 2, 60);
+        update(FAST, 30);
+        assertLimits(3, 2, 60);
+    }
+
+    @Test
+    public void testRaiseNeedsConsecutiveFrames()
+    {
+        update(SLOW, 1);
+        assertLimits(2, 2, 60);
+        update(FAST, 2);
+        // Innerhalb des Budgets, aber ohne genügend Reserve.
+        update(0.003, 1);
+        update(FAST, 2);
+        assertLimits(2, 2, 60);
+        update(FAST, 1);
+        assertLimits(3, 2, 60);
+    }
+
+    @Test
+    public void testReset()
+    {
+        update(SLOW, 10);
+        tuner.reset();
+        assertLimits(3, 2, 60);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class SpatialHashTest
+{
+    private List<String> pairs(SpatialHash hash)
+    {
+        List<String> pairs = new ArrayList<>();
+        hash.forEachPair((a, b) -> pairs.add(a + "-" + b));
+        return pairs;
+    }
+
+    @Test
+    public void testPairReportedOnceAcrossCells()
+    {
+        SpatialHash hash = new SpatialHash(1);
+        hash.insert(0, 0.5, 0.5, 3.5, 3.5);
+        hash.insert(1, 1.5, 1.5, 4.5, 4.5);
+        assertEquals(List.of("0-1"), pairs(hash));
+    }
+
+    @Test
+    public void testDistantBodiesAreNoPair()
+    {
+        SpatialHash hash = new SpatialHash(1);
+        hash.insert(0, 0, 0, 0.5, 0.5);
+        hash.insert(1, 5, 5, 5.5, 5.5);
+        assertTrue(pairs(hash).isEmpty());
+    }
+
+    @Test
+    public void testNegativeCoordinates()
+    {
+        SpatialHash hash = new SpatialHash(2);
+        hash.insert(0, -3, -3, -2.5, -2.5);
+        hash.insert(1, -2.9, -2.9, -2.1, -2.1);
+        hash.insert(2, 0.5, 0.5, 1, 1);
+        assertEquals(List.of("0-1"), pairs(hash));
+    }
+
+    @Test
+    public void testClearAndGrow()
+    {
+        SpatialHash hash = new SpatialHash(1);
+        for (int i = 0; i < 1000; i++)
+        {
+            hash.insert(i, i * 3, 0, i * 3 + 0.5, 0.5);
+        }
+        assertTrue(pairs(hash).isEmpty());
+        hash.clear();
+        hash.insert(0, 0, 0, 1, 1);
+        hash.insert(1, 0.5, 0.5, 1.5, 1.5);
+        assertEquals(List.of("0-1"), pairs(hash));
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import de.pirckheimer_gymnasium.jbox2d.collision.shapes.EdgeShape;
+
+public class TileColliderBuilderTest
+{
+    private TileColliderBuilder fill(int width, int height)
+    {
+        TileColliderBuilder builder = new TileColliderBuilder(width, height, 1,
+                1);
+        for (int x = 0; x < width; x++)
+        {
+            for (int y = 0; y < height; y++)
+            {
+                builder.setSolid(x, y, true);
+            }
+        }
+        return builder;
+    }
+
+    @Test
+    public void testEmpty()
+    {
+        assertEquals(0, new TileColliderBuilder(10, 10, 1, 1).build().size());
+    }
+
+    @Test
+    public void testLargeLevelOneRectanglePerChunk()
+    {
+        assertEquals(16 * 7, fill(500, 200).build().size());
+    }
+
+    @Test
+    public void testLShape()
+    {
+        TileColliderBuilder builder = new TileColliderBuilder(3, 3, 1, 1);
+        builder.setSolid(0, 0, true).setSolid(0, 1, true).setSolid(0, 2, true)
+                .setSolid(1, 2, true).setSolid(2, 2, true);
+        assertEquals(2, builder.build().size());
+    }
+
+    @Test
+    public void testCheckerboard()
+    {
+        TileColliderBuilder builder = new TileColliderBuilder(4, 4, 1, 1);
+        for (int x = 0; x < 4; x++)
+        {
+            for (int y = 0; y < 4; y++)
+            {
+                builder.setSolid(x, y, (x + y) % 2 == 0);
+            }
+        }
+        assertEquals(8, builder.build().size());
+    }
+
+    @Test
+    public void testIncrementalRebuild()
+    {
+        TileColliderBuilder builder = fill(64, 64);
+        assertTrue(builder.isDirty());
+        assertEquals(4, builder.build().size());
+        assertFalse(builder.isDirty());
+        builder.setSolid(0, 0, true);
+        assertFalse(builder.isDirty());
+        builder.setSolid(0, 0, false);
+        assertTrue(builder.isDirty());
+        // Zeile 0 rechts der Lücke, Rest des Blocks darunter
+        assertEquals(5, builder.build().size());
+    }
+
+    @Test
+    public void testReportsOnlyChangedChunks()
+    {
+        TileColliderBuilder builder = fill(64, 64);
+        List<FixtureData> all = builder.build();
+        builder.setSolid(0, 0, false);
+        List<FixtureData> removed = new ArrayList<>();
+        List<FixtureData> added = new ArrayList<>();
+        List<FixtureData> rebuilt = builder.build(removed, added);
+        assertEquals(1, removed.size());
+        assertSame(all.get(0), removed.get(0));
+        assertEquals(2, added.size());
+        assertEquals(5, rebuilt.size());
+        assertTrue(rebuilt.containsAll(added));
+        for (int i = 1; i < all.size(); i++)
+        {
+            assertSame(all.get(i), rebuilt.get(i + 1));
+        }
+    }
+
+    @Test
+    public void testOutlinesSingleTile()
+    {
+        TileColliderBuilder builder = new TileColliderBuilder(3, 3, 1, 1)
+                .setMode(TileColliderBuilder.Mode.OUTLINES);
+        builder.setSolid(1, 1, true);
+        assertEquals(4, builder.build().size());
+        assertTrue(builder.build().get(0).getShape() instanceof EdgeShape);
+    }
+
+    @Test
+    public void testOutlinesSplitAtChunkBorder()
+    {
+        TileColliderBuilder builder = fill(64, 1)
+                .setMode(TileColliderBuilder.Mode.OUTLINES);
+        assertEquals(6, builder.build().size());
+    }
+
+    @Test
+    public void testOutlinesIncrementalAcrossChunkBorder()
+    {
+        TileColliderBuilder builder = fill(64, 1)
+                .setMode(TileColliderBuilder.Mode.OUTLINES);
+        builder.build();
+        builder.setSolid(31, 0, false);
+        // Oben und unten je zwei Linien, links, rechts und an der Lücke je
+        // zwei senkrechte Linien.
+        assertEquals(8, builder.build().size());
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.pirckheimer_gymnasium.engine_pi.Scene;
+import de.pirckheimer_gymnasium.engine_pi.Vector;
+import de.pirckheimer_gymnasium.engine_pi.actor.Actor;
+import de.pirckheimer_gymnasium.engine_pi.actor.Rectangle;
+
+public class WorldHandlerExecuteTest
+{
+    private Scene scene;
+
+    private Actor ground;
+
+    private Actor box;
+
+    @BeforeEach
+    public void setUp()
+    {
+        scene = new Scene();
+        scene.setGravity(0, -10);
+        ground = new Rectangle(10, 1).makeStatic().setPosition(0, 0);
+        box = new Rectangle(1, 1).makeDynamic().setPosition(2, 1.2);
+        scene.add(ground, box);
+        scene.invokeFrameUpdateListeners(0);
+    }
+
+    private void step(int steps) throws InterruptedException
+    {
+        for (int i = 0; i < steps; i++)
+        {
+            scene.step(1 / 60.0, task -> {
+                task.run();
+                return CompletableFuture.completedFuture(null);
+            });
+        }
+    }
+
+    @Test
+    public void testAppliedAtOnceOutsideStep()
+    {
+        box.setPosition(4, 5);
+        assertEquals(new Vector(4, 5), box.getPosition());
+        box.setVelocity(new Vector(1, 0));
+        assertEquals(new Vector(1, 0), box.getVelocity());
+    }
+
+    @Test
+    public void testDeferredInCollisionListener() throws InterruptedException
+    {
+        List<Double> seen = new ArrayList<>();
+        box.addCollisionListener(ground, event -> {
+            box.setPosition(3, 10);
+            box.setPosition(5, 10);
+            box.setVelocity(new Vector(0, 0));
+            // Die Änderungen werden erst nach dem Teilschritt übernommen.
+            seen.add(box.getY());
+        });
+        step(30);
+        assertEquals(1, seen.size());
+        assertTrue(seen.get(0) < 2);
+        // In der Reihenfolge des Aufrufs übernommen: Die zweite Position gilt.
+        assertEquals(5, box.getX(), 0.001);
+        assertTrue(box.getY() > 8);
+    }
+
+    @Test
+    public void testAppliedBeforeStepReturns() throws InterruptedException
+    {
+        List<Vector> positions = new ArrayList<>();
+        box.addCollisionListener(ground, event -> {
+            box.setGravityScale(0);
+            box.setVelocity(new Vector(0, 0));
+            box.setPosition(7, 20);
+        });
+        while (positions.isEmpty() || positions.get(0).getY() < 10)
+        {
+            step(1);
+            positions.add(0, box.getPosition());
+            assertTrue(positions.size() < 60);
+        }
+        // Nach dem Übernehmen bewegt sich die Figur nicht mehr.
+        step(5);
+        assertEquals(new Vector(7, 20), box.getPosition());
+    }
+
+    @Test
+    public void testOtherThreadDoesNotWaitForStep() throws InterruptedException
+    {
+        List<Vector> seen = new ArrayList<>();
+        box.addCollisionListener(ground, event -> {
+            if (!seen.isEmpty())
+            {
+                return;
+            }
+            // Der World-Step läuft noch. Ein anderer Thread darf weder beim
+            // Setzen noch beim Lesen auf sein Ende warten.
+            try
+            {
+                seen.add(CompletableFuture.supplyAsync(() -> {
+                    box.setPosition(6, 15);
+                    return box.getPosition();
+                }).get(5, TimeUnit.SECONDS));
+            }
+            catch (Exception e)
+            {
+                throw new AssertionError(e);
+            }
+        });
+        step(30);
+        assertEquals(1, seen.size());
+        // Der andere Thread liest den Zustand vom Beginn des World-Steps.
+        assertTrue(seen.get(0).getY() < 2);
+        assertEquals(6, box.getX(), 0.001);
+    }
+
+    @Test
+    public void testPendingCommandsAppliedBeforeRemoval()
+    {
+        box.setVelocity(new Vector(3, 4));
+        box.setGravityScale(0.5);
+        scene.remove(box);
+        scene.invokeFrameUpdateListeners(0);
+        assertEquals(new Vector(3, 4), box.getVelocity());
+        assertEquals(0.5, box.getGravityScale(), 1e-6);
+    }
+}
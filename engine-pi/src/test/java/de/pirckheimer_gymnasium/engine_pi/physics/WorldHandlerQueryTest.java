@@ -0,0 +1,215 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.pirckheimer_gymnasium.engine_pi.Bounds;
+import de.pirckheimer_gymnasium.engine_pi.Layer;
+import de.pirckheimer_gymnasium.engine_pi.Scene;
+import de.pirckheimer_gymnasium.engine_pi.actor.Actor;
+import de.pirckheimer_gymnasium.engine_pi.actor.Rectangle;
+
+public class WorldHandlerQueryTest
+{
+    private static final int STATIC = WorldHandler.CATEGORY_STATIC;
+
+    private static final int ALL = WorldHandler.CATEGORY_ALL;
+
+    private Layer layer;
+
+    /**
+     * Statisch, von (0|0) bis (1|1).
+     */
+    private Actor left;
+
+    /**
+     * Dynamisch, von (3|0) bis (4|1).
+     */
+    private Actor middle;
+
+    /**
+     * Statisch mit zwei Umrissen: von (6|0) bis (7|1) und von (8|0) bis (9|1).
+     */
+    private Actor right;
+
+    @BeforeEach
+    public void setUp()
+    {
+        Scene scene = new Scene();
+        layer = scene.getMainLayer();
+        layer.setGravity(0, 0);
+        left = new Rectangle(1, 1).makeStatic().setPosition(0, 0);
+        middle = new Rectangle(1, 1).makeDynamic().setPosition(3, 0);
+        right = new Rectangle(3, 1).setFixtures("R0,0,1,1&R2,0,1,1")
+                .makeStatic().setPosition(6, 0);
+        layer.add(left, middle, right);
+        // Figuren werden erst im nächsten Einzelbild angemeldet.
+        scene.invokeFrameUpdateListeners(0);
+    }
+
+    @Test
+    public void testRaycastClosest()
+    {
+        RaycastHit hit = new RaycastHit();
+        assertTrue(layer.raycast(-1, 0.5, 10, 0.5, ALL, hit));
+        assertSame(left, hit.getActor());
+        assertEquals(0, hit.getPointX(), 0.02);
+        assertEquals(-1, hit.getNormalX(), 1e-6);
+        assertTrue(layer.raycast(-1, 0.5, 10, 0.5,
+                WorldHandler.CATEGORY_DYNAMIC, hit));
+        assertSame(middle, hit.getActor());
+        assertFalse(layer.raycast(-1, 2, 10, 2, ALL, hit));
+        assertFalse(hit.isHit());
+    }
+
+    @Test
+    public void testRaycastAllSortedAndOncePerActor()
+    {
+        RaycastHit[] hits = new RaycastHit[5];
+        assertEquals(3, layer.raycastAll(-1, 0.5, 10, 0.5, ALL, hits));
+        assertSame(left, hits[0].getActor());
+        assertSame(middle, hits[1].getActor());
+        assertSame(right, hits[2].getActor());
+        // Der nähere der beiden Umrisse
+        assertEquals(6, hits[2].getPointX(), 0.02);
+        // Von rechts wird zuerst der äußere Umrisse getroffen.
+        assertEquals(3, layer.raycastAll(10, 0.5, -1, 0.5, ALL, hits));
+        assertSame(right, hits[0].getActor());
+        assertEquals(9, hits[0].getPointX(), 0.02);
+        assertSame(left, hits[2].getActor());
+    }
+
+    @Test
+    public void testRaycastAllCategoryMask()
+    {
+        RaycastHit[] hits = new RaycastHit[5];
+        assertEquals(2, layer.raycastAll(-1, 0.5, 10, 0.5, STATIC, hits));
+        assertSame(left, hits[0].getActor());
+        assertSame(right, hits[1].getActor());
+    }
+
+    @Test
+    public void testRaycastAllFullBuffer()
+    {
+        RaycastHit[] hits = new RaycastHit[2];
+        assertEquals(2, layer.raycastAll(10, 0.5, -1, 0.5, ALL, hits));
+        assertSame(right, hits[0].getActor());
+        assertSame(middle, hits[1].getActor());
+        assertEquals(0,
+                layer.raycastAll(-1, 0.5, 10, 0.5, ALL, new RaycastHit[0]));
+    }
+
+    @Test
+    public void testRaycastAllVisitor()
+    {
+        List<Actor> actors = new ArrayList<>();
+        layer.raycastAll(-1, 0.5, 5, 0.5, ALL, hit -> {
+            actors.add(hit.getActor());
+            return true;
+        });
+        assertEquals(2, actors.size());
+        assertTrue(actors.contains(left));
+        assertTrue(actors.contains(middle));
+    }
+
+    @Test
+    public void testQueryAABB()
+    {
+        Actor[] actors = new Actor[5];
+        assertEquals(2,
+                layer.queryAABB(new Bounds(-0.5, -0.5, 4, 2), ALL, actors));
+        assertEquals(1,
+                layer.queryAABB(new Bounds(-0.5, -0.5, 4, 2), STATIC, actors));
+        assertSame(left, actors[0]);
+        // Beide Umrisse liegen im Rechteck, die Figur zählt trotzdem nur
+        // einmal.
+        assertEquals(1,
+                layer.queryAABB(new Bounds(5.5, -0.5, 4, 2), ALL, actors));
+        assertSame(right, actors[0]);
+    }
+
+    @Test
+    public void testQueryAABBFullBuffer()
+    {
+        Actor[] actors = new Actor[2];
+        assertEquals(2,
+                layer.queryAABB(new Bounds(-1, -1, 12, 3), ALL, actors));
+        assertEquals(0,
+                layer.queryAABB(new Bounds(-1, -1, 12, 3), ALL, new Actor[0]));
+    }
+
+    @Test
+    public void testQueryShape()
+    {
+        Actor[] actors = new Actor[5];
+        FixtureData circle = FixtureBuilder.circle(0, 0, 0.25);
+        assertEquals(1, layer.queryShape(circle, 3.5, 0.5, 0, ALL, actors));
+        assertSame(middle, actors[0]);
+        assertEquals(0, layer.queryShape(circle, 3.5, 0.5, 0, STATIC, actors));
+        // Die Hüllrechtecke überschneiden sich, der Kreis und das Rechteck
+        // aber nicht.
+        assertEquals(0, layer.queryShape(circle, 1.2, 1.2, 0, ALL, actors));
+        assertEquals(0,
+                layer.queryShape(circle, 3.5, 0.5, 0, ALL, new Actor[0]));
+    }
+
+    @Test
+    public void testNestedQueriesInVisitor()
+    {
+        List<Actor> outer = new ArrayList<>();
+        List<Integer> inner = new ArrayList<>();
+        RaycastHit[] hits = new RaycastHit[5];
+        Actor[] actors = new Actor[5];
+        layer.raycastAll(-1, 0.5, 10, 0.5, ALL, hit -> {
+            outer.add(hit.getActor());
+            // Eine Abfrage innerhalb des Besuchers darf die äußere nicht
+            // stören.
+            inner.add(layer.raycastAll(-1, 0.5, 10, 0.5, STATIC, hits));
+            layer.queryAABB(new Bounds(-0.5, -0.5, 4, 2), ALL, actor -> {
+                inner.add(layer.queryAABB(new Bounds(5.5, -0.5, 4, 2), ALL,
+                        actors));
+                return true;
+            });
+            return true;
+        });
+        // Der Besucher erhält jeden getroffenen Umriss, die rechte Figur
+        // also zweimal.
+        assertEquals(4, outer.size());
+        assertTrue(outer.contains(left));
+        assertTrue(outer.contains(middle));
+        assertTrue(outer.contains(right));
+        // Pro äußerem Treffer: ein Strahl und zwei Bereichsabfragen
+        assertEquals(12, inner.size());
+        for (int i = 0; i < inner.size(); i += 3)
+        {
+            assertEquals(List.of(2, 1, 1), inner.subList(i, i + 3));
+        }
+        assertSame(right, actors[0]);
+    }
+}
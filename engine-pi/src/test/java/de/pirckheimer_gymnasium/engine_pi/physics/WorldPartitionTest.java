@@ -0,0 +1,242 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.pirckheimer_gymnasium.engine_pi.Bounds;
+import de.pirckheimer_gymnasium.engine_pi.PartitionedLayer;
+import de.pirckheimer_gymnasium.engine_pi.Scene;
+import de.pirckheimer_gymnasium.engine_pi.Vector;
+import de.pirckheimer_gymnasium.engine_pi.actor.Actor;
+import de.pirckheimer_gymnasium.engine_pi.actor.Rectangle;
+
+public class WorldPartitionTest
+{
+    private Scene scene;
+
+    /**
+     * Regionen mit 10 × 10 Meter.
+     */
+    private PartitionedLayer layer;
+
+    @BeforeEach
+    public void setUp()
+    {
+        scene = new Scene();
+        layer = new PartitionedLayer(10, 10);
+        layer.setGravity(0, 0);
+        scene.addLayer(layer);
+    }
+
+    private void add(Actor actor)
+    {
+        layer.add(actor);
+        scene.invokeFrameUpdateListeners(0);
+    }
+
+    private void step()
+    {
+        layer.step(1 / 60.0);
+    }
+
+    @Test
+    public void testHandOver()
+    {
+        Actor box = new Rectangle(1, 1).makeDynamic().setPosition(8, 5);
+        add(box);
+        box.setVelocity(new Vector(20, 0));
+        WorldHandler start = box.getPhysicsHandler().getWorldHandler();
+        assertEquals(1, layer.getRegionCount());
+        while (box.getX() < 10)
+        {
+            step();
+        }
+        WorldHandler target = box.getPhysicsHandler().getWorldHandler();
+        assertNotSame(start, target);
+        assertTrue(layer.getRegionWorldHandlers().contains(target));
+        assertEquals(20, box.getVelocity().getX(), 0.001);
+        assertTrue(box.isMounted());
+        assertSame(layer, box.getLayer());
+        // Weit genug von der Grenze entfernt: Der Geist und die leere Region
+        // verschwinden.
+        while (box.getX() < 12)
+        {
+            step();
+        }
+        assertEquals(1, layer.getRegionCount());
+        assertEquals(1, target.getWorld().getBodyCount());
+        assertFalse(layer.getRegionWorldHandlers().contains(start));
+        // Die Ebene kann die Figur weiterhin abmelden.
+        layer.remove(box);
+        scene.invokeFrameUpdateListeners(0);
+        assertFalse(box.isMounted());
+        assertEquals(0, target.getWorld().getBodyCount());
+    }
+
+    @Test
+    public void testGhostCreatedAndRemoved()
+    {
+        Actor box = new Rectangle(1, 1).makeStatic().setPosition(9.2, 5);
+        add(box);
+        step();
+        assertEquals(2, layer.getRegionCount());
+        WorldHandler home = box.getPhysicsHandler().getWorldHandler();
+        for (WorldHandler worldHandler : layer.getRegionWorldHandlers())
+        {
+            // Die Region rechts der Grenze enthält den Geist.
+            assertEquals(1, worldHandler.getWorld().getBodyCount());
+        }
+        box.setPosition(3, 5);
+        step();
+        assertEquals(1, layer.getRegionCount());
+        assertSame(home, layer.getRegionWorldHandlers().get(0));
+    }
+
+    @Test
+    public void testGhostPushesNeighbour()
+    {
+        // Das Original bleibt links der Grenze, sein Geist schiebt die
+        // Figur der rechten Region an.
+        Actor wall = new Rectangle(1, 1).makeStatic().setPosition(9.5, 5);
+        Actor box = new Rectangle(1, 1).makeDynamic().setPosition(13, 5);
+        add(wall);
+        add(box);
+        box.setVelocity(new Vector(-5, 0));
+        for (int i = 0; i < 60; i++)
+        {
+            step();
+        }
+        assertTrue(box.getX() >= 10.45);
+    }
+
+    @Test
+    public void testCollisionListenerMovesWithBody()
+    {
+        Actor box = new Rectangle(1, 1).makeDynamic().setPosition(8, 5);
+        Actor wall = new Rectangle(1, 3).makeStatic().setPosition(15, 4);
+        add(box);
+        add(wall);
+        List<Actor> collisions = new ArrayList<>();
+        box.addCollisionListener(event -> collisions.add(event.getColliding()));
+        box.setVelocity(new Vector(10, 0));
+        WorldHandler start = box.getPhysicsHandler().getWorldHandler();
+        for (int i = 0; i < 60 && collisions.isEmpty(); i++)
+        {
+            step();
+        }
+        assertNotSame(start, box.getPhysicsHandler().getWorldHandler());
+        assertSame(wall.getPhysicsHandler().getWorldHandler(),
+                box.getPhysicsHandler().getWorldHandler());
+        assertEquals(List.of(wall), collisions);
+    }
+
+    @Test
+    public void testPairListenerMovesWithBody()
+    {
+        Actor box = new Rectangle(1, 1).makeDynamic().setPosition(8, 5);
+        Actor wall = new Rectangle(1, 3).makeStatic().setPosition(15, 4);
+        add(box);
+        add(wall);
+        List<Actor> collisions = new ArrayList<>();
+        box.addCollisionListener(wall,
+                event -> collisions.add(event.getColliding()));
+        box.setVelocity(new Vector(10, 0));
+        for (int i = 0; i < 60 && collisions.isEmpty(); i++)
+        {
+            step();
+        }
+        assertEquals(List.of(wall), collisions);
+    }
+
+    @Test
+    public void testCollisionWithGhostReportsActor()
+    {
+        Actor wall = new Rectangle(1, 1).makeStatic().setPosition(9.5, 5);
+        Actor box = new Rectangle(1, 1).makeDynamic().setPosition(12, 5);
+        add(wall);
+        add(box);
+        List<Actor> collisions = new ArrayList<>();
+        box.addCollisionListener(wall,
+                event -> collisions.add(event.getColliding()));
+        box.setVelocity(new Vector(-5, 0));
+        for (int i = 0; i < 60 && collisions.isEmpty(); i++)
+        {
+            step();
+        }
+        // Der Körper der Wand in der rechten Region ist ein Geist.
+        assertNotSame(wall.getPhysicsHandler().getWorldHandler(),
+                box.getPhysicsHandler().getWorldHandler());
+        assertEquals(List.of(wall), collisions);
+    }
+
+    @Test
+    public void testQueriesSearchAllRegionsWithoutGhosts()
+    {
+        Actor left = new Rectangle(1, 1).makeStatic().setPosition(9.2, 5);
+        Actor right = new Rectangle(1, 1).makeStatic().setPosition(15, 5);
+        add(left);
+        add(right);
+        step();
+        assertEquals(2, layer.getRegionCount());
+        Actor[] actors = new Actor[4];
+        assertEquals(2, layer.queryAABB(new Bounds(0, 0, 20, 10),
+                WorldHandler.CATEGORY_ALL, actors));
+        assertEquals(1, layer.queryAABB(new Bounds(11, 0, 9, 10),
+                WorldHandler.CATEGORY_ALL, actors));
+        assertSame(right, actors[0]);
+        RaycastHit[] hits = new RaycastHit[4];
+        assertEquals(2, layer.raycastAll(20, 5.5, 0, 5.5,
+                WorldHandler.CATEGORY_ALL, hits));
+        assertSame(right, hits[0].getActor());
+        assertSame(left, hits[1].getActor());
+        assertEquals(10.2, hits[1].getPointX(), 0.01);
+        RaycastHit hit = new RaycastHit();
+        assertTrue(layer.raycast(new Vector(0, 5.5), new Vector(20, 5.5), hit));
+        assertSame(left, hit.getActor());
+        List<Actor> visited = new ArrayList<>();
+        layer.queryAABB(new Bounds(0, 0, 20, 10), WorldHandler.CATEGORY_ALL,
+                actor -> {
+                    visited.add(actor);
+                    return false;
+                });
+        assertEquals(1, visited.size());
+    }
+
+    @Test
+    public void testSnapshotUnsupported()
+    {
+        add(new Rectangle(1, 1).makeStatic().setPosition(3, 5));
+        assertThrows(UnsupportedOperationException.class, layer::snapshot);
+        assertThrows(UnsupportedOperationException.class,
+                () -> layer.restore(ByteBuffer.allocate(16)));
+    }
+}
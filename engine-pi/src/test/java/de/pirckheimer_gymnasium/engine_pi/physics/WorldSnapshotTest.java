@@ -0,0 +1,157 @@
+/*
+ * Engine Pi ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2024 Josef Friedrich and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.pirckheimer_gymnasium.engine_pi.physics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.pirckheimer_gymnasium.engine_pi.Layer;
+import de.pirckheimer_gymnasium.engine_pi.Scene;
+import de.pirckheimer_gymnasium.engine_pi.Vector;
+import de.pirckheimer_gymnasium.engine_pi.actor.Actor;
+import de.pirckheimer_gymnasium.engine_pi.actor.Rectangle;
+
+public class WorldSnapshotTest
+{
+    private Scene scene;
+
+    private Layer layer;
+
+    private Actor ground;
+
+    private Actor box;
+
+    private Actor ball;
+
+    @BeforeEach
+    public void setUp()
+    {
+        scene = new Scene();
+        scene.setGravity(0, -10);
+        layer = scene.getMainLayer();
+        ground = new Rectangle(10, 1).makeStatic().setPosition(0, 0);
+        box = new Rectangle(1, 1).makeDynamic().setPosition(2, 3);
+        ball = new Rectangle(1, 1).makeDynamic().setPosition(5, 6);
+        layer.add(ground, box, ball);
+        nextFrame();
+        ball.setVelocity(new Vector(1, 2));
+    }
+
+    private void nextFrame()
+    {
+        scene.invokeFrameUpdateListeners(0);
+    }
+
+    private void step(int steps) throws InterruptedException
+    {
+        for (int i = 0; i < steps; i++)
+        {
+            scene.step(1 / 60.0, task -> {
+                task.run();
+                return CompletableFuture.completedFuture(null);
+            });
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws InterruptedException
+    {
+        step(3);
+        Vector boxPosition = box.getPosition();
+        Vector boxVelocity = box.getVelocity();
+        Vector ballPosition = ball.getPosition();
+        Vector ballVelocity = ball.getVelocity();
+        ByteBuffer snapshot = layer.snapshot();
+        step(20);
+        assertNotEquals(boxPosition, box.getPosition());
+        assertNotEquals(ballVelocity, ball.getVelocity());
+        layer.restore(snapshot);
+        assertEquals(boxPosition, box.getPosition());
+        assertEquals(boxVelocity, box.getVelocity());
+        assertEquals(ballPosition, ball.getPosition());
+        assertEquals(ballVelocity, ball.getVelocity());
+        assertEquals(0, snapshot.remaining());
+    }
+
+    @Test
+    public void testReplacedBodyIsRejected() throws InterruptedException
+    {
+        ByteBuffer snapshot = layer.snapshot();
+        // Gleiche Anzahl an Körpern, aber ein anderer Körper an der Stelle
+        // des entfernten.
+        layer.remove(box);
+        Actor other = new Rectangle(1, 1).makeDynamic().setPosition(8, 3);
+        layer.add(other);
+        nextFrame();
+        step(5);
+        Vector otherPosition = other.getPosition();
+        Vector ballPosition = ball.getPosition();
+        assertThrows(IllegalStateException.class,
+                () -> layer.restore(snapshot));
+        assertEquals(otherPosition, other.getPosition());
+        assertEquals(ballPosition, ball.getPosition());
+        assertEquals(0, snapshot.position());
+    }
+
+    @Test
+    public void testSceneRejectsBeforeRestoringAnyLayer()
+            throws InterruptedException
+    {
+        Layer second = new Layer();
+        scene.addLayer(second);
+        Actor extra = new Rectangle(1, 1).makeDynamic().setPosition(0, 5);
+        second.add(extra);
+        nextFrame();
+        ByteBuffer snapshot = scene.snapshot();
+        second.remove(extra);
+        second.add(new Rectangle(1, 1).makeDynamic().setPosition(0, 5));
+        nextFrame();
+        step(10);
+        Vector ballPosition = ball.getPosition();
+        assertThrows(IllegalStateException.class,
+                () -> scene.restore(snapshot));
+        assertEquals(ballPosition, ball.getPosition());
+    }
+
+    @Test
+    public void testIncompleteSnapshot()
+    {
+        ByteBuffer snapshot = layer.snapshot();
+        snapshot.limit(snapshot.limit() - 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> layer.restore(snapshot));
+    }
+
+    @Test
+    public void testArcadeLayerIsRejected()
+    {
+        Layer arcade = new Layer();
+        arcade.setPhysicsBackend(PhysicsBackend.ARCADE);
+        assertThrows(IllegalStateException.class, arcade::snapshot);
+        assertThrows(IllegalStateException.class,
+                () -> arcade.restore(ByteBuffer.allocate(64)));
+    }
+}